@@ -57,9 +57,13 @@ public class Auth0Controller {
                 userSyncService.syncUserWithAuth0(email, authData);
                 logger.info("User data synchronized for: {}", email);
 
-                // Log the authentication
-                authenticationLogService.logSuccessfulAuthentication(email, ipAddress, userAgent);
-                logger.info("Successfully logged authentication for: {}", email);
+                // Queue the authentication log; it is persisted in the background.
+                // A dropped log does not fail the login.
+                if (authenticationLogService.recordSuccessfulAuthentication(email, ipAddress, userAgent)) {
+                    logger.info("Successfully logged authentication for: {}", email);
+                } else {
+                    logger.warn("Authentication log for {} was dropped", email);
+                }
 
                 return ResponseEntity.ok().build();
             } catch (Exception e) {
@@ -96,9 +100,12 @@ public class Auth0Controller {
                 email, failureReason, ipAddress);
 
         try {
-            authenticationLogService.logFailedAuthentication(
-                    email, ipAddress, userAgent, failureReason);
-            logger.info("Successfully logged authentication failure for: {}", email);
+            if (authenticationLogService.recordFailedAuthentication(
+                    email, ipAddress, userAgent, failureReason)) {
+                logger.info("Successfully logged authentication failure for: {}", email);
+            } else {
+                logger.warn("Authentication failure log for {} was dropped", email);
+            }
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             logger.error("Error logging authentication failure", e);
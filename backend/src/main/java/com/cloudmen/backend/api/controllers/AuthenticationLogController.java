@@ -1,15 +1,29 @@
 package com.cloudmen.backend.api.controllers;
 
 import com.cloudmen.backend.domain.models.AuthenticationLog;
+import com.cloudmen.backend.repositories.AuthenticationLogSearchCriteria;
+import com.cloudmen.backend.repositories.KeysetPage;
 import com.cloudmen.backend.services.AuthenticationLogService;
+import com.cloudmen.backend.utils.AuthenticationLogExportWriter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/auth-logs")
@@ -17,6 +31,9 @@ public class AuthenticationLogController {
 
     private final AuthenticationLogService authenticationLogService;
 
+    @Value("${web.async.export-timeout-ms:1800000}")
+    private long exportTimeoutMs;
+
     public AuthenticationLogController(AuthenticationLogService authenticationLogService) {
         this.authenticationLogService = authenticationLogService;
     }
@@ -24,14 +41,18 @@ public class AuthenticationLogController {
     /**
      * Get authentication logs with pagination and optional filtering
      * 
-     * @param page       Page number (0-based)
-     * @param size       Page size
-     * @param sort       Sort parameter in format "field,direction" (optional)
-     * @param email      Filter by email (optional)
-     * @param domain     Filter by domain (optional)
-     * @param successful Filter by success status (optional)
-     * @param startDate  Filter by start date (optional)
-     * @param endDate    Filter by end date (optional)
+     * @param page           Page number (0-based)
+     * @param size           Page size
+     * @param sort           Sort parameter in format "field,direction" (optional)
+     * @param email          Filter by email (optional)
+     * @param domain         Filter by domain (optional)
+     * @param successful     Filter by success status (optional)
+     * @param startDate      Filter by start date (optional)
+     * @param endDate        Filter by end date (optional)
+     * @param ipAddress      Filter by IP address (optional)
+     * @param userAgent      Filter by user agent (optional)
+     * @param includeArchive Whether to search archived logs without a start
+     *                       date in the archived range
      * @return Paginated list of authentication logs
      */
     @GetMapping
@@ -43,20 +64,180 @@ public class AuthenticationLogController {
             @RequestParam(required = false) String domain,
             @RequestParam(required = false) Boolean successful,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String ipAddress,
+            @RequestParam(required = false) String userAgent,
+            @RequestParam(defaultValue = "false") boolean includeArchive) {
 
         // Parse sort parameter or use default
         Sort sortOrder = parseSort(sort);
         PageRequest pageRequest = PageRequest.of(page, size, sortOrder);
 
+        AuthenticationLogSearchCriteria criteria = new AuthenticationLogSearchCriteria()
+                .email(email)
+                .domain(domain)
+                .successful(successful)
+                .startDate(startDate)
+                .endDate(endDate)
+                .ipAddress(ipAddress)
+                .userAgent(userAgent)
+                .includeArchive(includeArchive);
+
         // If no filters are provided, return all logs
-        if (email == null && domain == null && successful == null && startDate == null && endDate == null) {
+        if (!criteria.hasFilters() && !includeArchive) {
             return ResponseEntity.ok(authenticationLogService.getLogsPaginated(pageRequest));
         }
 
         // Otherwise, use the filtered search
-        return ResponseEntity.ok(authenticationLogService.getFilteredLogs(
-                email, domain, successful, startDate, endDate, pageRequest));
+        return ResponseEntity.ok(authenticationLogService.getFilteredLogs(criteria, pageRequest));
+    }
+
+    /**
+     * Get authentication logs with keyset (cursor) pagination and optional
+     * filtering. Pages are ordered by timestamp; pass nextCursor or
+     * previousCursor from a response to move forwards or backwards.
+     * 
+     * @param cursor       Cursor from a previous page (optional, first page if
+     *                     omitted)
+     * @param size         Page size
+     * @param order        Sort direction on timestamp (asc or desc)
+     * @param includeTotal Whether to count all matching logs
+     * @param email        Filter by email (optional)
+     * @param domain       Filter by domain (optional)
+     * @param successful   Filter by success status (optional)
+     * @param startDate    Filter by start date (optional)
+     * @param endDate      Filter by end date (optional)
+     * @param ipAddress    Filter by IP address (optional)
+     * @param userAgent    Filter by user agent (optional)
+     * @return One page of authentication logs, or 400 if the cursor is invalid
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<KeysetPage<AuthenticationLog>> getLogsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "desc") String order,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String domain,
+            @RequestParam(required = false) Boolean successful,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String ipAddress,
+            @RequestParam(required = false) String userAgent) {
+
+        if (size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        AuthenticationLogSearchCriteria criteria = new AuthenticationLogSearchCriteria()
+                .email(email)
+                .domain(domain)
+                .successful(successful)
+                .startDate(startDate)
+                .endDate(endDate)
+                .ipAddress(ipAddress)
+                .userAgent(userAgent);
+        Sort.Direction direction = "asc".equalsIgnoreCase(order) ? Sort.Direction.ASC : Sort.Direction.DESC;
+
+        try {
+            return ResponseEntity.ok(authenticationLogService.getLogsByCursor(
+                    criteria, direction, cursor, size, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Export all authentication logs matching the filters as NDJSON or CSV.
+     * The response is streamed from a database cursor, oldest log first, so
+     * exports of any size use constant memory and do not block a request
+     * thread. Only this response gets the long web.async.export-timeout-ms
+     * (0 keeps the default); other async requests keep the default timeout.
+     * 
+     * @param format         Export format (ndjson or csv)
+     * @param gzip           Whether to compress the export
+     * @param email          Filter by email (optional)
+     * @param domain         Filter by domain (optional)
+     * @param successful     Filter by success status (optional)
+     * @param startDate      Filter by start date (optional)
+     * @param endDate        Filter by end date (optional)
+     * @param ipAddress      Filter by IP address (optional)
+     * @param userAgent      Filter by user agent (optional)
+     * @param includeArchive Whether to export archived logs without a start
+     *                       date in the archived range
+     * @param webRequest     The current request
+     * @return The streamed export, or 400 if the format is unknown
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLogs(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String domain,
+            @RequestParam(required = false) Boolean successful,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String ipAddress,
+            @RequestParam(required = false) String userAgent,
+            @RequestParam(defaultValue = "false") boolean includeArchive,
+            NativeWebRequest webRequest) {
+
+        AuthenticationLogExportWriter.Format exportFormat = AuthenticationLogExportWriter.Format.fromName(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        AuthenticationLogSearchCriteria criteria = new AuthenticationLogSearchCriteria()
+                .email(email)
+                .domain(domain)
+                .successful(successful)
+                .startDate(startDate)
+                .endDate(endDate)
+                .ipAddress(ipAddress)
+                .userAgent(userAgent)
+                .includeArchive(includeArchive);
+
+        String filename = "auth-logs." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out);
+                authenticationLogService.exportLogs(criteria, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                authenticationLogService.exportLogs(criteria, exportFormat, out);
+            }
+        };
+        if (exportTimeoutMs > 0) {
+            extendAsyncTimeout(webRequest, exportTimeoutMs);
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(filename)
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    /**
+     * Set the timeout of the streamed response that the current request is
+     * about to start. The timeout is applied just before async processing
+     * starts, so it only affects this request.
+     * 
+     * @param webRequest The current request
+     * @param timeoutMs  Timeout in milliseconds
+     */
+    private static void extendAsyncTimeout(NativeWebRequest webRequest, long timeoutMs) {
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(
+                AuthenticationLogController.class.getName(), new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                        if (request instanceof AsyncWebRequest) {
+                            ((AsyncWebRequest) request).setTimeout(timeoutMs);
+                        }
+                    }
+                });
     }
 
     /**
@@ -85,6 +266,11 @@ public class AuthenticationLogController {
             field = "timestamp";
         }
 
+        // IP addresses are stored in binary form, which sorts numerically
+        if (field.equals("ipAddress")) {
+            field = "ip";
+        }
+
         // Create sort direction
         Sort.Direction sortDirection = "asc".equals(direction) ? Sort.Direction.ASC : Sort.Direction.DESC;
 
@@ -3,13 +3,18 @@ package com.cloudmen.backend.api.controllers;
 import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSubscriptionDTO;
 import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSubscriptionListResponseDTO;
 import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceCreateSubscriptionRequestDTO;
+import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSkuListResponseDTO;
 import com.cloudmen.backend.services.GoogleWorkspaceService;
+import com.cloudmen.backend.services.GoogleWorkspaceSkuCatalog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Controller for Google Workspace API endpoints.
  */
@@ -19,9 +24,12 @@ public class GoogleWorkspaceController {
 
     private static final Logger logger = LoggerFactory.getLogger(GoogleWorkspaceController.class);
     private final GoogleWorkspaceService googleWorkspaceService;
+    private final GoogleWorkspaceSkuCatalog skuCatalog;
 
-    public GoogleWorkspaceController(GoogleWorkspaceService googleWorkspaceService) {
+    public GoogleWorkspaceController(GoogleWorkspaceService googleWorkspaceService,
+            GoogleWorkspaceSkuCatalog skuCatalog) {
         this.googleWorkspaceService = googleWorkspaceService;
+        this.skuCatalog = skuCatalog;
         logger.info("GoogleWorkspaceController initialized");
     }
 
@@ -64,16 +72,20 @@ public class GoogleWorkspaceController {
     }
 
     /**
-     * Get available SKUs.
+     * Get available SKUs. The catalogue changes rarely, so browsers may cache
+     * it for google.workspace.sku-catalog.max-age-seconds.
      *
      * @return List of available SKUs
      */
     @GetMapping("/skus")
-    public Mono<ResponseEntity<Object>> getAvailableSkus() {
+    public Mono<ResponseEntity<GoogleWorkspaceSkuListResponseDTO>> getAvailableSkus() {
         logger.info("Received request to get available SKUs");
 
         return googleWorkspaceService.getAvailableSkus()
-                .map(ResponseEntity::ok)
+                .map(skus -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.maxAge(skuCatalog.getMaxAgeSeconds(), TimeUnit.SECONDS)
+                                .cachePrivate())
+                        .body(skus))
                 .defaultIfEmpty(ResponseEntity.notFound().build())
                 .doOnError(e -> logger.error("Error processing get SKUs request: {}", e.getMessage()));
     }
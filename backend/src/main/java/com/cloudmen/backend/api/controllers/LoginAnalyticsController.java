@@ -0,0 +1,93 @@
+package com.cloudmen.backend.api.controllers;
+
+import com.cloudmen.backend.api.dtos.authlogs.LoginAnalyticsDTO;
+import com.cloudmen.backend.domain.models.LoginRollup;
+import com.cloudmen.backend.services.LoginRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Login analytics served from the pre-aggregated login rollups
+ */
+@RestController
+@RequestMapping("/api/auth-logs/analytics")
+public class LoginAnalyticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAnalyticsController.class);
+
+    private final LoginRollupService loginRollupService;
+
+    public LoginAnalyticsController(LoginRollupService loginRollupService) {
+        this.loginRollupService = loginRollupService;
+    }
+
+    /**
+     * Get successful/failed login counts and distinct users per domain per
+     * time bucket. Only the rollups are read, never the raw logs.
+     *
+     * @param startDate   Start of the range
+     * @param endDate     End of the range
+     * @param granularity Bucket size (hour or day)
+     * @param domain      Filter by domain (optional)
+     * @return Login analytics, or 400 if the parameters are invalid
+     */
+    @GetMapping
+    public ResponseEntity<LoginAnalyticsDTO> getAnalytics(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "hour") String granularity,
+            @RequestParam(required = false) String domain) {
+
+        LoginRollup.Granularity bucketSize = parseGranularity(granularity);
+        if (bucketSize == null || endDate.isBefore(startDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(loginRollupService.getAnalytics(bucketSize, domain, startDate, endDate));
+    }
+
+    /**
+     * Rebuild the rollups of a range of days from the raw authentication logs.
+     * The backfill runs in the background.
+     *
+     * @param from First day to rebuild
+     * @param to   Last day to rebuild (inclusive)
+     * @return Acknowledgement that the backfill was started
+     */
+    @PostMapping("/backfill")
+    public ResponseEntity<Map<String, Object>> backfill(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        loginRollupService.backfill(from, to).thenAccept(summary -> logger.info("Login rollup backfill: {}", summary));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "processing");
+        response.put("message", "Login rollup backfill started");
+        response.put("from", from.toString());
+        response.put("to", to.toString());
+        response.put("timestamp", LocalDateTime.now().toString());
+
+        return ResponseEntity.accepted().body(response);
+    }
+
+    private LoginRollup.Granularity parseGranularity(String granularity) {
+        try {
+            return LoginRollup.Granularity.valueOf(granularity.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -12,14 +12,14 @@ import com.cloudmen.backend.services.GoogleWorkspaceService;
 import com.cloudmen.backend.services.PurchaseEmailService;
 import com.cloudmen.backend.services.PurchaseRequestService;
 import com.cloudmen.backend.services.SignatureSatoriService;
+import com.cloudmen.backend.services.TeamleaderCompanyService;
 import jakarta.mail.MessagingException;
 import jakarta.validation.Valid;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -28,7 +28,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
 
 import java.util.Date;
 import java.util.List;
@@ -50,19 +50,20 @@ public class PurchaseController {
     private final PurchaseEmailService emailService;
     private final GoogleWorkspaceService googleWorkspaceService;
     private final PurchaseRequestService purchaseRequestService;
-    private final WebClient webClient;
-
-    @Value("${app.base-url:http://localhost:4200}")
-    private String baseUrl;
+    private final TeamleaderCompanyService companyService;
+    private final Scheduler blockingScheduler;
 
     public PurchaseController(
             PurchaseEmailService emailService,
             GoogleWorkspaceService googleWorkspaceService,
-            PurchaseRequestService purchaseRequestService) {
+            PurchaseRequestService purchaseRequestService,
+            TeamleaderCompanyService companyService,
+            @Qualifier("blockingScheduler") Scheduler blockingScheduler) {
         this.emailService = emailService;
         this.googleWorkspaceService = googleWorkspaceService;
         this.purchaseRequestService = purchaseRequestService;
-        this.webClient = WebClient.builder().build();
+        this.companyService = companyService;
+        this.blockingScheduler = blockingScheduler;
     }
 
     /**
@@ -107,7 +108,7 @@ public class PurchaseController {
             // Send confirmation email to the user
             try {
                 emailService.sendConfirmationEmail(request.getUserEmail());
-                log.info("Confirmation email sent to: {}", request.getUserEmail());
+                log.info("Confirmation email queued for: {}", request.getUserEmail());
             } catch (MessagingException e) {
                 log.error("Failed to send confirmation email to {}: {}", request.getUserEmail(), e.getMessage());
                 // Continue processing even if email fails
@@ -140,6 +141,10 @@ public class PurchaseController {
 
     /**
      * Endpoint to request Google Workspace licenses.
+     * The license check runs on the thread that delivers the customer's
+     * subscriptions, which may be a WebClient event loop thread; saving the
+     * request and queueing the notification email block, so they run on the
+     * blocking scheduler.
      * 
      * @param request    The license request details
      * @param userEmail  The email of the user making the request
@@ -180,39 +185,8 @@ public class PurchaseController {
                         return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse));
                     }
 
-                    // Create and save the purchase request
-                    PurchaseRequest purchaseRequest = purchaseRequestService.createGoogleWorkspaceLicenseRequest(
-                            userEmail, request);
-
-                    // Create response DTO
-                    GoogleWorkspaceLicenseResponseDTO response = new GoogleWorkspaceLicenseResponseDTO();
-                    response.setCount(request.getCount());
-                    response.setLicenseType(request.getLicenseType());
-                    response.setDomain(request.getDomain());
-                    response.setCost(request.getCost());
-                    response.setRequestId(purchaseRequest.getId());
-                    response.setStatus("PENDING");
-                    response.setMessage("Google Workspace license request has been submitted and is pending approval");
-
-                    try {
-                        // Send email notification
-                        emailService.sendGoogleWorkspaceLicenseRequest(
-                                userEmail,
-                                purchaseRequest.getId(),
-                                request.getCount(),
-                                request.getLicenseType(),
-                                request.getDomain(),
-                                userEmail,
-                                customerId,
-                                request.getCost(),
-                                getCompanyNameFromDomain(userEmail));
-
-                        return Mono.just(ResponseEntity.status(HttpStatus.CREATED).body(response));
-                    } catch (MessagingException e) {
-                        log.error("Failed to send Google Workspace license request email", e);
-                        response.setMessage("Request created but failed to send notification email");
-                        return Mono.just(ResponseEntity.status(HttpStatus.CREATED).body(response));
-                    }
+                    return Mono.fromCallable(() -> submitGoogleWorkspaceLicenseRequest(request, userEmail, customerId))
+                            .subscribeOn(blockingScheduler);
                 })
                 .onErrorResume(e -> {
                     log.error("Error checking existing licenses for customer {}: {}", customerId, e.getMessage());
@@ -223,6 +197,50 @@ public class PurchaseController {
                 });
     }
 
+    /**
+     * Save a Google Workspace license request and queue the notification
+     * email. Blocks on MongoDB, so never call it on an event loop thread.
+     * 
+     * @param request    The license request details
+     * @param userEmail  The email of the user making the request
+     * @param customerId The customer ID in Google Workspace
+     * @return ResponseEntity with the created request
+     */
+    private ResponseEntity<GoogleWorkspaceLicenseResponseDTO> submitGoogleWorkspaceLicenseRequest(
+            GoogleWorkspaceLicenseRequestDTO request, String userEmail, String customerId) {
+        // Create and save the purchase request
+        PurchaseRequest purchaseRequest = purchaseRequestService.createGoogleWorkspaceLicenseRequest(
+                userEmail, request);
+
+        // Create response DTO
+        GoogleWorkspaceLicenseResponseDTO response = new GoogleWorkspaceLicenseResponseDTO();
+        response.setCount(request.getCount());
+        response.setLicenseType(request.getLicenseType());
+        response.setDomain(request.getDomain());
+        response.setCost(request.getCost());
+        response.setRequestId(purchaseRequest.getId());
+        response.setStatus("PENDING");
+        response.setMessage("Google Workspace license request has been submitted and is pending approval");
+
+        try {
+            // Send email notification
+            emailService.sendGoogleWorkspaceLicenseRequest(
+                    userEmail,
+                    purchaseRequest.getId(),
+                    request.getCount(),
+                    request.getLicenseType(),
+                    request.getDomain(),
+                    userEmail,
+                    customerId,
+                    request.getCost(),
+                    getCompanyNameFromDomain(userEmail));
+        } catch (MessagingException e) {
+            log.error("Failed to send Google Workspace license request email", e);
+            response.setMessage("Request created but failed to queue notification email");
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
     /**
      * Endpoint to request Signature Satori credits.
      * 
@@ -290,7 +308,7 @@ public class PurchaseController {
                 return ResponseEntity.status(HttpStatus.CREATED).body(response);
             } catch (MessagingException e) {
                 log.error("Failed to send Signature Satori credits request email", e);
-                response.put("message", "Request created but failed to send notification email");
+                response.put("message", "Request created but failed to queue notification email");
                 return ResponseEntity.status(HttpStatus.CREATED).body(response);
             }
         } catch (Exception e) {
@@ -374,7 +392,8 @@ public class PurchaseController {
     }
 
     /**
-     * Get company name from domain using Teamleader API.
+     * Get the name of the company owning an email address or domain, from the
+     * cached domain lookup of TeamleaderCompanyService.
      * 
      * @param emailOrDomain Email or domain to get company name for
      * @return Company name or fallback value
@@ -386,27 +405,9 @@ public class PurchaseController {
         }
 
         try {
-            // Try to get company from Teamleader by domain
-            String apiUrl = baseUrl + "/api/teamleader/companies/domain/" + domain;
-            log.info("Fetching company for domain: {} from: {}", domain, apiUrl);
-
-            // Make a synchronous request to the teamleader company endpoint
-            String response = webClient.get()
-                    .uri(apiUrl)
-                    .accept(MediaType.APPLICATION_JSON)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-
-            if (response != null && response.contains("\"name\"")) {
-                // Extract name from JSON response - a simple approach
-                String nameField = "\"name\"";
-                int nameStart = response.indexOf(nameField) + nameField.length();
-                int valueStart = response.indexOf("\"", nameStart) + 1;
-                int valueEnd = response.indexOf("\"", valueStart);
-                if (valueStart > 0 && valueEnd > 0) {
-                    return response.substring(valueStart, valueEnd);
-                }
+            Optional<String> companyName = companyService.findCompanyNameByDomain(domain);
+            if (companyName.isPresent()) {
+                return companyName.get();
             }
         } catch (Exception e) {
             log.warn("Failed to get company name for domain {}: {}", domain, e.getMessage());
@@ -1,7 +1,10 @@
 package com.cloudmen.backend.api.controllers;
 
 import com.cloudmen.backend.domain.models.PurchaseRequest;
+import com.cloudmen.backend.repositories.KeysetPage;
+import com.cloudmen.backend.repositories.SparseFieldset;
 import com.cloudmen.backend.services.PurchaseRequestService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -12,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,20 +29,28 @@ import java.util.Optional;
 public class PurchaseRequestController {
     private static final Logger log = LoggerFactory.getLogger(PurchaseRequestController.class);
 
+    // Purchase request fields a listing can return
+    private static final Map<String, List<String>> PURCHASE_REQUEST_FIELDS = SparseFieldset.documentFields(
+            "userEmail", "requestDate", "processedDate", "status", "type", "skuId", "licenseType", "quantity",
+            "domain", "cost");
+
     private final PurchaseRequestService purchaseRequestService;
+    private final ObjectMapper objectMapper;
 
-    public PurchaseRequestController(PurchaseRequestService purchaseRequestService) {
+    public PurchaseRequestController(PurchaseRequestService purchaseRequestService, ObjectMapper objectMapper) {
         this.purchaseRequestService = purchaseRequestService;
+        this.objectMapper = objectMapper;
         log.info("PurchaseRequestController initialized");
     }
 
     /**
      * Get all purchase requests with pagination.
      *
-     * @param page  Page number (zero-based)
-     * @param size  Page size
-     * @param sort  Field to sort by
-     * @param order Sort direction (asc or desc)
+     * @param page   Page number (zero-based)
+     * @param size   Page size
+     * @param sort   Field to sort by
+     * @param order  Sort direction (asc or desc)
+     * @param fields Comma-separated fields to return (optional, all if omitted)
      * @return ResponseEntity with paginated purchase requests
      */
     @GetMapping
@@ -46,47 +58,112 @@ public class PurchaseRequestController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "requestDate") String sort,
-            @RequestParam(defaultValue = "desc") String order) {
+            @RequestParam(defaultValue = "desc") String order,
+            @RequestParam(required = false) String fields) {
 
         log.info("Getting all purchase requests, page: {}, size: {}, sort: {}, order: {}", page, size, sort, order);
 
         try {
             Sort.Direction direction = "asc".equalsIgnoreCase(order) ? Sort.Direction.ASC : Sort.Direction.DESC;
             Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sort));
+            SparseFieldset fieldset = SparseFieldset.parse(fields, PURCHASE_REQUEST_FIELDS);
 
-            Page<PurchaseRequest> purchaseRequests = purchaseRequestService.getAllPurchaseRequests(pageable);
+            Page<PurchaseRequest> purchaseRequests = purchaseRequestService.getPurchaseRequests(null, null,
+                    pageable, documentFields(fieldset));
 
-            Map<String, Object> response = createPaginatedResponse(purchaseRequests);
+            Map<String, Object> response = createPaginatedResponse(purchaseRequests, fieldset);
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid purchase request listing parameters: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Error getting purchase requests", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * Get purchase requests with keyset (cursor) pagination, ordered by request
+     * date. Pass nextCursor or previousCursor from a response to move forwards
+     * or backwards.
+     *
+     * @param cursor       Cursor from a previous page (optional, first page if
+     *                     omitted)
+     * @param size         Page size
+     * @param order        Sort direction on request date (asc or desc)
+     * @param includeTotal Whether to count all matching requests
+     * @param email        Only include requests by this user (optional)
+     * @param domain       Only include requests for this domain (optional)
+     * @param fields       Comma-separated fields to return (optional, all if
+     *                     omitted)
+     * @return ResponseEntity with one page of purchase requests, or 400 if the
+     *         cursor or fields are invalid
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<KeysetPage<?>> getPurchaseRequestsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "desc") String order,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String domain,
+            @RequestParam(required = false) String fields) {
+
+        log.info("Getting purchase requests by cursor, size: {}, order: {}, email: {}, domain: {}",
+                size, order, email, domain);
+
+        if (size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            Sort.Direction direction = "asc".equalsIgnoreCase(order) ? Sort.Direction.ASC : Sort.Direction.DESC;
+            SparseFieldset fieldset = SparseFieldset.parse(fields, PURCHASE_REQUEST_FIELDS);
+            KeysetPage<PurchaseRequest> requests = purchaseRequestService.getPurchaseRequestsByCursor(
+                    email, domain, direction, cursor, size, includeTotal, documentFields(fieldset));
+            if (!fieldset.isSparse()) {
+                return ResponseEntity.ok(requests);
+            }
+            return ResponseEntity.ok(new KeysetPage<>(fieldset.select(requests.getItems(), objectMapper),
+                    requests.getNextCursor(), requests.getPreviousCursor(), requests.getTotalItems()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid purchase request cursor or fields: {}, {}", cursor, fields);
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error getting purchase requests by cursor", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Get purchase requests for a specific user.
      *
-     * @param email User's email
-     * @param page  Page number (zero-based)
-     * @param size  Page size
+     * @param email  User's email
+     * @param page   Page number (zero-based)
+     * @param size   Page size
+     * @param fields Comma-separated fields to return (optional, all if omitted)
      * @return ResponseEntity with paginated purchase requests for the user
      */
     @GetMapping("/user/{email}")
     public ResponseEntity<Map<String, Object>> getPurchaseRequestsByUser(
             @PathVariable String email,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String fields) {
 
         log.info("Getting purchase requests for user: {}, page: {}, size: {}", email, page, size);
 
         try {
             Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "requestDate"));
-            Page<PurchaseRequest> purchaseRequests = purchaseRequestService.getPurchaseRequestsByUserEmail(email,
-                    pageable);
+            SparseFieldset fieldset = SparseFieldset.parse(fields, PURCHASE_REQUEST_FIELDS);
+            Page<PurchaseRequest> purchaseRequests = purchaseRequestService.getPurchaseRequests(email, null,
+                    pageable, documentFields(fieldset));
 
-            Map<String, Object> response = createPaginatedResponse(purchaseRequests);
+            Map<String, Object> response = createPaginatedResponse(purchaseRequests, fieldset);
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid purchase request listing parameters: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Error getting purchase requests for user: " + email, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -101,23 +178,29 @@ public class PurchaseRequestController {
      * @param domain Domain to filter by
      * @param page   Page number (zero-based)
      * @param size   Page size
+     * @param fields Comma-separated fields to return (optional, all if omitted)
      * @return ResponseEntity with paginated purchase requests for the domain
      */
     @GetMapping("/domain/{domain}")
     public ResponseEntity<Map<String, Object>> getPurchaseRequestsByDomain(
             @PathVariable String domain,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String fields) {
 
         log.info("Getting purchase requests for domain: {}, page: {}, size: {}", domain, page, size);
 
         try {
             Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "requestDate"));
-            Page<PurchaseRequest> purchaseRequests = purchaseRequestService.getPurchaseRequestsByDomain(domain,
-                    pageable);
+            SparseFieldset fieldset = SparseFieldset.parse(fields, PURCHASE_REQUEST_FIELDS);
+            Page<PurchaseRequest> purchaseRequests = purchaseRequestService.getPurchaseRequests(null, domain,
+                    pageable, documentFields(fieldset));
 
-            Map<String, Object> response = createPaginatedResponse(purchaseRequests);
+            Map<String, Object> response = createPaginatedResponse(purchaseRequests, fieldset);
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid purchase request listing parameters: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Error getting purchase requests for domain: " + domain, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -191,12 +274,20 @@ public class PurchaseRequestController {
                 "REJECTED".equals(status);
     }
 
+    /**
+     * Document fields to load for a fieldset; whole documents unless the
+     * client asked for specific fields.
+     */
+    private static Collection<String> documentFields(SparseFieldset fieldset) {
+        return fieldset.isSparse() ? fieldset.getDocumentFields() : null;
+    }
+
     /**
      * Helper method to create a paginated response.
      */
-    private Map<String, Object> createPaginatedResponse(Page<PurchaseRequest> page) {
+    private Map<String, Object> createPaginatedResponse(Page<PurchaseRequest> page, SparseFieldset fieldset) {
         Map<String, Object> response = new HashMap<>();
-        response.put("items", page.getContent());
+        response.put("items", fieldset.select(page.getContent(), objectMapper));
         response.put("currentPage", page.getNumber());
         response.put("totalItems", page.getTotalElements());
         response.put("totalPages", page.getTotalPages());
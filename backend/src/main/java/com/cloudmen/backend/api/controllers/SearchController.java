@@ -0,0 +1,56 @@
+package com.cloudmen.backend.api.controllers;
+
+import com.cloudmen.backend.services.SearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controller for typeahead search across companies and users
+ */
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchController.class);
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Find companies and users matching a query, for an as-you-type search
+     * box. Companies match on name, VAT number and contact email; users on
+     * name and email address.
+     * 
+     * @param q     The query; every word must match, in any order
+     * @param limit The maximum number of companies and of users
+     * @return The matching companies and users, best match first, or 400 if
+     *         the limit is invalid
+     */
+    @GetMapping("/typeahead")
+    public ResponseEntity<Map<String, Object>> typeahead(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        logger.debug("Typeahead search for: {}", q);
+
+        if (limit < 1) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", true);
+            error.put("message", "Limit must be at least 1");
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("query", q);
+        response.put("companies", searchService.searchCompanies(q, limit));
+        response.put("users", searchService.searchUsers(q, limit));
+        return ResponseEntity.ok(response);
+    }
+}
@@ -8,6 +8,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Controller for SignatureSatori API endpoints
  * Note: Credit purchases now go through the purchase request flow in
@@ -42,4 +46,27 @@ public class SignatureSatoriController {
                 .doOnError(e -> logger.error("Error processing get credits request: {}", e.getMessage()));
     }
 
+    /**
+     * Get the credits information of several customers in one request.
+     * Customers that cannot be loaded are reported with an error instead of
+     * failing the request.
+     *
+     * @param customerIds The customer IDs
+     * @return One entry per customer with either its credits or an error
+     */
+    @PostMapping("/customers/credits")
+    public Mono<ResponseEntity<Object>> getCustomerCreditsBatch(@RequestBody List<String> customerIds) {
+        logger.info("Received request to get credits for {} customers", customerIds.size());
+
+        try {
+            return signatureSatoriService.getCustomerCreditsBatch(customerIds)
+                    .map(ResponseEntity::<Object>ok);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", true);
+            response.put("message", e.getMessage());
+            return Mono.just(ResponseEntity.badRequest().body(response));
+        }
+    }
+
 }
\ No newline at end of file
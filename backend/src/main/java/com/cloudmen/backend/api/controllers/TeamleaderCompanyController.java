@@ -4,6 +4,9 @@ import com.cloudmen.backend.api.dtos.companies.CompanyDetailDTO;
 import com.cloudmen.backend.api.dtos.companies.CompanyListDTO;
 import com.cloudmen.backend.domain.enums.CompanyStatusType;
 import com.cloudmen.backend.domain.models.TeamleaderCompany;
+import com.cloudmen.backend.repositories.KeysetPage;
+import com.cloudmen.backend.repositories.SparseFieldset;
+import com.cloudmen.backend.services.SearchService;
 import com.cloudmen.backend.services.TeamleaderCompanyService;
 import com.cloudmen.backend.services.TeamleaderOAuthService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -11,34 +14,56 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
- * Controller for exposing Teamleader company data
+ * Controller for exposing Teamleader company data.
+ * Reads of the local company data carry a strong ETag derived from the
+ * company data version, and answer a matching If-None-Match with 304 without
+ * reading any companies.
  */
 @RestController
 @RequestMapping({ "/api/teamleader/companies" })
 public class TeamleaderCompanyController {
 
     private static final Logger logger = LoggerFactory.getLogger(TeamleaderCompanyController.class);
+
+    // Sortable fields of the company list, mapped to index-backed sort orders
+    private static final Map<String, String[]> SORTABLE_FIELDS = new LinkedHashMap<>();
+
+    static {
+        SORTABLE_FIELDS.put("name", new String[] { "name", "id" });
+        SORTABLE_FIELDS.put("status", new String[] { "status", "name", "id" });
+    }
+
     private final TeamleaderCompanyService companyService;
     private final TeamleaderOAuthService oAuthService;
     private final ObjectMapper objectMapper;
+    private final SearchService searchService;
 
     public TeamleaderCompanyController(
             TeamleaderCompanyService companyService,
             TeamleaderOAuthService oAuthService,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            SearchService searchService) {
         this.companyService = companyService;
         this.oAuthService = oAuthService;
         this.objectMapper = objectMapper;
+        this.searchService = searchService;
 
         // Log the base path that this controller is mapped to
         logger.info("TeamleaderCompanyController initialized with base path: /api/teamleader/companies");
@@ -106,45 +131,138 @@ public class TeamleaderCompanyController {
     }
 
     /**
-     * Get a list of companies from the local database with simplified DTOs
+     * Get companies from the local database with simplified DTOs.
+     * When page or size is given, one page is read with a sorted, limited query
+     * on the name/status indexes rather than loading every company. Without
+     * either, every company is returned as a single page, as existing callers
+     * expect.
      * 
-     * @param page      Page number (0-based)
-     * @param size      Number of items per page
-     * @param sortBy    Field to sort by
+     * @param page      Page number (0-based, optional)
+     * @param size      Number of items per page (optional, 20 when only page
+     *                  is given)
+     * @param sortBy    Field to sort by (name or status)
      * @param direction Sort direction (asc or desc)
-     * @return List of company DTOs
+     * @param status    Only include companies with this status (optional)
+     * @param fields    Comma-separated DTO fields to return (optional, all if
+     *                  omitted)
+     * @param ifNoneMatch ETags of a previous response (optional)
+     * @return One page of company DTOs with paging information
      */
     @GetMapping
     public ResponseEntity<Map<String, Object>> getCompanies(
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String direction) {
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        logger.info("Fetching companies from local database, page: {}, size: {}", page, size);
+        logger.info("Fetching companies from local database, page: {}, size: {}, sortBy: {}, direction: {}",
+                page, size, sortBy, direction);
 
+        if ((page != null && page < 0) || (size != null && size < 1)) {
+            return ResponseEntity.badRequest().body(createErrorMap("Page must be 0 or more and size at least 1"));
+        }
+        if (!SORTABLE_FIELDS.containsKey(sortBy)) {
+            return ResponseEntity.badRequest().body(createErrorMap(
+                    "Invalid sortBy value. Allowed values: " + String.join(", ", SORTABLE_FIELDS.keySet())));
+        }
+        CompanyStatusType statusType = null;
+        if (status != null && !status.isBlank()) {
+            statusType = parseStatus(status);
+            if (statusType == null) {
+                return ResponseEntity.badRequest().body(createInvalidStatusMap());
+            }
+        }
+        SparseFieldset fieldset;
         try {
+            fieldset = SparseFieldset.parse(fields, CompanyListDTO.SOURCE_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorMap(e.getMessage()));
+        }
 
-            List<TeamleaderCompany> companies = companyService.getAllCompanies();
+        String etag = currentETag();
+        if (isNotModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
 
-            // Convert entities to DTOs
-            List<CompanyListDTO> companyDtos = companies.stream()
-                    .map(CompanyListDTO::fromEntity)
-                    .collect(Collectors.toList());
+        try {
+            Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC
+                    : Sort.Direction.ASC;
+            Sort sort = Sort.by(sortDirection, SORTABLE_FIELDS.get(sortBy));
+            Pageable pageable = page == null && size == null ? Pageable.unpaged(sort)
+                    : PageRequest.of(page != null ? page : 0, size != null ? size : 20, sort);
+            Page<TeamleaderCompany> companies = companyService.getCompaniesPage(statusType, pageable,
+                    fieldset.getDocumentFields());
 
             Map<String, Object> response = new HashMap<>();
-            response.put("companies", companyDtos);
-            response.put("currentPage", page);
-            response.put("totalItems", companies.size());
-            response.put("totalPages", (int) Math.ceil((double) companies.size() / size));
+            response.put("companies",
+                    fieldset.select(CompanyListDTO.fromEntities(companies.getContent()), objectMapper));
+            response.put("currentPage", companies.getNumber());
+            response.put("totalItems", companies.getTotalElements());
+            response.put("totalPages", companies.getTotalPages());
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(etag).body(response);
         } catch (Exception e) {
             logger.error("Error fetching companies from database", e);
-            Map<String, Object> response = new HashMap<>();
-            response.put("error", true);
-            response.put("message", "Error fetching companies: " + e.getMessage());
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(createErrorMap("Error fetching companies: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Get companies from the local database with keyset (cursor) pagination,
+     * ordered by name. Unlike page numbers, the cost of a page does not grow
+     * with its depth. Pass nextCursor or previousCursor from a response to
+     * move forwards or backwards.
+     * 
+     * @param cursor       Cursor from a previous page (optional, first page if
+     *                     omitted)
+     * @param size         Page size
+     * @param direction    Sort direction on name (asc or desc)
+     * @param includeTotal Whether to count all matching companies
+     * @param status       Only include companies with this status (optional)
+     * @param fields       Comma-separated DTO fields to return (optional, all
+     *                     if omitted)
+     * @param ifNoneMatch ETags of a previous response (optional)
+     * @return One page of company DTOs, or 400 if a parameter is invalid
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<KeysetPage<?>> getCompaniesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        logger.info("Fetching companies by cursor, size: {}, direction: {}, status: {}", size, direction, status);
+
+        CompanyStatusType statusType = status != null && !status.isBlank() ? parseStatus(status) : null;
+        if (size < 1 || (statusType == null && status != null && !status.isBlank())) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            SparseFieldset fieldset = SparseFieldset.parse(fields, CompanyListDTO.SOURCE_FIELDS);
+            String etag = currentETag();
+            if (isNotModified(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC
+                    : Sort.Direction.ASC;
+            KeysetPage<TeamleaderCompany> companies = companyService.getCompaniesByCursor(
+                    statusType, sortDirection, cursor, size, includeTotal, fieldset.getDocumentFields());
+            return ResponseEntity.ok().eTag(etag).body(new KeysetPage<>(
+                    fieldset.select(CompanyListDTO.fromEntities(companies.getItems()), objectMapper),
+                    companies.getNextCursor(), companies.getPreviousCursor(), companies.getTotalItems()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid company cursor or fields: {}, {}", cursor, fields);
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error fetching companies by cursor", e);
+            return ResponseEntity.internalServerError().build();
         }
     }
 
@@ -152,18 +270,25 @@ public class TeamleaderCompanyController {
      * Get details for a specific company from the local database
      * 
      * @param id The Teamleader company ID
+     * @param ifNoneMatch ETags of a previous response (optional)
      * @return Company details
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getCompanyDetails(@PathVariable("id") String id) {
+    public ResponseEntity<Object> getCompanyDetails(@PathVariable("id") String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.info("Fetching company details from local database for ID: {}", id);
 
+        String etag = currentETag();
+        if (isNotModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
         TeamleaderCompany company = companyService.getCompanyByTeamleaderId(id);
 
         if (company != null) {
             // Convert entity to detailed DTO
             CompanyDetailDTO companyDetailDTO = CompanyDetailDTO.fromEntity(company);
-            return ResponseEntity.ok(companyDetailDTO);
+            return ResponseEntity.ok().eTag(etag).body(companyDetailDTO);
         } else {
             Map<String, Object> response = new HashMap<>();
             response.put("error", true);
@@ -173,24 +298,27 @@ public class TeamleaderCompanyController {
     }
 
     /**
-     * Search for companies by name
+     * Search for companies by name, VAT number or contact email, best match
+     * first
      * 
-     * @param query The search query
+     * @param query The search query; every word must match
+     * @param limit The maximum number of results
+     * @param ifNoneMatch ETags of a previous response (optional)
      * @return List of matching companies
      */
     @GetMapping("/search")
-    public ResponseEntity<Object> searchCompanies(@RequestParam("query") String query) {
-        logger.info("Searching companies with query: {}", query);
+    public ResponseEntity<Object> searchCompanies(@RequestParam("query") String query,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        logger.debug("Searching companies with query: {}", query);
+
+        String etag = currentETag();
+        if (isNotModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
 
         try {
-            List<TeamleaderCompany> companies = companyService.searchCompaniesByName(query);
-
-            // Convert entities to DTOs
-            List<CompanyListDTO> companyDtos = companies.stream()
-                    .map(CompanyListDTO::fromEntity)
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(companyDtos);
+            return ResponseEntity.ok().eTag(etag).body(searchService.searchCompanies(query, limit));
         } catch (Exception e) {
             logger.error("Error searching companies", e);
             Map<String, Object> response = new HashMap<>();
@@ -284,40 +412,49 @@ public class TeamleaderCompanyController {
     }
 
     /**
-     * Get companies by status
+     * Get one page of companies with a status, ordered by name. The status
+     * filter and the order are served by the status index.
      * 
      * @param status The status to filter by
-     * @return List of companies with the specified status
+     * @param page   Page number (zero-based)
+     * @param size   Page size
+     * @param ifNoneMatch ETags of a previous response (optional)
+     * @return One page of companies with the specified status
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<Object> getCompaniesByStatus(@PathVariable("status") String status) {
-        logger.info("Retrieving companies with status: {}", status);
+    public ResponseEntity<Object> getCompaniesByStatus(@PathVariable("status") String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        logger.info("Retrieving companies with status: {}, page: {}, size: {}", status, page, size);
 
-        CompanyStatusType statusType;
-        try {
-            statusType = CompanyStatusType.valueOf(status.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            logger.warn("Invalid status value: {}", status);
-            Map<String, Object> response = new HashMap<>();
-            response.put("error", true);
-            response.put("message", "Invalid status value. Allowed values: "
-                    + String.join(", ",
-                            java.util.Arrays.stream(CompanyStatusType.values())
-                                    .map(Enum::name)
-                                    .collect(Collectors.toList())));
-            return ResponseEntity.badRequest().body(response);
+        CompanyStatusType statusType = parseStatus(status);
+        if (statusType == null) {
+            return ResponseEntity.badRequest().body(createInvalidStatusMap());
+        }
+        if (page < 0 || size < 1) {
+            return ResponseEntity.badRequest().body(createErrorMap("Page must be 0 or more and size at least 1"));
+        }
+
+        String etag = currentETag();
+        if (isNotModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
         }
 
         try {
-            List<TeamleaderCompany> filteredCompanies = companyService.getCompaniesByStatus(statusType);
-            List<CompanyListDTO> companyDtos = CompanyListDTO.fromEntities(filteredCompanies);
+            Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, SORTABLE_FIELDS.get("name")));
+            Page<TeamleaderCompany> companies = companyService.getCompaniesPage(statusType, pageable,
+                    SparseFieldset.parse(null, CompanyListDTO.SOURCE_FIELDS).getDocumentFields());
 
             Map<String, Object> response = new HashMap<>();
-            response.put("companies", companyDtos);
-            response.put("count", companyDtos.size());
+            response.put("companies", CompanyListDTO.fromEntities(companies.getContent()));
+            response.put("count", companies.getTotalElements());
             response.put("status", statusType.name());
+            response.put("currentPage", companies.getNumber());
+            response.put("totalItems", companies.getTotalElements());
+            response.put("totalPages", companies.getTotalPages());
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(etag).body(response);
         } catch (Exception e) {
             logger.error("Error retrieving companies by status", e);
             Map<String, Object> response = new HashMap<>();
@@ -327,21 +464,60 @@ public class TeamleaderCompanyController {
         }
     }
 
+    /**
+     * Count companies per status, for status dashboards
+     * 
+     * @param ifNoneMatch ETags of a previous response (optional)
+     * @return The number of companies per status and in total
+     */
+    @GetMapping("/status-counts")
+    public ResponseEntity<Object> getCompanyCountsByStatus(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        logger.info("Counting companies per status");
+
+        String etag = currentETag();
+        if (isNotModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        try {
+            Map<CompanyStatusType, Long> counts = companyService.getCompanyCountsByStatus();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("counts", counts);
+            response.put("total", counts.values().stream().mapToLong(Long::longValue).sum());
+            return ResponseEntity.ok().eTag(etag).body(response);
+        } catch (Exception e) {
+            logger.error("Error counting companies per status", e);
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", true);
+            response.put("message", "Error counting companies: " + e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
     /**
      * Find a company by domain
      * 
      * @param domain The domain to search for
+     * @param ifNoneMatch ETags of a previous response (optional)
      * @return The company with the specified domain, if found
      */
     @GetMapping("/domain/{domain}")
-    public ResponseEntity<Object> getCompanyByDomain(@PathVariable("domain") String domain) {
+    public ResponseEntity<Object> getCompanyByDomain(@PathVariable("domain") String domain,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.info("Finding company by domain: {}", domain);
 
+        String etag = currentETag();
+        if (isNotModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
         try {
             Optional<TeamleaderCompany> companyWithDomain = companyService.findCompanyByDomain(domain);
 
             if (companyWithDomain.isPresent()) {
-                return ResponseEntity.ok(CompanyDetailDTO.fromEntity(companyWithDomain.get()));
+                return ResponseEntity.ok().eTag(etag).body(CompanyDetailDTO.fromEntity(companyWithDomain.get()));
             } else {
                 Map<String, Object> response = new HashMap<>();
                 response.put("error", true);
@@ -357,6 +533,62 @@ public class TeamleaderCompanyController {
         }
     }
 
+    /**
+     * Get the strong ETag of the current company data. It must be read before
+     * the data, so that a write in between changes the tag of the next request
+     * instead of labelling the new data with the old tag.
+     * 
+     * @return The quoted ETag
+     */
+    private String currentETag() {
+        return "\"" + companyService.getDataVersion() + "\"";
+    }
+
+    /**
+     * Check an If-None-Match header against an ETag (weak comparison, as for
+     * any If-None-Match)
+     * 
+     * @param ifNoneMatch The If-None-Match header, or null
+     * @param etag        The quoted ETag of the current data
+     * @return true if the client already has the current data
+     */
+    private static boolean isNotModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static CompanyStatusType parseStatus(String status) {
+        try {
+            return CompanyStatusType.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid status value: {}", status);
+            return null;
+        }
+    }
+
+    private static Map<String, Object> createInvalidStatusMap() {
+        return createErrorMap("Invalid status value. Allowed values: "
+                + String.join(", ",
+                        java.util.Arrays.stream(CompanyStatusType.values())
+                                .map(Enum::name)
+                                .collect(Collectors.toList())));
+    }
+
+    private static Map<String, Object> createErrorMap(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", true);
+        response.put("message", message);
+        return response;
+    }
+
     /**
      * Create a response indicating that authorization is required
      * 
@@ -1,14 +1,19 @@
 package com.cloudmen.backend.api.controllers;
 
+import com.cloudmen.backend.api.dtos.users.BulkUserActionRequestDTO;
+import com.cloudmen.backend.api.dtos.users.BulkUserActionResponseDTO;
 import com.cloudmen.backend.api.dtos.users.UserDTO;
 import com.cloudmen.backend.api.dtos.users.UserResponseDTO;
 import com.cloudmen.backend.domain.enums.RoleType;
 import com.cloudmen.backend.domain.enums.StatusType;
 import com.cloudmen.backend.domain.models.User;
+import com.cloudmen.backend.repositories.SparseFieldset;
+import com.cloudmen.backend.repositories.UserSearchCriteria;
 import com.cloudmen.backend.services.UserEmailService;
 import com.cloudmen.backend.services.UserService;
 import com.cloudmen.backend.services.UserSyncService;
 import com.cloudmen.backend.services.AuthenticationLogService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -34,6 +39,16 @@ public class UserController {
     private final UserSyncService userSyncService;
     private final UserEmailService userEmailService;
     private final AuthenticationLogService authenticationLogService;
+    private final ObjectMapper objectMapper;
+
+    // User fields a listing can return
+    private static final Map<String, List<String>> USER_FIELDS = SparseFieldset.documentFields("email", "auth0Id",
+            "name", "firstName", "lastName", "picture", "roles", "status", "primaryDomain", "dateTimeAdded",
+            "dateTimeChanged", "customerGoogleId");
+
+    // Fields used by the with-last-login listing
+    private static final List<String> LAST_LOGIN_LIST_FIELDS = List.of("email", "name", "firstName", "lastName",
+            "picture", "status", "roles", "primaryDomain", "dateTimeAdded", "dateTimeChanged");
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
     /**
@@ -43,78 +58,44 @@ public class UserController {
      * @param userSyncService          The service for user synchronization
      * @param userEmailService         The service for sending user-related emails
      * @param authenticationLogService The service for authentication log operations
+     * @param objectMapper             The mapper used for sparse field responses
      */
     public UserController(UserService userService, UserSyncService userSyncService, UserEmailService userEmailService,
-            AuthenticationLogService authenticationLogService) {
+            AuthenticationLogService authenticationLogService, ObjectMapper objectMapper) {
         this.userService = userService;
         this.userSyncService = userSyncService;
         this.userEmailService = userEmailService;
         this.authenticationLogService = authenticationLogService;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Get all users in the system with optional filtering
+     * Get all users in the system with optional filtering. Filters are applied
+     * by the database query.
      * 
      * @param domain        The email domain to filter users by (optional)
      * @param status        The status to filter users by (optional)
      * @param excludeStatus The status to exclude from results (optional)
      * @param role          The role to filter users by (optional)
-     * @return ResponseEntity containing a filtered list of users
+     * @param fields        Comma-separated user fields to return (optional, all
+     *                      if omitted)
+     * @return ResponseEntity containing a filtered list of users, or 400 if a
+     *         requested field is unknown
      */
     @GetMapping
-    public ResponseEntity<List<User>> getUsers(
+    public ResponseEntity<List<?>> getUsers(
             @RequestParam(required = false) String domain,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String excludeStatus,
-            @RequestParam(required = false) String role) {
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String fields) {
 
-        List<User> users = userService.getAllUsers();
-
-        // Apply domain filter if provided
-        if (domain != null && !domain.isEmpty()) {
-            users = filterUsersByDomain(users, domain);
-        }
-
-        // Apply status filter if provided
-        if (status != null && !status.isEmpty()) {
-            try {
-                StatusType statusType = StatusType.valueOf(status.toUpperCase());
-                users = users.stream()
-                        .filter(user -> user.getStatus() == statusType)
-                        .collect(Collectors.toList());
-            } catch (IllegalArgumentException e) {
-                // Invalid status provided, return empty list
-                return ResponseEntity.ok(new ArrayList<>());
-            }
+        UserSearchCriteria criteria = listCriteria(domain, status, excludeStatus, role);
+        if (criteria == null) {
+            // Invalid status or role provided, return empty list
+            return ResponseEntity.ok(new ArrayList<>());
         }
-
-        // Apply exclude status filter if provided
-        if (excludeStatus != null && !excludeStatus.isEmpty()) {
-            try {
-                StatusType excludeStatusType = StatusType.valueOf(excludeStatus.toUpperCase());
-                users = users.stream()
-                        .filter(user -> user.getStatus() != excludeStatusType)
-                        .collect(Collectors.toList());
-            } catch (IllegalArgumentException e) {
-                // Invalid exclude status, ignore this filter
-            }
-        }
-
-        // Apply role filter if provided
-        if (role != null && !role.isEmpty()) {
-            try {
-                RoleType roleType = RoleType.valueOf(role.toUpperCase());
-                users = users.stream()
-                        .filter(user -> user.getRoles() != null &&
-                                user.getRoles().contains(roleType))
-                        .collect(Collectors.toList());
-            } catch (IllegalArgumentException e) {
-                // Invalid role provided, return empty list
-                return ResponseEntity.ok(new ArrayList<>());
-            }
-        }
-
-        return ResponseEntity.ok(users);
+        return findUsers(criteria, fields);
     }
 
     /**
@@ -134,51 +115,12 @@ public class UserController {
             @RequestParam(required = false) String excludeStatus,
             @RequestParam(required = false) String role) {
 
-        List<User> users = userService.getAllUsers();
-
-        // Apply domain filter if provided
-        if (domain != null && !domain.isEmpty()) {
-            users = filterUsersByDomain(users, domain);
-        }
-
-        // Apply status filter if provided
-        if (status != null && !status.isEmpty()) {
-            try {
-                StatusType statusType = StatusType.valueOf(status.toUpperCase());
-                users = users.stream()
-                        .filter(user -> user.getStatus() == statusType)
-                        .collect(Collectors.toList());
-            } catch (IllegalArgumentException e) {
-                // Invalid status provided, return empty list
-                return ResponseEntity.ok(new ArrayList<>());
-            }
-        }
-
-        // Apply exclude status filter if provided
-        if (excludeStatus != null && !excludeStatus.isEmpty()) {
-            try {
-                StatusType excludeStatusType = StatusType.valueOf(excludeStatus.toUpperCase());
-                users = users.stream()
-                        .filter(user -> user.getStatus() != excludeStatusType)
-                        .collect(Collectors.toList());
-            } catch (IllegalArgumentException e) {
-                // Invalid exclude status, ignore this filter
-            }
-        }
-
-        // Apply role filter if provided
-        if (role != null && !role.isEmpty()) {
-            try {
-                RoleType roleType = RoleType.valueOf(role.toUpperCase());
-                users = users.stream()
-                        .filter(user -> user.getRoles() != null &&
-                                user.getRoles().contains(roleType))
-                        .collect(Collectors.toList());
-            } catch (IllegalArgumentException e) {
-                // Invalid role provided, return empty list
-                return ResponseEntity.ok(new ArrayList<>());
-            }
+        UserSearchCriteria criteria = listCriteria(domain, status, excludeStatus, role);
+        if (criteria == null) {
+            // Invalid status or role provided, return empty list
+            return ResponseEntity.ok(new ArrayList<>());
         }
+        List<User> users = userService.searchUsers(criteria, LAST_LOGIN_LIST_FIELDS);
 
         // Enhance users with last login information
         List<Map<String, Object>> usersWithLastLogin = users.stream()
@@ -222,47 +164,74 @@ public class UserController {
      * Get users by specific domain
      * 
      * @param domain The email domain to filter users by
+     * @param fields Comma-separated user fields to return (optional, all if
+     *               omitted)
      * @return ResponseEntity containing a list of users with the specified domain
      */
     @GetMapping("/domain/{domain}")
-    public ResponseEntity<List<User>> getUsersByDomain(@PathVariable String domain) {
-        List<User> users = filterUsersByDomain(userService.getAllUsers(), domain);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<?>> getUsersByDomain(@PathVariable String domain,
+            @RequestParam(required = false) String fields) {
+        return findUsers(new UserSearchCriteria().domain(domain).ignoreDomainCase(), fields);
     }
 
     /**
      * Get pending users by domain
      * 
      * @param domain The email domain to filter pending users by
+     * @param fields Comma-separated user fields to return (optional, all if
+     *               omitted)
      * @return ResponseEntity containing a list of pending users with the specified
      *         domain
      */
     @GetMapping("/pending/domain/{domain}")
-    public ResponseEntity<List<User>> getPendingUsersByDomain(@PathVariable String domain) {
-        List<User> users = userService.getAllUsers();
-
-        // Filter by PENDING status and domain
-        List<User> pendingUsers = users.stream()
-                .filter(user -> user.getStatus() == StatusType.PENDING)
-                .collect(Collectors.toList());
-
-        pendingUsers = filterUsersByDomain(pendingUsers, domain);
-
-        return ResponseEntity.ok(pendingUsers);
+    public ResponseEntity<List<?>> getPendingUsersByDomain(@PathVariable String domain,
+            @RequestParam(required = false) String fields) {
+        return findUsers(new UserSearchCriteria().domain(domain).ignoreDomainCase().status(StatusType.PENDING),
+                fields);
     }
 
     /**
-     * Helper method to filter users by domain
+     * Build the filter of a user listing from its request parameters
      * 
-     * @param users  The list of users to filter
-     * @param domain The domain to filter by
-     * @return Filtered list of users
+     * @return The criteria, or null if the status or role is invalid
      */
-    private List<User> filterUsersByDomain(List<User> users, String domain) {
-        return users.stream()
-                .filter(user -> user.getPrimaryDomain() != null &&
-                        user.getPrimaryDomain().equalsIgnoreCase(domain))
-                .collect(Collectors.toList());
+    private static UserSearchCriteria listCriteria(String domain, String status, String excludeStatus,
+            String role) {
+        UserSearchCriteria criteria = new UserSearchCriteria().domain(domain).ignoreDomainCase();
+        try {
+            if (status != null && !status.isEmpty()) {
+                criteria.status(StatusType.valueOf(status.toUpperCase()));
+            }
+            if (role != null && !role.isEmpty()) {
+                criteria.role(RoleType.valueOf(role.toUpperCase()));
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (excludeStatus != null && !excludeStatus.isEmpty()) {
+            try {
+                criteria.excludeStatus(StatusType.valueOf(excludeStatus.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                // Invalid exclude status, ignore this filter
+            }
+        }
+        return criteria;
+    }
+
+    /**
+     * Load the users matching a filter, with only the requested fields
+     */
+    private ResponseEntity<List<?>> findUsers(UserSearchCriteria criteria, String fields) {
+        SparseFieldset fieldset;
+        try {
+            fieldset = SparseFieldset.parse(fields, USER_FIELDS);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid user fields: {}", fields);
+            return ResponseEntity.badRequest().build();
+        }
+        List<User> users = userService.searchUsers(criteria,
+                fieldset.isSparse() ? fieldset.getDocumentFields() : null);
+        return ResponseEntity.ok(fieldset.select(users, objectMapper));
     }
 
     /**
@@ -274,30 +243,7 @@ public class UserController {
      */
     @PostMapping("/admin/fix-primary-domains")
     public ResponseEntity<Map<String, Object>> fixPrimaryDomains() {
-        List<User> users = userService.getAllUsers();
-        int updatedCount = 0;
-
-        for (User user : users) {
-            String primaryDomain = user.getPrimaryDomain();
-
-            // Check if primaryDomain contains @ which indicates it might be a full email
-            if (primaryDomain != null && primaryDomain.contains("@")) {
-                String correctedDomain = primaryDomain.substring(primaryDomain.indexOf('@') + 1);
-                user.setPrimaryDomain(correctedDomain);
-                user.setDateTimeChanged(LocalDateTime.now());
-                userService.updateUser(user.getId(), user);
-                updatedCount++;
-            }
-            // Check if primaryDomain is empty but email is available
-            else if ((primaryDomain == null || primaryDomain.isEmpty()) && user.getEmail() != null
-                    && user.getEmail().contains("@")) {
-                String correctedDomain = user.getEmail().substring(user.getEmail().indexOf('@') + 1);
-                user.setPrimaryDomain(correctedDomain);
-                user.setDateTimeChanged(LocalDateTime.now());
-                userService.updateUser(user.getId(), user);
-                updatedCount++;
-            }
-        }
+        long updatedCount = userService.fixPrimaryDomains(new UserSearchCriteria());
 
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Primary domains fixed");
@@ -306,6 +252,91 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Approve all pending users selected by ids and/or domain in one bulk
+     * update. Approval emails are queued in the email outbox.
+     * 
+     * @param request The selection (userIds and/or domain)
+     * @return ResponseEntity with the approved user IDs, or 400 without a
+     *         selection
+     */
+    @PostMapping("/bulk/approve")
+    public ResponseEntity<BulkUserActionResponseDTO> bulkApproveUsers(@RequestBody BulkUserActionRequestDTO request) {
+        UserSearchCriteria criteria = toSearchCriteria(request);
+        if (!criteria.hasSelection()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<User> approved = userService.approvePendingUsers(criteria);
+        if (!approved.isEmpty()) {
+            userEmailService.sendUserApprovalEmails(approved);
+        }
+        logger.info("Bulk approved {} users ({})", approved.size(), criteria);
+
+        List<String> approvedIds = approved.stream().map(User::getId).collect(Collectors.toList());
+        return ResponseEntity.ok(new BulkUserActionResponseDTO("approve", approved.size(), approvedIds));
+    }
+
+    /**
+     * Reject all pending users selected by ids and/or domain in one bulk update
+     * 
+     * @param request The selection (userIds and/or domain)
+     * @return ResponseEntity with the number of rejected users, or 400 without
+     *         a selection
+     */
+    @PostMapping("/bulk/reject")
+    public ResponseEntity<BulkUserActionResponseDTO> bulkRejectUsers(@RequestBody BulkUserActionRequestDTO request) {
+        UserSearchCriteria criteria = toSearchCriteria(request);
+        if (!criteria.hasSelection()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        long rejected = userService.rejectPendingUsers(criteria);
+        logger.info("Bulk rejected {} users ({})", rejected, criteria);
+        return ResponseEntity.ok(new BulkUserActionResponseDTO("reject", rejected, null));
+    }
+
+    /**
+     * Assign a role to all users selected by ids, domain and/or status in one
+     * bulk update
+     * 
+     * @param request The selection and the role to assign
+     * @return ResponseEntity with the number of updated users, or 400 without a
+     *         selection or role
+     */
+    @PostMapping("/bulk/role")
+    public ResponseEntity<BulkUserActionResponseDTO> bulkAssignRole(@RequestBody BulkUserActionRequestDTO request) {
+        UserSearchCriteria criteria = toSearchCriteria(request).status(request.getStatus());
+        if (!criteria.hasSelection() || request.getRole() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        long updated = userService.assignRole(criteria, request.getRole());
+        logger.info("Bulk assigned role {} to {} users ({})", request.getRole(), updated, criteria);
+        return ResponseEntity.ok(new BulkUserActionResponseDTO("role", updated, null));
+    }
+
+    /**
+     * Repair primary domains of the users selected by ids and/or domain (all
+     * users if neither is given) in one bulk update
+     * 
+     * @param request The selection (optional)
+     * @return ResponseEntity with the number of updated users
+     */
+    @PostMapping("/bulk/fix-primary-domains")
+    public ResponseEntity<BulkUserActionResponseDTO> bulkFixPrimaryDomains(
+            @RequestBody(required = false) BulkUserActionRequestDTO request) {
+        UserSearchCriteria criteria = request != null ? toSearchCriteria(request) : new UserSearchCriteria();
+        long updated = userService.fixPrimaryDomains(criteria);
+        return ResponseEntity.ok(new BulkUserActionResponseDTO("fix-primary-domains", updated, null));
+    }
+
+    private UserSearchCriteria toSearchCriteria(BulkUserActionRequestDTO request) {
+        return new UserSearchCriteria()
+                .ids(request.getUserIds())
+                .domain(request.getDomain());
+    }
+
     /**
      * Approve a pending user
      * 
@@ -314,37 +345,25 @@ public class UserController {
      */
     @PostMapping("/pending/{userId}/approve")
     public ResponseEntity<User> approveUser(@PathVariable String userId) {
-        return userService.getUserById(userId)
-                .map(user -> {
-                    if (user.getStatus() == StatusType.PENDING) {
-                        user.setStatus(StatusType.ACTIVATED);
-                        user.setDateTimeChanged(LocalDateTime.now());
+        // Atomic: only applied while the user is still pending
+        Optional<User> approved = userService.approvePendingUser(userId);
+        if (approved.isEmpty()) {
+            return notPendingResponse(userId);
+        }
 
-                        // Ensure the user has a role
-                        if (user.getRoles() == null || user.getRoles().isEmpty()) {
-                            user.setRoles(Arrays.asList(RoleType.COMPANY_USER));
-                        }
+        User updatedUser = approved.get();
 
-                        User updatedUser = userService.updateUser(user.getId(), user)
-                                .orElse(user); // Fall back to original user if update fails
-
-                        // Send approval email
-                        try {
-                            userEmailService.sendUserApprovalEmail(updatedUser);
-                            logger.info("Approval email sent to user: {}", updatedUser.getEmail());
-                        } catch (Exception e) {
-                            // Log the error but don't fail the approval process
-                            logger.error("Failed to send approval email to {}: {}",
-                                    updatedUser.getEmail(), e.getMessage(), e);
-                        }
+        // Send approval email
+        try {
+            userEmailService.sendUserApprovalEmail(updatedUser);
+            logger.info("Approval email queued for user: {}", updatedUser.getEmail());
+        } catch (Exception e) {
+            // Log the error but don't fail the approval process
+            logger.error("Failed to send approval email to {}: {}",
+                    updatedUser.getEmail(), e.getMessage(), e);
+        }
 
-                        return ResponseEntity.ok(updatedUser);
-                    } else {
-                        return ResponseEntity.badRequest()
-                                .body(user); // User is not in PENDING status
-                    }
-                })
-                .orElse(ResponseEntity.notFound().build());
+        return ResponseEntity.ok(updatedUser);
     }
 
     /**
@@ -355,22 +374,26 @@ public class UserController {
      */
     @PostMapping("/pending/{userId}/reject")
     public ResponseEntity<User> rejectUser(@PathVariable String userId) {
+        // Atomic: only applied while the user is still pending
+        Optional<User> rejected = userService.rejectPendingUser(userId);
+        if (rejected.isEmpty()) {
+            return notPendingResponse(userId);
+        }
+
+        logger.info("User {} has been rejected and marked with REJECTED status", rejected.get().getEmail());
+        return ResponseEntity.ok(rejected.get());
+    }
+
+    /**
+     * Build the response for an approval or rejection that did not apply
+     * 
+     * @param userId The ID of the user
+     * @return 400 with the current user if it exists but is not pending, 404
+     *         otherwise
+     */
+    private ResponseEntity<User> notPendingResponse(String userId) {
         return userService.getUserById(userId)
-                .map(user -> {
-                    if (user.getStatus() == StatusType.PENDING) {
-                        user.setStatus(StatusType.REJECTED);
-                        user.setDateTimeChanged(LocalDateTime.now());
-
-                        User updatedUser = userService.updateUser(user.getId(), user)
-                                .orElse(user); // Fall back to original user if update fails
-
-                        logger.info("User {} has been rejected and marked with REJECTED status", user.getEmail());
-                        return ResponseEntity.ok(updatedUser);
-                    } else {
-                        return ResponseEntity.badRequest()
-                                .body(user); // User is not in PENDING status
-                    }
-                })
+                .map(user -> ResponseEntity.badRequest().body(user)) // User is not in PENDING status
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -485,8 +508,7 @@ public class UserController {
             // different provider)
             if (!userDTO.getAuth0Id().equals(existingUser.getAuth0Id())) {
                 existingUser.setAuth0Id(userDTO.getAuth0Id());
-                existingUser.setDateTimeChanged(LocalDateTime.now());
-                userService.updateUser(existingUser.getId(), existingUser);
+                userService.updateUserFields(existingUser.getId(), Map.of("auth0Id", userDTO.getAuth0Id()));
                 logger.info("Updated Auth0 ID for existing user {}", userDTO.getEmail());
             }
 
@@ -626,17 +648,9 @@ public class UserController {
             // Convert the role string to RoleType enum
             RoleType newRole = RoleType.valueOf(roleName);
 
-            Optional<User> userOptional = userService.getUserById(id);
-            if (userOptional.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
-
-            User user = userOptional.get();
-            // Set the new role as the first (primary) role
-            user.setRoles(Collections.singletonList(newRole));
-            user.setDateTimeChanged(LocalDateTime.now());
-
-            Optional<User> updatedUserOptional = userService.updateUser(id, user);
+            // Set the new role as the first (primary) role, touching nothing else
+            Optional<User> updatedUserOptional = userService.updateUserFields(id,
+                    Map.of("roles", Collections.singletonList(newRole)));
             if (updatedUserOptional.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
@@ -670,16 +684,7 @@ public class UserController {
             // Convert the status string to StatusType enum
             StatusType newStatus = StatusType.valueOf(statusName);
 
-            Optional<User> userOptional = userService.getUserById(id);
-            if (userOptional.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
-
-            User user = userOptional.get();
-            user.setStatus(newStatus);
-            user.setDateTimeChanged(LocalDateTime.now());
-
-            Optional<User> updatedUserOptional = userService.updateUser(id, user);
+            Optional<User> updatedUserOptional = userService.updateUserFields(id, Map.of("status", newStatus));
             if (updatedUserOptional.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
@@ -727,9 +732,7 @@ public class UserController {
      */
     @GetMapping("/email/{email}")
     public ResponseEntity<User> getUserByEmail(@PathVariable String email) {
-        return userService.getAllUsers().stream()
-                .filter(user -> email.equals(user.getEmail()))
-                .findFirst()
+        return userService.getUserByEmail(email)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
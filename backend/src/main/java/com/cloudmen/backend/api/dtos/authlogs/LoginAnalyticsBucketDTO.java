@@ -0,0 +1,21 @@
+package com.cloudmen.backend.api.dtos.authlogs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Login counts for one domain in one time bucket
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginAnalyticsBucketDTO {
+    private String domain;
+    private LocalDateTime bucketStart;
+    private long successCount;
+    private long failureCount;
+    private long distinctUsers; // Approximate, from a HyperLogLog sketch
+}
@@ -0,0 +1,24 @@
+package com.cloudmen.backend.api.dtos.authlogs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Login analytics over a time range, read from the pre-aggregated rollups
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginAnalyticsDTO {
+    private String granularity;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private List<LoginAnalyticsBucketDTO> buckets;
+    private long totalSuccessCount;
+    private long totalFailureCount;
+    private long totalDistinctUsers; // Approximate, merged over all buckets
+}
@@ -8,7 +8,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -20,6 +23,25 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class CompanyListDTO {
+
+    /**
+     * Document fields each DTO field is built from, for projected list reads
+     */
+    public static final Map<String, List<String>> SOURCE_FIELDS;
+
+    static {
+        Map<String, List<String>> fields = new LinkedHashMap<>();
+        fields.put("id", List.of());
+        fields.put("teamleaderId", List.of("teamleaderId"));
+        fields.put("name", List.of("name"));
+        fields.put("email", List.of("contactInfo"));
+        fields.put("phoneNumber", List.of("contactInfo"));
+        fields.put("vatNumber", List.of("vatNumber"));
+        fields.put("status", List.of("status", "customFields.status"));
+        fields.put("syncedAt", List.of("syncedAt"));
+        SOURCE_FIELDS = Collections.unmodifiableMap(fields);
+    }
+
     private String id;
     private String teamleaderId;
     private String name;
@@ -0,0 +1,66 @@
+package com.cloudmen.backend.api.dtos.googleworkspace;
+
+import java.util.List;
+
+/**
+ * A Google Workspace SKU that can be purchased, with its plans and price
+ */
+public class GoogleWorkspaceSkuDTO {
+    private String skuId;
+    private String skuName;
+    private String description;
+    private List<String> plans;
+    private GoogleWorkspaceSkuPriceDTO price;
+
+    public GoogleWorkspaceSkuDTO() {
+    }
+
+    public GoogleWorkspaceSkuDTO(String skuId, String skuName, String description, List<String> plans,
+            GoogleWorkspaceSkuPriceDTO price) {
+        this.skuId = skuId;
+        this.skuName = skuName;
+        this.description = description;
+        this.plans = plans;
+        this.price = price;
+    }
+
+    public String getSkuId() {
+        return skuId;
+    }
+
+    public void setSkuId(String skuId) {
+        this.skuId = skuId;
+    }
+
+    public String getSkuName() {
+        return skuName;
+    }
+
+    public void setSkuName(String skuName) {
+        this.skuName = skuName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public List<String> getPlans() {
+        return plans;
+    }
+
+    public void setPlans(List<String> plans) {
+        this.plans = plans;
+    }
+
+    public GoogleWorkspaceSkuPriceDTO getPrice() {
+        return price;
+    }
+
+    public void setPrice(GoogleWorkspaceSkuPriceDTO price) {
+        this.price = price;
+    }
+}
@@ -0,0 +1,34 @@
+package com.cloudmen.backend.api.dtos.googleworkspace;
+
+import java.util.List;
+
+/**
+ * Response containing the catalogue of available Google Workspace SKUs
+ */
+public class GoogleWorkspaceSkuListResponseDTO {
+    private String kind = "reseller#skus";
+    private List<GoogleWorkspaceSkuDTO> skus;
+
+    public GoogleWorkspaceSkuListResponseDTO() {
+    }
+
+    public GoogleWorkspaceSkuListResponseDTO(List<GoogleWorkspaceSkuDTO> skus) {
+        this.skus = skus;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public List<GoogleWorkspaceSkuDTO> getSkus() {
+        return skus;
+    }
+
+    public void setSkus(List<GoogleWorkspaceSkuDTO> skus) {
+        this.skus = skus;
+    }
+}
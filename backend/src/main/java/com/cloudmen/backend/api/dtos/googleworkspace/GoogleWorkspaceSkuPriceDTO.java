@@ -0,0 +1,43 @@
+package com.cloudmen.backend.api.dtos.googleworkspace;
+
+/**
+ * List price of a Google Workspace SKU
+ */
+public class GoogleWorkspaceSkuPriceDTO {
+    private double basePrice;
+    private String currency;
+    private String interval;
+
+    public GoogleWorkspaceSkuPriceDTO() {
+    }
+
+    public GoogleWorkspaceSkuPriceDTO(double basePrice, String currency, String interval) {
+        this.basePrice = basePrice;
+        this.currency = currency;
+        this.interval = interval;
+    }
+
+    public double getBasePrice() {
+        return basePrice;
+    }
+
+    public void setBasePrice(double basePrice) {
+        this.basePrice = basePrice;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public String getInterval() {
+        return interval;
+    }
+
+    public void setInterval(String interval) {
+        this.interval = interval;
+    }
+}
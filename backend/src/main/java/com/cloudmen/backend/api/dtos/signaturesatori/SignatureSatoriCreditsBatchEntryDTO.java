@@ -0,0 +1,44 @@
+package com.cloudmen.backend.api.dtos.signaturesatori;
+
+/**
+ * Credits of one customer in a batch lookup: either the credits, or the
+ * error that prevented loading them
+ */
+public class SignatureSatoriCreditsBatchEntryDTO {
+    private String customerId;
+    private SignatureSatoriCreditsDTO credits;
+    private String error;
+
+    public SignatureSatoriCreditsBatchEntryDTO() {
+    }
+
+    public SignatureSatoriCreditsBatchEntryDTO(String customerId, SignatureSatoriCreditsDTO credits, String error) {
+        this.customerId = customerId;
+        this.credits = credits;
+        this.error = error;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public SignatureSatoriCreditsDTO getCredits() {
+        return credits;
+    }
+
+    public void setCredits(SignatureSatoriCreditsDTO credits) {
+        this.credits = credits;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,21 @@
+package com.cloudmen.backend.api.dtos.users;
+
+import com.cloudmen.backend.domain.enums.RoleType;
+import com.cloudmen.backend.domain.enums.StatusType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Selection of users for a bulk administration action: explicit ids, a
+ * primary domain and/or a status. Role is only used when assigning roles.
+ */
+@Data
+@NoArgsConstructor
+public class BulkUserActionRequestDTO {
+    private List<String> userIds;
+    private String domain;
+    private StatusType status;
+    private RoleType role;
+}
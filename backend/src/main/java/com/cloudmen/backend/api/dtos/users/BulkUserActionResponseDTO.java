@@ -0,0 +1,19 @@
+package com.cloudmen.backend.api.dtos.users;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk administration action
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserActionResponseDTO {
+    private String action;
+    private long updatedCount;
+    private List<String> updatedUserIds; // Only filled in for approvals
+}
@@ -0,0 +1,74 @@
+package com.cloudmen.backend.api.dtos.users;
+
+import com.cloudmen.backend.domain.models.User;
+
+/**
+ * Response DTO for a user matching a typeahead search.
+ * Only holds fields that change through single-user updates, so the search
+ * index can keep it current without reloading users.
+ */
+public class UserSearchResultDTO {
+    private String id;
+    private String email;
+    private String name;
+    private String picture;
+
+    public UserSearchResultDTO() {
+    }
+
+    public UserSearchResultDTO(String id, String email, String name, String picture) {
+        this.id = id;
+        this.email = email;
+        this.name = name;
+        this.picture = picture;
+    }
+
+    /**
+     * Create a search result from a user, falling back to first and last
+     * name when the user has no display name
+     *
+     * @param user The user
+     * @return A new UserSearchResultDTO
+     */
+    public static UserSearchResultDTO fromEntity(User user) {
+        String name = user.getName();
+        if (name == null || name.isBlank()) {
+            String fullName = ((user.getFirstName() != null ? user.getFirstName() : "") + " "
+                    + (user.getLastName() != null ? user.getLastName() : "")).trim();
+            name = fullName.isEmpty() ? null : fullName;
+        }
+        return new UserSearchResultDTO(user.getId(), user.getEmail(), name, user.getPicture());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getPicture() {
+        return picture;
+    }
+
+    public void setPicture(String picture) {
+        this.picture = picture;
+    }
+}
@@ -1,9 +1,12 @@
 package com.cloudmen.backend.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.concurrent.Executor;
 
@@ -14,6 +17,12 @@ import java.util.concurrent.Executor;
 @EnableAsync
 public class AsyncConfig {
 
+    @Value("${reactor.blocking-scheduler.thread-cap:20}")
+    private int blockingThreadCap;
+
+    @Value("${reactor.blocking-scheduler.queued-task-cap:1000}")
+    private int blockingQueuedTaskCap;
+
     /**
      * Configure the executor for async tasks
      * 
@@ -29,4 +38,15 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Scheduler for blocking work (MongoDB, SMTP) in reactive flows, so it
+     * never runs on the WebClient event loop threads
+     * 
+     * @return Bounded elastic scheduler for blocking calls
+     */
+    @Bean(name = "blockingScheduler", destroyMethod = "dispose")
+    public Scheduler blockingScheduler() {
+        return Schedulers.newBoundedElastic(blockingThreadCap, blockingQueuedTaskCap, "blocking-io");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,275 @@
+package com.cloudmen.backend.config;
+
+import com.cloudmen.backend.domain.models.AuthenticationLog;
+import com.cloudmen.backend.services.UserAgentDictionary;
+import com.cloudmen.backend.utils.IpAddressCodec;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Converts authentication logs written with the original layout (long field
+ * names, IP and user agent as strings) to the compact layout used by
+ * AuthenticationLog. Queries only know the compact field names, so this runs
+ * during startup, before the web server accepts requests, one batch at a time.
+ * It is safe to interrupt: only documents that still have the legacy
+ * timestamp field are picked up. Once nothing is left, the indexes on legacy
+ * fields are dropped.
+ * A lease in the migration_locks collection lets one instance migrate at a
+ * time; the others wait until it is done, or take over if its lease runs out.
+ * A document that cannot be converted is logged and skipped.
+ */
+@Component
+public class AuthenticationLogCompactionMigration implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthenticationLogCompactionMigration.class);
+
+    // Legacy field name -> compact field name for fields that are only renamed
+    private static final Map<String, String> RENAMED_FIELDS = new LinkedHashMap<>();
+
+    static {
+        RENAMED_FIELDS.put("userId", "u");
+        RENAMED_FIELDS.put("email", "e");
+        RENAMED_FIELDS.put("primaryDomain", "d");
+        RENAMED_FIELDS.put("googleUniqueId", "g");
+        RENAMED_FIELDS.put("timestamp", "ts");
+        RENAMED_FIELDS.put("failureReason", "r");
+        RENAMED_FIELDS.put("successful", "s");
+    }
+
+    private static final String LEGACY_TIMESTAMP = "timestamp";
+    private static final String LEGACY_IP = "ipAddress";
+    private static final String LEGACY_USER_AGENT = "userAgent";
+
+    private static final Set<String> LEGACY_FIELDS = Set.of("userId", "email", "primaryDomain", "googleUniqueId",
+            LEGACY_TIMESTAMP, "failureReason", "successful", LEGACY_IP, LEGACY_USER_AGENT);
+
+    private static final String LOCK_COLLECTION = "migration_locks";
+    private static final String LOCK_ID = "auth-log-compaction";
+
+    private final MongoTemplate mongoTemplate;
+    private final UserAgentDictionary userAgentDictionary;
+    private final String owner = UUID.randomUUID().toString();
+
+    @Value("${auth-log.compaction.enabled:true}")
+    private boolean enabled;
+
+    @Value("${auth-log.compaction.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${auth-log.compaction.lock-lease-ms:60000}")
+    private long lockLeaseMs;
+
+    @Value("${auth-log.compaction.lock-poll-ms:5000}")
+    private long lockPollMs;
+
+    public AuthenticationLogCompactionMigration(MongoTemplate mongoTemplate, UserAgentDictionary userAgentDictionary) {
+        this.mongoTemplate = mongoTemplate;
+        this.userAgentDictionary = userAgentDictionary;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            migrateOnce();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for the authentication log compaction");
+        } catch (Exception e) {
+            // Retried on the next startup; the instance still starts
+            logger.error("Error compacting authentication logs", e);
+        }
+    }
+
+    /**
+     * Run the migration unless another instance is running it, in which case
+     * wait until that instance is done or its lease runs out
+     *
+     * @return The number of documents converted by this instance
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public long migrateOnce() throws InterruptedException {
+        while (true) {
+            if (tryLock()) {
+                long converted = migrate();
+                if (renewLock()) {
+                    mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(LOCK_ID)),
+                            new Update().set("completedAt", new Date()).unset("lockedUntil"), LOCK_COLLECTION);
+                }
+                return converted;
+            }
+            Document lock = mongoTemplate.findById(LOCK_ID, Document.class, LOCK_COLLECTION);
+            if (lock != null && lock.containsKey("completedAt")) {
+                return 0;
+            }
+            logger.info("Waiting for another instance to finish compacting authentication logs");
+            Thread.sleep(lockPollMs);
+        }
+    }
+
+    /**
+     * Convert all legacy documents and drop the legacy indexes. Documents are
+     * read in _id order, so skipped documents are not read again. Stops early
+     * if the lease was lost to another instance.
+     *
+     * @return The number of documents converted
+     */
+    public long migrate() {
+        MongoCollection<Document> collection = mongoTemplate
+                .getCollection(mongoTemplate.getCollectionName(AuthenticationLog.class));
+
+        long converted = 0;
+        long skipped = 0;
+        Object lastId = null;
+        while (true) {
+            Bson legacyFilter = lastId == null ? Filters.exists(LEGACY_TIMESTAMP)
+                    : Filters.and(Filters.exists(LEGACY_TIMESTAMP), Filters.gt("_id", lastId));
+            List<Document> batch = collection.find(legacyFilter)
+                    .sort(Sorts.ascending("_id"))
+                    .limit(batchSize)
+                    .into(new ArrayList<>());
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            List<WriteModel<Document>> updates = new ArrayList<>(batch.size());
+            for (Document legacy : batch) {
+                try {
+                    updates.add(new UpdateOneModel<>(Filters.eq("_id", legacy.get("_id")), compact(legacy)));
+                } catch (RuntimeException e) {
+                    skipped++;
+                    logger.warn("Skipping authentication log {} that cannot be compacted: {}", legacy.get("_id"),
+                            e.getMessage());
+                }
+            }
+            lastId = batch.get(batch.size() - 1).get("_id");
+            if (!updates.isEmpty()) {
+                collection.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+            }
+            converted += updates.size();
+            logger.debug("Compacted {} legacy authentication logs so far", converted);
+            if (!renewLock()) {
+                logger.warn("Lost the authentication log compaction lease after {} logs; another instance "
+                        + "continues", converted);
+                return converted;
+            }
+        }
+
+        dropLegacyIndexes(collection);
+        if (converted > 0 || skipped > 0) {
+            logger.info("Compacted {} authentication logs, skipped {}", converted, skipped);
+        }
+        return converted;
+    }
+
+    /**
+     * Build the update that turns one legacy document into the compact layout
+     *
+     * @param legacy The legacy document
+     * @return The update document
+     */
+    public Document compact(Document legacy) {
+        Document set = new Document();
+        Document unset = new Document();
+
+        for (Map.Entry<String, String> field : RENAMED_FIELDS.entrySet()) {
+            if (legacy.containsKey(field.getKey())) {
+                set.put(field.getValue(), legacy.get(field.getKey()));
+                unset.put(field.getKey(), "");
+            }
+        }
+
+        Object address = legacy.get(LEGACY_IP);
+        if (address instanceof String) {
+            byte[] ip = IpAddressCodec.encode((String) address);
+            if (ip != null) {
+                set.put("ip", new Binary(ip));
+            } else {
+                set.put("ipr", address);
+            }
+            unset.put(LEGACY_IP, "");
+        } else if (address == null) {
+            unset.put(LEGACY_IP, "");
+        } else {
+            // Left in place rather than lost; the rest of the log is still converted
+            logger.warn("Authentication log {} has a non-string {}; leaving it unconverted", legacy.get("_id"),
+                    LEGACY_IP);
+        }
+
+        Object userAgent = legacy.get(LEGACY_USER_AGENT);
+        if (userAgent instanceof String) {
+            set.put("ua", userAgentDictionary.encode((String) userAgent).getId());
+            unset.put(LEGACY_USER_AGENT, "");
+        } else if (userAgent == null) {
+            unset.put(LEGACY_USER_AGENT, "");
+        } else {
+            logger.warn("Authentication log {} has a non-string {}; leaving it unconverted", legacy.get("_id"),
+                    LEGACY_USER_AGENT);
+        }
+
+        return new Document("$set", set).append("$unset", unset);
+    }
+
+    private boolean tryLock() {
+        Date now = new Date();
+        Query free = new Query(Criteria.where("_id").is(LOCK_ID)
+                .and("completedAt").exists(false)
+                .orOperator(Criteria.where("lockedUntil").exists(false), Criteria.where("lockedUntil").lt(now)));
+        try {
+            // Inserts the lock the first time; a held or completed lock makes
+            // the upsert collide on _id
+            mongoTemplate.upsert(free, new Update().set("owner", owner)
+                    .set("lockedUntil", new Date(now.getTime() + lockLeaseMs)), LOCK_COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private boolean renewLock() {
+        return mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(LOCK_ID).and("owner").is(owner)),
+                new Update().set("lockedUntil", new Date(System.currentTimeMillis() + lockLeaseMs)),
+                LOCK_COLLECTION).getMatchedCount() > 0;
+    }
+
+    private void dropLegacyIndexes(MongoCollection<Document> collection) {
+        List<String> legacyIndexes = new ArrayList<>();
+        for (Document index : collection.listIndexes()) {
+            Document key = index.get("key", Document.class);
+            if (key != null && key.keySet().stream().anyMatch(LEGACY_FIELDS::contains)) {
+                legacyIndexes.add(index.getString("name"));
+            }
+        }
+        for (String name : legacyIndexes) {
+            collection.dropIndex(name);
+            logger.info("Dropped legacy authentication log index {}", name);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.cloudmen.backend.config;
+
+import com.cloudmen.backend.domain.models.AuthenticationLog;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Maintains the index on the authentication log timestamp and, when a retention
+ * period is configured, turns it into a TTL index so MongoDB expires old logs
+ * itself. Changing the retention period only updates the index options; the
+ * existing history is never loaded into the application.
+ */
+@Component
+public class AuthenticationLogRetentionInitializer implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthenticationLogRetentionInitializer.class);
+
+    // Stored field name of AuthenticationLog.timestamp
+    private static final String TIMESTAMP_FIELD = "ts";
+
+    private final MongoTemplate mongoTemplate;
+
+    // 0 keeps logs forever
+    @Value("${auth-log.retention.days:0}")
+    private long retentionDays;
+
+    public AuthenticationLogRetentionInitializer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        try {
+            applyRetention();
+        } catch (Exception e) {
+            logger.error("Error configuring authentication log retention", e);
+        }
+    }
+
+    /**
+     * Make sure the timestamp index exists with the configured expiry
+     */
+    public void applyRetention() {
+        Duration ttl = retentionDays > 0 ? Duration.ofDays(retentionDays) : null;
+        IndexOperations indexOps = mongoTemplate.indexOps(AuthenticationLog.class);
+        Optional<IndexInfo> existing = findTimestampIndex(indexOps);
+
+        if (existing.isEmpty()) {
+            indexOps.ensureIndex(timestampIndex(ttl));
+            logger.info("Created authentication log timestamp index (retention: {})", describe(ttl));
+            return;
+        }
+
+        IndexInfo index = existing.get();
+        Duration current = index.getExpireAfter().orElse(null);
+        if (ttl == null ? current == null : ttl.equals(current)) {
+            logger.info("Authentication log retention unchanged ({})", describe(ttl));
+            return;
+        }
+
+        if (ttl != null) {
+            try {
+                // collMod updates the expiry in place without rebuilding the index
+                String collection = mongoTemplate.getCollectionName(AuthenticationLog.class);
+                mongoTemplate.executeCommand(new Document("collMod", collection)
+                        .append("index", new Document("keyPattern", new Document(TIMESTAMP_FIELD, 1))
+                                .append("expireAfterSeconds", ttl.getSeconds())));
+                logger.info("Updated authentication log retention from {} to {}", describe(current), describe(ttl));
+                return;
+            } catch (Exception e) {
+                logger.warn("Could not update timestamp index in place, rebuilding it: {}", e.getMessage());
+            }
+        }
+
+        indexOps.dropIndex(index.getName());
+        indexOps.ensureIndex(timestampIndex(ttl));
+        logger.info("Rebuilt authentication log timestamp index (retention: {})", describe(ttl));
+    }
+
+    private Optional<IndexInfo> findTimestampIndex(IndexOperations indexOps) {
+        return indexOps.getIndexInfo().stream()
+                .filter(info -> info.getIndexFields().size() == 1
+                        && TIMESTAMP_FIELD.equals(info.getIndexFields().get(0).getKey()))
+                .findFirst();
+    }
+
+    private Index timestampIndex(Duration ttl) {
+        Index index = new Index().on(TIMESTAMP_FIELD, Sort.Direction.ASC).named(TIMESTAMP_FIELD);
+        return ttl != null ? index.expire(ttl) : index;
+    }
+
+    private String describe(Duration ttl) {
+        return ttl == null ? "keep forever" : ttl.toDays() + " days";
+    }
+}
@@ -0,0 +1,101 @@
+package com.cloudmen.backend.config;
+
+import com.cloudmen.backend.domain.enums.CacheRegion;
+import com.cloudmen.backend.domain.models.TeamleaderCompany;
+import com.cloudmen.backend.services.CacheInvalidationService;
+import com.cloudmen.backend.services.CompanyDomainCache;
+import com.cloudmen.backend.services.CompanySnapshot;
+import com.cloudmen.backend.utils.CompanyDomains;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills in the domains field of companies synced before it existed, so they
+ * can be found by domain without waiting for the next Teamleader sync. Runs
+ * in the background after startup and only touches companies that have no
+ * domains field yet.
+ */
+@Component
+public class CompanyDomainsMigration implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompanyDomainsMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final CompanyDomainCache domainCache;
+    private final CompanySnapshot companySnapshot;
+    private final CacheInvalidationService cacheInvalidation;
+
+    @Value("${company.domains-migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${company.domains-migration.batch-size:500}")
+    private int batchSize;
+
+    public CompanyDomainsMigration(MongoTemplate mongoTemplate, CompanyDomainCache domainCache,
+            CompanySnapshot companySnapshot, CacheInvalidationService cacheInvalidation) {
+        this.mongoTemplate = mongoTemplate;
+        this.domainCache = domainCache;
+        this.companySnapshot = companySnapshot;
+        this.cacheInvalidation = cacheInvalidation;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                migrate();
+            } catch (Exception e) {
+                logger.error("Error filling in company domains", e);
+            }
+        }, "company-domains-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Compute and store the domains of every company that has none stored
+     *
+     * @return The number of companies updated
+     */
+    public long migrate() {
+        long updated = 0;
+        while (true) {
+            Query query = new Query(Criteria.where("domains").exists(false)).limit(batchSize);
+            List<TeamleaderCompany> batch = mongoTemplate.find(query, TeamleaderCompany.class);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TeamleaderCompany.class);
+            for (TeamleaderCompany company : batch) {
+                bulk.updateOne(new Query(Criteria.where("_id").is(company.getId())),
+                        new Update().set("domains", CompanyDomains.of(company)));
+            }
+            bulk.execute();
+            updated += batch.size();
+        }
+
+        if (updated > 0) {
+            // Bulk updates bypass the save events that normally clear the caches
+            domainCache.clear();
+            companySnapshot.invalidate();
+            cacheInvalidation.publish(CacheRegion.COMPANIES, null);
+            logger.info("Filled in domains for {} companies", updated);
+        }
+        return updated;
+    }
+}
@@ -1,16 +1,19 @@
 package com.cloudmen.backend.config;
 
+import com.cloudmen.backend.utils.PooledSmtpMailSender;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
 
 import java.util.Properties;
 
 /**
  * Configuration for email functionality.
- * Sets up JavaMailSender with properties from application.properties.
+ * Sets up the SMTP JavaMailSender with properties from application.properties.
+ * Application code sends through EmailOutbox, the primary JavaMailSender; only
+ * the outbox dispatcher talks to SMTP directly, over a small pool of
+ * keep-alive connections.
  */
 @Configuration
 public class EmailConfig {
@@ -33,14 +36,34 @@ public class EmailConfig {
     @Value("${spring.mail.properties.mail.smtp.starttls.enable}")
     private String starttls;
 
+    @Value("${spring.mail.properties.mail.smtp.starttls.required:true}")
+    private String starttlsRequired;
+
+    @Value("${spring.mail.debug:true}")
+    private String debug;
+
+    @Value("${email.smtp.pool.max-connections:2}")
+    private int maxConnections;
+
+    @Value("${email.smtp.pool.max-messages-per-connection:100}")
+    private int maxMessagesPerConnection;
+
+    @Value("${email.smtp.pool.max-idle-ms:30000}")
+    private long maxIdleMs;
+
+    @Value("${email.smtp.pool.borrow-timeout-ms:30000}")
+    private long borrowTimeoutMs;
+
     /**
-     * Configures JavaMailSender bean with properties from application.properties
+     * Configures the SMTP JavaMailSender with properties from
+     * application.properties
      *
-     * @return JavaMailSender bean
+     * @return JavaMailSender bean that sends over pooled SMTP connections
      */
-    @Bean
-    public JavaMailSender javaMailSender() {
-        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+    @Bean(destroyMethod = "close")
+    public JavaMailSender smtpMailSender() {
+        PooledSmtpMailSender mailSender = new PooledSmtpMailSender(maxConnections, maxMessagesPerConnection,
+                maxIdleMs, borrowTimeoutMs);
         mailSender.setHost(host);
         mailSender.setPort(port);
 
@@ -52,11 +75,11 @@ public class EmailConfig {
         Properties props = mailSender.getJavaMailProperties();
         props.put("mail.smtp.auth", auth);
         props.put("mail.smtp.starttls.enable", starttls);
-        props.put("mail.smtp.starttls.required", "true");
+        props.put("mail.smtp.starttls.required", starttlsRequired);
         props.put("mail.smtp.connectiontimeout", "5000");
         props.put("mail.smtp.timeout", "5000");
         props.put("mail.smtp.writetimeout", "5000");
-        props.put("mail.debug", "true");
+        props.put("mail.debug", debug);
 
         return mailSender;
     }
@@ -0,0 +1,35 @@
+package com.cloudmen.backend.domain.enums;
+
+/**
+ * Defines the groups of cached data that are invalidated across instances,
+ * one per collection.
+ */
+public enum CacheRegion {
+    USERS("users"), // User cache and user search index
+    COMPANIES("teamleader_companies"), // Company snapshot, domain cache and search index
+    OAUTH_TOKENS("oauth_tokens"); // Teamleader OAuth tokens
+
+    private final String collection;
+
+    CacheRegion(String collection) {
+        this.collection = collection;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    /**
+     * @param collection A collection name
+     * @return The region cached from the collection, or null if it is not
+     *         cached
+     */
+    public static CacheRegion forCollection(String collection) {
+        for (CacheRegion region : values()) {
+            if (region.collection.equals(collection)) {
+                return region;
+            }
+        }
+        return null;
+    }
+}
@@ -1,41 +1,89 @@
 package com.cloudmen.backend.domain.models;
 
+import com.cloudmen.backend.utils.IpAddressCodec;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.LocalDateTime;
 
 /**
  * Model class for storing authentication log entries.
  * This logs all authentication attempts, both successful and failed.
+ *
+ * Logs are the largest collection, so they are stored compactly: short field
+ * names, the IP address in 16-byte binary form (see IpAddressCodec) and the
+ * user agent as an id into the user_agents dictionary. The user-agent string
+ * and its parsed families are filled in when a log is read.
  */
 @Document(collection = "authentication_logs")
+@CompoundIndexes({
+        // Equality fields first, then timestamp and _id, so filtered searches
+        // sorted by timestamp (and keyset pages on (timestamp, _id)) are served
+        // from a single index. Index definitions use the stored field names.
+        @CompoundIndex(name = "ts_id", def = "{'ts': -1, '_id': -1}"),
+        @CompoundIndex(name = "e_ts_id", def = "{'e': 1, 'ts': -1, '_id': -1}"),
+        @CompoundIndex(name = "d_ts_id", def = "{'d': 1, 'ts': -1, '_id': -1}"),
+        @CompoundIndex(name = "d_s_ts_id", def = "{'d': 1, 's': 1, 'ts': -1, '_id': -1}"),
+        @CompoundIndex(name = "s_ts_id", def = "{'s': 1, 'ts': -1, '_id': -1}"),
+        // Binary IPs sort numerically, so CIDR filters are index range scans
+        @CompoundIndex(name = "ip_ts_id", def = "{'ip': 1, 'ts': -1, '_id': -1}"),
+        @CompoundIndex(name = "u_s_ts", def = "{'u': 1, 's': 1, 'ts': -1}")
+})
 public class AuthenticationLog {
     @Id
     private String id;
 
-    @Indexed
+    @Field("u")
     private String userId;
 
-    @Indexed
+    @Field("e")
     private String email;
 
+    @Field("d")
     private String primaryDomain;
 
+    @Field("g")
     private String googleUniqueId;
 
-    @Indexed
+    // Indexed (with optional TTL) by AuthenticationLogRetentionInitializer
+    @Field("ts")
     private LocalDateTime timestamp;
 
-    private String ipAddress;
+    // IP literal in 16-byte form (IPv4 mapped into IPv6)
+    @Field("ip")
+    private byte[] ip;
 
-    private String userAgent;
+    // Only set when the client address is not an IP literal
+    @Field("ipr")
+    private String ipRaw;
+
+    // Id into the user_agents dictionary
+    @Field("ua")
+    private Long userAgentId;
 
+    @Field("r")
     private String failureReason;
 
+    @Field("s")
     private boolean successful;
 
+    @Transient
+    private String userAgent;
+
+    @Transient
+    private String browser;
+
+    @Transient
+    private String operatingSystem;
+
+    @Transient
+    private String deviceType;
+
     // Default constructor
     public AuthenticationLog() {
         this.timestamp = LocalDateTime.now();
@@ -48,7 +96,7 @@ public class AuthenticationLog {
         this.userId = userId;
         this.primaryDomain = primaryDomain;
         this.googleUniqueId = googleUniqueId;
-        this.ipAddress = ipAddress;
+        setIpAddress(ipAddress);
         this.userAgent = userAgent;
         this.timestamp = LocalDateTime.now();
         this.successful = true;
@@ -57,7 +105,7 @@ public class AuthenticationLog {
     // Constructor for failed login
     public AuthenticationLog(String email, String ipAddress, String userAgent, String failureReason) {
         this.email = email;
-        this.ipAddress = ipAddress;
+        setIpAddress(ipAddress);
         this.userAgent = userAgent;
         this.failureReason = failureReason;
         this.timestamp = LocalDateTime.now();
@@ -114,11 +162,22 @@ public class AuthenticationLog {
     }
 
     public String getIpAddress() {
-        return ipAddress;
+        return ip != null ? IpAddressCodec.decode(ip) : ipRaw;
     }
 
     public void setIpAddress(String ipAddress) {
-        this.ipAddress = ipAddress;
+        this.ip = IpAddressCodec.encode(ipAddress);
+        this.ipRaw = ip == null ? ipAddress : null;
+    }
+
+    @JsonIgnore
+    public byte[] getIp() {
+        return ip;
+    }
+
+    @JsonIgnore
+    public String getIpRaw() {
+        return ipRaw;
     }
 
     public String getUserAgent() {
@@ -127,6 +186,38 @@ public class AuthenticationLog {
 
     public void setUserAgent(String userAgent) {
         this.userAgent = userAgent;
+        // Re-encoded from the string on the next save
+        this.userAgentId = null;
+    }
+
+    @JsonIgnore
+    public Long getUserAgentId() {
+        return userAgentId;
+    }
+
+    /**
+     * Attach the dictionary entry of this log's user agent
+     *
+     * @param entry The dictionary entry
+     */
+    public void applyUserAgent(UserAgentEntry entry) {
+        this.userAgentId = entry.getId();
+        this.userAgent = entry.getValue();
+        this.browser = entry.getBrowser();
+        this.operatingSystem = entry.getOperatingSystem();
+        this.deviceType = entry.getDeviceType();
+    }
+
+    public String getBrowser() {
+        return browser;
+    }
+
+    public String getOperatingSystem() {
+        return operatingSystem;
+    }
+
+    public String getDeviceType() {
+        return deviceType;
     }
 
     public String getFailureReason() {
@@ -0,0 +1,150 @@
+package com.cloudmen.backend.domain.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * An email waiting to be sent, or the record of one that was.
+ * The message is stored fully rendered (RFC 822 bytes), so the dispatcher
+ * only has to hand it to the SMTP server. Sent and failed entries are removed
+ * by a TTL index 30 days after they completed.
+ */
+@Document(collection = "email_outbox")
+@CompoundIndexes({
+        // Backs the dispatcher's claim query on (status, nextAttemptAt)
+        @CompoundIndex(name = "status_nextAttemptAt", def = "{'status': 1, 'nextAttemptAt': 1}")
+})
+public class EmailOutboxEntry {
+
+    /**
+     * Delivery state of an outbox entry
+     */
+    public enum Status {
+        PENDING,
+        SENDING,
+        SENT,
+        FAILED
+    }
+
+    @Id
+    private String id;
+    private String recipients;
+    private String subject;
+    private byte[] message;
+    private Status status;
+    private int attempts;
+    private Date createdAt;
+    private Date nextAttemptAt;
+    private Date leaseExpiresAt;
+    private String lastError;
+
+    @Indexed(expireAfter = "30d")
+    private Date completedAt;
+
+    public EmailOutboxEntry() {
+        // Default constructor
+    }
+
+    public EmailOutboxEntry(String recipients, String subject, byte[] message) {
+        Date now = new Date();
+        this.recipients = recipients;
+        this.subject = subject;
+        this.message = message;
+        this.status = Status.PENDING;
+        this.createdAt = now;
+        this.nextAttemptAt = now;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getRecipients() {
+        return recipients;
+    }
+
+    public void setRecipients(String recipients) {
+        this.recipients = recipients;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public byte[] getMessage() {
+        return message;
+    }
+
+    public void setMessage(byte[] message) {
+        this.message = message;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Date nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Date getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(Date leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Date getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Date completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,158 @@
+package com.cloudmen.backend.domain.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pre-aggregated login counts for one domain in one hour or day.
+ * Rollups are updated incrementally as authentication logs are written, so
+ * analytics never have to scan the raw log collection. The id is derived from
+ * (granularity, domain, bucketStart) so concurrent upserts hit the same
+ * document.
+ */
+@Document(collection = "login_rollups")
+@CompoundIndexes({
+        @CompoundIndex(name = "granularity_domain_bucket", def = "{'granularity': 1, 'domain': 1, 'bucketStart': 1}"),
+        @CompoundIndex(name = "granularity_bucket", def = "{'granularity': 1, 'bucketStart': 1}")
+})
+public class LoginRollup {
+
+    /**
+     * Size of the time bucket a rollup covers
+     */
+    public enum Granularity {
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        /**
+         * Get the start of the bucket containing a timestamp
+         *
+         * @param timestamp The timestamp
+         * @return The bucket start
+         */
+        public LocalDateTime bucketStart(LocalDateTime timestamp) {
+            return timestamp.truncatedTo(unit);
+        }
+
+        /**
+         * Get the start of the bucket following the given one
+         *
+         * @param bucketStart The bucket start
+         * @return The next bucket start
+         */
+        public LocalDateTime next(LocalDateTime bucketStart) {
+            return bucketStart.plus(1, unit);
+        }
+    }
+
+    /** Domain used for logins that cannot be attributed to a domain */
+    public static final String UNKNOWN_DOMAIN = "unknown";
+
+    @Id
+    private String id;
+
+    private String domain;
+
+    private Granularity granularity;
+
+    private LocalDateTime bucketStart;
+
+    private long successCount;
+
+    private long failureCount;
+
+    // HyperLogLog registers of the users with a successful login, keyed by index
+    private Map<String, Integer> userRegisters = new HashMap<>();
+
+    public LoginRollup() {
+    }
+
+    public LoginRollup(Granularity granularity, String domain, LocalDateTime bucketStart) {
+        this.id = idFor(granularity, domain, bucketStart);
+        this.granularity = granularity;
+        this.domain = domain;
+        this.bucketStart = bucketStart;
+    }
+
+    /**
+     * Get the document id of a rollup bucket
+     *
+     * @param granularity The bucket granularity
+     * @param domain      The domain
+     * @param bucketStart The bucket start
+     * @return The rollup id
+     */
+    public static String idFor(Granularity granularity, String domain, LocalDateTime bucketStart) {
+        return granularity + ":" + domain + ":" + bucketStart.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public void setDomain(String domain) {
+        this.domain = domain;
+    }
+
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getSuccessCount() {
+        return successCount;
+    }
+
+    public void setSuccessCount(long successCount) {
+        this.successCount = successCount;
+    }
+
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    public void setFailureCount(long failureCount) {
+        this.failureCount = failureCount;
+    }
+
+    public Map<String, Integer> getUserRegisters() {
+        return userRegisters;
+    }
+
+    public void setUserRegisters(Map<String, Integer> userRegisters) {
+        this.userRegisters = userRegisters;
+    }
+}
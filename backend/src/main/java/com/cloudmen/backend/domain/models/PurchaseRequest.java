@@ -3,12 +3,20 @@ package com.cloudmen.backend.domain.models;
 import java.util.Date;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 /**
  * Model for storing purchase requests in MongoDB.
  */
 @Document(collection = "purchase_requests")
+@CompoundIndexes({
+        // Back the newest-first listings and their keyset pages on (requestDate, _id)
+        @CompoundIndex(name = "requestDate_id", def = "{'requestDate': -1, '_id': -1}"),
+        @CompoundIndex(name = "userEmail_requestDate", def = "{'userEmail': 1, 'requestDate': -1, '_id': -1}"),
+        @CompoundIndex(name = "domain_requestDate", def = "{'domain': 1, 'requestDate': -1, '_id': -1}")
+})
 public class PurchaseRequest {
 
     @Id
@@ -2,6 +2,9 @@ package com.cloudmen.backend.domain.models;
 
 import com.cloudmen.backend.domain.enums.CompanyStatusType;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -13,11 +16,19 @@ import java.util.Map;
  * Model class for storing Teamleader company data
  */
 @Document(collection = "teamleader_companies")
+@CompoundIndexes({
+        // Company listings sort by name (or status, then name) with _id as
+        // tie-breaker, for both offset and keyset pages
+        @CompoundIndex(name = "name_id", def = "{'name': 1, '_id': 1}"),
+        @CompoundIndex(name = "status_name_id", def = "{'status': 1, 'name': 1, '_id': 1}")
+})
 public class TeamleaderCompany {
 
     @Id
     private String id;
 
+    // Looked up on every sync and, together with _id, when resolving a company id
+    @Indexed
     private String teamleaderId;
     private String name;
     private String vatNumber;
@@ -32,6 +43,10 @@ public class TeamleaderCompany {
     private List<ContactInfo> contactInfo = new ArrayList<>();
     private Map<String, Object> customFields;
 
+    // Lower-case email and website domains, derived from the fields above at sync
+    @Indexed
+    private List<String> domains = new ArrayList<>();
+
     // Constructors
     public TeamleaderCompany() {
     }
@@ -140,6 +155,14 @@ public class TeamleaderCompany {
         this.customFields = customFields;
     }
 
+    public List<String> getDomains() {
+        return domains;
+    }
+
+    public void setDomains(List<String> domains) {
+        this.domains = domains;
+    }
+
     public CompanyStatusType getStatus() {
         return status;
     }
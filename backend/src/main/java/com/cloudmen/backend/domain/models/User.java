@@ -7,6 +7,7 @@ import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Document(collection = "users")
@@ -51,6 +52,23 @@ public class User {
         this.dateTimeAdded = LocalDateTime.now();
     }
 
+    // Copy constructor, used to hand out cached users that callers may modify
+    public User(User other) {
+        this.id = other.id;
+        this.email = other.email;
+        this.auth0Id = other.auth0Id;
+        this.name = other.name;
+        this.firstName = other.firstName;
+        this.lastName = other.lastName;
+        this.picture = other.picture;
+        this.roles = other.roles != null ? new ArrayList<>(other.roles) : null;
+        this.status = other.status;
+        this.primaryDomain = other.primaryDomain;
+        this.dateTimeAdded = other.dateTimeAdded;
+        this.dateTimeChanged = other.dateTimeChanged;
+        this.customerGoogleId = other.customerGoogleId;
+    }
+
     // Pre-persist method to set creation date if not set
     public void prePersist() {
         if (this.dateTimeAdded == null) {
@@ -0,0 +1,110 @@
+package com.cloudmen.backend.domain.models;
+
+import com.cloudmen.backend.utils.UserAgentParser;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+
+/**
+ * Dictionary entry for a distinct user-agent string.
+ * Authentication logs store only the id of their user agent; the raw string
+ * and its parsed browser, operating system and device family live here once.
+ * The id is derived from the string itself, so encoding never needs a lookup.
+ */
+@Document(collection = "user_agents")
+public class UserAgentEntry {
+
+    @Id
+    private Long id;
+
+    private String value;
+
+    private String browser;
+
+    private String operatingSystem;
+
+    private String deviceType;
+
+    private LocalDateTime firstSeen;
+
+    public UserAgentEntry() {
+    }
+
+    public UserAgentEntry(String value) {
+        this.id = idFor(value);
+        this.value = value;
+        this.browser = UserAgentParser.browser(value);
+        this.operatingSystem = UserAgentParser.operatingSystem(value);
+        this.deviceType = UserAgentParser.deviceType(value);
+        this.firstSeen = LocalDateTime.now();
+    }
+
+    /**
+     * Get the dictionary id of a user-agent string: the first 64 bits of its
+     * SHA-256 digest
+     *
+     * @param value The raw user-agent string
+     * @return The dictionary id
+     */
+    public static long idFor(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public String getBrowser() {
+        return browser;
+    }
+
+    public void setBrowser(String browser) {
+        this.browser = browser;
+    }
+
+    public String getOperatingSystem() {
+        return operatingSystem;
+    }
+
+    public void setOperatingSystem(String operatingSystem) {
+        this.operatingSystem = operatingSystem;
+    }
+
+    public String getDeviceType() {
+        return deviceType;
+    }
+
+    public void setDeviceType(String deviceType) {
+        this.deviceType = deviceType;
+    }
+
+    public LocalDateTime getFirstSeen() {
+        return firstSeen;
+    }
+
+    public void setFirstSeen(LocalDateTime firstSeen) {
+        this.firstSeen = firstSeen;
+    }
+}
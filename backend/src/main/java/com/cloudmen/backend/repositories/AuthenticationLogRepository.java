@@ -14,7 +14,8 @@ import java.util.List;
  * Provides methods to query authentication logs from the MongoDB database.
  */
 @Repository
-public interface AuthenticationLogRepository extends MongoRepository<AuthenticationLog, String> {
+public interface AuthenticationLogRepository
+                extends MongoRepository<AuthenticationLog, String>, AuthenticationLogRepositoryCustom {
 
         // Find logs by email
         List<AuthenticationLog> findByEmail(String email);
@@ -36,16 +37,17 @@ public interface AuthenticationLogRepository extends MongoRepository<Authenticat
 
         Page<AuthenticationLog> findBySuccessful(boolean successful, Pageable pageable);
 
-        // Find logs by IP address
-        List<AuthenticationLog> findByIpAddress(String ipAddress);
-
-        Page<AuthenticationLog> findByIpAddress(String ipAddress, Pageable pageable);
+        // Find logs by IP address: see AuthenticationLogRepositoryCustom (IPs are
+        // stored in binary form)
 
         // Find logs within a time range
         List<AuthenticationLog> findByTimestampBetween(LocalDateTime start, LocalDateTime end);
 
         Page<AuthenticationLog> findByTimestampBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
 
+        // Bulk delete of logs older than the cutoff, executed server-side
+        long deleteByTimestampBefore(LocalDateTime cutoff);
+
         // Find logs by email and success status
         List<AuthenticationLog> findByEmailAndSuccessful(String email, boolean successful);
 
@@ -57,22 +59,8 @@ public interface AuthenticationLogRepository extends MongoRepository<Authenticat
         Page<AuthenticationLog> findByPrimaryDomainAndSuccessful(String primaryDomain, boolean successful,
                         Pageable pageable);
 
-        // Combined filters
-        Page<AuthenticationLog> findByEmailAndPrimaryDomain(String email, String primaryDomain, Pageable pageable);
-
-        Page<AuthenticationLog> findByEmailAndSuccessfulAndTimestampBetween(
-                        String email, boolean successful, LocalDateTime start, LocalDateTime end, Pageable pageable);
-
-        Page<AuthenticationLog> findByPrimaryDomainAndSuccessfulAndTimestampBetween(
-                        String primaryDomain, boolean successful, LocalDateTime start, LocalDateTime end,
-                        Pageable pageable);
-
-        Page<AuthenticationLog> findByEmailAndPrimaryDomainAndSuccessful(
-                        String email, String primaryDomain, boolean successful, Pageable pageable);
-
-        Page<AuthenticationLog> findByEmailAndPrimaryDomainAndSuccessfulAndTimestampBetween(
-                        String email, String primaryDomain, boolean successful,
-                        LocalDateTime start, LocalDateTime end, Pageable pageable);
+        // Find the oldest log (archival starts from its day)
+        AuthenticationLog findTopByOrderByTimestampAsc();
 
         // Find the latest successful login for a by ID
         AuthenticationLog findTopByUserIdAndSuccessfulOrderByTimestampDesc(String userId, boolean successful);
@@ -0,0 +1,117 @@
+package com.cloudmen.backend.repositories;
+
+import com.cloudmen.backend.domain.models.AuthenticationLog;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Custom queries for AuthenticationLog that cannot be expressed as derived
+ * repository methods.
+ */
+public interface AuthenticationLogRepositoryCustom {
+
+    /**
+     * Find logs matching any combination of filters with a single query
+     *
+     * @param criteria The filters to apply
+     * @param pageable Pagination information
+     * @return Page of matching authentication logs
+     */
+    Page<AuthenticationLog> findFiltered(AuthenticationLogSearchCriteria criteria, Pageable pageable);
+
+    /**
+     * Find logs matching the filters at an arbitrary offset
+     *
+     * @param criteria The filters to apply
+     * @param sort     Sort order
+     * @param skip     Number of matching logs to skip
+     * @param limit    Maximum number of logs to return
+     * @return Matching authentication logs
+     */
+    List<AuthenticationLog> findFiltered(AuthenticationLogSearchCriteria criteria, Sort sort, long skip, int limit);
+
+    /**
+     * Count logs matching the filters
+     *
+     * @param criteria The filters to apply
+     * @return Number of matching logs
+     */
+    long countFiltered(AuthenticationLogSearchCriteria criteria);
+
+    /**
+     * Find logs by IP address or CIDR block
+     *
+     * @param ipAddress The IP address or CIDR block (e.g. 10.0.0.0/8)
+     * @return List of matching authentication logs
+     */
+    List<AuthenticationLog> findByIpAddress(String ipAddress);
+
+    /**
+     * Find logs by IP address or CIDR block with pagination
+     *
+     * @param ipAddress The IP address or CIDR block (e.g. 10.0.0.0/8)
+     * @param pageable  Pagination information
+     * @return Page of matching authentication logs
+     */
+    Page<AuthenticationLog> findByIpAddress(String ipAddress, Pageable pageable);
+
+    /**
+     * Find logs matching the filters one keyset page at a time, ordered by
+     * (timestamp, _id)
+     *
+     * @param criteria     The filters to apply
+     * @param direction    Sort direction on timestamp
+     * @param cursor       Cursor from a previous page, or null for the first page
+     * @param size         Page size
+     * @param includeTotal Whether to count all matching logs
+     * @return The page with cursors to its neighbours
+     */
+    KeysetPage<AuthenticationLog> findFilteredByCursor(AuthenticationLogSearchCriteria criteria,
+            Sort.Direction direction, String cursor, int size, boolean includeTotal);
+
+    /**
+     * Stream the fields needed for login rollups of all logs with a timestamp
+     * in [from, to), reading from a server-side cursor. The stream must be
+     * closed by the caller.
+     *
+     * @param from Inclusive lower bound
+     * @param to   Exclusive upper bound
+     * @return Stream of partially populated logs
+     */
+    Stream<AuthenticationLog> streamForRollup(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Stream all logs matching the filters in (timestamp, _id) order, reading
+     * from a server-side cursor. The stream must be closed by the caller.
+     *
+     * @param criteria  The filters to apply
+     * @param direction Sort direction on timestamp
+     * @return Stream of logs
+     */
+    Stream<AuthenticationLog> streamFiltered(AuthenticationLogSearchCriteria criteria, Sort.Direction direction);
+
+    /**
+     * Stream all logs with a timestamp in [from, to) in (timestamp, _id) order,
+     * reading from a server-side cursor. The stream must be closed by the
+     * caller.
+     *
+     * @param from Inclusive lower bound
+     * @param to   Exclusive upper bound
+     * @return Stream of logs
+     */
+    Stream<AuthenticationLog> streamForArchive(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Delete all logs with a timestamp in [from, to)
+     *
+     * @param from Inclusive lower bound
+     * @param to   Exclusive upper bound
+     * @return Number of deleted logs
+     */
+    long deleteByTimestampRange(LocalDateTime from, LocalDateTime to);
+}
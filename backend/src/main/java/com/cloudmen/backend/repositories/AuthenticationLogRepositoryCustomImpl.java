@@ -0,0 +1,105 @@
+package com.cloudmen.backend.repositories;
+
+import com.cloudmen.backend.domain.models.AuthenticationLog;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * MongoTemplate-backed implementation of AuthenticationLogRepositoryCustom
+ */
+public class AuthenticationLogRepositoryCustomImpl implements AuthenticationLogRepositoryCustom {
+
+    // Documents fetched per round trip when streaming from a cursor
+    private static final int STREAM_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final KeysetQuery<AuthenticationLog> keysetQuery;
+
+    public AuthenticationLogRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        // Same zone as the LocalDateTime converter in MongoConfig
+        this.keysetQuery = new KeysetQuery<>(mongoTemplate, AuthenticationLog.class, "timestamp",
+                log -> log.getTimestamp() == null ? null
+                        : Date.from(log.getTimestamp().atZone(ZoneId.systemDefault()).toInstant()),
+                AuthenticationLog::getId);
+    }
+
+    @Override
+    public Page<AuthenticationLog> findFiltered(AuthenticationLogSearchCriteria criteria, Pageable pageable) {
+        Query query = new Query(criteria.toCriteria()).with(pageable);
+        List<AuthenticationLog> logs = mongoTemplate.find(query, AuthenticationLog.class);
+
+        // The count is skipped when the page itself tells us the total
+        return PageableExecutionUtils.getPage(logs, pageable,
+                () -> mongoTemplate.count(Query.of(query).limit(-1).skip(-1), AuthenticationLog.class));
+    }
+
+    @Override
+    public List<AuthenticationLog> findFiltered(AuthenticationLogSearchCriteria criteria, Sort sort, long skip,
+            int limit) {
+        Query query = new Query(criteria.toCriteria()).with(sort).skip(skip).limit(limit);
+        return mongoTemplate.find(query, AuthenticationLog.class);
+    }
+
+    @Override
+    public long countFiltered(AuthenticationLogSearchCriteria criteria) {
+        return mongoTemplate.count(new Query(criteria.toCriteria()), AuthenticationLog.class);
+    }
+
+    @Override
+    public List<AuthenticationLog> findByIpAddress(String ipAddress) {
+        Query query = new Query(new AuthenticationLogSearchCriteria().ipAddress(ipAddress).toCriteria());
+        return mongoTemplate.find(query, AuthenticationLog.class);
+    }
+
+    @Override
+    public Page<AuthenticationLog> findByIpAddress(String ipAddress, Pageable pageable) {
+        return findFiltered(new AuthenticationLogSearchCriteria().ipAddress(ipAddress), pageable);
+    }
+
+    @Override
+    public KeysetPage<AuthenticationLog> findFilteredByCursor(AuthenticationLogSearchCriteria criteria,
+            Sort.Direction direction, String cursor, int size, boolean includeTotal) {
+        return keysetQuery.find(criteria.toCriteria(), direction, cursor, size, includeTotal);
+    }
+
+    @Override
+    public Stream<AuthenticationLog> streamForRollup(LocalDateTime from, LocalDateTime to) {
+        Query query = new Query(Criteria.where("timestamp").gte(from).lt(to));
+        query.fields().include("email", "primaryDomain", "successful", "timestamp");
+        return mongoTemplate.stream(query, AuthenticationLog.class);
+    }
+
+    @Override
+    public Stream<AuthenticationLog> streamFiltered(AuthenticationLogSearchCriteria criteria,
+            Sort.Direction direction) {
+        Query query = new Query(criteria.toCriteria())
+                .with(Sort.by(direction, "timestamp", "_id"))
+                .cursorBatchSize(STREAM_BATCH_SIZE);
+        return mongoTemplate.stream(query, AuthenticationLog.class);
+    }
+
+    @Override
+    public Stream<AuthenticationLog> streamForArchive(LocalDateTime from, LocalDateTime to) {
+        Query query = new Query(Criteria.where("timestamp").gte(from).lt(to))
+                .with(Sort.by(Sort.Direction.ASC, "timestamp", "_id"));
+        return mongoTemplate.stream(query, AuthenticationLog.class);
+    }
+
+    @Override
+    public long deleteByTimestampRange(LocalDateTime from, LocalDateTime to) {
+        Query query = new Query(Criteria.where("timestamp").gte(from).lt(to));
+        return mongoTemplate.remove(query, AuthenticationLog.class).getDeletedCount();
+    }
+}
@@ -0,0 +1,217 @@
+package com.cloudmen.backend.repositories;
+
+import com.cloudmen.backend.domain.models.AuthenticationLog;
+import com.cloudmen.backend.domain.models.UserAgentEntry;
+import com.cloudmen.backend.utils.IpAddressCodec;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Composable filter for authentication log searches.
+ * Every combination of filters is turned into a single query; equality
+ * filters come first and the timestamp range last, matching the compound
+ * indexes declared on AuthenticationLog. The IP filter accepts a single
+ * address or a CIDR block (e.g. 10.0.0.0/8).
+ */
+public class AuthenticationLogSearchCriteria {
+
+    private String email;
+    private String domain;
+    private Boolean successful;
+    private String ipAddress;
+    private String userAgent;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private boolean includeArchive;
+
+    public AuthenticationLogSearchCriteria email(String email) {
+        this.email = blankToNull(email);
+        return this;
+    }
+
+    public AuthenticationLogSearchCriteria domain(String domain) {
+        this.domain = blankToNull(domain);
+        return this;
+    }
+
+    public AuthenticationLogSearchCriteria successful(Boolean successful) {
+        this.successful = successful;
+        return this;
+    }
+
+    public AuthenticationLogSearchCriteria ipAddress(String ipAddress) {
+        this.ipAddress = blankToNull(ipAddress);
+        return this;
+    }
+
+    public AuthenticationLogSearchCriteria userAgent(String userAgent) {
+        this.userAgent = blankToNull(userAgent);
+        return this;
+    }
+
+    public AuthenticationLogSearchCriteria startDate(LocalDateTime startDate) {
+        this.startDate = startDate;
+        return this;
+    }
+
+    public AuthenticationLogSearchCriteria endDate(LocalDateTime endDate) {
+        this.endDate = endDate;
+        return this;
+    }
+
+    /**
+     * Also search archived logs when no start date in the archived range is
+     * given. Not a filter: it does not change which logs match.
+     */
+    public AuthenticationLogSearchCriteria includeArchive(boolean includeArchive) {
+        this.includeArchive = includeArchive;
+        return this;
+    }
+
+    /**
+     * Check whether any filter is set
+     *
+     * @return true if at least one filter is set
+     */
+    public boolean hasFilters() {
+        return email != null || domain != null || successful != null || ipAddress != null
+                || userAgent != null || startDate != null || endDate != null;
+    }
+
+    /**
+     * Build the Mongo criteria for the filters that are set
+     *
+     * @return Criteria matching all set filters (empty criteria matches all logs)
+     */
+    public Criteria toCriteria() {
+        Criteria criteria = new Criteria();
+
+        if (email != null) {
+            criteria.and("email").is(email);
+        }
+        if (domain != null) {
+            criteria.and("primaryDomain").is(domain);
+        }
+        if (successful != null) {
+            criteria.and("successful").is(successful);
+        }
+        if (ipAddress != null) {
+            byte[][] range = IpAddressCodec.range(ipAddress);
+            if (range == null) {
+                // Not an IP literal or CIDR block, so it can only be a raw address
+                criteria.and("ipRaw").is(ipAddress);
+            } else if (Arrays.equals(range[0], range[1])) {
+                criteria.and("ip").is(range[0]);
+            } else {
+                criteria.and("ip").gte(range[0]).lte(range[1]);
+            }
+        }
+        if (userAgent != null) {
+            // User agents are stored as dictionary ids derived from the string
+            criteria.and("userAgentId").is(UserAgentEntry.idFor(userAgent));
+        }
+        if (startDate != null || endDate != null) {
+            Criteria timestamp = criteria.and("timestamp");
+            if (startDate != null) {
+                timestamp.gte(startDate);
+            }
+            if (endDate != null) {
+                timestamp.lte(endDate);
+            }
+        }
+
+        return criteria;
+    }
+
+    /**
+     * Check a log against the filters in memory, with the same semantics as
+     * toCriteria. Used where logs are not read from Mongo (e.g. the archive).
+     *
+     * @param log The log to check
+     * @return true if the log matches all set filters
+     */
+    public boolean matches(AuthenticationLog log) {
+        if (email != null && !email.equals(log.getEmail())) {
+            return false;
+        }
+        if (domain != null && !domain.equals(log.getPrimaryDomain())) {
+            return false;
+        }
+        if (successful != null && successful != log.isSuccessful()) {
+            return false;
+        }
+        if (ipAddress != null) {
+            byte[][] range = IpAddressCodec.range(ipAddress);
+            if (range == null) {
+                if (!ipAddress.equals(log.getIpRaw())) {
+                    return false;
+                }
+            } else if (log.getIp() == null || Arrays.compareUnsigned(log.getIp(), range[0]) < 0
+                    || Arrays.compareUnsigned(log.getIp(), range[1]) > 0) {
+                return false;
+            }
+        }
+        if (userAgent != null && !userAgent.equals(log.getUserAgent())) {
+            return false;
+        }
+        LocalDateTime timestamp = log.getTimestamp();
+        if (startDate != null && (timestamp == null || timestamp.isBefore(startDate))) {
+            return false;
+        }
+        return endDate == null || (timestamp != null && !timestamp.isAfter(endDate));
+    }
+
+    /**
+     * Check whether any filter other than the time range is set
+     *
+     * @return true if a field filter is set
+     */
+    public boolean hasFieldFilters() {
+        return email != null || domain != null || successful != null || ipAddress != null || userAgent != null;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public Boolean getSuccessful() {
+        return successful;
+    }
+
+    public String getIpAddress() {
+        return ipAddress;
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public boolean isIncludeArchive() {
+        return includeArchive;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticationLogSearchCriteria{email=" + email + ", domain=" + domain + ", successful=" + successful
+                + ", ipAddress=" + ipAddress + ", userAgent=" + userAgent + ", startDate=" + startDate
+                + ", endDate=" + endDate + ", includeArchive=" + includeArchive + "}";
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
@@ -0,0 +1,20 @@
+package com.cloudmen.backend.repositories;
+
+import com.cloudmen.backend.domain.models.EmailOutboxEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the transactional email outbox
+ */
+@Repository
+public interface EmailOutboxRepository extends MongoRepository<EmailOutboxEntry, String>, EmailOutboxRepositoryCustom {
+
+    /**
+     * Count outbox entries in a given state
+     *
+     * @param status The delivery state
+     * @return The number of entries
+     */
+    long countByStatus(EmailOutboxEntry.Status status);
+}
@@ -0,0 +1,60 @@
+package com.cloudmen.backend.repositories;
+
+import com.cloudmen.backend.domain.models.EmailOutboxEntry;
+
+import java.util.Date;
+
+/**
+ * Atomic state transitions for outbox entries, so several dispatcher threads
+ * and instances can work on the outbox without sending an email twice
+ */
+public interface EmailOutboxRepositoryCustom {
+
+    /**
+     * Claim the oldest entry that is due for an attempt and count the attempt.
+     * Entries whose lease expired while SENDING (the sending instance died or
+     * hung) are claimed again, and count another attempt, so a message that
+     * keeps crashing its sender still reaches the maximum number of attempts.
+     *
+     * @param now        The current time
+     * @param leaseUntil Until when the claimed entry belongs to the caller
+     * @return The claimed entry, now SENDING with the attempt counted, or null
+     *         if nothing is due
+     */
+    EmailOutboxEntry claimNext(Date now, Date leaseUntil);
+
+    /**
+     * Record a successful delivery and drop the stored message body. Like the
+     * other outcomes, this only applies while the caller still holds the
+     * lease it claimed the entry with: if the lease expired and another worker
+     * claimed the entry, the late outcome is dropped.
+     *
+     * @param id     The entry id
+     * @param lease  The leaseExpiresAt the entry was claimed with
+     * @param sentAt When the message was accepted by the SMTP server
+     * @return false if the lease was lost and nothing was recorded
+     */
+    boolean markSent(String id, Date lease, Date sentAt);
+
+    /**
+     * Record a failed attempt and schedule the next one
+     *
+     * @param id            The entry id
+     * @param lease         The leaseExpiresAt the entry was claimed with
+     * @param nextAttemptAt When to try again
+     * @param error         The failure reason
+     * @return false if the lease was lost and nothing was recorded
+     */
+    boolean markRetry(String id, Date lease, Date nextAttemptAt, String error);
+
+    /**
+     * Record that an entry will not be attempted again
+     *
+     * @param id       The entry id
+     * @param lease    The leaseExpiresAt the entry was claimed with
+     * @param failedAt When the last attempt failed
+     * @param error    The failure reason
+     * @return false if the lease was lost and nothing was recorded
+     */
+    boolean markFailed(String id, Date lease, Date failedAt, String error);
+}
@@ -0,0 +1,75 @@
+package com.cloudmen.backend.repositories;
+
+import com.cloudmen.backend.domain.models.EmailOutboxEntry;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+
+/**
+ * MongoTemplate-backed implementation of EmailOutboxRepositoryCustom
+ */
+public class EmailOutboxRepositoryCustomImpl implements EmailOutboxRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public EmailOutboxRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public EmailOutboxEntry claimNext(Date now, Date leaseUntil) {
+        Criteria due = new Criteria().orOperator(
+                Criteria.where("status").is(EmailOutboxEntry.Status.PENDING).and("nextAttemptAt").lte(now),
+                Criteria.where("status").is(EmailOutboxEntry.Status.SENDING).and("leaseExpiresAt").lte(now));
+        Query query = new Query(due).with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+
+        Update update = new Update()
+                .set("status", EmailOutboxEntry.Status.SENDING)
+                .set("leaseExpiresAt", leaseUntil)
+                .inc("attempts", 1);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                EmailOutboxEntry.class);
+    }
+
+    @Override
+    public boolean markSent(String id, Date lease, Date sentAt) {
+        return complete(id, lease, new Update()
+                .set("status", EmailOutboxEntry.Status.SENT)
+                .set("completedAt", sentAt)
+                .unset("message")
+                .unset("leaseExpiresAt")
+                .unset("lastError"));
+    }
+
+    @Override
+    public boolean markRetry(String id, Date lease, Date nextAttemptAt, String error) {
+        return complete(id, lease, new Update()
+                .set("status", EmailOutboxEntry.Status.PENDING)
+                .set("nextAttemptAt", nextAttemptAt)
+                .set("lastError", error)
+                .unset("leaseExpiresAt"));
+    }
+
+    @Override
+    public boolean markFailed(String id, Date lease, Date failedAt, String error) {
+        return complete(id, lease, new Update()
+                .set("status", EmailOutboxEntry.Status.FAILED)
+                .set("completedAt", failedAt)
+                .set("lastError", error)
+                .unset("leaseExpiresAt"));
+    }
+
+    private boolean complete(String id, Date lease, Update update) {
+        // Only while this worker's claim still stands
+        Query claimed = new Query(Criteria.where("id").is(id)
+                .and("status").is(EmailOutboxEntry.Status.SENDING)
+                .and("leaseExpiresAt").is(lease));
+        return mongoTemplate.updateFirst(claimed, update, EmailOutboxEntry.class).getMatchedCount() > 0;
+    }
+}
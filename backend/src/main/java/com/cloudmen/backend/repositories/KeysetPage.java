@@ -0,0 +1,54 @@
+package com.cloudmen.backend.repositories;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) paginated listing.
+ * The cursors are opaque tokens; pass nextCursor or previousCursor back to
+ * fetch the neighbouring page. A null cursor means there is no page in that
+ * direction.
+ *
+ * @param <T> The item type
+ */
+public class KeysetPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+    private final String previousCursor;
+    private final Long totalItems;
+
+    public KeysetPage(List<T> items, String nextCursor, String previousCursor, Long totalItems) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+        this.totalItems = totalItems;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public String getPreviousCursor() {
+        return previousCursor;
+    }
+
+    /**
+     * @return The total number of matching items, or null when the count was
+     *         not requested
+     */
+    public Long getTotalItems() {
+        return totalItems;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean isHasPrevious() {
+        return previousCursor != null;
+    }
+}
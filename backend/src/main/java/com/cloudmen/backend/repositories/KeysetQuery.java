@@ -0,0 +1,214 @@
+package com.cloudmen.backend.repositories;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset (cursor) pagination over a date or string field with _id as
+ * tie-breaker.
+ * Each page is a range query on (sortField, _id) followed by a limit, so the
+ * cost of a page does not depend on how deep it is. Cursors encode the
+ * position of the first or last item of a page and are opaque to clients.
+ * Documents without a sort value sort before all others, as in MongoDB, and
+ * are paged through by _id.
+ *
+ * @param <T> The document type
+ */
+public class KeysetQuery<T> {
+
+    private static final String ID_FIELD = "_id";
+    private static final String AFTER = "a";
+    private static final String BEFORE = "b";
+    private static final String STRING_VALUE = "s";
+    private static final String NULL_VALUE = "n";
+
+    private final MongoTemplate mongoTemplate;
+    private final Class<T> type;
+    private final String sortField;
+    private final Function<T, ?> sortValue;
+    private final Function<T, String> idValue;
+
+    public KeysetQuery(MongoTemplate mongoTemplate, Class<T> type, String sortField,
+            Function<T, ?> sortValue, Function<T, String> idValue) {
+        this.mongoTemplate = mongoTemplate;
+        this.type = type;
+        this.sortField = sortField;
+        this.sortValue = sortValue;
+        this.idValue = idValue;
+    }
+
+    /**
+     * Fetch one page
+     *
+     * @param filter       Filter applied to every page
+     * @param direction    Sort direction of the listing
+     * @param cursor       Cursor from a previous page, or null for the first page
+     * @param size         Page size
+     * @param includeTotal Whether to count all matching documents
+     * @return The page with cursors to its neighbours
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public KeysetPage<T> find(Criteria filter, Sort.Direction direction, String cursor, int size,
+            boolean includeTotal) {
+        return find(filter, direction, cursor, size, includeTotal, null);
+    }
+
+    /**
+     * Fetch one page, loading only some fields of each document
+     *
+     * @param filter       Filter applied to every page
+     * @param direction    Sort direction of the listing
+     * @param cursor       Cursor from a previous page, or null for the first page
+     * @param size         Page size
+     * @param includeTotal Whether to count all matching documents
+     * @param fields       Document fields to load, or null for whole documents;
+     *                     the sort field is always loaded
+     * @return The page with cursors to its neighbours
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public KeysetPage<T> find(Criteria filter, Sort.Direction direction, String cursor, int size,
+            boolean includeTotal, Collection<String> fields) {
+        Position position = cursor == null || cursor.isBlank() ? null : Position.decode(cursor);
+        boolean backwards = position != null && position.before;
+
+        // Walking backwards reads the preceding items in reverse order
+        Sort.Direction readDirection = backwards ? reverse(direction) : direction;
+
+        Criteria base = filter != null ? filter : new Criteria();
+        Criteria criteria = position == null ? base
+                : new Criteria().andOperator(base, afterPosition(position, readDirection));
+        Query query = new Query(criteria)
+                .with(Sort.by(readDirection, sortField, ID_FIELD))
+                .limit(size + 1);
+        if (fields != null && !fields.isEmpty()) {
+            // The cursor is built from the sort field
+            query.fields().include(sortField);
+            SparseFieldset.project(query, fields);
+        }
+
+        List<T> items = new ArrayList<>(mongoTemplate.find(query, type));
+        boolean hasMore = items.size() > size;
+        if (hasMore) {
+            items = new ArrayList<>(items.subList(0, size));
+        }
+        if (backwards) {
+            Collections.reverse(items);
+        }
+
+        String next = null;
+        String previous = null;
+        if (!items.isEmpty()) {
+            T first = items.get(0);
+            T last = items.get(items.size() - 1);
+            if (backwards) {
+                next = encode(last, false);
+                previous = hasMore ? encode(first, true) : null;
+            } else {
+                next = hasMore ? encode(last, false) : null;
+                previous = position != null ? encode(first, true) : null;
+            }
+        }
+
+        Long total = includeTotal ? mongoTemplate.count(new Query(base), type) : null;
+        return new KeysetPage<>(items, next, previous, total);
+    }
+
+    private Criteria afterPosition(Position position, Sort.Direction readDirection) {
+        Object value = position.value;
+        Object id = ObjectId.isValid(position.id) ? new ObjectId(position.id) : position.id;
+        boolean descending = readDirection == Sort.Direction.DESC;
+        // is(null) also matches documents without the field
+        Criteria sameValue = new Criteria().andOperator(Criteria.where(sortField).is(value),
+                descending ? Criteria.where(ID_FIELD).lt(id) : Criteria.where(ID_FIELD).gt(id));
+        if (value == null) {
+            // Nulls sort first: ascending, every non-null value follows them;
+            // descending, only the remaining nulls do
+            return descending ? sameValue
+                    : new Criteria().orOperator(sameValue, Criteria.where(sortField).ne(null));
+        }
+        if (descending) {
+            // $lt only compares values of the same type, so nulls are added
+            return new Criteria().orOperator(
+                    Criteria.where(sortField).lt(value),
+                    sameValue,
+                    Criteria.where(sortField).is(null));
+        }
+        return new Criteria().orOperator(Criteria.where(sortField).gt(value), sameValue);
+    }
+
+    private String encode(T item, boolean before) {
+        String token = (before ? BEFORE : AFTER) + "|" + encodeValue(sortValue.apply(item)) + "|"
+                + idValue.apply(item);
+        return base64(token);
+    }
+
+    private static String encodeValue(Object value) {
+        if (value == null) {
+            return NULL_VALUE;
+        }
+        if (value instanceof String) {
+            // Strings may contain the separator, so they are encoded once more
+            return STRING_VALUE + base64((String) value);
+        }
+        if (value instanceof Date) {
+            return String.valueOf(((Date) value).getTime());
+        }
+        throw new IllegalStateException("Unsupported sort value type: " + value.getClass().getName());
+    }
+
+    private static String base64(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Sort.Direction reverse(Sort.Direction direction) {
+        return direction == Sort.Direction.ASC ? Sort.Direction.DESC : Sort.Direction.ASC;
+    }
+
+    private static final class Position {
+        private final boolean before;
+        private final Object value;
+        private final String id;
+
+        private Position(boolean before, Object value, String id) {
+            this.before = before;
+            this.value = value;
+            this.id = id;
+        }
+
+        private static Position decode(String cursor) {
+            try {
+                String token = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = token.split("\\|", 3);
+                if (parts.length != 3 || !(AFTER.equals(parts[0]) || BEFORE.equals(parts[0]))
+                        || parts[2].isEmpty()) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                Object value;
+                if (NULL_VALUE.equals(parts[1])) {
+                    value = null;
+                } else if (parts[1].startsWith(STRING_VALUE)) {
+                    value = new String(Base64.getUrlDecoder().decode(parts[1].substring(STRING_VALUE.length())),
+                            StandardCharsets.UTF_8);
+                } else {
+                    value = new Date(Long.parseLong(parts[1]));
+                }
+                return new Position(BEFORE.equals(parts[0]), value, parts[2]);
+            } catch (IllegalArgumentException e) {
+                // Also covers malformed Base64 and NumberFormatException
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.cloudmen.backend.repositories;
+
+import com.cloudmen.backend.domain.models.LoginRollup;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for pre-aggregated login rollups
+ */
+@Repository
+public interface LoginRollupRepository extends MongoRepository<LoginRollup, String>, LoginRollupRepositoryCustom {
+}
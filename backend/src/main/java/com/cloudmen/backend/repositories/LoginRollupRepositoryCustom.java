@@ -0,0 +1,40 @@
+package com.cloudmen.backend.repositories;
+
+import com.cloudmen.backend.domain.models.LoginRollup;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bulk writes and range reads for login rollups
+ */
+public interface LoginRollupRepositoryCustom {
+
+    /**
+     * Add the counts and sketches of the given deltas to the stored rollups,
+     * creating missing buckets, with one unordered bulk write
+     *
+     * @param deltas Per-bucket increments
+     */
+    void incrementAll(Collection<LoginRollup> deltas);
+
+    /**
+     * Overwrite the given rollup buckets with one unordered bulk write
+     *
+     * @param rollups Fully computed rollups
+     */
+    void replaceAll(Collection<LoginRollup> rollups);
+
+    /**
+     * Find rollups of one granularity whose bucket starts in [from, to)
+     *
+     * @param granularity The bucket granularity
+     * @param domain      Domain to restrict to, or null for all domains
+     * @param from        Inclusive lower bound
+     * @param to          Exclusive upper bound
+     * @return Matching rollups ordered by bucket start
+     */
+    List<LoginRollup> findRange(LoginRollup.Granularity granularity, String domain, LocalDateTime from,
+            LocalDateTime to);
+}
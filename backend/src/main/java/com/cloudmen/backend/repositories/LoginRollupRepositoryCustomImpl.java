@@ -0,0 +1,77 @@
+package com.cloudmen.backend.repositories;
+
+import com.cloudmen.backend.domain.models.LoginRollup;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MongoTemplate-backed implementation of LoginRollupRepositoryCustom
+ */
+public class LoginRollupRepositoryCustomImpl implements LoginRollupRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public LoginRollupRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void incrementAll(Collection<LoginRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LoginRollup.class);
+        for (LoginRollup delta : deltas) {
+            Update update = new Update()
+                    .setOnInsert("domain", delta.getDomain())
+                    .setOnInsert("granularity", delta.getGranularity())
+                    .setOnInsert("bucketStart", delta.getBucketStart())
+                    .inc("successCount", delta.getSuccessCount())
+                    .inc("failureCount", delta.getFailureCount());
+            // Registers only grow, so $max merges the sketch in place
+            for (Map.Entry<String, Integer> register : delta.getUserRegisters().entrySet()) {
+                update.max("userRegisters." + register.getKey(), register.getValue());
+            }
+            bulk.upsert(Query.query(Criteria.where("_id").is(delta.getId())), update);
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public void replaceAll(Collection<LoginRollup> rollups) {
+        if (rollups.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LoginRollup.class);
+        for (LoginRollup rollup : rollups) {
+            bulk.replaceOne(Query.query(Criteria.where("_id").is(rollup.getId())), rollup,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public List<LoginRollup> findRange(LoginRollup.Granularity granularity, String domain, LocalDateTime from,
+            LocalDateTime to) {
+        Criteria criteria = Criteria.where("granularity").is(granularity);
+        if (domain != null) {
+            criteria = criteria.and("domain").is(domain);
+        }
+        criteria = criteria.and("bucketStart").gte(from).lt(to);
+
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "bucketStart"));
+        return mongoTemplate.find(query, LoginRollup.class);
+    }
+}
@@ -12,7 +12,8 @@ import java.util.List;
  * Repository for PurchaseRequest operations.
  */
 @Repository
-public interface PurchaseRequestRepository extends MongoRepository<PurchaseRequest, String> {
+public interface PurchaseRequestRepository
+        extends MongoRepository<PurchaseRequest, String>, PurchaseRequestRepositoryCustom {
 
     /**
      * Find all purchase requests for a user.
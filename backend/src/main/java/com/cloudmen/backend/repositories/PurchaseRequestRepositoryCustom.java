@@ -0,0 +1,42 @@
+package com.cloudmen.backend.repositories;
+
+import com.cloudmen.backend.domain.models.PurchaseRequest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+
+/**
+ * Custom queries for PurchaseRequest that cannot be expressed as derived
+ * repository methods.
+ */
+public interface PurchaseRequestRepositoryCustom {
+
+    /**
+     * Find one page of purchase requests, loading only some fields of each
+     *
+     * @param userEmail Only include requests by this user (optional)
+     * @param domain    Only include requests for this domain (optional)
+     * @param pageable  Page and sort
+     * @param fields    Document fields to load, or null for whole documents
+     * @return The page of purchase requests
+     */
+    Page<PurchaseRequest> findPage(String userEmail, String domain, Pageable pageable, Collection<String> fields);
+
+    /**
+     * Find purchase requests one keyset page at a time, ordered by
+     * (requestDate, _id)
+     *
+     * @param userEmail    Only include requests by this user (optional)
+     * @param domain       Only include requests for this domain (optional)
+     * @param direction    Sort direction on requestDate
+     * @param cursor       Cursor from a previous page, or null for the first page
+     * @param size         Page size
+     * @param includeTotal Whether to count all matching requests
+     * @param fields       Document fields to load, or null for whole documents
+     * @return The page with cursors to its neighbours
+     */
+    KeysetPage<PurchaseRequest> findByCursor(String userEmail, String domain, Sort.Direction direction,
+            String cursor, int size, boolean includeTotal, Collection<String> fields);
+}
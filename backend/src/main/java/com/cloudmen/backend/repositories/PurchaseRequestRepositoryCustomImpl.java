@@ -0,0 +1,55 @@
+package com.cloudmen.backend.repositories;
+
+import com.cloudmen.backend.domain.models.PurchaseRequest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * MongoTemplate-backed implementation of PurchaseRequestRepositoryCustom
+ */
+public class PurchaseRequestRepositoryCustomImpl implements PurchaseRequestRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final KeysetQuery<PurchaseRequest> keysetQuery;
+
+    public PurchaseRequestRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.keysetQuery = new KeysetQuery<>(mongoTemplate, PurchaseRequest.class, "requestDate",
+                PurchaseRequest::getRequestDate, PurchaseRequest::getId);
+    }
+
+    @Override
+    public Page<PurchaseRequest> findPage(String userEmail, String domain, Pageable pageable,
+            Collection<String> fields) {
+        Criteria filter = filter(userEmail, domain);
+        Query query = SparseFieldset.project(new Query(filter).with(pageable), fields);
+        List<PurchaseRequest> requests = mongoTemplate.find(query, PurchaseRequest.class);
+        return PageableExecutionUtils.getPage(requests, pageable,
+                () -> mongoTemplate.count(new Query(filter), PurchaseRequest.class));
+    }
+
+    @Override
+    public KeysetPage<PurchaseRequest> findByCursor(String userEmail, String domain, Sort.Direction direction,
+            String cursor, int size, boolean includeTotal, Collection<String> fields) {
+        return keysetQuery.find(filter(userEmail, domain), direction, cursor, size, includeTotal, fields);
+    }
+
+    private static Criteria filter(String userEmail, String domain) {
+        Criteria filter = new Criteria();
+        if (userEmail != null && !userEmail.isBlank()) {
+            filter.and("userEmail").is(userEmail);
+        }
+        if (domain != null && !domain.isBlank()) {
+            filter.and("domain").is(domain);
+        }
+        return filter;
+    }
+}
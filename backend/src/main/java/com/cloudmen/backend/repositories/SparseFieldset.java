@@ -0,0 +1,145 @@
+package com.cloudmen.backend.repositories;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The fields a list endpoint should return, from an optional fields=a,b,c
+ * request parameter. Each response field maps to the document fields it is
+ * built from, so a list query loads only those fields (plus _id) instead of
+ * whole documents. Without a fields parameter every response field is
+ * returned and the document fields of all of them are loaded.
+ */
+public class SparseFieldset {
+
+    private final Set<String> responseFields;
+    private final Set<String> documentFields;
+    private final boolean sparse;
+
+    private SparseFieldset(Set<String> responseFields, Set<String> documentFields, boolean sparse) {
+        this.responseFields = responseFields;
+        this.documentFields = documentFields;
+        this.sparse = sparse;
+    }
+
+    /**
+     * Parse a fields parameter
+     *
+     * @param fields       Comma-separated response fields, or null/blank for all
+     * @param sourceFields Response field -> document fields it is built from,
+     *                     in response order
+     * @return The fieldset
+     * @throws IllegalArgumentException if a requested field is unknown
+     */
+    public static SparseFieldset parse(String fields, Map<String, List<String>> sourceFields) {
+        boolean sparse = fields != null && !fields.isBlank();
+        Set<String> responseFields = new LinkedHashSet<>();
+        if (sparse) {
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                if (!sourceFields.containsKey(name)) {
+                    throw new IllegalArgumentException("Unknown field '" + name + "'. Allowed fields: "
+                            + String.join(", ", sourceFields.keySet()));
+                }
+                responseFields.add(name);
+            }
+            sparse = !responseFields.isEmpty();
+        }
+        if (!sparse) {
+            responseFields.addAll(sourceFields.keySet());
+        }
+
+        Set<String> documentFields = new LinkedHashSet<>();
+        for (String field : responseFields) {
+            documentFields.addAll(sourceFields.get(field));
+        }
+        return new SparseFieldset(Collections.unmodifiableSet(responseFields),
+                Collections.unmodifiableSet(documentFields), sparse);
+    }
+
+    /**
+     * Build the source fields of a response that serializes documents as
+     * they are: an "id" field from _id and each other field from the document
+     * field of the same name
+     *
+     * @param fields The document fields, in response order
+     * @return Response field -> document fields
+     */
+    public static Map<String, List<String>> documentFields(String... fields) {
+        Map<String, List<String>> sourceFields = new LinkedHashMap<>();
+        sourceFields.put("id", List.of());
+        for (String field : fields) {
+            sourceFields.put(field, List.of(field));
+        }
+        return Collections.unmodifiableMap(sourceFields);
+    }
+
+    /**
+     * @return Whether the client asked for a subset of the fields
+     */
+    public boolean isSparse() {
+        return sparse;
+    }
+
+    /**
+     * @return The response fields to return, in response order
+     */
+    public Set<String> getResponseFields() {
+        return responseFields;
+    }
+
+    /**
+     * @return The document fields to load; _id is always loaded
+     */
+    public Set<String> getDocumentFields() {
+        return documentFields;
+    }
+
+    /**
+     * Restrict a query to the document fields of this fieldset
+     *
+     * @param query  The query to restrict
+     * @param fields The document fields to load, or null to load whole documents
+     * @return The same query
+     */
+    public static Query project(Query query, Collection<String> fields) {
+        if (fields != null && !fields.isEmpty()) {
+            query.fields().include(fields.toArray(new String[0]));
+        }
+        return query;
+    }
+
+    /**
+     * Drop the fields the client did not ask for from serialized items
+     *
+     * @param items        The items, as returned without a fields parameter
+     * @param objectMapper The mapper used for responses
+     * @return The items unchanged if all fields were requested, otherwise one
+     *         JSON object per item holding only the requested fields
+     */
+    public List<?> select(List<?> items, ObjectMapper objectMapper) {
+        if (!sparse) {
+            return items;
+        }
+        List<ObjectNode> selected = new ArrayList<>(items.size());
+        for (Object item : items) {
+            ObjectNode node = objectMapper.valueToTree(item);
+            node.retain(responseFields);
+            selected.add(node);
+        }
+        return selected;
+    }
+}
@@ -10,7 +10,8 @@ import java.util.Optional;
  * Repository for TeamleaderCompany entities
  */
 @Repository
-public interface TeamleaderCompanyRepository extends MongoRepository<TeamleaderCompany, String> {
+public interface TeamleaderCompanyRepository extends MongoRepository<TeamleaderCompany, String>,
+        TeamleaderCompanyRepositoryCustom {
 
     /**
      * Find a company by its Teamleader ID
@@ -28,6 +29,14 @@ public interface TeamleaderCompanyRepository extends MongoRepository<TeamleaderC
      */
     Iterable<TeamleaderCompany> findByNameContainingIgnoreCase(String name);
 
+    /**
+     * Find the first company that owns a domain, using the index on domains
+     * 
+     * @param domain The lower-case domain
+     * @return Optional containing the company if found
+     */
+    Optional<TeamleaderCompany> findFirstByDomains(String domain);
+
     /**
      * Delete a company by its Teamleader ID
      * 
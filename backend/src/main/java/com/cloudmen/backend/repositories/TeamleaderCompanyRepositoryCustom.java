@@ -0,0 +1,59 @@
+package com.cloudmen.backend.repositories;
+
+import com.cloudmen.backend.domain.enums.CompanyStatusType;
+import com.cloudmen.backend.domain.models.TeamleaderCompany;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Custom queries for TeamleaderCompany that cannot be expressed as derived
+ * repository methods.
+ */
+public interface TeamleaderCompanyRepositoryCustom {
+
+    /**
+     * Find one page of companies, loading only some fields of each
+     *
+     * @param status   Only include companies with this status (optional)
+     * @param pageable Page and sort, or unpaged with a sort for every company
+     * @param fields   Document fields to load, or null for whole documents
+     * @return The page of companies
+     */
+    Page<TeamleaderCompany> findPage(CompanyStatusType status, Pageable pageable, Collection<String> fields);
+
+    /**
+     * Find companies one keyset page at a time, ordered by (name, _id)
+     *
+     * @param status       Only include companies with this status (optional)
+     * @param direction    Sort direction on name
+     * @param cursor       Cursor from a previous page, or null for the first page
+     * @param size         Page size
+     * @param includeTotal Whether to count all matching companies
+     * @param fields       Document fields to load, or null for whole documents
+     * @return The page with cursors to its neighbours
+     */
+    KeysetPage<TeamleaderCompany> findByCursor(CompanyStatusType status, Sort.Direction direction, String cursor,
+            int size, boolean includeTotal, Collection<String> fields);
+
+    /**
+     * Find a company by MongoDB _id or by Teamleader ID, in one query
+     *
+     * @param id The MongoDB _id or the Teamleader ID
+     * @return The company, or empty if neither matches
+     */
+    Optional<TeamleaderCompany> findByIdOrTeamleaderId(String id);
+
+    /**
+     * Count companies per status in one aggregation. Companies without a
+     * stored status count as ACTIVE, the entity default.
+     *
+     * @return Status -> number of companies, including statuses without
+     *         companies
+     */
+    Map<CompanyStatusType, Long> countByStatus();
+}
@@ -0,0 +1,96 @@
+package com.cloudmen.backend.repositories;
+
+import com.cloudmen.backend.domain.enums.CompanyStatusType;
+import com.cloudmen.backend.domain.models.TeamleaderCompany;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * MongoTemplate-backed implementation of TeamleaderCompanyRepositoryCustom
+ */
+public class TeamleaderCompanyRepositoryCustomImpl implements TeamleaderCompanyRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final KeysetQuery<TeamleaderCompany> keysetQuery;
+
+    public TeamleaderCompanyRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.keysetQuery = new KeysetQuery<>(mongoTemplate, TeamleaderCompany.class, "name",
+                TeamleaderCompany::getName, TeamleaderCompany::getId);
+    }
+
+    @Override
+    public Page<TeamleaderCompany> findPage(CompanyStatusType status, Pageable pageable, Collection<String> fields) {
+        Criteria filter = statusFilter(status);
+        Query query = new Query(filter).with(pageable.getSort());
+        if (pageable.isPaged()) {
+            query.skip(pageable.getOffset()).limit(pageable.getPageSize());
+        }
+        query = SparseFieldset.project(query, fields);
+        List<TeamleaderCompany> companies = mongoTemplate.find(query, TeamleaderCompany.class);
+        return PageableExecutionUtils.getPage(companies, pageable,
+                () -> mongoTemplate.count(new Query(filter), TeamleaderCompany.class));
+    }
+
+    @Override
+    public KeysetPage<TeamleaderCompany> findByCursor(CompanyStatusType status, Sort.Direction direction,
+            String cursor, int size, boolean includeTotal, Collection<String> fields) {
+        return keysetQuery.find(statusFilter(status), direction, cursor, size, includeTotal, fields);
+    }
+
+    @Override
+    public Optional<TeamleaderCompany> findByIdOrTeamleaderId(String id) {
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("_id").is(id),
+                Criteria.where("teamleaderId").is(id)));
+        return Optional.ofNullable(mongoTemplate.findOne(query, TeamleaderCompany.class));
+    }
+
+    @Override
+    public Map<CompanyStatusType, Long> countByStatus() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.project()
+                        .and(ConditionalOperators.ifNull("status").then(CompanyStatusType.ACTIVE.name()))
+                        .as("status"),
+                Aggregation.group("status").count().as("count"));
+
+        Map<CompanyStatusType, Long> counts = new EnumMap<>(CompanyStatusType.class);
+        for (CompanyStatusType status : CompanyStatusType.values()) {
+            counts.put(status, 0L);
+        }
+        for (Document result : mongoTemplate.aggregate(aggregation, TeamleaderCompany.class, Document.class)) {
+            try {
+                counts.put(CompanyStatusType.valueOf(result.getString("_id")),
+                        ((Number) result.get("count")).longValue());
+            } catch (IllegalArgumentException e) {
+                // A status this version does not know; it has no bucket to count in
+            }
+        }
+        return counts;
+    }
+
+    private static Criteria statusFilter(CompanyStatusType status) {
+        Criteria filter = new Criteria();
+        if (status == CompanyStatusType.ACTIVE) {
+            // Companies stored without a status are read as ACTIVE
+            filter.and("status").in(status, null);
+        } else if (status != null) {
+            filter.and("status").is(status);
+        }
+        return filter;
+    }
+}
@@ -0,0 +1,12 @@
+package com.cloudmen.backend.repositories;
+
+import com.cloudmen.backend.domain.models.UserAgentEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the user-agent dictionary
+ */
+@Repository
+public interface UserAgentEntryRepository extends MongoRepository<UserAgentEntry, Long> {
+}
@@ -0,0 +1,68 @@
+package com.cloudmen.backend.repositories;
+
+import com.cloudmen.backend.domain.models.User;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Custom updates for User that cannot be expressed as derived repository
+ * methods.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Set only the given fields of a user in a single atomic findAndModify,
+     * without reading or replacing the rest of the document
+     *
+     * @param id     The user ID
+     * @param fields Property name -> new value
+     * @return The updated user, or empty if no user has this ID
+     */
+    Optional<User> updateFields(String id, Map<String, Object> fields);
+
+    /**
+     * Set only the given fields of a user if it also matches a condition, in a
+     * single atomic findAndModify. Used for transitions that must not be
+     * applied twice, e.g. approving a user only while it is still pending.
+     *
+     * @param id        The user ID
+     * @param condition Additional condition on the current document (optional)
+     * @param fields    Property name -> new value
+     * @return The updated user, or empty if no user has this ID or it does not
+     *         match the condition
+     */
+    Optional<User> updateFieldsIf(String id, Criteria condition, Map<String, Object> fields);
+
+    /**
+     * Apply several multi-document updates in one bulk write, in order
+     *
+     * @param updates Query -> update pairs; each update applies to every
+     *                matching user
+     * @return The total number of modified users
+     */
+    long bulkUpdate(List<Pair<Query, UpdateDefinition>> updates);
+
+    /**
+     * Find all users matching arbitrary criteria
+     *
+     * @param criteria The criteria
+     * @return Matching users
+     */
+    List<User> findByCriteria(Criteria criteria);
+
+    /**
+     * Find all users matching arbitrary criteria, loading only some fields
+     *
+     * @param criteria The criteria
+     * @param fields   Document fields to load, or null for whole documents
+     * @return Matching users
+     */
+    List<User> findByCriteria(Criteria criteria, Collection<String> fields);
+}
@@ -0,0 +1,68 @@
+package com.cloudmen.backend.repositories;
+
+import com.cloudmen.backend.domain.models.User;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * MongoTemplate-backed implementation of UserRepositoryCustom
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public UserRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<User> updateFields(String id, Map<String, Object> fields) {
+        return updateFieldsIf(id, null, fields);
+    }
+
+    @Override
+    public Optional<User> updateFieldsIf(String id, Criteria condition, Map<String, Object> fields) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (condition != null) {
+            criteria = new Criteria().andOperator(criteria, condition);
+        }
+
+        Update update = new Update();
+        fields.forEach(update::set);
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(new Query(criteria), update,
+                FindAndModifyOptions.options().returnNew(true), User.class));
+    }
+
+    @Override
+    public long bulkUpdate(List<Pair<Query, UpdateDefinition>> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, User.class)
+                .updateMulti(updates)
+                .execute()
+                .getModifiedCount();
+    }
+
+    @Override
+    public List<User> findByCriteria(Criteria criteria) {
+        return mongoTemplate.find(new Query(criteria), User.class);
+    }
+
+    @Override
+    public List<User> findByCriteria(Criteria criteria, Collection<String> fields) {
+        return mongoTemplate.find(SparseFieldset.project(new Query(criteria), fields), User.class);
+    }
+}
@@ -0,0 +1,127 @@
+package com.cloudmen.backend.repositories;
+
+import com.cloudmen.backend.domain.enums.RoleType;
+import com.cloudmen.backend.domain.enums.StatusType;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Composable filter selecting the users a bulk administration action or a
+ * user listing applies to: an explicit list of ids, a primary domain, a
+ * status, or a combination. Listings can also exclude a status and filter on
+ * a role.
+ */
+public class UserSearchCriteria {
+
+    private List<String> ids;
+    private String domain;
+    private StatusType status;
+    private StatusType excludeStatus;
+    private RoleType role;
+    private boolean ignoreDomainCase;
+
+    public UserSearchCriteria ids(List<String> ids) {
+        this.ids = ids == null || ids.isEmpty() ? null : new ArrayList<>(ids);
+        return this;
+    }
+
+    public UserSearchCriteria domain(String domain) {
+        this.domain = domain == null || domain.isBlank() ? null : domain;
+        return this;
+    }
+
+    public UserSearchCriteria status(StatusType status) {
+        this.status = status;
+        return this;
+    }
+
+    public UserSearchCriteria excludeStatus(StatusType excludeStatus) {
+        this.excludeStatus = excludeStatus;
+        return this;
+    }
+
+    public UserSearchCriteria role(RoleType role) {
+        this.role = role;
+        return this;
+    }
+
+    /**
+     * Match the domain regardless of case, as user listings always have
+     *
+     * @return This criteria
+     */
+    public UserSearchCriteria ignoreDomainCase() {
+        this.ignoreDomainCase = true;
+        return this;
+    }
+
+    /**
+     * Check whether the selection is narrowed by ids or domain
+     *
+     * @return true if ids or a domain are set
+     */
+    public boolean hasSelection() {
+        return ids != null || domain != null;
+    }
+
+    /**
+     * Build the Mongo criteria for the filters that are set
+     *
+     * @return Criteria matching all set filters (empty criteria matches all users)
+     */
+    public Criteria toCriteria() {
+        Criteria criteria = new Criteria();
+
+        if (ids != null) {
+            criteria.and("id").in(ids);
+        }
+        if (domain != null) {
+            if (ignoreDomainCase) {
+                criteria.and("primaryDomain").regex("^" + Pattern.quote(domain) + "$", "i");
+            } else {
+                criteria.and("primaryDomain").is(domain);
+            }
+        }
+        if (status != null && status == excludeStatus) {
+            criteria.and("status").in(List.of());
+        } else if (status != null) {
+            criteria.and("status").is(status);
+        } else if (excludeStatus != null) {
+            criteria.and("status").ne(excludeStatus);
+        }
+        if (role != null) {
+            criteria.and("roles").is(role);
+        }
+
+        return criteria;
+    }
+
+    public List<String> getIds() {
+        return ids;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public StatusType getStatus() {
+        return status;
+    }
+
+    public StatusType getExcludeStatus() {
+        return excludeStatus;
+    }
+
+    public RoleType getRole() {
+        return role;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSearchCriteria{ids=" + ids + ", domain=" + domain + ", status=" + status
+                + ", excludeStatus=" + excludeStatus + ", role=" + role + "}";
+    }
+}
@@ -58,7 +58,7 @@ public class AuthenticationLogFilter extends OncePerRequestFilter {
                     String email = extractEmailFromRequest(requestWrapper);
                     if (email != null) {
                         logger.info("Logging successful authentication in filter for: {}", email);
-                        authenticationLogService.logSuccessfulAuthentication(
+                        authenticationLogService.recordSuccessfulAuthentication(
                                 email, ipAddress, userAgent);
                     }
                 } else {
@@ -66,14 +66,14 @@ public class AuthenticationLogFilter extends OncePerRequestFilter {
                     String email = extractEmailFromRequest(requestWrapper);
                     String failureReason = "Authentication failed with status: " + responseWrapper.getStatus();
                     logger.info("Logging failed authentication in filter for: {}", email);
-                    authenticationLogService.logFailedAuthentication(
+                    authenticationLogService.recordFailedAuthentication(
                             email, ipAddress, userAgent, failureReason);
                 }
             } catch (Exception e) {
                 // Log exception during authentication
                 String email = extractEmailFromRequest(requestWrapper);
                 logger.error("Exception in authentication filter", e);
-                authenticationLogService.logFailedAuthentication(
+                authenticationLogService.recordFailedAuthentication(
                         email, ipAddress, userAgent, "Exception: " + e.getMessage());
                 throw e;
             }
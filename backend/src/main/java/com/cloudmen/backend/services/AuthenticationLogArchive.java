@@ -0,0 +1,560 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.domain.models.AuthenticationLog;
+import com.cloudmen.backend.domain.models.UserAgentEntry;
+import com.cloudmen.backend.repositories.AuthenticationLogRepository;
+import com.cloudmen.backend.repositories.AuthenticationLogSearchCriteria;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold storage for authentication logs.
+ * Logs older than auth-log.archive.after-days are moved out of Mongo into
+ * append-only, GZIP-compressed NDJSON segment files (one or more per day).
+ * Every segment has a small JSON sidecar with its time range, log count and
+ * the domains it contains; the sidecars are kept in memory so a search only
+ * decompresses the segments that can contain matches.
+ */
+@Service
+public class AuthenticationLogArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthenticationLogArchive.class);
+
+    private static final String SEGMENT_SUFFIX = ".ndjson.gz";
+    private static final String INDEX_SUFFIX = ".idx.json";
+    private static final DateTimeFormatter MONTH_DIRECTORY = DateTimeFormatter.ofPattern("yyyy/MM");
+
+    private final AuthenticationLogRepository authenticationLogRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader logReader;
+
+    // Sorted by segment start time
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    @Value("${auth-log.archive.directory:data/auth-log-archive}")
+    private String directory;
+
+    // 0 disables archival
+    @Value("${auth-log.archive.after-days:0}")
+    private int afterDays;
+
+    @Value("${auth-log.retention.days:0}")
+    private long retentionDays;
+
+    public AuthenticationLogArchive(AuthenticationLogRepository authenticationLogRepository,
+            ObjectMapper objectMapper) {
+        this.authenticationLogRepository = authenticationLogRepository;
+        this.objectMapper = objectMapper;
+        this.logReader = objectMapper.readerFor(AuthenticationLog.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Load the sparse index of all existing segments
+     */
+    @PostConstruct
+    public void loadIndex() {
+        Path root = Paths.get(directory);
+        List<Segment> loaded = new ArrayList<>();
+        if (Files.isDirectory(root)) {
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : (Iterable<Path>) files.filter(f -> f.toString().endsWith(INDEX_SUFFIX))::iterator) {
+                    Segment segment = objectMapper.readValue(file.toFile(), Segment.class);
+                    segment.setPath(file.resolveSibling(segment.getFile()).toString());
+                    loaded.add(segment);
+                }
+            } catch (IOException e) {
+                logger.error("Error loading authentication log archive index from {}", root, e);
+            }
+        }
+        loaded.sort(Comparator.comparing(Segment::getFrom));
+        segments.clear();
+        segments.addAll(loaded);
+
+        if (afterDays > 0 && retentionDays > 0 && afterDays >= retentionDays) {
+            logger.warn("auth-log.archive.after-days ({}) is not below auth-log.retention.days ({}); "
+                    + "logs will expire before they are archived", afterDays, retentionDays);
+        }
+        logger.info("Authentication log archive: {} segments in {}", segments.size(), root.toAbsolutePath());
+    }
+
+    /**
+     * Check whether archival is enabled
+     *
+     * @return true if logs are moved to the archive after a number of days
+     */
+    public boolean isEnabled() {
+        return afterDays > 0;
+    }
+
+    /**
+     * Check whether a search starting at the given time may need the archive
+     *
+     * @param start Start of the searched range
+     * @return true if archived logs exist at or after the start time; false
+     *         without a start time
+     */
+    public boolean covers(LocalDateTime start) {
+        return start != null && segments.stream().anyMatch(segment -> !segment.getTo().isBefore(start));
+    }
+
+    /**
+     * Check whether a search should read the archive: only for an explicit
+     * start time in the archived range, or when the caller opted in with
+     * includeArchive. Searches without a start date (the default view) stay
+     * on Mongo.
+     *
+     * @param criteria The filters of the search
+     * @return true if the archive should be searched
+     */
+    public boolean searches(AuthenticationLogSearchCriteria criteria) {
+        return criteria.isIncludeArchive() ? !segments.isEmpty() : covers(criteria.getStartDate());
+    }
+
+    /**
+     * Estimate the number of archived logs matching the filters from the
+     * index alone, without reading any segment. Exact when no field filter is
+     * set and the time range covers whole segments; an upper bound otherwise.
+     *
+     * @param criteria The filters to apply
+     * @return The estimated number of matches
+     */
+    public long estimateCount(AuthenticationLogSearchCriteria criteria) {
+        long count = 0;
+        for (Segment segment : segments) {
+            if (mayContain(segment, criteria)) {
+                count += segment.getCount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Archive every whole day older than the configured threshold
+     *
+     * @return The number of archived logs
+     */
+    public long archiveExpired() {
+        if (!isEnabled()) {
+            return 0;
+        }
+        return archiveBefore(LocalDate.now().minusDays(afterDays).atStartOfDay());
+    }
+
+    /**
+     * Move all logs older than the cutoff to the archive, one day at a time.
+     * Each day is written to a new segment and only deleted from Mongo once
+     * the segment and its index are on disk.
+     *
+     * @param cutoff Exclusive upper bound of the archived range
+     * @return The number of archived logs
+     */
+    public synchronized long archiveBefore(LocalDateTime cutoff) {
+        AuthenticationLog oldest = authenticationLogRepository.findTopByOrderByTimestampAsc();
+        if (oldest == null || oldest.getTimestamp() == null || !oldest.getTimestamp().isBefore(cutoff)) {
+            return 0;
+        }
+
+        long archived = 0;
+        for (LocalDateTime from = oldest.getTimestamp().toLocalDate().atStartOfDay(); from.isBefore(cutoff);
+                from = from.plusDays(1)) {
+            LocalDateTime to = from.plusDays(1).isBefore(cutoff) ? from.plusDays(1) : cutoff;
+            try {
+                archived += archiveRange(from, to);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to archive authentication logs from " + from, e);
+            }
+        }
+        logger.info("Archived {} authentication logs older than {}", archived, cutoff);
+        return archived;
+    }
+
+    /**
+     * Find archived logs matching the filters, in timestamp order.
+     * Segments are streamed one line at a time and the search stops once
+     * skip + limit matches were found; the total of an early stop is an
+     * estimate from the index (see {@link ArchiveResult#isExact()}).
+     *
+     * @param criteria   The filters to apply
+     * @param descending Whether to return the newest logs first
+     * @param skip       Number of matching logs to skip
+     * @param limit      Maximum number of logs to return
+     * @return The requested window and the total number of matches
+     */
+    public ArchiveResult find(AuthenticationLogSearchCriteria criteria, boolean descending, long skip, int limit) {
+        List<Segment> candidates = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (mayContain(segment, criteria)) {
+                candidates.add(segment);
+            }
+        }
+        if (descending) {
+            Collections.reverse(candidates);
+        }
+
+        long end = skip + limit;
+        List<AuthenticationLog> items = new ArrayList<>();
+        long total = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            Segment segment = candidates.get(i);
+            if (total >= end) {
+                return new ArchiveResult(items, total + countOf(candidates, i), false);
+            }
+
+            // The index count is exact when the whole segment matches
+            if (!criteria.hasFieldFilters() && within(segment, criteria) && total + segment.getCount() <= skip) {
+                total += segment.getCount();
+                continue;
+            }
+
+            if (descending) {
+                total = readNewest(segment, criteria, total, skip, end, items);
+                continue;
+            }
+
+            long[] position = { total };
+            long lines = scan(segment, criteria, log -> {
+                if (position[0] >= skip) {
+                    items.add(log);
+                }
+                position[0]++;
+                return position[0] < end;
+            });
+            total = position[0];
+            if (total >= end && lines < segment.getCount()) {
+                // Stopped inside the segment: its unread lines may match too
+                return new ArchiveResult(items, total + segment.getCount() - lines + countOf(candidates, i + 1),
+                        false);
+            }
+        }
+        return new ArchiveResult(items, total, true);
+    }
+
+    /**
+     * Pass every archived log matching the filters to an action, oldest
+     * first, reading one segment line at a time
+     *
+     * @param criteria The filters to apply
+     * @param action   The action to run for each log
+     */
+    public void forEach(AuthenticationLogSearchCriteria criteria, Consumer<AuthenticationLog> action) {
+        for (Segment segment : segments) {
+            if (mayContain(segment, criteria)) {
+                scan(segment, criteria, log -> {
+                    action.accept(log);
+                    return true;
+                });
+            }
+        }
+    }
+
+    /**
+     * Get the number of segments in the archive
+     *
+     * @return The segment count
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    private long archiveRange(LocalDateTime from, LocalDateTime to) throws IOException {
+        Path monthDirectory = Paths.get(directory, from.format(MONTH_DIRECTORY));
+        Files.createDirectories(monthDirectory);
+        // Timestamped names keep segments append-only if a day is archived twice
+        String name = "auth-logs-" + from.toLocalDate() + "-" + System.currentTimeMillis();
+        Path segmentFile = monthDirectory.resolve(name + SEGMENT_SUFFIX);
+        Path temporary = monthDirectory.resolve(name + SEGMENT_SUFFIX + ".tmp");
+
+        Segment segment = new Segment();
+        segment.setFile(segmentFile.getFileName().toString());
+        Set<String> domains = new TreeSet<>();
+        long count = 0;
+
+        try (Stream<AuthenticationLog> logs = authenticationLogRepository.streamForArchive(from, to);
+                Writer writer = new BufferedWriter(new OutputStreamWriter(
+                        new GZIPOutputStream(Files.newOutputStream(temporary)), StandardCharsets.UTF_8))) {
+            for (AuthenticationLog log : (Iterable<AuthenticationLog>) logs::iterator) {
+                writer.write(objectMapper.writeValueAsString(log));
+                writer.write('\n');
+                if (segment.getFrom() == null) {
+                    segment.setFrom(log.getTimestamp());
+                }
+                segment.setTo(log.getTimestamp());
+                addDomains(domains, log);
+                count++;
+            }
+        }
+
+        if (count == 0) {
+            Files.deleteIfExists(temporary);
+            return 0;
+        }
+
+        segment.setCount(count);
+        segment.setDomains(new ArrayList<>(domains));
+        Files.move(temporary, segmentFile, StandardCopyOption.ATOMIC_MOVE);
+
+        Path indexFile = monthDirectory.resolve(name + INDEX_SUFFIX);
+        Path indexTemporary = monthDirectory.resolve(name + INDEX_SUFFIX + ".tmp");
+        objectMapper.writeValue(indexTemporary.toFile(), segment);
+        Files.move(indexTemporary, indexFile, StandardCopyOption.ATOMIC_MOVE);
+        segment.setPath(segmentFile.toString());
+        addSegment(segment);
+
+        long deleted = authenticationLogRepository.deleteByTimestampRange(from, to);
+        logger.info("Archived {} authentication logs from {} to {} (deleted {})", count, from, segmentFile, deleted);
+        return count;
+    }
+
+    private void addSegment(Segment segment) {
+        List<Segment> updated = new ArrayList<>(segments);
+        updated.add(segment);
+        updated.sort(Comparator.comparing(Segment::getFrom));
+        segments.clear();
+        segments.addAll(updated);
+    }
+
+    /**
+     * Add the matches of a segment at descending positions skip to end to the
+     * items. Segments are written oldest first and cannot be read backwards,
+     * so the segment is read whole, keeping only its newest end - total
+     * matches in memory.
+     *
+     * @return The total number of matches including this segment
+     */
+    private long readNewest(Segment segment, AuthenticationLogSearchCriteria criteria, long total, long skip,
+            long end, List<AuthenticationLog> items) {
+        long keep = end - total;
+        Deque<AuthenticationLog> newest = new ArrayDeque<>();
+        long[] matched = { 0 };
+        scan(segment, criteria, log -> {
+            matched[0]++;
+            newest.addLast(log);
+            if (newest.size() > keep) {
+                newest.removeFirst();
+            }
+            return true;
+        });
+
+        long position = total;
+        for (Iterator<AuthenticationLog> logs = newest.descendingIterator(); logs.hasNext(); position++) {
+            AuthenticationLog log = logs.next();
+            if (position >= skip) {
+                items.add(log);
+            }
+        }
+        return total + matched[0];
+    }
+
+    private static long countOf(List<Segment> candidates, int from) {
+        long count = 0;
+        for (int i = from; i < candidates.size(); i++) {
+            count += candidates.get(i).getCount();
+        }
+        return count;
+    }
+
+    /**
+     * Pass the matching logs of a segment to an action until it returns false
+     *
+     * @return The number of lines read
+     */
+    private long scan(Segment segment, AuthenticationLogSearchCriteria criteria,
+            Predicate<AuthenticationLog> action) {
+        long lines = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(Paths.get(segment.getPath()))), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                lines++;
+                AuthenticationLog log = logReader.readValue(line);
+                if (log.getUserAgent() != null) {
+                    // Derived browser/OS/device fields are not stored in the segment
+                    log.applyUserAgent(new UserAgentEntry(log.getUserAgent()));
+                }
+                if (criteria.matches(log) && !action.test(log)) {
+                    break;
+                }
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive segment " + segment.getPath(), e);
+        }
+    }
+
+    private boolean mayContain(Segment segment, AuthenticationLogSearchCriteria criteria) {
+        if (criteria.getStartDate() != null && segment.getTo().isBefore(criteria.getStartDate())) {
+            return false;
+        }
+        if (criteria.getEndDate() != null && segment.getFrom().isAfter(criteria.getEndDate())) {
+            return false;
+        }
+        if (criteria.getDomain() != null && !segment.getDomains().contains(criteria.getDomain().toLowerCase())) {
+            return false;
+        }
+        String emailDomain = emailDomain(criteria.getEmail());
+        return emailDomain == null || segment.getDomains().contains(emailDomain);
+    }
+
+    private boolean within(Segment segment, AuthenticationLogSearchCriteria criteria) {
+        return (criteria.getStartDate() == null || !segment.getFrom().isBefore(criteria.getStartDate()))
+                && (criteria.getEndDate() == null || !segment.getTo().isAfter(criteria.getEndDate()));
+    }
+
+    private void addDomains(Set<String> domains, AuthenticationLog log) {
+        if (log.getPrimaryDomain() != null) {
+            domains.add(log.getPrimaryDomain().toLowerCase());
+        }
+        String emailDomain = emailDomain(log.getEmail());
+        if (emailDomain != null) {
+            domains.add(emailDomain);
+        }
+    }
+
+    private static String emailDomain(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.lastIndexOf('@');
+        return at >= 0 && at < email.length() - 1 ? email.substring(at + 1).toLowerCase() : null;
+    }
+
+    /**
+     * Matching archived logs for one page, plus the total number of matches
+     */
+    public static class ArchiveResult {
+        private final List<AuthenticationLog> items;
+        private final long total;
+        private final boolean exact;
+
+        public ArchiveResult(List<AuthenticationLog> items, long total) {
+            this(items, total, true);
+        }
+
+        public ArchiveResult(List<AuthenticationLog> items, long total, boolean exact) {
+            this.items = items;
+            this.total = total;
+            this.exact = exact;
+        }
+
+        /**
+         * @return false if the search stopped early and the total is an upper
+         *         bound from the index
+         */
+        public boolean isExact() {
+            return exact;
+        }
+
+        public List<AuthenticationLog> getItems() {
+            return items;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+
+    /**
+     * Sparse index entry describing one segment file
+     */
+    public static class Segment {
+        private String file;
+        private LocalDateTime from;
+        private LocalDateTime to;
+        private long count;
+        private List<String> domains = new ArrayList<>();
+
+        // Resolved location on disk, not stored in the index file
+        @JsonIgnore
+        private String path;
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        public LocalDateTime getFrom() {
+            return from;
+        }
+
+        public void setFrom(LocalDateTime from) {
+            this.from = from;
+        }
+
+        public LocalDateTime getTo() {
+            return to;
+        }
+
+        public void setTo(LocalDateTime to) {
+            this.to = to;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public List<String> getDomains() {
+            return domains;
+        }
+
+        public void setDomains(List<String> domains) {
+            this.domains = domains;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.domain.models.AuthenticationLog;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Translates between the user-agent string of an AuthenticationLog and its
+ * dictionary id on every write and read, so callers keep working with plain
+ * strings while only the id is stored. Reads that run inside
+ * UserAgentDictionary.inBatch look up all their user agents at once.
+ */
+@Component
+public class AuthenticationLogCodecListener extends AbstractMongoEventListener<AuthenticationLog> {
+
+    private final UserAgentDictionary userAgentDictionary;
+
+    public AuthenticationLogCodecListener(UserAgentDictionary userAgentDictionary) {
+        this.userAgentDictionary = userAgentDictionary;
+    }
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<AuthenticationLog> event) {
+        AuthenticationLog log = event.getSource();
+        if (log.getUserAgent() != null && log.getUserAgentId() == null) {
+            log.applyUserAgent(userAgentDictionary.encode(log.getUserAgent()));
+        }
+    }
+
+    @Override
+    public void onAfterConvert(AfterConvertEvent<AuthenticationLog> event) {
+        AuthenticationLog log = event.getSource();
+        // Deferred to the end of the read when it runs in a batch
+        userAgentDictionary.resolve(log.getUserAgentId(), log::applyUserAgent);
+    }
+}
@@ -3,16 +3,26 @@ package com.cloudmen.backend.services;
 import com.cloudmen.backend.domain.models.AuthenticationLog;
 import com.cloudmen.backend.domain.models.User;
 import com.cloudmen.backend.repositories.AuthenticationLogRepository;
+import com.cloudmen.backend.repositories.AuthenticationLogSearchCriteria;
+import com.cloudmen.backend.repositories.KeysetPage;
+import com.cloudmen.backend.utils.AuthenticationLogExportWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Service for managing authentication logs in the system.
@@ -26,7 +36,7 @@ public class AuthenticationLogService {
     private static final String LOG_FAILED_AUTH = "Logging failed authentication for email: {}, IP: {}, Reason: {}";
     private static final String LOG_ERROR_SUCCESS_AUTH = "Error logging successful authentication";
     private static final String LOG_ERROR_FAILED_AUTH = "Error logging failed authentication";
-    private static final String LOG_FILTERED_QUERY = "Getting filtered logs - Email: {}, Domain: {}, Successful: {}, StartDate: {}, EndDate: {}";
+    private static final String LOG_FILTERED_QUERY = "Getting filtered logs - {}";
     private static final String LOG_SERVICE_INIT = "AuthenticationLogService initialized";
     private static final String LOG_DELETE_OLD = "Deleting logs older than: {}";
     private static final String LOG_USER_FOUND = "User found: {}, ID: {}";
@@ -36,13 +46,57 @@ public class AuthenticationLogService {
     private static final Logger logger = LoggerFactory.getLogger(AuthenticationLogService.class);
     private final AuthenticationLogRepository authenticationLogRepository;
     private final UserService userService;
+    private final AuthenticationLogWriter authenticationLogWriter;
+    private final AuthenticationLogArchive authenticationLogArchive;
+    private final UserAgentDictionary userAgentDictionary;
 
-    public AuthenticationLogService(AuthenticationLogRepository authenticationLogRepository, UserService userService) {
+    public AuthenticationLogService(AuthenticationLogRepository authenticationLogRepository, UserService userService,
+            AuthenticationLogWriter authenticationLogWriter, AuthenticationLogArchive authenticationLogArchive,
+            UserAgentDictionary userAgentDictionary) {
         this.authenticationLogRepository = authenticationLogRepository;
         this.userService = userService;
+        this.authenticationLogWriter = authenticationLogWriter;
+        this.authenticationLogArchive = authenticationLogArchive;
+        this.userAgentDictionary = userAgentDictionary;
         logger.info(LOG_SERVICE_INIT);
     }
 
+    /**
+     * Record a successful authentication without waiting for it to be persisted.
+     * The log is written in the background and enriched with the user's details
+     * at that point.
+     * 
+     * @param email     The user's email
+     * @param ipAddress The IP address of the request
+     * @param userAgent The user agent string
+     * @return true if the log was queued, false if it was dropped
+     */
+    public boolean recordSuccessfulAuthentication(String email, String ipAddress, String userAgent) {
+        logger.debug(LOG_SUCCESS_AUTH, email, ipAddress);
+
+        AuthenticationLog log = new AuthenticationLog();
+        log.setEmail(email);
+        log.setIpAddress(ipAddress);
+        log.setUserAgent(userAgent);
+        log.setSuccessful(true);
+        return authenticationLogWriter.submit(log);
+    }
+
+    /**
+     * Record a failed authentication without waiting for it to be persisted
+     * 
+     * @param email         The user's email (can be null)
+     * @param ipAddress     The IP address of the request
+     * @param userAgent     The user agent string
+     * @param failureReason The reason for the authentication failure
+     * @return true if the log was queued, false if it was dropped
+     */
+    public boolean recordFailedAuthentication(String email, String ipAddress, String userAgent,
+            String failureReason) {
+        logger.debug(LOG_FAILED_AUTH, email, ipAddress, failureReason);
+        return authenticationLogWriter.submit(new AuthenticationLog(email, ipAddress, userAgent, failureReason));
+    }
+
     /**
      * Log a successful authentication
      * 
@@ -51,7 +105,6 @@ public class AuthenticationLogService {
      * @param userAgent The user agent string
      * @return The created AuthenticationLog
      */
-    @Transactional
     public AuthenticationLog logSuccessfulAuthentication(String email, String ipAddress, String userAgent) {
         logger.info(LOG_SUCCESS_AUTH, email, ipAddress);
 
@@ -102,7 +155,6 @@ public class AuthenticationLogService {
      * @param failureReason The reason for the authentication failure
      * @return The created AuthenticationLog
      */
-    @Transactional
     public AuthenticationLog logFailedAuthentication(String email, String ipAddress, String userAgent,
             String failureReason) {
         logger.info(LOG_FAILED_AUTH, email, ipAddress, failureReason);
@@ -125,11 +177,30 @@ public class AuthenticationLogService {
      * @return Page of authentication logs
      */
     public Page<AuthenticationLog> getLogsPaginated(Pageable pageable) {
-        return authenticationLogRepository.findAll(pageable);
+        return userAgentDictionary.inBatch(() -> authenticationLogRepository.findAll(pageable));
+    }
+
+    /**
+     * Get logs matching the filters one keyset page at a time.
+     * Unlike offset pagination, every page costs the same no matter how far
+     * back it is.
+     * 
+     * @param criteria     The filters to apply
+     * @param direction    Sort direction on timestamp
+     * @param cursor       Cursor from a previous page, or null for the first page
+     * @param size         Page size
+     * @param includeTotal Whether to count all matching logs
+     * @return The page with cursors to its neighbours
+     */
+    public KeysetPage<AuthenticationLog> getLogsByCursor(AuthenticationLogSearchCriteria criteria,
+            Sort.Direction direction, String cursor, int size, boolean includeTotal) {
+        return userAgentDictionary.inBatch(() -> authenticationLogRepository.findFilteredByCursor(criteria, direction,
+                cursor, size, includeTotal));
     }
 
     /**
-     * Generic method to handle paginated and non-paginated queries
+     * Generic method to handle paginated and non-paginated queries. The user
+     * agents of the returned logs are looked up in one query.
      * 
      * @param <T>      The return type (List or Page)
      * @param queryFn  Function to execute the query
@@ -138,7 +209,7 @@ public class AuthenticationLogService {
      */
     private <T> T executeQuery(QueryFunction<T> queryFn, String errorMsg) {
         try {
-            return queryFn.execute();
+            return userAgentDictionary.inBatch(queryFn::execute);
         } catch (Exception e) {
             logger.error(errorMsg, e);
             throw new RuntimeException(errorMsg, e);
@@ -274,6 +345,12 @@ public class AuthenticationLogService {
      * @return List of authentication logs within the time range
      */
     public List<AuthenticationLog> getLogsByTimeRange(LocalDateTime start, LocalDateTime end) {
+        if (authenticationLogArchive.covers(start)) {
+            AuthenticationLogSearchCriteria criteria = new AuthenticationLogSearchCriteria().startDate(start)
+                    .endDate(end);
+            return executeQuery(() -> findTiered(criteria, PageRequest.of(0, Integer.MAX_VALUE)).getContent(),
+                    "Error fetching logs by time range");
+        }
         return executeQuery(() -> authenticationLogRepository.findByTimestampBetween(start, end),
                 "Error fetching logs by time range");
     }
@@ -288,24 +365,29 @@ public class AuthenticationLogService {
      */
     public Page<AuthenticationLog> getLogsByTimeRangePaginated(LocalDateTime start, LocalDateTime end,
             Pageable pageable) {
+        if (authenticationLogArchive.covers(start) && isTimestampOrder(pageable.getSort())) {
+            AuthenticationLogSearchCriteria criteria = new AuthenticationLogSearchCriteria().startDate(start)
+                    .endDate(end);
+            return executeQuery(() -> findTiered(criteria, pageable), "Error fetching paginated logs by time range");
+        }
         return executeQuery(() -> authenticationLogRepository.findByTimestampBetween(start, end, pageable),
                 "Error fetching paginated logs by time range");
     }
 
     /**
-     * Delete logs older than a specified date
+     * Delete logs older than a specified date.
+     * Routine retention is handled by the TTL index on timestamp (see
+     * auth-log.retention.days); this is for one-off cleanups.
      * 
      * @param cutoffDate The cutoff date
+     * @return The number of deleted logs
      */
-    @Transactional
-    public void deleteLogsOlderThan(LocalDateTime cutoffDate) {
+    public long deleteLogsOlderThan(LocalDateTime cutoffDate) {
         logger.info(LOG_DELETE_OLD, cutoffDate);
         try {
-            // More efficient to use bulk delete than loading all logs into memory
-            List<AuthenticationLog> oldLogs = authenticationLogRepository.findByTimestampBetween(
-                    LocalDateTime.MIN, cutoffDate);
-            authenticationLogRepository.deleteAll(oldLogs);
-            logger.info("Deleted {} logs older than {}", oldLogs.size(), cutoffDate);
+            long deleted = authenticationLogRepository.deleteByTimestampBefore(cutoffDate);
+            logger.info("Deleted {} logs older than {}", deleted, cutoffDate);
+            return deleted;
         } catch (Exception e) {
             logger.error("Error deleting logs older than " + cutoffDate, e);
             throw new RuntimeException("Failed to delete old logs", e);
@@ -330,46 +412,127 @@ public class AuthenticationLogService {
             LocalDateTime startDate,
             LocalDateTime endDate,
             Pageable pageable) {
+        return getFilteredLogs(new AuthenticationLogSearchCriteria()
+                .email(email)
+                .domain(domain)
+                .successful(successful)
+                .startDate(startDate)
+                .endDate(endDate), pageable);
+    }
 
-        logger.info(LOG_FILTERED_QUERY, email, domain, successful, startDate, endDate);
+    /**
+     * Get logs matching any combination of filters with pagination.
+     * All filters are applied in a single query.
+     * 
+     * @param criteria The filters to apply
+     * @param pageable Pagination information
+     * @return Page of filtered authentication logs
+     */
+    public Page<AuthenticationLog> getFilteredLogs(AuthenticationLogSearchCriteria criteria, Pageable pageable) {
+        logger.info(LOG_FILTERED_QUERY, criteria);
 
         try {
-            // Handle all possible combinations of filters
-            if (email != null && domain != null && successful != null && startDate != null && endDate != null) {
-                return authenticationLogRepository.findByEmailAndPrimaryDomainAndSuccessfulAndTimestampBetween(
-                        email, domain, successful, startDate, endDate, pageable);
-            } else if (email != null && domain != null && successful != null) {
-                return authenticationLogRepository.findByEmailAndPrimaryDomainAndSuccessful(
-                        email, domain, successful, pageable);
-            } else if (email != null && successful != null && startDate != null && endDate != null) {
-                return authenticationLogRepository.findByEmailAndSuccessfulAndTimestampBetween(
-                        email, successful, startDate, endDate, pageable);
-            } else if (domain != null && successful != null && startDate != null && endDate != null) {
-                return authenticationLogRepository.findByPrimaryDomainAndSuccessfulAndTimestampBetween(
-                        domain, successful, startDate, endDate, pageable);
-            } else if (email != null && domain != null) {
-                return authenticationLogRepository.findByEmailAndPrimaryDomain(email, domain, pageable);
-            } else if (email != null && successful != null) {
-                return authenticationLogRepository.findByEmailAndSuccessful(email, successful, pageable);
-            } else if (domain != null && successful != null) {
-                return authenticationLogRepository.findByPrimaryDomainAndSuccessful(domain, successful, pageable);
-            } else if (startDate != null && endDate != null) {
-                return authenticationLogRepository.findByTimestampBetween(startDate, endDate, pageable);
-            } else if (email != null) {
-                return authenticationLogRepository.findByEmail(email, pageable);
-            } else if (domain != null) {
-                return authenticationLogRepository.findByPrimaryDomain(domain, pageable);
-            } else if (successful != null) {
-                return authenticationLogRepository.findBySuccessful(successful, pageable);
-            } else {
-                return authenticationLogRepository.findAll(pageable);
+            if (authenticationLogArchive.searches(criteria) && isTimestampOrder(pageable.getSort())) {
+                return userAgentDictionary.inBatch(() -> findTiered(criteria, pageable));
             }
+            return userAgentDictionary.inBatch(() -> authenticationLogRepository.findFiltered(criteria, pageable));
         } catch (Exception e) {
             logger.error("Error executing filtered logs query", e);
             throw new RuntimeException("Failed to retrieve filtered logs", e);
         }
     }
 
+    /**
+     * Write every log matching the filters to an output stream, oldest first.
+     * Archived logs are read segment by segment and Mongo through a cursor, so
+     * memory use does not depend on the number of exported logs.
+     * 
+     * @param criteria The filters to apply
+     * @param format   The export format
+     * @param out      The stream to write to (not closed)
+     * @return The number of exported logs
+     * @throws IOException If writing to the stream fails
+     */
+    public long exportLogs(AuthenticationLogSearchCriteria criteria, AuthenticationLogExportWriter.Format format,
+            OutputStream out) throws IOException {
+        logger.info("Exporting logs as {} - {}", format, criteria);
+        AuthenticationLogExportWriter writer = new AuthenticationLogExportWriter(format, out);
+        try {
+            if (authenticationLogArchive.searches(criteria)) {
+                authenticationLogArchive.forEach(criteria, log -> writeExportRow(writer, log));
+            }
+            try (Stream<AuthenticationLog> logs = authenticationLogRepository.streamFiltered(criteria,
+                    Sort.Direction.ASC)) {
+                logs.forEach(log -> writeExportRow(writer, log));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        logger.info("Exported {} logs", writer.getCount());
+        return writer.getCount();
+    }
+
+    private void writeExportRow(AuthenticationLogExportWriter writer, AuthenticationLog log) {
+        try {
+            writer.write(log);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Page through Mongo and the archive as if they were one collection.
+     * Archived logs are always older than the ones still in Mongo, so in
+     * descending order the page is filled from Mongo first and continues into
+     * the archive, and the other way around in ascending order. A page served
+     * entirely from Mongo does not read the archive: its total counts the
+     * archive from the segment index, which is an upper bound when field
+     * filters are set.
+     */
+    private Page<AuthenticationLog> findTiered(AuthenticationLogSearchCriteria criteria, Pageable pageable) {
+        Sort.Direction direction = pageable.getSort().isSorted()
+                && pageable.getSort().getOrderFor("timestamp").isAscending()
+                        ? Sort.Direction.ASC
+                        : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, "timestamp", "id");
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+
+        List<AuthenticationLog> content = new ArrayList<>();
+        long total;
+        if (direction == Sort.Direction.DESC) {
+            long hotTotal = authenticationLogRepository.countFiltered(criteria);
+            if (offset < hotTotal) {
+                content.addAll(authenticationLogRepository.findFiltered(criteria, sort, offset, size));
+            }
+            if (content.size() >= size) {
+                total = hotTotal + authenticationLogArchive.estimateCount(criteria);
+            } else {
+                AuthenticationLogArchive.ArchiveResult archived = authenticationLogArchive.find(criteria, true,
+                        Math.max(0, offset - hotTotal), size - content.size());
+                content.addAll(archived.getItems());
+                total = hotTotal + archived.getTotal();
+            }
+        } else {
+            AuthenticationLogArchive.ArchiveResult archived = authenticationLogArchive.find(criteria, false,
+                    offset, size);
+            content.addAll(archived.getItems());
+            long hotTotal = authenticationLogRepository.countFiltered(criteria);
+            // Only an exhausted, and so exact, archive search leaves room on the page
+            if (content.size() < size) {
+                content.addAll(authenticationLogRepository.findFiltered(criteria, sort,
+                        Math.max(0, offset - archived.getTotal()), size - content.size()));
+            }
+            total = hotTotal + archived.getTotal();
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private boolean isTimestampOrder(Sort sort) {
+        return sort.isUnsorted() || sort.stream().allMatch(order -> order.getProperty().equals("timestamp"));
+    }
+
     /**
      * Get the last successful login time for a user by ID
      * 
@@ -0,0 +1,384 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.domain.models.AuthenticationLog;
+import com.cloudmen.backend.domain.models.User;
+import com.cloudmen.backend.repositories.AuthenticationLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind writer for authentication logs.
+ * Log entries are queued on the request thread and persisted in batches by a
+ * single background worker, either when the batch size is reached or when the
+ * flush interval elapses. The user lookup that enriches successful logins is
+ * done per batch on the worker, so login requests never wait on Mongo.
+ * A batch that fails to insert is retried on the next flushes, up to
+ * auth-log.writer.max-retries times, and then inserted log by log so only
+ * the logs that still fail are dropped. Ids are assigned before the first
+ * attempt, so logs already written by a partial insert are not duplicated.
+ */
+@Component
+public class AuthenticationLogWriter {
+
+    /**
+     * What to do when a log arrives while the queue is full
+     */
+    public enum OverflowPolicy {
+        /** Discard the incoming entry */
+        DROP_NEWEST,
+        /** Discard the oldest queued entry to make room */
+        DROP_OLDEST,
+        /**
+         * Persist the incoming entry synchronously on the calling thread. This
+         * blocks the login request on Mongo, which is slow or down exactly
+         * when the queue is full; a failed write is counted and dropped, never
+         * thrown to the caller.
+         */
+        CALLER_RUNS
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthenticationLogWriter.class);
+
+    private final AuthenticationLogRepository authenticationLogRepository;
+    private final UserService userService;
+    private final LoginRollupService loginRollupService;
+
+    // Lock-free queue; the bound is enforced through the depth counter
+    private final ConcurrentLinkedQueue<AuthenticationLog> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    // Batch whose insert failed, retried before new logs are taken; only
+    // touched by flush()
+    private List<AuthenticationLog> retryBatch;
+    private int retryAttempts;
+
+    private ScheduledExecutorService worker;
+
+    @Value("${auth-log.writer.capacity:10000}")
+    private int capacity;
+
+    @Value("${auth-log.writer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${auth-log.writer.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${auth-log.writer.overflow-policy:DROP_OLDEST}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${auth-log.writer.max-retries:3}")
+    private int maxRetries;
+
+    public AuthenticationLogWriter(
+            AuthenticationLogRepository authenticationLogRepository,
+            UserService userService,
+            LoginRollupService loginRollupService,
+            MeterRegistry meterRegistry) {
+        this.authenticationLogRepository = authenticationLogRepository;
+        this.userService = userService;
+        this.loginRollupService = loginRollupService;
+
+        Gauge.builder("auth_log.writer.queue.depth", depth, AtomicInteger::get)
+                .description("Authentication logs waiting to be persisted")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("auth_log.writer.flush")
+                .description("Time taken to persist one batch of authentication logs")
+                .register(meterRegistry);
+        this.writtenCounter = meterRegistry.counter("auth_log.writer.written");
+        this.droppedCounter = meterRegistry.counter("auth_log.writer.dropped");
+        this.failedCounter = meterRegistry.counter("auth_log.writer.failed");
+    }
+
+    /**
+     * Start the background flush worker
+     */
+    @PostConstruct
+    public void start() {
+        worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "auth-log-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        worker.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Authentication log writer started (capacity: {}, batch size: {}, interval: {} ms, overflow: {})",
+                capacity, batchSize, flushIntervalMs, overflowPolicy);
+    }
+
+    /**
+     * Stop accepting scheduled flushes and drain whatever is still queued
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (worker != null) {
+            worker.shutdown();
+            try {
+                if (!worker.awaitTermination(10, TimeUnit.SECONDS)) {
+                    worker.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                worker.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        int remaining = depth.get();
+        if (remaining > 0) {
+            logger.info("Draining {} queued authentication logs before shutdown", remaining);
+        }
+        while (flush() > 0) {
+            // keep flushing until the queue is empty
+        }
+    }
+
+    /**
+     * Queue a log entry for persistence
+     *
+     * @param log The log entry
+     * @return true if the entry was accepted, false if it was dropped
+     */
+    public boolean submit(AuthenticationLog log) {
+        if (depth.incrementAndGet() > capacity) {
+            depth.decrementAndGet();
+            if (!handleOverflow(log)) {
+                return false;
+            }
+        } else {
+            queue.offer(log);
+        }
+
+        if (depth.get() >= batchSize && worker != null && flushRequested.compareAndSet(false, true)) {
+            try {
+                worker.execute(this::flushSafely);
+            } catch (Exception e) {
+                // Worker already shut down; the shutdown drain will pick the entry up
+                flushRequested.set(false);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Persist up to one batch of queued logs, or retry the batch whose insert
+     * failed before
+     *
+     * @return The number of logs taken from the queue or retried
+     */
+    public synchronized int flush() {
+        if (retryBatch != null) {
+            return retry();
+        }
+
+        List<AuthenticationLog> batch = new ArrayList<>(Math.min(batchSize, Math.max(depth.get(), 1)));
+        AuthenticationLog log;
+        while (batch.size() < batchSize && (log = queue.poll()) != null) {
+            depth.decrementAndGet();
+            batch.add(log);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        for (AuthenticationLog queued : batch) {
+            if (queued.getId() == null) {
+                queued.setId(new ObjectId().toHexString());
+            }
+        }
+        if (insert(batch)) {
+            updateRollups(batch);
+        } else {
+            retryBatch = batch;
+            retryAttempts = 0;
+        }
+        return batch.size();
+    }
+
+    /**
+     * Check whether a failed batch is waiting to be retried
+     *
+     * @return true if the next flush retries a batch
+     */
+    public synchronized boolean hasPendingRetry() {
+        return retryBatch != null;
+    }
+
+    /**
+     * Get the number of logs waiting to be persisted
+     *
+     * @return The current queue depth
+     */
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    private void flushSafely() {
+        flushRequested.set(false);
+        try {
+            // Keep going while full batches are waiting, so bursts drain
+            // quickly; a failed batch waits for the next interval
+            while (flush() >= batchSize && !hasPendingRetry()) {
+                // continue
+            }
+        } catch (Exception e) {
+            logger.error("Unexpected error in authentication log writer", e);
+        }
+    }
+
+    private int retry() {
+        List<AuthenticationLog> batch = retryBatch;
+        retryAttempts++;
+        if (insert(batch)) {
+            logger.info("Persisted batch of {} authentication logs after {} retries", batch.size(), retryAttempts);
+            updateRollups(batch);
+        } else if (retryAttempts >= maxRetries) {
+            // Give up on the batch; only the logs that fail on their own are lost
+            insertOneByOne(batch);
+        } else {
+            return batch.size();
+        }
+        retryBatch = null;
+        retryAttempts = 0;
+        return batch.size();
+    }
+
+    private boolean insert(List<AuthenticationLog> batch) {
+        long start = System.nanoTime();
+        try {
+            enrichWithUserDetails(batch);
+            authenticationLogRepository.insert(batch);
+            writtenCounter.increment(batch.size());
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to persist batch of {} authentication logs (retry {} of {}): {}", batch.size(),
+                    retryBatch == batch ? retryAttempts : 0, maxRetries, e.getMessage());
+            return false;
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void insertOneByOne(List<AuthenticationLog> batch) {
+        List<AuthenticationLog> written = new ArrayList<>(batch.size());
+        for (AuthenticationLog log : batch) {
+            try {
+                authenticationLogRepository.insert(log);
+                writtenCounter.increment();
+                written.add(log);
+            } catch (DuplicateKeyException e) {
+                // Already written by a batch insert that failed part way
+                written.add(log);
+            } catch (Exception e) {
+                failedCounter.increment();
+                logger.error("Dropping authentication log for {} after {} failed batch attempts", log.getEmail(),
+                        retryAttempts + 1, e);
+            }
+        }
+        if (!written.isEmpty()) {
+            updateRollups(written);
+        }
+    }
+
+    private boolean handleOverflow(AuthenticationLog log) {
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                if (queue.poll() != null) {
+                    droppedCounter.increment();
+                    queue.offer(log);
+                    return true;
+                }
+                // Queue was drained concurrently, so there is room again
+                depth.incrementAndGet();
+                queue.offer(log);
+                return true;
+            case CALLER_RUNS:
+                List<AuthenticationLog> single = new ArrayList<>(List.of(log));
+                try {
+                    enrichWithUserDetails(single);
+                    authenticationLogRepository.insert(single);
+                } catch (Exception e) {
+                    // An audit log outage must not fail the login
+                    failedCounter.increment();
+                    logger.error("Authentication log queue full and synchronous write failed, dropping log for: {}",
+                            log.getEmail(), e);
+                    return false;
+                }
+                writtenCounter.increment();
+                updateRollups(single);
+                return true;
+            case DROP_NEWEST:
+            default:
+                droppedCounter.increment();
+                logger.warn("Authentication log queue full, dropping log for: {}", log.getEmail());
+                return false;
+        }
+    }
+
+    /**
+     * Fold persisted logs into the login rollups. A failure here does not undo
+     * the write; the affected days can be rebuilt with a rollup backfill.
+     */
+    private void updateRollups(List<AuthenticationLog> batch) {
+        try {
+            loginRollupService.record(batch);
+        } catch (Exception e) {
+            logger.error("Failed to update login rollups for {} authentication logs", batch.size(), e);
+        }
+    }
+
+    /**
+     * Fill in user details for successful logins with a single lookup per batch
+     */
+    private void enrichWithUserDetails(List<AuthenticationLog> batch) {
+        Set<String> emails = batch.stream()
+                .filter(AuthenticationLog::isSuccessful)
+                .filter(log -> log.getUserId() == null && log.getEmail() != null)
+                .map(AuthenticationLog::getEmail)
+                .collect(Collectors.toSet());
+        if (emails.isEmpty()) {
+            return;
+        }
+
+        Map<String, User> usersByEmail = userService.getUsersByEmails(emails).stream()
+                .collect(Collectors.toMap(User::getEmail, Function.identity(), (a, b) -> a));
+
+        for (AuthenticationLog log : batch) {
+            if (!log.isSuccessful() || log.getUserId() != null) {
+                continue;
+            }
+            User user = usersByEmail.get(log.getEmail());
+            if (user != null) {
+                log.setUserId(user.getId());
+                log.setPrimaryDomain(user.getPrimaryDomain());
+                log.setGoogleUniqueId(user.getCustomerGoogleId());
+            }
+        }
+    }
+}
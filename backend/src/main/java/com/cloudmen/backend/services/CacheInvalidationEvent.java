@@ -0,0 +1,43 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.domain.enums.CacheRegion;
+
+/**
+ * Application event telling local caches that a document changed on another
+ * instance (or, with change streams, on any instance). Caches of the region
+ * drop or reload the document, or everything when no id is given.
+ */
+public class CacheInvalidationEvent {
+
+    private final CacheRegion region;
+    private final String id;
+
+    public CacheInvalidationEvent(CacheRegion region, String id) {
+        this.region = region;
+        this.id = id;
+    }
+
+    public CacheRegion getRegion() {
+        return region;
+    }
+
+    /**
+     * @return The id of the changed document, or null if any document of the
+     *         region may have changed
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return Whether every cached document of the region must be dropped
+     */
+    public boolean isRegionWide() {
+        return id == null;
+    }
+
+    @Override
+    public String toString() {
+        return region + (id != null ? ":" + id : ":*");
+    }
+}
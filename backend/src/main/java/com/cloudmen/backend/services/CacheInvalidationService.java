@@ -0,0 +1,164 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.domain.enums.CacheRegion;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Tells other instances about writes to cached collections.
+ * On a replica set or sharded cluster, CacheInvalidationWatcher follows a
+ * change stream, which already carries every write, so nothing is published.
+ * On a standalone server, saves and deletes through Spring Data, and the
+ * partial and bulk updates reported with {@link #publish}, are appended to the
+ * small capped cache_invalidations collection that every instance polls.
+ * cache.invalidation.mode forces a mode (change-stream, polling or off).
+ */
+@Component
+public class CacheInvalidationService extends AbstractMongoEventListener<Object> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    public static final String LOG_COLLECTION = "cache_invalidations";
+
+    /**
+     * How invalidations travel between instances
+     */
+    public enum Mode {
+        CHANGE_STREAM, POLLING, OFF
+    }
+
+    private final MongoTemplate mongoTemplate;
+    // Marks log records written by this process, which its watcher skips
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile Mode mode;
+
+    @Value("${cache.invalidation.mode:auto}")
+    private String configuredMode;
+
+    @Value("${cache.invalidation.log-size-bytes:1048576}")
+    private long logSizeBytes;
+
+    public CacheInvalidationService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Get the invalidation mode, detecting on first use whether the server
+     * supports change streams
+     *
+     * @return The mode
+     */
+    public Mode getMode() {
+        Mode resolved = mode;
+        if (resolved == null) {
+            synchronized (this) {
+                if (mode == null) {
+                    mode = resolveMode();
+                    logger.info("Cache invalidation across instances: {}", mode);
+                    if (mode == Mode.POLLING) {
+                        createLogCollection();
+                    }
+                }
+                resolved = mode;
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * @return The id of this process in log records
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Report a write that raises no save or delete event (partial and bulk
+     * updates), so other instances drop what they cached of it
+     *
+     * @param region The region written to
+     * @param id     The id of the written document, or null if any document of
+     *               the region may have changed
+     */
+    public void publish(CacheRegion region, String id) {
+        if (getMode() != Mode.POLLING) {
+            return;
+        }
+        try {
+            mongoTemplate.getCollection(LOG_COLLECTION).insertOne(new Document("region", region.name())
+                    .append("documentId", id)
+                    .append("origin", instanceId));
+        } catch (Exception e) {
+            // The write itself succeeded; other instances catch up when their entries expire
+            logger.warn("Could not publish cache invalidation for {} {}: {}", region, id, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        CacheRegion region = CacheRegion.forCollection(event.getCollectionName());
+        if (region != null && event.getDocument() != null) {
+            publish(region, idOf(event.getDocument().get("_id")));
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        CacheRegion region = CacheRegion.forCollection(event.getCollectionName());
+        if (region != null) {
+            // Deletes by anything other than a single id invalidate the whole region
+            publish(region, idOf(event.getSource().get("_id")));
+        }
+    }
+
+    private Mode resolveMode() {
+        switch (configuredMode.toLowerCase(Locale.ROOT)) {
+            case "off":
+                return Mode.OFF;
+            case "polling":
+                return Mode.POLLING;
+            case "change-stream":
+                return Mode.CHANGE_STREAM;
+            default:
+                try {
+                    Document hello = mongoTemplate.getDb().runCommand(new Document("hello", 1));
+                    // Change streams need a replica set or a sharded cluster (mongos)
+                    boolean changeStreams = hello.containsKey("setName") || "isdbgrid".equals(hello.get("msg"));
+                    return changeStreams ? Mode.CHANGE_STREAM : Mode.POLLING;
+                } catch (Exception e) {
+                    logger.warn("Could not detect change stream support, polling instead: {}", e.getMessage());
+                    return Mode.POLLING;
+                }
+        }
+    }
+
+    private void createLogCollection() {
+        try {
+            if (!mongoTemplate.collectionExists(LOG_COLLECTION)) {
+                mongoTemplate.createCollection(LOG_COLLECTION, CollectionOptions.empty().capped().size(logSizeBytes));
+            }
+        } catch (Exception e) {
+            // Most likely created by another instance at the same time
+            logger.debug("Could not create {}: {}", LOG_COLLECTION, e.getMessage());
+        }
+    }
+
+    private static String idOf(Object id) {
+        if (id instanceof ObjectId) {
+            return ((ObjectId) id).toHexString();
+        }
+        return id instanceof String ? (String) id : null;
+    }
+}
@@ -0,0 +1,322 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.domain.enums.CacheRegion;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns writes made on any instance into CacheInvalidationEvents for the
+ * local caches. Follows a change stream on the cached collections when the
+ * server supports them, and otherwise polls the cache_invalidations log
+ * written by CacheInvalidationService. The position reached (change stream
+ * resume token, or time of the last log record) is checkpointed per node in
+ * cache_invalidation_checkpoints, so a restarted node first replays what it
+ * missed. Without a usable position, every region is invalidated once.
+ */
+@Component
+public class CacheInvalidationWatcher implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationWatcher.class);
+
+    public static final String CHECKPOINT_COLLECTION = "cache_invalidation_checkpoints";
+
+    // The resume point is older than the oldest oplog entry, or not a token
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    private static final int INVALID_RESUME_TOKEN = 260;
+    // Log records are read again for this long, since instance clocks differ slightly
+    private static final long REWIND_MS = 10000;
+    private static final long RETRY_DELAY_MS = 5000;
+
+    private final MongoTemplate mongoTemplate;
+    private final CacheInvalidationService invalidationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${cache.invalidation.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+
+    @Value("${cache.invalidation.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${cache.invalidation.checkpoint-interval-ms:5000}")
+    private long checkpointIntervalMs;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    // Only used on the watcher thread
+    private BsonDocument resumeToken;
+    private long lastSeenMillis = System.currentTimeMillis();
+    private final Set<ObjectId> seenRecords = new HashSet<>();
+    private boolean invalidateAllOnOpen;
+    private long lastCheckpointAt;
+
+    public CacheInvalidationWatcher(MongoTemplate mongoTemplate, CacheInvalidationService invalidationService,
+            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.invalidationService = invalidationService;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (invalidationService.getMode() == CacheInvalidationService.Mode.OFF) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "cache-invalidation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            loadCheckpoint();
+        } catch (Exception e) {
+            logger.warn("Could not load cache invalidation checkpoint: {}", e.getMessage());
+            invalidateAllOnOpen = true;
+        }
+        while (running) {
+            try {
+                if (invalidationService.getMode() == CacheInvalidationService.Mode.CHANGE_STREAM) {
+                    watchChangeStream();
+                } else {
+                    pollLog();
+                    sleep(pollIntervalMs);
+                }
+            } catch (MongoException e) {
+                if (!running) {
+                    break;
+                }
+                if (e.getCode() == CHANGE_STREAM_HISTORY_LOST || e.getCode() == INVALID_RESUME_TOKEN) {
+                    logger.warn("Cannot resume cache invalidation change stream, starting over: {}", e.getMessage());
+                    resumeToken = null;
+                    invalidateAllOnOpen = true;
+                } else {
+                    logger.warn("Cache invalidation watcher failed, retrying in {} ms: {}", RETRY_DELAY_MS,
+                            e.getMessage());
+                    sleep(RETRY_DELAY_MS);
+                }
+            } catch (Exception e) {
+                logger.error("Cache invalidation watcher failed, retrying in {} ms", RETRY_DELAY_MS, e);
+                sleep(RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    private void watchChangeStream() {
+        List<String> collections = Arrays.stream(CacheRegion.values()).map(CacheRegion::getCollection).toList();
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb()
+                .watch(List.of(Aggregates.match(Filters.in("ns.coll", collections))))
+                .maxAwaitTime(pollIntervalMs, TimeUnit.MILLISECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            logger.info("Watching {} for cache invalidations{}", collections,
+                    resumeToken != null ? " from the last checkpoint" : "");
+            invalidateAllIfUnpositioned();
+            while (running) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if (change != null) {
+                    onChange(change.getNamespace() != null ? change.getNamespace().getCollectionName() : null,
+                            change.getOperationType(), change.getDocumentKey());
+                }
+                BsonDocument token = cursor.getResumeToken();
+                if (token != null) {
+                    resumeToken = token;
+                }
+                checkpointIfDue();
+            }
+        }
+    }
+
+    /**
+     * Apply one change stream event
+     *
+     * @param collection  The collection changed, or null for database-wide
+     *                    events
+     * @param type        The kind of change
+     * @param documentKey The _id of the changed document, for document changes
+     */
+    public void onChange(String collection, OperationType type, BsonDocument documentKey) {
+        CacheRegion region = CacheRegion.forCollection(collection);
+        if (region == null) {
+            if (type == OperationType.INVALIDATE || type == OperationType.DROP_DATABASE) {
+                invalidateAll();
+            }
+            return;
+        }
+        switch (type) {
+            case INSERT:
+            case UPDATE:
+            case REPLACE:
+            case DELETE:
+                publish(region, idOf(documentKey));
+                break;
+            default:
+                // Drop, rename and the like affect every document
+                publish(region, null);
+        }
+    }
+
+    /**
+     * Apply the log records written since the last poll, except those written
+     * by this instance
+     *
+     * @return The number of invalidations applied
+     */
+    public int pollLog() {
+        invalidateAllIfUnpositioned();
+        long from = lastSeenMillis - REWIND_MS;
+        // Records older than the rewind window are never read again
+        seenRecords.removeIf(id -> id.getDate().getTime() < from);
+
+        int applied = 0;
+        try (MongoCursor<Document> records = mongoTemplate.getCollection(CacheInvalidationService.LOG_COLLECTION)
+                .find(Filters.gte("_id", ObjectId.getSmallestWithDate(new Date(from)))).iterator()) {
+            while (records.hasNext()) {
+                Document record = records.next();
+                ObjectId id = record.getObjectId("_id");
+                if (!seenRecords.add(id)) {
+                    continue;
+                }
+                lastSeenMillis = Math.max(lastSeenMillis, id.getDate().getTime());
+                if (invalidationService.getInstanceId().equals(record.getString("origin"))) {
+                    // Local caches were updated when the write was made
+                    continue;
+                }
+                CacheRegion region = regionOf(record.getString("region"));
+                if (region != null) {
+                    publish(region, record.getString("documentId"));
+                    applied++;
+                }
+            }
+        }
+        checkpointIfDue();
+        return applied;
+    }
+
+    private void loadCheckpoint() {
+        Document checkpoint = mongoTemplate.getCollection(CHECKPOINT_COLLECTION)
+                .find(Filters.eq("_id", nodeId)).first();
+        String token = checkpoint != null ? checkpoint.getString("resumeToken") : null;
+        Date lastSeen = checkpoint != null ? checkpoint.getDate("lastSeen") : null;
+
+        if (invalidationService.getMode() == CacheInvalidationService.Mode.CHANGE_STREAM && token != null) {
+            resumeToken = new BsonDocument("_data", new BsonString(token));
+        } else if (invalidationService.getMode() == CacheInvalidationService.Mode.POLLING && lastSeen != null) {
+            lastSeenMillis = lastSeen.getTime();
+        } else {
+            // Caches may have loaded before the watcher started
+            invalidateAllOnOpen = true;
+        }
+    }
+
+    private void checkpointIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastCheckpointAt < checkpointIntervalMs) {
+            return;
+        }
+        lastCheckpointAt = now;
+
+        Document checkpoint = new Document("_id", nodeId).append("updatedAt", new Date(now));
+        if (resumeToken != null && resumeToken.isString("_data")) {
+            checkpoint.append("resumeToken", resumeToken.getString("_data").getValue());
+        } else {
+            checkpoint.append("lastSeen", new Date(lastSeenMillis));
+        }
+        try {
+            mongoTemplate.getCollection(CHECKPOINT_COLLECTION).replaceOne(Filters.eq("_id", nodeId), checkpoint,
+                    new ReplaceOptions().upsert(true));
+        } catch (Exception e) {
+            logger.warn("Could not save cache invalidation checkpoint: {}", e.getMessage());
+        }
+    }
+
+    private void invalidateAllIfUnpositioned() {
+        if (invalidateAllOnOpen) {
+            invalidateAllOnOpen = false;
+            invalidateAll();
+        }
+    }
+
+    private void invalidateAll() {
+        for (CacheRegion region : CacheRegion.values()) {
+            publish(region, null);
+        }
+    }
+
+    private void publish(CacheRegion region, String id) {
+        CacheInvalidationEvent event = new CacheInvalidationEvent(region, id);
+        try {
+            eventPublisher.publishEvent(event);
+            meterRegistry.counter("cache.invalidation.events", "region", region.name()).increment();
+        } catch (Exception e) {
+            logger.error("Error applying cache invalidation {}", event, e);
+        }
+    }
+
+    private static String idOf(BsonDocument documentKey) {
+        BsonValue id = documentKey != null ? documentKey.get("_id") : null;
+        if (id != null && id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id != null && id.isString() ? id.asString().getValue() : null;
+    }
+
+    private static CacheRegion regionOf(String name) {
+        try {
+            return name != null ? CacheRegion.valueOf(name) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.domain.enums.CacheRegion;
+import com.cloudmen.backend.domain.models.TeamleaderCompany;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of which company (if any) owns an email domain.
+ * Both hits and misses are cached, for company.domain-cache.ttl-seconds.
+ * Only the company id and name are kept, so name lookups are served from
+ * memory and full lookups need one read by id. Any company save or delete,
+ * here or on another instance, clears the cache, since it can change which
+ * company a domain resolves to.
+ * Free-mail domains (company.domain-cache.free-mail-domains) never identify a
+ * company, so they are permanent misses and never reach the database.
+ */
+@Component
+public class CompanyDomainCache extends AbstractMongoEventListener<TeamleaderCompany> {
+
+    private static final Entry NOT_FOUND = new Entry(null, null, Long.MAX_VALUE);
+
+    private final Map<String, Entry> byDomain = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    @Value("${company.domain-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${company.domain-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${company.domain-cache.free-mail-domains:gmail.com,googlemail.com,outlook.com,hotmail.com,live.com,"
+            + "msn.com,yahoo.com,icloud.com,me.com,aol.com,proton.me,protonmail.com,gmx.com,hotmail.be,"
+            + "telenet.be,skynet.be}")
+    private Set<String> freeMailDomains;
+
+    public CompanyDomainCache(MeterRegistry meterRegistry) {
+        this.hitCounter = meterRegistry.counter("company.domain-cache.requests", "result", "hit");
+        this.missCounter = meterRegistry.counter("company.domain-cache.requests", "result", "miss");
+        Gauge.builder("company.domain-cache.size", byDomain, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Normalize an email address or domain to the lower-case domain
+     *
+     * @param emailOrDomain An email address or a domain
+     * @return The domain, or null if there is none
+     */
+    public static String normalize(String emailOrDomain) {
+        if (emailOrDomain == null) {
+            return null;
+        }
+        String domain = emailOrDomain.substring(emailOrDomain.lastIndexOf('@') + 1).trim().toLowerCase(Locale.ROOT);
+        return domain.isEmpty() ? null : domain;
+    }
+
+    /**
+     * Get the cached resolution of a domain
+     *
+     * @param domain A normalized domain
+     * @return The cached entry (which may record that no company matches), or
+     *         null on a miss
+     */
+    public Entry get(String domain) {
+        if (isFreeMail(domain)) {
+            hitCounter.increment();
+            return NOT_FOUND;
+        }
+        Entry entry = domain != null ? byDomain.get(domain) : null;
+        if (entry == null || entry.isExpired()) {
+            if (entry != null) {
+                byDomain.remove(domain, entry);
+            }
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        return entry;
+    }
+
+    /**
+     * Cache the company a domain resolved to
+     *
+     * @param domain  A normalized domain
+     * @param company The matching company, or null if none matches
+     */
+    public void put(String domain, TeamleaderCompany company) {
+        if (domain == null || isFreeMail(domain)) {
+            return;
+        }
+        if (byDomain.size() >= maxSize && !byDomain.containsKey(domain)) {
+            byDomain.values().removeIf(Entry::isExpired);
+            if (byDomain.size() >= maxSize) {
+                return;
+            }
+        }
+        long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000;
+        byDomain.put(domain, company != null
+                ? new Entry(company.getId(), company.getName(), expiresAt)
+                : new Entry(null, null, expiresAt));
+    }
+
+    /**
+     * Check whether a domain is a free-mail provider rather than a company
+     *
+     * @param domain A normalized domain
+     * @return true if the domain is a configured free-mail domain
+     */
+    public boolean isFreeMail(String domain) {
+        return domain != null && freeMailDomains.contains(domain);
+    }
+
+    /**
+     * Forget the resolution of a domain
+     *
+     * @param domain A normalized domain
+     */
+    public void invalidate(String domain) {
+        if (domain != null) {
+            byDomain.remove(domain);
+        }
+    }
+
+    /**
+     * Forget all resolutions
+     */
+    public void clear() {
+        byDomain.clear();
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<TeamleaderCompany> event) {
+        clear();
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<TeamleaderCompany> event) {
+        clear();
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.getRegion() == CacheRegion.COMPANIES) {
+            clear();
+        }
+    }
+
+    /**
+     * A cached domain resolution
+     */
+    public static class Entry {
+        private final String companyId;
+        private final String companyName;
+        private final long expiresAt;
+
+        private Entry(String companyId, String companyName, long expiresAt) {
+            this.companyId = companyId;
+            this.companyName = companyName;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * @return Whether a company matched the domain
+         */
+        public boolean isFound() {
+            return companyId != null;
+        }
+
+        public String getCompanyId() {
+            return companyId;
+        }
+
+        public String getCompanyName() {
+            return companyName;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
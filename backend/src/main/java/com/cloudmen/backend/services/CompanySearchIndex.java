@@ -0,0 +1,61 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.api.dtos.companies.CompanyListDTO;
+import com.cloudmen.backend.domain.enums.CacheRegion;
+import com.cloudmen.backend.domain.models.TeamleaderCompany;
+import com.cloudmen.backend.repositories.SparseFieldset;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Typeahead index of companies by name, VAT number and contact email.
+ * Results are the same DTOs the company list returns.
+ */
+@Component
+public class CompanySearchIndex extends SearchIndex<TeamleaderCompany, CompanyListDTO> {
+
+    public CompanySearchIndex(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        super(mongoTemplate, TeamleaderCompany.class, "companies", CacheRegion.COMPANIES, meterRegistry);
+    }
+
+    @Override
+    protected Query rebuildQuery() {
+        return SparseFieldset.project(new Query(),
+                SparseFieldset.parse(null, CompanyListDTO.SOURCE_FIELDS).getDocumentFields());
+    }
+
+    @Override
+    protected String idOf(TeamleaderCompany company) {
+        return company.getId();
+    }
+
+    @Override
+    protected List<String> termsOf(TeamleaderCompany company) {
+        // The name comes first: it breaks ties between equally good matches
+        List<String> terms = new ArrayList<>();
+        terms.add(company.getName());
+        if (company.getVatNumber() != null) {
+            terms.add(company.getVatNumber());
+            // Also without the spaces and dots, e.g. BE 0123.456.789 as be0123456789
+            terms.add(company.getVatNumber().replaceAll("[^\\p{Alnum}]", ""));
+        }
+        if (company.getContactInfo() != null) {
+            for (TeamleaderCompany.ContactInfo contact : company.getContactInfo()) {
+                if (contact.getType() != null && contact.getType().contains("email")) {
+                    terms.add(contact.getValue());
+                }
+            }
+        }
+        return terms;
+    }
+
+    @Override
+    protected CompanyListDTO resultOf(TeamleaderCompany company) {
+        return CompanyListDTO.fromEntity(company);
+    }
+}
@@ -0,0 +1,220 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.domain.enums.CacheRegion;
+import com.cloudmen.backend.domain.enums.CompanyStatusType;
+import com.cloudmen.backend.domain.models.TeamleaderCompany;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory copy of every company, indexed by id, Teamleader id and domain,
+ * with a version that changes whenever company data does.
+ * Every company save or delete, and every CacheInvalidationEvent for a write
+ * on another instance, bumps the version, which marks the loaded copy stale:
+ * {@link #current()} then returns null and callers read Mongo until
+ * {@link #refreshIfStale()} has reloaded it. A reload that finds companies
+ * changed without any of those (unreported bulk updates) bumps the version as
+ * well. Versions start with the instance start time, so two instances never
+ * hand out the same version for different data.
+ */
+@Component
+public class CompanySnapshot extends AbstractMongoEventListener<TeamleaderCompany> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompanySnapshot.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    @Value("${company.snapshot.max-age-ms:900000}")
+    private long maxAgeMs;
+
+    public CompanySnapshot(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        Gauge.builder("company.snapshot.size", this,
+                companySnapshot -> companySnapshot.snapshot != null ? companySnapshot.snapshot.companies.size() : 0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return The version of the company data, which changes on every write
+     */
+    public String getVersion() {
+        return epoch + "-" + generation.get();
+    }
+
+    /**
+     * Get the loaded companies, if they are up to date
+     *
+     * @return The snapshot, or null if it is not loaded yet or a write made it
+     *         stale
+     */
+    public Snapshot current() {
+        Snapshot loaded = snapshot;
+        return loaded != null && loaded.generation == generation.get() ? loaded : null;
+    }
+
+    /**
+     * Bump the version after writes that raise no save or delete events
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Reload the snapshot if a write made it stale or it is older than
+     * company.snapshot.max-age-ms
+     */
+    public void refreshIfStale() {
+        Snapshot loaded = snapshot;
+        if (loaded == null || loaded.generation != generation.get()
+                || System.currentTimeMillis() - loaded.loadedAt >= maxAgeMs) {
+            reload();
+        }
+    }
+
+    /**
+     * Load every company from the database
+     */
+    public synchronized void reload() {
+        long start = System.currentTimeMillis();
+        // Writes after this point bump the version past the loaded one
+        long loadedGeneration = generation.get();
+        List<TeamleaderCompany> companies = mongoTemplate.findAll(TeamleaderCompany.class);
+
+        Snapshot previous = snapshot;
+        if (previous != null && previous.generation == loadedGeneration && !previous.hasSameUpdates(companies)
+                && generation.compareAndSet(loadedGeneration, loadedGeneration + 1)) {
+            // Changed without a save event on this instance
+            loadedGeneration++;
+        }
+        snapshot = new Snapshot(loadedGeneration, start, companies);
+        logger.info("Loaded company snapshot {}-{} with {} companies in {} ms", epoch, loadedGeneration,
+                companies.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<TeamleaderCompany> event) {
+        invalidate();
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<TeamleaderCompany> event) {
+        invalidate();
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.getRegion() == CacheRegion.COMPANIES) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Immutable lookups over all companies at one version. The companies are
+     * shared by every reader and must not be modified.
+     */
+    public static final class Snapshot {
+        private final long generation;
+        private final long loadedAt;
+        private final List<TeamleaderCompany> companies;
+        private final Map<String, TeamleaderCompany> byId;
+        private final Map<String, TeamleaderCompany> byTeamleaderId;
+        private final Map<String, TeamleaderCompany> byDomain;
+
+        private Snapshot(long generation, long loadedAt, List<TeamleaderCompany> companies) {
+            this.generation = generation;
+            this.loadedAt = loadedAt;
+            this.companies = List.copyOf(companies);
+
+            Map<String, TeamleaderCompany> ids = new HashMap<>();
+            Map<String, TeamleaderCompany> teamleaderIds = new HashMap<>();
+            Map<String, TeamleaderCompany> domains = new HashMap<>();
+            for (TeamleaderCompany company : this.companies) {
+                ids.put(company.getId(), company);
+                if (company.getTeamleaderId() != null) {
+                    teamleaderIds.putIfAbsent(company.getTeamleaderId(), company);
+                }
+                if (company.getDomains() != null) {
+                    // Like findFirstByDomains, the first company in natural order wins
+                    company.getDomains().forEach(domain -> domains.putIfAbsent(domain, company));
+                }
+            }
+            this.byId = Collections.unmodifiableMap(ids);
+            this.byTeamleaderId = Collections.unmodifiableMap(teamleaderIds);
+            this.byDomain = Collections.unmodifiableMap(domains);
+        }
+
+        /**
+         * @return Every company, in natural order
+         */
+        public List<TeamleaderCompany> getCompanies() {
+            return companies;
+        }
+
+        /**
+         * @param id A MongoDB _id or a Teamleader id
+         * @return The company, if found
+         */
+        public Optional<TeamleaderCompany> findByIdOrTeamleaderId(String id) {
+            TeamleaderCompany company = byId.get(id);
+            return Optional.ofNullable(company != null ? company : byTeamleaderId.get(id));
+        }
+
+        /**
+         * @param domain A normalized domain
+         * @return The company owning the domain, if any
+         */
+        public Optional<TeamleaderCompany> findByDomain(String domain) {
+            return Optional.ofNullable(byDomain.get(domain));
+        }
+
+        /**
+         * @return Status -> number of companies, including statuses without
+         *         companies; companies without a status count as ACTIVE
+         */
+        public Map<CompanyStatusType, Long> countByStatus() {
+            Map<CompanyStatusType, Long> counts = new EnumMap<>(CompanyStatusType.class);
+            for (CompanyStatusType status : CompanyStatusType.values()) {
+                counts.put(status, 0L);
+            }
+            for (TeamleaderCompany company : companies) {
+                counts.merge(company.getStatus() != null ? company.getStatus() : CompanyStatusType.ACTIVE, 1L,
+                        Long::sum);
+            }
+            return counts;
+        }
+
+        private boolean hasSameUpdates(List<TeamleaderCompany> loaded) {
+            if (loaded.size() != companies.size()) {
+                return false;
+            }
+            for (TeamleaderCompany company : loaded) {
+                TeamleaderCompany known = byId.get(company.getId());
+                if (known == null || !Objects.equals(known.getUpdatedAt(), company.getUpdatedAt())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.cloudmen.backend.services;
 import com.cloudmen.backend.domain.models.TeamleaderCompany;
 import com.cloudmen.backend.repositories.TeamleaderCompanyRepository;
 import com.cloudmen.backend.config.TeamleaderConfig;
+import com.cloudmen.backend.utils.CompanyDomains;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -159,6 +160,9 @@ public class CompanySyncService {
         if (!contacts.isEmpty())
             company.setContactInfo(contacts);
 
+        // Domains for indexed lookups by email domain
+        company.setDomains(CompanyDomains.of(company));
+
         // Set timestamps
         LocalDateTime now = LocalDateTime.now();
         if (isNew)
@@ -0,0 +1,102 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.domain.models.EmailOutboxEntry;
+import com.cloudmen.backend.repositories.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * The application's JavaMailSender. Instead of talking to the SMTP server,
+ * send() renders each message and stores it in the email outbox, and the
+ * EmailOutboxDispatcher delivers it in the background. Callers therefore keep
+ * building messages exactly as before, but their requests no longer wait on
+ * (or fail with) the mail server. A MailException from send() now only means
+ * the message could not be stored.
+ */
+@Component
+@Primary
+public class EmailOutbox implements JavaMailSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutbox.class);
+
+    private final JavaMailSender smtpMailSender;
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailOutboxDispatcher dispatcher;
+    private final Counter enqueuedCounter;
+
+    public EmailOutbox(@Qualifier("smtpMailSender") JavaMailSender smtpMailSender,
+            EmailOutboxRepository outboxRepository, EmailOutboxDispatcher dispatcher,
+            MeterRegistry meterRegistry) {
+        this.smtpMailSender = smtpMailSender;
+        this.outboxRepository = outboxRepository;
+        this.dispatcher = dispatcher;
+        this.enqueuedCounter = meterRegistry.counter("email.outbox.enqueued");
+    }
+
+    @Override
+    public MimeMessage createMimeMessage() {
+        return smtpMailSender.createMimeMessage();
+    }
+
+    @Override
+    public MimeMessage createMimeMessage(InputStream contentStream) throws MailException {
+        return smtpMailSender.createMimeMessage(contentStream);
+    }
+
+    @Override
+    public void send(MimeMessage... mimeMessages) throws MailException {
+        for (MimeMessage mimeMessage : mimeMessages) {
+            EmailOutboxEntry entry = outboxRepository.save(toEntry(mimeMessage));
+            enqueuedCounter.increment();
+            logger.info("Queued email {} '{}' to {}", entry.getId(), entry.getSubject(), entry.getRecipients());
+        }
+        dispatcher.dispatch();
+    }
+
+    @Override
+    public void send(SimpleMailMessage... simpleMessages) throws MailException {
+        MimeMessage[] mimeMessages = new MimeMessage[simpleMessages.length];
+        for (int i = 0; i < simpleMessages.length; i++) {
+            MimeMailMessage message = new MimeMailMessage(createMimeMessage());
+            simpleMessages[i].copyTo(message);
+            mimeMessages[i] = message.getMimeMessage();
+        }
+        send(mimeMessages);
+    }
+
+    private EmailOutboxEntry toEntry(MimeMessage mimeMessage) {
+        try {
+            // Finalize the MIME headers now, so the stored bytes are exactly what gets sent
+            mimeMessage.saveChanges();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            mimeMessage.writeTo(bytes);
+
+            Address[] recipients = mimeMessage.getAllRecipients();
+            String to = recipients != null
+                    ? Arrays.stream(recipients).map(Address::toString).collect(Collectors.joining(", "))
+                    : null;
+            return new EmailOutboxEntry(to, mimeMessage.getSubject(), bytes.toByteArray());
+        } catch (MessagingException | IOException e) {
+            throw new MailPreparationException("Could not render email for the outbox", e);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.domain.models.EmailOutboxEntry;
+import com.cloudmen.backend.repositories.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers queued emails from the outbox over SMTP.
+ * At most email.outbox.concurrency workers send at once, across all callers.
+ * Each worker claims due entries one at a time until none are left, so a
+ * burst of emails is drained without waiting for the next poll. Failed
+ * attempts are retried with exponential backoff until
+ * email.outbox.max-attempts is reached; messages that cannot be parsed are
+ * failed immediately. Attempts are counted when an entry is claimed, so an
+ * entry whose sender crashed or hung is given up once it was claimed more
+ * than max-attempts times. An outcome is only recorded while the worker still
+ * holds its lease.
+ */
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final JavaMailSender smtpMailSender;
+    private final EmailOutboxRepository outboxRepository;
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final Counter sentCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @Value("${email.outbox.concurrency:2}")
+    private int concurrency;
+
+    @Value("${email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.initial-backoff-ms:30000}")
+    private long initialBackoffMs;
+
+    @Value("${email.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    @Value("${email.outbox.lease-ms:120000}")
+    private long leaseMs;
+
+    public EmailOutboxDispatcher(@Qualifier("smtpMailSender") JavaMailSender smtpMailSender,
+            EmailOutboxRepository outboxRepository, MeterRegistry meterRegistry) {
+        this.smtpMailSender = smtpMailSender;
+        this.outboxRepository = outboxRepository;
+        this.sentCounter = meterRegistry.counter("email.outbox.sent");
+        this.retryCounter = meterRegistry.counter("email.outbox.retries");
+        this.failedCounter = meterRegistry.counter("email.outbox.failed");
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setThreadNamePrefix("email-outbox-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * Start workers, up to the concurrency limit, to drain due entries.
+     * Returns immediately.
+     */
+    public void dispatch() {
+        int active;
+        while ((active = activeWorkers.get()) < concurrency) {
+            if (activeWorkers.compareAndSet(active, active + 1)) {
+                executor.execute(this::runWorker);
+            }
+        }
+    }
+
+    /**
+     * Send due entries on the calling thread until none are left
+     *
+     * @return The number of entries attempted
+     */
+    public int drain() {
+        int attempted = 0;
+        EmailOutboxEntry entry;
+        while ((entry = claimNext()) != null) {
+            attempt(entry);
+            attempted++;
+        }
+        return attempted;
+    }
+
+    /**
+     * Get the delay before the next attempt of an entry that failed
+     *
+     * @param attempts The number of attempts made so far
+     * @return The backoff in milliseconds
+     */
+    public long backoffMs(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(initialBackoffMs << exponent, maxBackoffMs);
+    }
+
+    private void runWorker() {
+        try {
+            drain();
+        } catch (Exception e) {
+            logger.error("Email outbox worker stopped: {}", e.getMessage(), e);
+        } finally {
+            activeWorkers.decrementAndGet();
+        }
+    }
+
+    private EmailOutboxEntry claimNext() {
+        long now = System.currentTimeMillis();
+        return outboxRepository.claimNext(new Date(now), new Date(now + leaseMs));
+    }
+
+    private void attempt(EmailOutboxEntry entry) {
+        // The claim already counted this attempt
+        int attempts = entry.getAttempts();
+        if (attempts > maxAttempts) {
+            // Earlier claims ran out their lease without recording an outcome
+            if (outboxRepository.markFailed(entry.getId(), entry.getLeaseExpiresAt(), new Date(),
+                    "No outcome recorded after " + maxAttempts + " attempts")) {
+                failedCounter.increment();
+                logger.error("Giving up on email {} to {}: its last {} attempts never completed", entry.getId(),
+                        entry.getRecipients(), maxAttempts);
+            }
+            return;
+        }
+        try {
+            smtpMailSender.send(smtpMailSender.createMimeMessage(new ByteArrayInputStream(entry.getMessage())));
+        } catch (RuntimeException e) {
+            // Not only MailException: an unexpected error must not stop the
+            // worker or leave the entry claimed until its lease runs out
+            fail(entry, attempts, e);
+            return;
+        }
+        if (!outboxRepository.markSent(entry.getId(), entry.getLeaseExpiresAt(), new Date())) {
+            leaseLost(entry);
+            return;
+        }
+        sentCounter.increment();
+        logger.info("Sent email {} to {} (attempt {})", entry.getId(), entry.getRecipients(), attempts);
+    }
+
+    private void fail(EmailOutboxEntry entry, int attempts, RuntimeException e) {
+        String error = truncate(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+        boolean permanent = e instanceof MailParseException || e instanceof MailPreparationException;
+
+        if (permanent || attempts >= maxAttempts) {
+            if (!outboxRepository.markFailed(entry.getId(), entry.getLeaseExpiresAt(), new Date(), error)) {
+                leaseLost(entry);
+                return;
+            }
+            failedCounter.increment();
+            logger.error("Giving up on email {} to {} after {} attempts: {}", entry.getId(),
+                    entry.getRecipients(), attempts, error);
+        } else {
+            long backoff = backoffMs(attempts);
+            if (!outboxRepository.markRetry(entry.getId(), entry.getLeaseExpiresAt(),
+                    new Date(System.currentTimeMillis() + backoff), error)) {
+                leaseLost(entry);
+                return;
+            }
+            retryCounter.increment();
+            if (e instanceof MailException) {
+                logger.warn("Failed to send email {} to {} (attempt {}), retrying in {} ms: {}", entry.getId(),
+                        entry.getRecipients(), attempts, backoff, error);
+            } else {
+                logger.warn("Unexpected error sending email {} to {} (attempt {}), retrying in {} ms",
+                        entry.getId(), entry.getRecipients(), attempts, backoff, e);
+            }
+        }
+    }
+
+    private void leaseLost(EmailOutboxEntry entry) {
+        logger.warn("Lease on email {} to {} expired before the attempt completed; another worker owns it now",
+                entry.getId(), entry.getRecipients());
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,70 @@
+package com.cloudmen.backend.services;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.time.Year;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders the HTML bodies of transactional emails from the Thymeleaf
+ * templates in templates/email. Thymeleaf keeps parsed templates in its
+ * template cache (spring.thymeleaf.cache), and every template is rendered once
+ * at startup so the first email after a deploy does not pay for parsing.
+ * Variables are HTML-escaped by the templates.
+ */
+@Component
+public class EmailTemplateRenderer {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplateRenderer.class);
+
+    public static final String PURCHASE_REQUEST = "email/purchase-request";
+    public static final String PURCHASE_CONFIRMATION = "email/purchase-confirmation";
+    public static final String GOOGLE_WORKSPACE_LICENSE_REQUEST = "email/google-workspace-license-request";
+    public static final String GOOGLE_WORKSPACE_LICENSE_CONFIRMATION = "email/google-workspace-license-confirmation";
+    public static final String USER_APPROVAL = "email/user-approval";
+
+    private static final List<String> TEMPLATES = List.of(PURCHASE_REQUEST, PURCHASE_CONFIRMATION,
+            GOOGLE_WORKSPACE_LICENSE_REQUEST, GOOGLE_WORKSPACE_LICENSE_CONFIRMATION, USER_APPROVAL);
+
+    private final ITemplateEngine templateEngine;
+
+    public EmailTemplateRenderer(ITemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
+    /**
+     * Parse every email template into the template cache
+     */
+    @PostConstruct
+    public void warmUp() {
+        for (String template : TEMPLATES) {
+            try {
+                render(template, Map.of());
+            } catch (Exception e) {
+                logger.warn("Could not pre-render email template {}: {}", template, e.getMessage());
+            }
+        }
+        logger.info("Pre-rendered {} email templates", TEMPLATES.size());
+    }
+
+    /**
+     * Render an email template
+     *
+     * @param template  The template name, e.g. {@link #PURCHASE_REQUEST}
+     * @param variables The template variables; null values are allowed
+     * @return The rendered HTML
+     */
+    public String render(String template, Map<String, Object> variables) {
+        Context context = new Context(Locale.ENGLISH);
+        context.setVariables(variables);
+        context.setVariable("year", Year.now().getValue());
+        return templateEngine.process(template, context);
+    }
+}
@@ -3,6 +3,9 @@ package com.cloudmen.backend.services;
 import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSubscriptionDTO;
 import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSubscriptionListResponseDTO;
 import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceCreateSubscriptionRequestDTO;
+import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSkuDTO;
+import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSkuListResponseDTO;
+import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSkuPriceDTO;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -30,14 +33,19 @@ public class GoogleWorkspaceService {
     private WebClient webClient;
     private final WebClient.Builder webClientBuilder;
     private final Retry webClientRetrySpec;
+    private final GoogleWorkspaceSubscriptionCache subscriptionCache;
+    private final GoogleWorkspaceSkuCatalog skuCatalog;
 
     @Value("${google.workspace.api.baseUrl:${GOOGLE_WORKSPACE_API_URL:https://mycloudmen.mennoplochaet.be/google-workspace-api}}")
     private String apiBaseUrl;
 
     public GoogleWorkspaceService(WebClient.Builder webClientBuilder,
-            @Qualifier("webClientRetrySpec") Retry webClientRetrySpec) {
+            @Qualifier("webClientRetrySpec") Retry webClientRetrySpec,
+            GoogleWorkspaceSubscriptionCache subscriptionCache, GoogleWorkspaceSkuCatalog skuCatalog) {
         this.webClientBuilder = webClientBuilder;
         this.webClientRetrySpec = webClientRetrySpec;
+        this.subscriptionCache = subscriptionCache;
+        this.skuCatalog = skuCatalog;
     }
 
     @PostConstruct
@@ -49,12 +57,24 @@ public class GoogleWorkspaceService {
     }
 
     /**
-     * Get all subscriptions for a customer.
+     * Get all subscriptions for a customer, from the subscription cache when
+     * they were fetched recently. The returned DTO is shared with other callers
+     * and must not be modified.
      *
      * @param customerId The Google customer ID
      * @return DTO containing the list of subscriptions
      */
     public Mono<GoogleWorkspaceSubscriptionListResponseDTO> getCustomerSubscriptions(String customerId) {
+        return subscriptionCache.get(customerId, () -> fetchCustomerSubscriptions(customerId));
+    }
+
+    /**
+     * Fetch all subscriptions for a customer from the API, bypassing the cache.
+     *
+     * @param customerId The Google customer ID
+     * @return DTO containing the list of subscriptions
+     */
+    public Mono<GoogleWorkspaceSubscriptionListResponseDTO> fetchCustomerSubscriptions(String customerId) {
         logger.info("Fetching subscriptions for customer: {}", customerId);
 
         return webClient.get()
@@ -99,30 +119,80 @@ public class GoogleWorkspaceService {
                 .bodyToMono(JsonNode.class)
                 .map(this::convertToSimplifiedSubscription)
                 .retryWhen(webClientRetrySpec)
-                .doOnSuccess(
-                        subscription -> logger.info("Successfully created subscription for SKU {} with {} licenses",
-                                subscription.getSkuId(), subscription.getTotalLicenses()))
+                .doOnSuccess(subscription -> {
+                    // The customer's license counts changed
+                    subscriptionCache.invalidate(customerId);
+                    logger.info("Successfully created subscription for SKU {} with {} licenses",
+                            subscription.getSkuId(), subscription.getTotalLicenses());
+                })
                 .doOnError(e -> logger.error("Error creating subscription for customer {}: {}", customerId,
                         e.getMessage()));
     }
 
     /**
-     * Get available SKUs.
+     * Get available SKUs, from the SKU catalogue once it has been loaded.
+     *
+     * @return List of available SKUs
+     */
+    public Mono<GoogleWorkspaceSkuListResponseDTO> getAvailableSkus() {
+        GoogleWorkspaceSkuCatalog.Catalog catalog = skuCatalog.current();
+        if (catalog != null) {
+            return Mono.just(catalog.getResponse());
+        }
+        return refreshSkuCatalog();
+    }
+
+    /**
+     * Fetch the available SKUs from the API and load them into the SKU
+     * catalogue.
      *
      * @return List of available SKUs
      */
-    public Mono<Object> getAvailableSkus() {
+    public Mono<GoogleWorkspaceSkuListResponseDTO> refreshSkuCatalog() {
         logger.info("Fetching available SKUs");
 
         return webClient.get()
                 .uri("/apps/reseller/v1/skus")
                 .retrieve()
-                .bodyToMono(Object.class)
+                .bodyToMono(JsonNode.class)
+                .map(this::convertToSkuList)
                 .retryWhen(webClientRetrySpec)
-                .doOnSuccess(response -> logger.info("Successfully retrieved available SKUs"))
+                .doOnSuccess(response -> {
+                    skuCatalog.update(response.getSkus());
+                    logger.info("Successfully retrieved {} available SKUs", response.getSkus().size());
+                })
                 .doOnError(e -> logger.error("Error fetching available SKUs: {}", e.getMessage()));
     }
 
+    /**
+     * Converts the Google API response to our SKU list DTO
+     */
+    public GoogleWorkspaceSkuListResponseDTO convertToSkuList(JsonNode jsonNode) {
+        List<GoogleWorkspaceSkuDTO> skus = new ArrayList<>();
+
+        if (jsonNode.has("skus") && jsonNode.get("skus").isArray()) {
+            for (JsonNode skuNode : jsonNode.get("skus")) {
+                GoogleWorkspaceSkuDTO sku = new GoogleWorkspaceSkuDTO();
+                sku.setSkuId(skuNode.path("skuId").asText(null));
+                sku.setSkuName(skuNode.path("skuName").asText(null));
+                sku.setDescription(skuNode.path("description").asText(null));
+
+                List<String> plans = new ArrayList<>();
+                skuNode.path("plans").forEach(plan -> plans.add(plan.asText()));
+                sku.setPlans(List.copyOf(plans));
+
+                JsonNode price = skuNode.get("price");
+                if (price != null && price.isObject()) {
+                    sku.setPrice(new GoogleWorkspaceSkuPriceDTO(price.path("basePrice").asDouble(),
+                            price.path("currency").asText(null), price.path("interval").asText(null)));
+                }
+                skus.add(sku);
+            }
+        }
+
+        return new GoogleWorkspaceSkuListResponseDTO(skus);
+    }
+
     /**
      * Converts the Google API response to our simplified subscription list DTO
      */
@@ -198,7 +268,7 @@ public class GoogleWorkspaceService {
         logger.info("Checking for license type: {} among {} subscriptions", licenseType, customerSubscriptions.size());
 
         customerSubscriptions
-                .forEach(sub -> logger.info("Available subscription: ID={}, Name={}, Status={}, Licenses={}",
+                .forEach(sub -> logger.debug("Available subscription: ID={}, Name={}, Status={}, Licenses={}",
                         sub.getSkuId(), sub.getSkuName(), sub.getStatus(), sub.getTotalLicenses()));
 
         // Normalize the requested license type for more flexible matching
@@ -212,16 +282,17 @@ public class GoogleWorkspaceService {
                         return false;
                     }
 
-                    // Normalize the subscription name for comparison
-                    String normalizedSkuName = normalizeGoogleLicenseType(subscription.getSkuName());
-                    logger.info("Comparing normalized license types: {} with {}", normalizedSkuName,
+                    // Normalized name from the SKU catalogue, or from the subscription's name
+                    String normalizedSkuName = skuCatalog.normalizedName(subscription.getSkuId(),
+                            subscription.getSkuName());
+                    logger.debug("Comparing normalized license types: {} with {}", normalizedSkuName,
                             normalizedRequestedType);
 
                     boolean isMatching = normalizedSkuName.equals(normalizedRequestedType);
                     boolean isActive = "ACTIVE".equalsIgnoreCase(subscription.getStatus());
                     boolean hasLicenses = subscription.getTotalLicenses() > 0;
 
-                    logger.info("License match: {}, Active: {}, Has licenses: {}", isMatching, isActive, hasLicenses);
+                    logger.debug("License match: {}, Active: {}, Has licenses: {}", isMatching, isActive, hasLicenses);
 
                     return isMatching && isActive && hasLicenses;
                 });
@@ -235,29 +306,6 @@ public class GoogleWorkspaceService {
      * This strips "Google Workspace" prefix and normalizes case.
      */
     public String normalizeGoogleLicenseType(String licenseType) {
-        if (licenseType == null) {
-            return "";
-        }
-
-        // Remove "Google Workspace" prefix if present
-        String normalized = licenseType.replaceAll("(?i)Google\\s+Workspace\\s+", "");
-
-        // For common license types, standardize capitalization
-        if (normalized.equalsIgnoreCase("business starter")) {
-            return "Business Starter";
-        } else if (normalized.equalsIgnoreCase("business standard")) {
-            return "Business Standard";
-        } else if (normalized.equalsIgnoreCase("business plus")) {
-            return "Business Plus";
-        } else if (normalized.equalsIgnoreCase("enterprise essentials")) {
-            return "Enterprise Essentials";
-        } else if (normalized.equalsIgnoreCase("enterprise standard")) {
-            return "Enterprise Standard";
-        } else if (normalized.equalsIgnoreCase("enterprise plus")) {
-            return "Enterprise Plus";
-        }
-
-        // Return as-is for custom license types
-        return normalized;
+        return GoogleWorkspaceSkuCatalog.normalize(licenseType);
     }
-}
\ No newline at end of file
+}
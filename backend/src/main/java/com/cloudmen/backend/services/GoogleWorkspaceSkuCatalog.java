@@ -0,0 +1,176 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSkuDTO;
+import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSkuListResponseDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory catalogue of the Google Workspace SKUs, loaded at startup and
+ * reloaded every google.workspace.sku-catalog.refresh-interval-ms by
+ * GoogleWorkspaceSkuCatalogRefreshTask. Serves the SKU list and the
+ * normalized license names used to match subscriptions, so neither needs an
+ * API call or a regex per request.
+ */
+@Component
+public class GoogleWorkspaceSkuCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoogleWorkspaceSkuCatalog.class);
+
+    private static final Pattern PRODUCT_PREFIX = Pattern.compile("(?i)Google\\s+Workspace\\s+");
+
+    // Lower-case name -> standard capitalization of the common license types
+    private static final Map<String, String> STANDARD_NAMES = Stream.of(
+            "Business Starter", "Business Standard", "Business Plus",
+            "Enterprise Essentials", "Enterprise Standard", "Enterprise Plus")
+            .collect(Collectors.toUnmodifiableMap(name -> name.toLowerCase(Locale.ROOT), name -> name));
+
+    private volatile Catalog catalog;
+
+    @Value("${google.workspace.sku-catalog.max-age-seconds:3600}")
+    private long maxAgeSeconds;
+
+    /**
+     * Standardize a license type name for comparison.
+     * This strips the "Google Workspace" prefix and normalizes the case of the
+     * common license types.
+     *
+     * @param licenseType A license type or SKU name
+     * @return The normalized name, or an empty string for null
+     */
+    public static String normalize(String licenseType) {
+        if (licenseType == null) {
+            return "";
+        }
+        String normalized = PRODUCT_PREFIX.matcher(licenseType).replaceAll("");
+        // Custom license types are returned as-is
+        return STANDARD_NAMES.getOrDefault(normalized.toLowerCase(Locale.ROOT), normalized);
+    }
+
+    /**
+     * Get the loaded catalogue
+     *
+     * @return The catalogue, or null if it has not been loaded yet
+     */
+    public Catalog current() {
+        return catalog;
+    }
+
+    /**
+     * Replace the catalogue. An empty SKU list does not replace a loaded
+     * catalogue, since the SKUs on sale never all disappear at once.
+     *
+     * @param skus The SKUs returned by the API
+     */
+    public void update(List<GoogleWorkspaceSkuDTO> skus) {
+        if ((skus == null || skus.isEmpty()) && catalog != null) {
+            logger.warn("Received an empty SKU list, keeping the {} loaded SKUs", catalog.getSkus().size());
+            return;
+        }
+        catalog = new Catalog(skus != null ? skus : List.of());
+        logger.info("Loaded Google Workspace SKU catalogue with {} SKUs", catalog.getSkus().size());
+    }
+
+    /**
+     * Get the normalized license name of a subscription
+     *
+     * @param skuId   The SKU id of the subscription
+     * @param skuName The SKU name of the subscription, used when the SKU is
+     *                not in the catalogue
+     * @return The normalized name
+     */
+    public String normalizedName(String skuId, String skuName) {
+        Catalog loaded = catalog;
+        String name = loaded != null && skuId != null ? loaded.normalizedNames.get(skuId) : null;
+        return name != null ? name : normalize(skuName);
+    }
+
+    /**
+     * @return How long browsers may cache the SKU list, in seconds
+     */
+    public long getMaxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+
+    /**
+     * Immutable lookups over the SKUs of one load. The SKUs are shared by every
+     * reader and must not be modified.
+     */
+    public static final class Catalog {
+        private final List<GoogleWorkspaceSkuDTO> skus;
+        private final GoogleWorkspaceSkuListResponseDTO response;
+        private final Map<String, GoogleWorkspaceSkuDTO> byId;
+        private final Map<String, GoogleWorkspaceSkuDTO> byName;
+        private final Map<String, String> normalizedNames;
+
+        private Catalog(List<GoogleWorkspaceSkuDTO> skus) {
+            this.skus = List.copyOf(skus);
+            this.response = new GoogleWorkspaceSkuListResponseDTO(this.skus);
+
+            Map<String, GoogleWorkspaceSkuDTO> ids = new HashMap<>();
+            Map<String, GoogleWorkspaceSkuDTO> names = new HashMap<>();
+            Map<String, String> normalized = new HashMap<>();
+            for (GoogleWorkspaceSkuDTO sku : this.skus) {
+                String name = normalize(sku.getSkuName());
+                if (sku.getSkuId() != null) {
+                    ids.put(sku.getSkuId(), sku);
+                    normalized.put(sku.getSkuId(), name);
+                }
+                names.putIfAbsent(name, sku);
+            }
+            this.byId = Collections.unmodifiableMap(ids);
+            this.byName = Collections.unmodifiableMap(names);
+            this.normalizedNames = Collections.unmodifiableMap(normalized);
+        }
+
+        /**
+         * @return Every SKU, in the order of the API
+         */
+        public List<GoogleWorkspaceSkuDTO> getSkus() {
+            return skus;
+        }
+
+        /**
+         * @return The SKU list as returned by /api/google-workspace/skus
+         */
+        public GoogleWorkspaceSkuListResponseDTO getResponse() {
+            return response;
+        }
+
+        /**
+         * @param skuId A SKU id
+         * @return The SKU, if known
+         */
+        public Optional<GoogleWorkspaceSkuDTO> findById(String skuId) {
+            return Optional.ofNullable(skuId != null ? byId.get(skuId) : null);
+        }
+
+        /**
+         * @param licenseType A license type or SKU name, normalized or not
+         * @return The SKU, if known
+         */
+        public Optional<GoogleWorkspaceSkuDTO> findByName(String licenseType) {
+            return Optional.ofNullable(byName.get(normalize(licenseType)));
+        }
+
+        /**
+         * @param skuId A SKU id
+         * @return The plans the SKU can be bought on, empty if unknown
+         */
+        public List<String> getPlans(String skuId) {
+            return findById(skuId).map(GoogleWorkspaceSkuDTO::getPlans).orElse(List.of());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSubscriptionListResponseDTO;
+import com.cloudmen.backend.utils.SingleFlightCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-customer cache of Google Workspace subscriptions, with
+ * stale-while-revalidate semantics.
+ * Entries are fresh for google.workspace.subscription-cache.ttl-seconds and
+ * served from memory. For max-stale-seconds after that they are still served
+ * at once, while one background request reloads them. Callers invalidate a
+ * customer after changing its subscriptions.
+ */
+@Component
+public class GoogleWorkspaceSubscriptionCache
+        extends SingleFlightCache<String, GoogleWorkspaceSubscriptionListResponseDTO> {
+
+    @Value("${google.workspace.subscription-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${google.workspace.subscription-cache.max-stale-seconds:900}")
+    private long maxStaleSeconds;
+
+    @Value("${google.workspace.subscription-cache.max-size:5000}")
+    private int maxSize;
+
+    public GoogleWorkspaceSubscriptionCache(MeterRegistry meterRegistry) {
+        super(meterRegistry, "google.workspace.subscription-cache", true);
+    }
+
+    @Override
+    protected long ttlSeconds() {
+        return ttlSeconds;
+    }
+
+    @Override
+    protected long maxStaleSeconds() {
+        return maxStaleSeconds;
+    }
+
+    @Override
+    protected int maxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,209 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.api.dtos.authlogs.LoginAnalyticsBucketDTO;
+import com.cloudmen.backend.api.dtos.authlogs.LoginAnalyticsDTO;
+import com.cloudmen.backend.domain.models.AuthenticationLog;
+import com.cloudmen.backend.domain.models.LoginRollup;
+import com.cloudmen.backend.repositories.AuthenticationLogRepository;
+import com.cloudmen.backend.repositories.LoginRollupRepository;
+import com.cloudmen.backend.utils.HyperLogLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Service for pre-aggregated login analytics.
+ * Every persisted batch of authentication logs is folded into hourly and daily
+ * rollups per domain (success/failure counts and a HyperLogLog sketch of the
+ * users who logged in). Analytics read only the rollups, so their cost depends
+ * on the number of buckets in the range rather than the number of logins.
+ */
+@Service
+public class LoginRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginRollupService.class);
+
+    private static final LoginRollup.Granularity[] GRANULARITIES = LoginRollup.Granularity.values();
+
+    private final LoginRollupRepository loginRollupRepository;
+    private final AuthenticationLogRepository authenticationLogRepository;
+
+    public LoginRollupService(
+            LoginRollupRepository loginRollupRepository,
+            AuthenticationLogRepository authenticationLogRepository) {
+        this.loginRollupRepository = loginRollupRepository;
+        this.authenticationLogRepository = authenticationLogRepository;
+    }
+
+    /**
+     * Add a batch of persisted logs to the rollups with one bulk upsert
+     *
+     * @param logs The logs that were written
+     */
+    public void record(Collection<AuthenticationLog> logs) {
+        Map<String, Bucket> buckets = new HashMap<>();
+        for (AuthenticationLog log : logs) {
+            accumulate(buckets, log);
+        }
+        loginRollupRepository.incrementAll(toRollups(buckets));
+    }
+
+    /**
+     * Get login analytics for a time range from the rollups
+     *
+     * @param granularity Bucket size
+     * @param domain      Domain to restrict to, or null for all domains
+     * @param start       Start of the range; widened to the start of its bucket
+     * @param end         End of the range; widened to the end of its bucket
+     * @return Per-bucket counts and totals over the range
+     */
+    public LoginAnalyticsDTO getAnalytics(LoginRollup.Granularity granularity, String domain, LocalDateTime start,
+            LocalDateTime end) {
+        LocalDateTime from = granularity.bucketStart(start);
+        LocalDateTime to = granularity.bucketStart(end);
+        if (to.isBefore(end) || !to.isAfter(from)) {
+            to = granularity.next(to);
+        }
+        String domainKey = domain == null || domain.isBlank() ? null : domain.trim().toLowerCase();
+
+        List<LoginRollup> rollups = loginRollupRepository.findRange(granularity, domainKey, from, to);
+
+        List<LoginAnalyticsBucketDTO> buckets = new ArrayList<>(rollups.size());
+        HyperLogLog allUsers = new HyperLogLog();
+        long totalSuccess = 0;
+        long totalFailure = 0;
+        for (LoginRollup rollup : rollups) {
+            HyperLogLog users = HyperLogLog.fromRegisters(rollup.getUserRegisters());
+            allUsers.merge(users);
+            totalSuccess += rollup.getSuccessCount();
+            totalFailure += rollup.getFailureCount();
+            buckets.add(new LoginAnalyticsBucketDTO(rollup.getDomain(), rollup.getBucketStart(),
+                    rollup.getSuccessCount(), rollup.getFailureCount(), users.estimate()));
+        }
+
+        return new LoginAnalyticsDTO(granularity.name(), from, to, buckets, totalSuccess, totalFailure,
+                allUsers.estimate());
+    }
+
+    /**
+     * Rebuild the rollups of whole days from the raw authentication logs.
+     * Each day is streamed from the log collection and its buckets are
+     * overwritten in one bulk write. Days without raw logs (for example
+     * because they expired) are left untouched. Logins written while a day
+     * is being rebuilt may be missed, so this is best run over closed days.
+     *
+     * @param from First day to rebuild
+     * @param to   Last day to rebuild (inclusive)
+     * @return Summary of the backfill
+     */
+    @Async
+    public CompletableFuture<Map<String, Object>> backfill(LocalDate from, LocalDate to) {
+        logger.info("Starting login rollup backfill from {} to {}", from, to);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        long logCount = 0;
+        long bucketCount = 0;
+
+        try {
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                Map<String, Bucket> buckets = new HashMap<>();
+                try (Stream<AuthenticationLog> logs = authenticationLogRepository.streamForRollup(
+                        day.atStartOfDay(), day.plusDays(1).atStartOfDay())) {
+                    for (AuthenticationLog log : (Iterable<AuthenticationLog>) logs::iterator) {
+                        accumulate(buckets, log);
+                        logCount++;
+                    }
+                }
+
+                List<LoginRollup> rollups = toRollups(buckets);
+                loginRollupRepository.replaceAll(rollups);
+                bucketCount += rollups.size();
+                logger.debug("Rebuilt {} login rollups for {}", rollups.size(), day);
+            }
+
+            summary.put("success", true);
+            logger.info("Login rollup backfill completed: {} logs, {} buckets", logCount, bucketCount);
+        } catch (Exception e) {
+            logger.error("Login rollup backfill error", e);
+            summary.put("success", false);
+            summary.put("error", e.getMessage());
+        }
+
+        summary.put("from", from.toString());
+        summary.put("to", to.toString());
+        summary.put("logsProcessed", logCount);
+        summary.put("bucketsWritten", bucketCount);
+        summary.put("timestamp", LocalDateTime.now().toString());
+        return CompletableFuture.completedFuture(summary);
+    }
+
+    /**
+     * Get the rollup domain of a log: its primary domain, otherwise the domain
+     * of its email address (failed logins have no primary domain)
+     *
+     * @param log The log
+     * @return Lower-case domain, or the unknown domain marker
+     */
+    private static String domainOf(AuthenticationLog log) {
+        if (log.getPrimaryDomain() != null && !log.getPrimaryDomain().isBlank()) {
+            return log.getPrimaryDomain().trim().toLowerCase();
+        }
+        String email = log.getEmail();
+        if (email != null) {
+            int at = email.lastIndexOf('@');
+            if (at >= 0 && at < email.length() - 1) {
+                return email.substring(at + 1).trim().toLowerCase();
+            }
+        }
+        return LoginRollup.UNKNOWN_DOMAIN;
+    }
+
+    private void accumulate(Map<String, Bucket> buckets, AuthenticationLog log) {
+        if (log.getTimestamp() == null) {
+            return;
+        }
+        String domain = domainOf(log);
+        for (LoginRollup.Granularity granularity : GRANULARITIES) {
+            LocalDateTime bucketStart = granularity.bucketStart(log.getTimestamp());
+            Bucket bucket = buckets.computeIfAbsent(LoginRollup.idFor(granularity, domain, bucketStart),
+                    id -> new Bucket(new LoginRollup(granularity, domain, bucketStart)));
+            if (log.isSuccessful()) {
+                bucket.rollup.setSuccessCount(bucket.rollup.getSuccessCount() + 1);
+                if (log.getEmail() != null) {
+                    bucket.users.add(log.getEmail().trim().toLowerCase());
+                }
+            } else {
+                bucket.rollup.setFailureCount(bucket.rollup.getFailureCount() + 1);
+            }
+        }
+    }
+
+    private List<LoginRollup> toRollups(Map<String, Bucket> buckets) {
+        List<LoginRollup> rollups = new ArrayList<>(buckets.size());
+        for (Bucket bucket : buckets.values()) {
+            bucket.rollup.setUserRegisters(bucket.users.toRegisters());
+            rollups.add(bucket.rollup);
+        }
+        return rollups;
+    }
+
+    private static final class Bucket {
+        private final LoginRollup rollup;
+        private final HyperLogLog users = new HyperLogLog();
+
+        private Bucket(LoginRollup rollup) {
+            this.rollup = rollup;
+        }
+    }
+}
@@ -11,8 +11,12 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Service for sending emails related to purchase requests.
+ * Email bodies are rendered from the cached templates in templates/email.
  */
 @Service
 public class PurchaseEmailService {
@@ -20,6 +24,7 @@ public class PurchaseEmailService {
     private static final Logger log = LoggerFactory.getLogger(PurchaseEmailService.class);
 
     private final JavaMailSender mailSender;
+    private final EmailTemplateRenderer templateRenderer;
 
     @Value("${spring.mail.username}")
     private String username;
@@ -32,8 +37,9 @@ public class PurchaseEmailService {
     @Value("${app.api-base-url:http://localhost:8080}")
     private String apiBaseUrl;
 
-    public PurchaseEmailService(JavaMailSender mailSender) {
+    public PurchaseEmailService(JavaMailSender mailSender, EmailTemplateRenderer templateRenderer) {
         this.mailSender = mailSender;
+        this.templateRenderer = templateRenderer;
         log.info("PurchaseEmailService initialized with username: {}", username);
     }
 
@@ -54,36 +60,6 @@ public class PurchaseEmailService {
         return username != null ? username + "@gmail.com" : "mycloudmen@gmail.com";
     }
 
-    private String getCommonStyles() {
-        return "body { font-family: 'Roboto', Arial, sans-serif; color: #2c3e50; background: #f8f9fa; margin: 0; padding: 0; }"
-                +
-                ".container { max-width: 480px; margin: 8px auto 32px auto; background: #fff; border-radius: 12px; box-shadow: 0 2px 8px rgba(0,0,0,0.06); padding: 18px 24px 28px 24px; }"
-                +
-                ".header { text-align: center; margin-bottom: 10px; margin-top: 0; }" +
-                ".title { font-size: 22px; font-weight: 600; margin: 0 0 8px 0; color: #2c3e50; }" +
-                ".details-card { background: #f8f9fa; border-radius: 10px; border: 1.5px solid #54bfae; padding: 22px 18px 16px 18px; margin: 18px 0 10px 0; box-shadow: 0 1px 4px rgba(84,191,174,0.07); }"
-                +
-                ".details-row { display: flex; justify-content: space-between; margin-bottom: 16px; font-size: 15px; }"
-                +
-                ".details-row:last-of-type { margin-bottom: 22px; }" +
-                ".details-label { color: #7f8c8d; font-weight: 500; width: 30%; flex-shrink: 0; }" +
-                ".details-value { color: #2c3e50; font-weight: 600; text-align: right; width: 70%; word-break: break-word; }"
-                +
-                ".details-section { margin-bottom: 20px; border-bottom: 1px solid #e9ecef; padding-bottom: 5px; }" +
-                ".details-section:last-of-type { border-bottom: none; }" +
-                ".price-row { display: flex; justify-content: space-between; margin-top: 20px; padding-top: 16px; border-top: 1px solid #e9ecef; font-size: 17px; }"
-                +
-                ".price-label { color: #54bfae; font-weight: 600; }" +
-                ".price-value { color: #54bfae; font-weight: 700; }" +
-                ".request-id { font-size: 13px; color: #b0b0b0; text-align: center; margin: 20px 0 5px 0; }" +
-                ".button { display: block; margin: 28px auto 0 auto; background: #54bfae; color: #fff !important; padding: 15px 0; width: 100%; max-width: 320px; border-radius: 8px; font-weight: 600; font-size: 17px; text-align: center; text-decoration: none !important; border: none; cursor: pointer; transition: background 0.2s, box-shadow 0.2s; box-shadow: 0 2px 8px rgba(84,191,174,0.10); }"
-                +
-                ".button:hover { background: #3cae99; color: #fff !important; box-shadow: 0 4px 16px rgba(84,191,174,0.18); }"
-                +
-                ".footer { text-align: center; color: #7f8c8d; font-size: 12px; margin-top: 32px; }" +
-                "@media only screen and (max-width: 600px) { .container { padding: 8px 2vw; } .button { width: 100%; } }";
-    }
-
     /**
      * Send a purchase request email with a link to accept the request.
      *
@@ -109,26 +85,15 @@ public class PurchaseEmailService {
             String fullConfirmUrl = baseUrl + confirmUrl;
             log.debug("Confirm URL: {}", fullConfirmUrl);
 
-            String htmlContent = "<!DOCTYPE html>" +
-                    "<html><head><meta charset='UTF-8'><meta name='viewport' content='width=device-width, initial-scale=1.0' />"
-                    +
-                    "<title>Your Purchase Request</title>" +
-                    "<style>" + getCommonStyles() + "</style></head><body>" +
-                    "<div class='container'>" +
-                    "  <div class='header'>" +
-                    "    <div class='title'>Purchase Request</div>" +
-                    "  </div>" +
-                    "  <div class='main-message'>Thank you for your purchase request.<br>Your request ID: <b>"
-                    + requestId + "</b></div>" +
-                    "  <a href='" + fullConfirmUrl + "' class='button'>Confirm Purchase</a>" +
-                    "  <div class='footer'>If you didn't make this request, you can ignore this email.<br>&copy; "
-                    + java.time.Year.now().getValue() + " MyCLOUDMEN</div>" +
-                    "</div></body></html>";
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("requestId", requestId);
+            variables.put("confirmUrl", fullConfirmUrl);
+            String htmlContent = templateRenderer.render(EmailTemplateRenderer.PURCHASE_REQUEST, variables);
 
             helper.setText(htmlContent, true);
 
             mailSender.send(message);
-            log.info("Purchase request email sent successfully to: {}", to);
+            log.info("Purchase request email queued for: {}", to);
         } catch (MailException e) {
             log.error("Failed to send purchase request email: {}", e.getMessage(), e);
             log.debug("Email configuration - from: {}, to: {}, baseUrl: {}, apiBaseUrl: {}",
@@ -158,25 +123,13 @@ public class PurchaseEmailService {
             helper.setTo(to);
             helper.setSubject("Purchase Confirmation");
 
-            String htmlContent = "<!DOCTYPE html>" +
-                    "<html><head><meta charset='UTF-8'><meta name='viewport' content='width=device-width, initial-scale=1.0' />"
-                    +
-                    "<title>Purchase Confirmation</title>" +
-                    "<style>" + getCommonStyles() + "</style></head><body>" +
-                    "<div class='container'>" +
-                    "  <div class='header'>" +
-                    "    <div class='title'>Purchase Confirmed</div>" +
-                    "  </div>" +
-                    "  <div class='main-message'>Your purchase request has been accepted and processed successfully.</div>"
-                    +
-                    "  <div class='footer'>Thank you for your purchase!<br>&copy; " + java.time.Year.now().getValue()
-                    + " MyCLOUDMEN</div>" +
-                    "</div></body></html>";
+            String htmlContent = templateRenderer.render(EmailTemplateRenderer.PURCHASE_CONFIRMATION,
+                    new HashMap<>());
 
             helper.setText(htmlContent, true);
 
             mailSender.send(message);
-            log.info("Purchase confirmation email sent successfully to: {}", to);
+            log.info("Purchase confirmation email queued for: {}", to);
         } catch (MailException e) {
             log.error("Failed to send confirmation email: {}", e.getMessage(), e);
             throw new MessagingException("Failed to send email: " + e.getMessage(), e);
@@ -231,63 +184,20 @@ public class PurchaseEmailService {
                     "&domain=" + domain;
             String fullApproveUrl = baseUrl + approveUrl;
 
-            String htmlContent = "<!DOCTYPE html>" +
-                    "<html><head><meta charset='UTF-8'><meta name='viewport' content='width=device-width, initial-scale=1.0' />"
-                    +
-                    "<title>Google Workspace License Request</title>" +
-                    "<style>" + getCommonStyles() +
-                    ".details-card { background: #f8f9fa; border-radius: 10px; border: 1.5px solid #54bfae; padding: 22px 18px 16px 18px; margin: 18px 0 10px 0; box-shadow: 0 1px 4px rgba(84,191,174,0.07); }"
-                    +
-                    ".details-row { display: flex; justify-content: space-between; margin-bottom: 16px; font-size: 15px; }"
-                    +
-                    ".details-row:last-of-type { margin-bottom: 22px; }" +
-                    ".details-label { color: #7f8c8d; font-weight: 500; width: 30%; flex-shrink: 0; }" +
-                    ".details-value { color: #2c3e50; font-weight: 600; text-align: right; width: 70%; word-break: break-word; }"
-                    +
-                    ".details-section { margin-bottom: 20px; border-bottom: 1px solid #e9ecef; padding-bottom: 5px; }" +
-                    ".details-section:last-of-type { border-bottom: none; }" +
-                    ".price-row { display: flex; justify-content: space-between; margin-top: 20px; padding-top: 16px; border-top: 1px solid #e9ecef; font-size: 17px; }"
-                    +
-                    ".price-label { color: #54bfae; font-weight: 600; }" +
-                    ".price-value { color: #54bfae; font-weight: 700; }" +
-                    ".request-id { font-size: 13px; color: #b0b0b0; text-align: center; margin: 20px 0 5px 0; }" +
-                    ".button { display: block; margin: 22px auto 0 auto; background: #54bfae; color: #fff !important; padding: 15px 0; width: 100%; max-width: 320px; border-radius: 8px; font-weight: 600; font-size: 17px; text-align: center; text-decoration: none !important; border: none; cursor: pointer; transition: background 0.2s, box-shadow 0.2s; box-shadow: 0 2px 8px rgba(84,191,174,0.10); }"
-                    +
-                    ".button:hover { background: #3cae99; color: #fff !important; box-shadow: 0 4px 16px rgba(84,191,174,0.18); }"
-                    +
-                    "</style></head><body>" +
-                    "<div class='container'>" +
-                    "  <div class='header'>" +
-                    "    <div class='title'>License Approval</div>" +
-                    "  </div>" +
-                    "  <div class='details-card'>" +
-                    "    <div class='details-section'>" +
-                    (companyName != null
-                            ? "<div class='details-row'><span class='details-label'>Domain</span><span class='details-value'>"
-                                    + companyName + "</span></div>"
-                            : "")
-                    +
-                    "      <div class='details-row'><span class='details-label'>Product</span><span class='details-value'>"
-                    + licenseType + "</span></div>" +
-                    "      <div class='details-row'><span class='details-label'>Quantity</span><span class='details-value'>"
-                    + count + "</span></div>" +
-                    "    </div>" +
-                    (cost != null
-                            ? "<div class='price-row'><span class='price-label'>Total Price</span><span class='price-value'>$"
-                                    + String.format("%.2f", cost) + "</span></div>"
-                            : "")
-                    +
-                    "    <div class='request-id'>Request ID: <b>" + requestId + "</b></div>" +
-                    "    <a href='" + fullApproveUrl + "' class='button'>Approve License Request</a>" +
-                    "  </div>" +
-                    "  <div class='footer'>If you didn't make this request, you can ignore this email.<br>&copy; "
-                    + java.time.Year.now().getValue() + " MyCLOUDMEN</div>" +
-                    "</div></body></html>";
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("companyName", companyName);
+            variables.put("licenseType", licenseType);
+            variables.put("count", count);
+            variables.put("cost", cost);
+            variables.put("requestId", requestId);
+            variables.put("approveUrl", fullApproveUrl);
+            String htmlContent = templateRenderer.render(EmailTemplateRenderer.GOOGLE_WORKSPACE_LICENSE_REQUEST,
+                    variables);
 
             helper.setText(htmlContent, true);
 
             mailSender.send(message);
-            log.info("Google Workspace license request email sent successfully to: {}", to);
+            log.info("Google Workspace license request email queued for: {}", to);
         } catch (MailException e) {
             log.error("Failed to send Google Workspace license request email: {}", e.getMessage(), e);
             throw new MessagingException("Failed to send email: " + e.getMessage(), e);
@@ -326,54 +236,13 @@ public class PurchaseEmailService {
             helper.setTo(to);
             helper.setSubject("Google Workspace License Purchase Confirmation");
 
-            String htmlContent = "<!DOCTYPE html>" +
-                    "<html><head><meta charset='UTF-8'><meta name='viewport' content='width=device-width, initial-scale=1.0' />"
-                    +
-                    "<title>Google Workspace License Confirmation</title>" +
-                    "<style>" + getCommonStyles() +
-                    ".details-card { background: #f8f9fa; border-radius: 10px; border: 1.5px solid #54bfae; padding: 22px 18px 16px 18px; margin: 18px 0 10px 0; box-shadow: 0 1px 4px rgba(84,191,174,0.07); }"
-                    +
-                    ".details-row { display: flex; justify-content: space-between; margin-bottom: 16px; font-size: 15px; }"
-                    +
-                    ".details-row:last-of-type { margin-bottom: 22px; }" +
-                    ".details-label { color: #7f8c8d; font-weight: 500; width: 30%; flex-shrink: 0; }" +
-                    ".details-value { color: #2c3e50; font-weight: 600; text-align: right; width: 70%; word-break: break-word; }"
-                    +
-                    ".details-section { margin-bottom: 20px; border-bottom: 1px solid #e9ecef; padding-bottom: 5px; }" +
-                    ".details-section:last-of-type { border-bottom: none; }" +
-                    ".price-row { display: flex; justify-content: space-between; margin-top: 20px; padding-top: 16px; border-top: 1px solid #e9ecef; font-size: 17px; }"
-                    +
-                    ".price-label { color: #54bfae; font-weight: 600; }" +
-                    ".price-value { color: #54bfae; font-weight: 700; }" +
-                    ".confirmation-badge { background-color: #54bfae; color: white; font-weight: bold; padding: 6px 12px; border-radius: 20px; display: inline-block; margin-bottom: 15px; }"
-                    +
-                    "</style></head><body>" +
-                    "<div class='container'>" +
-                    "  <div class='header'>" +
-                    "    <div class='title'>Purchase Confirmed</div>" +
-                    "  </div>" +
-                    "  <div style='text-align: center; margin-bottom: 10px;'><span class='confirmation-badge'>Approved</span></div>"
-                    +
-                    "  <div class='details-card'>" +
-                    "    <div class='details-section'>" +
-                    "      <div class='details-row'><span class='details-label'>Product</span><span class='details-value'>"
-                    + licenseType + "</span></div>" +
-                    "      <div class='details-row'><span class='details-label'>Quantity</span><span class='details-value'>"
-                    + count + "</span></div>" +
-                    "      <div class='details-row'><span class='details-label'>Domain</span><span class='details-value'>"
-                    + domain + "</span></div>" +
-                    "    </div>" +
-                    (cost != null
-                            ? "<div class='price-row'><span class='price-label'>Total Price</span><span class='price-value'>$"
-                                    + String.format("%.2f", cost) + "</span></div>"
-                            : "")
-                    +
-                    "  </div>" +
-                    "  <div class='main-message' style='margin-top: 20px;'>Your Google Workspace license purchase request has been approved and processed successfully.</div>"
-                    +
-                    "  <div class='footer'>Thank you for your purchase!<br>&copy; " + java.time.Year.now().getValue()
-                    + " MyCLOUDMEN</div>" +
-                    "</div></body></html>";
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("licenseType", licenseType);
+            variables.put("count", count);
+            variables.put("domain", domain);
+            variables.put("cost", cost);
+            String htmlContent = templateRenderer.render(
+                    EmailTemplateRenderer.GOOGLE_WORKSPACE_LICENSE_CONFIRMATION, variables);
 
             helper.setText(htmlContent, true);
 
@@ -383,7 +252,7 @@ public class PurchaseEmailService {
                     "Sending Google Workspace license confirmation email with subject: 'Google Workspace License Purchase Confirmation'");
 
             mailSender.send(message);
-            log.info("Google Workspace license confirmation email sent successfully to: {}", to);
+            log.info("Google Workspace license confirmation email queued for: {}", to);
         } catch (MailException e) {
             log.error("Failed to send Google Workspace license confirmation email: {}", e.getMessage(), e);
             throw new MessagingException("Failed to send email: " + e.getMessage(), e);
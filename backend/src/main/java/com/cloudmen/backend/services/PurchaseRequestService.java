@@ -2,13 +2,16 @@ package com.cloudmen.backend.services;
 
 import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceLicenseRequestDTO;
 import com.cloudmen.backend.domain.models.PurchaseRequest;
+import com.cloudmen.backend.repositories.KeysetPage;
 import com.cloudmen.backend.repositories.PurchaseRequestRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -63,6 +66,37 @@ public class PurchaseRequestService {
         return purchaseRequestRepository.findByDomain(domain, pageable);
     }
 
+    /**
+     * Get one page of purchase requests, loading only the given fields.
+     *
+     * @param email    Only include requests by this user (optional)
+     * @param domain   Only include requests for this domain (optional)
+     * @param pageable Pagination information
+     * @param fields   Document fields to load, or null for whole requests
+     * @return Page of purchase requests
+     */
+    public Page<PurchaseRequest> getPurchaseRequests(String email, String domain, Pageable pageable,
+            Collection<String> fields) {
+        return purchaseRequestRepository.findPage(email, domain, pageable, fields);
+    }
+
+    /**
+     * Get purchase requests one keyset page at a time, ordered by request date.
+     *
+     * @param email        Only include requests by this user (optional)
+     * @param domain       Only include requests for this domain (optional)
+     * @param direction    Sort direction on request date
+     * @param cursor       Cursor from a previous page, or null for the first page
+     * @param size         Page size
+     * @param includeTotal Whether to count all matching requests
+     * @param fields       Document fields to load, or null for whole requests
+     * @return The page with cursors to its neighbours
+     */
+    public KeysetPage<PurchaseRequest> getPurchaseRequestsByCursor(String email, String domain,
+            Sort.Direction direction, String cursor, int size, boolean includeTotal, Collection<String> fields) {
+        return purchaseRequestRepository.findByCursor(email, domain, direction, cursor, size, includeTotal, fields);
+    }
+
     /**
      * Get a purchase request by ID.
      *
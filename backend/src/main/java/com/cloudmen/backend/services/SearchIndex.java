@@ -0,0 +1,191 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.domain.enums.CacheRegion;
+import com.cloudmen.backend.utils.NgramIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Typeahead index over one collection, kept in memory.
+ * {@link #rebuild()} loads the searchable fields of every document into a new
+ * {@link NgramIndex} and swaps it in. Between rebuilds, every save or delete
+ * through Spring Data updates the single document it touched, and a
+ * CacheInvalidationEvent for a write on another instance reloads it. Local
+ * writes that bypass Spring Data events (bulk and partial updates) must call
+ * {@link #put(Object)} themselves, or are picked up by the next rebuild.
+ *
+ * @param <T> The document type
+ * @param <V> The search result type
+ */
+public abstract class SearchIndex<T, V> extends AbstractMongoEventListener<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndex.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final Class<T> type;
+    private final String name;
+    private final CacheRegion region;
+
+    private volatile NgramIndex<V> index = new NgramIndex<>();
+    // Index being rebuilt, which also receives changes made during the rebuild
+    private volatile NgramIndex<V> building;
+    private volatile boolean ready;
+
+    protected SearchIndex(MongoTemplate mongoTemplate, Class<T> type, String name, CacheRegion region,
+            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.type = type;
+        this.name = name;
+        this.region = region;
+        Gauge.builder("search.index.size", this, SearchIndex::size).tag("index", name).register(meterRegistry);
+    }
+
+    /**
+     * The query that loads documents for the index, projected to the fields
+     * {@link #idOf}, {@link #termsOf} and {@link #resultOf} read
+     */
+    protected abstract Query rebuildQuery();
+
+    protected abstract String idOf(T document);
+
+    protected abstract List<String> termsOf(T document);
+
+    protected abstract V resultOf(T document);
+
+    /**
+     * Reload the index from the database
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        NgramIndex<V> rebuilt = new NgramIndex<>();
+        building = rebuilt;
+        try (Stream<T> documents = mongoTemplate.stream(rebuildQuery(), type)) {
+            documents.forEach(document -> add(rebuilt, document));
+            index = rebuilt;
+            ready = true;
+        } finally {
+            building = null;
+        }
+        logger.info("Rebuilt {} search index with {} entries in {} ms", name, rebuilt.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Find documents containing every word of a query
+     *
+     * @param query The query
+     * @param limit The maximum number of results
+     * @return The best matches, best first
+     */
+    public List<V> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    /**
+     * Add or replace a document
+     *
+     * @param document The document as stored
+     */
+    public void put(T document) {
+        add(index, document);
+        NgramIndex<V> rebuilt = building;
+        if (rebuilt != null) {
+            add(rebuilt, document);
+        }
+    }
+
+    /**
+     * Remove a document
+     *
+     * @param id The document id
+     */
+    public void remove(String id) {
+        index.remove(id);
+        NgramIndex<V> rebuilt = building;
+        if (rebuilt != null) {
+            rebuilt.remove(id);
+        }
+    }
+
+    /**
+     * Reload one document from the database, or remove it if it is gone
+     *
+     * @param id The document id
+     */
+    public void refresh(String id) {
+        T document = mongoTemplate.findOne(rebuildQuery().addCriteria(Criteria.where("_id").is(id)), type);
+        if (document != null) {
+            put(document);
+        } else {
+            remove(id);
+        }
+    }
+
+    /**
+     * @return Whether the index has been loaded since startup
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return The number of indexed documents
+     */
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<T> event) {
+        put(event.getSource());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<T> event) {
+        Document query = event.getSource();
+        Object id = query.get("_id");
+        if (id instanceof ObjectId) {
+            remove(((ObjectId) id).toHexString());
+        } else if (id instanceof String) {
+            remove((String) id);
+        } else {
+            // Deleted by something other than a single id
+            logger.debug("Rebuilding {} search index after delete matching {}", name, query);
+            rebuild();
+        }
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        // Before the first rebuild there is nothing to update, and it loads everything anyway
+        if (event.getRegion() != region || (!ready && building == null)) {
+            return;
+        }
+        if (event.isRegionWide()) {
+            rebuild();
+        } else {
+            refresh(event.getId());
+        }
+    }
+
+    private void add(NgramIndex<V> target, T document) {
+        String id = idOf(document);
+        if (id != null) {
+            target.put(id, termsOf(document), resultOf(document));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.api.dtos.companies.CompanyListDTO;
+import com.cloudmen.backend.api.dtos.users.UserSearchResultDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Typeahead search over companies and users, answered from the in-memory
+ * search indexes
+ */
+@Service
+public class SearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+
+    private final CompanySearchIndex companySearchIndex;
+    private final UserSearchIndex userSearchIndex;
+    private final TeamleaderCompanyService companyService;
+
+    @Value("${search.max-results:50}")
+    private int maxResults;
+
+    public SearchService(CompanySearchIndex companySearchIndex, UserSearchIndex userSearchIndex,
+            TeamleaderCompanyService companyService) {
+        this.companySearchIndex = companySearchIndex;
+        this.userSearchIndex = userSearchIndex;
+        this.companyService = companyService;
+    }
+
+    /**
+     * Search companies by name, VAT number or contact email. Until the index
+     * has been loaded after startup, falls back to a database search on name.
+     *
+     * @param query The query; every word must match
+     * @param limit The maximum number of results (capped at search.max-results)
+     * @return Matching companies, best match first
+     */
+    public List<CompanyListDTO> searchCompanies(String query, int limit) {
+        int size = Math.min(limit, maxResults);
+        if (companySearchIndex.isReady()) {
+            return companySearchIndex.search(query, size);
+        }
+        logger.debug("Company search index not loaded yet, searching the database for: {}", query);
+        return companyService.searchCompaniesByName(query).stream()
+                .limit(size)
+                .map(CompanyListDTO::fromEntity)
+                .toList();
+    }
+
+    /**
+     * Search users by name or email address. Returns nothing until the index
+     * has been loaded after startup.
+     *
+     * @param query The query; every word must match
+     * @param limit The maximum number of results (capped at search.max-results)
+     * @return Matching users, best match first
+     */
+    public List<UserSearchResultDTO> searchUsers(String query, int limit) {
+        return userSearchIndex.search(query, Math.min(limit, maxResults));
+    }
+}
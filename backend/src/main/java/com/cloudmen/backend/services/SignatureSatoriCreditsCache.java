@@ -0,0 +1,37 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.api.dtos.signaturesatori.SignatureSatoriCreditsDTO;
+import com.cloudmen.backend.utils.SingleFlightCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-customer cache of Signature Satori credit balances.
+ * Balances are served from memory for signaturesatori.credits-cache.ttl-seconds
+ * and then loaded again; expired balances are never served. Callers
+ * invalidate a customer after buying credits for it.
+ */
+@Component
+public class SignatureSatoriCreditsCache extends SingleFlightCache<String, SignatureSatoriCreditsDTO> {
+
+    @Value("${signaturesatori.credits-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${signaturesatori.credits-cache.max-size:5000}")
+    private int maxSize;
+
+    public SignatureSatoriCreditsCache(MeterRegistry meterRegistry) {
+        super(meterRegistry, "signaturesatori.credits-cache", false);
+    }
+
+    @Override
+    protected long ttlSeconds() {
+        return ttlSeconds;
+    }
+
+    @Override
+    protected int maxSize() {
+        return maxSize;
+    }
+}
@@ -1,5 +1,6 @@
 package com.cloudmen.backend.services;
 
+import com.cloudmen.backend.api.dtos.signaturesatori.SignatureSatoriCreditsBatchEntryDTO;
 import com.cloudmen.backend.api.dtos.signaturesatori.SignatureSatoriCreditsDTO;
 import com.cloudmen.backend.api.dtos.signaturesatori.SignatureSatoriPurchaseRequestDTO;
 import com.cloudmen.backend.api.dtos.signaturesatori.SignatureSatoriPurchaseResponseDTO;
@@ -13,6 +14,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
@@ -20,6 +22,7 @@ import jakarta.annotation.PostConstruct;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Service for interacting with SignatureSatori API for credit management
@@ -32,6 +35,7 @@ public class SignatureSatoriService {
     private final WebClient.Builder webClientBuilder;
     private final Retry webClientRetrySpec;
     private final ObjectMapper objectMapper;
+    private final SignatureSatoriCreditsCache creditsCache;
 
     @Value("${signaturesatori.api.baseUrl:${SIGNATURESATORI_API_URL:https://mycloudmen.mennoplochaet.be/signature-satori-api}}")
     private String apiBaseUrl;
@@ -39,12 +43,20 @@ public class SignatureSatoriService {
     @Value("${signaturesatori.api.token:${SIGNATURESATORI_API_TOKEN:}}")
     private String apiToken;
 
+    @Value("${signaturesatori.credits.batch-max-size:200}")
+    private int batchMaxSize;
+
+    @Value("${signaturesatori.credits.batch-concurrency:8}")
+    private int batchConcurrency;
+
     public SignatureSatoriService(WebClient.Builder webClientBuilder,
             @Qualifier("webClientRetrySpec") Retry webClientRetrySpec,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            SignatureSatoriCreditsCache creditsCache) {
         this.webClientBuilder = webClientBuilder;
         this.webClientRetrySpec = webClientRetrySpec;
         this.objectMapper = objectMapper;
+        this.creditsCache = creditsCache;
     }
 
     @PostConstruct
@@ -56,12 +68,57 @@ public class SignatureSatoriService {
     }
 
     /**
-     * Get customer credit information
+     * Get customer credit information, from the credits cache when it was
+     * fetched recently. The returned DTO is shared with other callers and must
+     * not be modified.
      * 
      * @param customerId The customer ID
      * @return Customer details including credit balance
      */
     public Mono<SignatureSatoriCreditsDTO> getCustomerCredits(String customerId) {
+        return creditsCache.get(customerId, () -> fetchCustomerCredits(customerId));
+    }
+
+    /**
+     * Get the credit information of several customers at once. Customers are
+     * looked up at most signaturesatori.credits.batch-concurrency at a time,
+     * and a customer that cannot be loaded gets an error entry instead of
+     * failing the whole batch.
+     *
+     * @param customerIds The customer IDs; blanks and duplicates are ignored
+     * @return One entry per customer, in the order requested
+     * @throws IllegalArgumentException if more than
+     *                                  signaturesatori.credits.batch-max-size
+     *                                  customers are requested
+     */
+    public Mono<List<SignatureSatoriCreditsBatchEntryDTO>> getCustomerCreditsBatch(List<String> customerIds) {
+        List<String> ids = customerIds.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .distinct()
+                .toList();
+        if (ids.size() > batchMaxSize) {
+            throw new IllegalArgumentException("At most " + batchMaxSize + " customers can be requested at once");
+        }
+
+        return Flux.fromIterable(ids)
+                .flatMapSequential(id -> getCustomerCredits(id)
+                        .map(credits -> new SignatureSatoriCreditsBatchEntryDTO(id, credits, null))
+                        .defaultIfEmpty(new SignatureSatoriCreditsBatchEntryDTO(id, null, "Customer not found"))
+                        .onErrorResume(e -> Mono.just(new SignatureSatoriCreditsBatchEntryDTO(id, null,
+                                e.getMessage()))),
+                        batchConcurrency)
+                .collectList();
+    }
+
+    /**
+     * Fetch customer credit information from the API, bypassing the cache
+     * 
+     * @param customerId The customer ID
+     * @return Customer details including credit balance
+     */
+    public Mono<SignatureSatoriCreditsDTO> fetchCustomerCredits(String customerId) {
         logger.info("Fetching credits for customer: {}", customerId);
 
         return webClient.get()
@@ -119,8 +176,12 @@ public class SignatureSatoriService {
                     throw new RuntimeException("Invalid response format");
                 })
                 .retryWhen(webClientRetrySpec)
-                .doOnSuccess(transaction -> logger.info("Successfully purchased {} credits for customer {}",
-                        transaction.getCount(), customerId))
+                .doOnSuccess(transaction -> {
+                    // The customer's balance changed
+                    creditsCache.invalidate(customerId);
+                    logger.info("Successfully purchased {} credits for customer {}",
+                            transaction.getCount(), customerId);
+                })
                 .doOnError(e -> logger.error("Error purchasing credits: {}", e.getMessage()));
     }
 
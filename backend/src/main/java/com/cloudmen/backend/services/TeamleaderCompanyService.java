@@ -3,6 +3,7 @@ package com.cloudmen.backend.services;
 import com.cloudmen.backend.config.TeamleaderApiConfig;
 import com.cloudmen.backend.domain.models.TeamleaderCompany;
 import com.cloudmen.backend.domain.enums.CompanyStatusType;
+import com.cloudmen.backend.repositories.KeysetPage;
 import com.cloudmen.backend.repositories.TeamleaderCompanyRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -10,6 +11,9 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -34,6 +38,8 @@ public class TeamleaderCompanyService {
     private final TeamleaderCompanyRepository companyRepository;
     private final WebClient webClient;
     private final Retry webClientRetrySpec;
+    private final CompanyDomainCache domainCache;
+    private final CompanySnapshot companySnapshot;
 
     public TeamleaderCompanyService(
             TeamleaderOAuthService oAuthService,
@@ -41,13 +47,17 @@ public class TeamleaderCompanyService {
             ObjectMapper objectMapper,
             TeamleaderCompanyRepository companyRepository,
             WebClient webClient,
-            @Qualifier("webClientRetrySpec") Retry webClientRetrySpec) {
+            @Qualifier("webClientRetrySpec") Retry webClientRetrySpec,
+            CompanyDomainCache domainCache,
+            CompanySnapshot companySnapshot) {
         this.oAuthService = oAuthService;
         this.apiConfig = apiConfig;
         this.objectMapper = objectMapper;
         this.companyRepository = companyRepository;
         this.webClient = webClient;
         this.webClientRetrySpec = webClientRetrySpec;
+        this.domainCache = domainCache;
+        this.companySnapshot = companySnapshot;
         logger.info("TeamleaderCompanyService initialized");
     }
 
@@ -188,11 +198,57 @@ public class TeamleaderCompanyService {
     }
 
     /**
-     * Get all companies from the local database
+     * Get one page of companies from the local database
      * 
-     * @return List of companies
+     * @param status   Only include companies with this status (optional)
+     * @param pageable Page and sort
+     * @param fields   Document fields to load, or null for whole documents
+     * @return The page of companies
+     */
+    public Page<TeamleaderCompany> getCompaniesPage(CompanyStatusType status, Pageable pageable,
+            Collection<String> fields) {
+        return companyRepository.findPage(status, pageable, fields);
+    }
+
+    /**
+     * Get companies from the local database with keyset (cursor) pagination,
+     * ordered by name
+     * 
+     * @param status       Only include companies with this status (optional)
+     * @param direction    Sort direction on name
+     * @param cursor       Cursor from a previous page, or null for the first page
+     * @param size         Page size
+     * @param includeTotal Whether to count all matching companies
+     * @param fields       Document fields to load, or null for whole documents
+     * @return The page with cursors to its neighbours
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public KeysetPage<TeamleaderCompany> getCompaniesByCursor(CompanyStatusType status, Sort.Direction direction,
+            String cursor, int size, boolean includeTotal, Collection<String> fields) {
+        return companyRepository.findByCursor(status, direction, cursor, size, includeTotal, fields);
+    }
+
+    /**
+     * Get the version of the local company data, for ETags. It changes
+     * whenever a company is saved or deleted.
+     * 
+     * @return The company data version
+     */
+    public String getDataVersion() {
+        return companySnapshot.getVersion();
+    }
+
+    /**
+     * Get all companies from the local database, served from the company
+     * snapshot when it is up to date
+     * 
+     * @return List of companies (read-only when served from the snapshot)
      */
     public List<TeamleaderCompany> getAllCompanies() {
+        CompanySnapshot.Snapshot snapshot = companySnapshot.current();
+        if (snapshot != null) {
+            return snapshot.getCompanies();
+        }
         return companyRepository.findAll();
     }
 
@@ -203,23 +259,12 @@ public class TeamleaderCompanyService {
      * @return The company, or null if not found
      */
     public TeamleaderCompany getCompanyByTeamleaderId(String teamleaderId) {
-        // First try by teamleaderId
-        Optional<TeamleaderCompany> company = companyRepository.findByTeamleaderId(teamleaderId);
-
-        if (company.isPresent()) {
-            return company.get();
-        }
-
-        // If not found and it looks like a MongoDB ID, try by ID
-        if (teamleaderId.length() == 24) {
-            try {
-                return companyRepository.findById(teamleaderId).orElse(null);
-            } catch (Exception e) {
-                logger.warn("Error looking up by MongoDB ID: {}", e.getMessage());
-            }
+        CompanySnapshot.Snapshot snapshot = companySnapshot.current();
+        if (snapshot != null) {
+            return snapshot.findByIdOrTeamleaderId(teamleaderId).orElse(null);
         }
-
-        return null;
+        // The ID may also be a MongoDB _id; both are resolved in one query
+        return companyRepository.findByIdOrTeamleaderId(teamleaderId).orElse(null);
     }
 
     /**
@@ -256,26 +301,7 @@ public class TeamleaderCompanyService {
     public Optional<TeamleaderCompany> updateCompanyStatus(String id, CompanyStatusType newStatus) {
         logger.info("Updating status for company ID: {} to: {}", id, newStatus);
 
-        TeamleaderCompany company = null;
-
-        // First try MongoDB ID
-        try {
-            Optional<TeamleaderCompany> companyById = companyRepository.findById(id);
-            if (companyById.isPresent()) {
-                company = companyById.get();
-                logger.info("Found company by MongoDB _id: {}, name: {}", id, company.getName());
-            } else {
-                logger.info("Company not found by MongoDB _id, trying teamleaderId");
-            }
-        } catch (Exception e) {
-            logger.warn("Error looking up by MongoDB ID: {}", e.getMessage());
-        }
-
-        // If not found by MongoDB ID, try teamleaderId
-        if (company == null) {
-            company = getCompanyByTeamleaderId(id);
-        }
-
+        TeamleaderCompany company = companyRepository.findByIdOrTeamleaderId(id).orElse(null);
         if (company == null) {
             logger.warn("Company not found with ID: {}", id);
             return Optional.empty();
@@ -304,89 +330,89 @@ public class TeamleaderCompanyService {
     }
 
     /**
-     * Get companies by status
+     * Count companies per status, from the company snapshot when it is up to
+     * date and otherwise in one aggregation
      * 
-     * @param status The status to filter by
-     * @return List of companies with the specified status
+     * @return Status -> number of companies, including statuses without
+     *         companies
      */
-    public List<TeamleaderCompany> getCompaniesByStatus(CompanyStatusType status) {
-        logger.info("Retrieving companies with status: {}", status);
-
-        List<TeamleaderCompany> companies = companyRepository.findAll();
-
-        // Filter companies by status
-        return companies.stream()
-                .filter(company -> company.getStatus() == status)
-                .collect(Collectors.toList());
+    public Map<CompanyStatusType, Long> getCompanyCountsByStatus() {
+        CompanySnapshot.Snapshot snapshot = companySnapshot.current();
+        if (snapshot != null) {
+            return snapshot.countByStatus();
+        }
+        return companyRepository.countByStatus();
     }
 
     /**
-     * Find a company by domain
+     * Find a company by domain, using the domains stored on each company at
+     * sync. Served from the company snapshot when it is up to date; otherwise
+     * resolutions (including misses) are cached in CompanyDomainCache.
      * 
-     * @param domain The domain to search for
+     * @param domain The domain (or an email address on it) to search for
      * @return The company with the specified domain, if found
      */
     public Optional<TeamleaderCompany> findCompanyByDomain(String domain) {
-        logger.info("Finding company by domain: {}", domain);
+        String normalized = CompanyDomainCache.normalize(domain);
+        if (normalized == null) {
+            return Optional.empty();
+        }
 
-        // Search all companies
-        List<TeamleaderCompany> allCompanies = getAllCompanies();
+        CompanySnapshot.Snapshot snapshot = companySnapshot.current();
+        if (snapshot != null) {
+            return domainCache.isFreeMail(normalized) ? Optional.empty() : snapshot.findByDomain(normalized);
+        }
 
-        // Find first company where any of the emails contains the domain
-        return allCompanies.stream()
-                .filter(company -> matchesDomain(company, domain))
-                .findFirst();
+        return findCompanyByDomain(normalized, domainCache.get(normalized));
     }
 
     /**
-     * Helper method to check if a company matches a domain
-     * 
-     * @param company The company to check
-     * @param domain  The domain to match
-     * @return true if the company matches the domain
+     * Find a company by a normalized domain, given its domain cache lookup
+     *
+     * @param normalized A normalized domain
+     * @param cached     The cached entry of the domain, or null on a miss
+     * @return The company with the domain, if found
      */
-    private boolean matchesDomain(TeamleaderCompany company, String domain) {
-        // Check all contact info for email type
-        if (company.getContactInfo() != null) {
-            boolean emailMatch = company.getContactInfo().stream()
-                    .filter(contact -> "email".equalsIgnoreCase(contact.getType()))
-                    .anyMatch(contact -> contact.getValue() != null &&
-                            contact.getValue().contains("@" + domain));
-
-            if (emailMatch) {
-                return true;
+    private Optional<TeamleaderCompany> findCompanyByDomain(String normalized, CompanyDomainCache.Entry cached) {
+        if (cached != null) {
+            if (!cached.isFound()) {
+                return Optional.empty();
+            }
+            Optional<TeamleaderCompany> company = companyRepository.findById(cached.getCompanyId());
+            if (company.isPresent()) {
+                return company;
             }
+            domainCache.invalidate(normalized);
         }
 
-        // Check website domain
-        if (company.getWebsite() != null && company.getWebsite().contains(domain)) {
-            return true;
-        }
+        logger.debug("Finding company by domain: {}", normalized);
+        Optional<TeamleaderCompany> company = companyRepository.findFirstByDomains(normalized);
+        domainCache.put(normalized, company.orElse(null));
+        return company;
+    }
 
-        // Check custom emails if they exist
-        if (company.getCustomFields() != null &&
-                company.getCustomFields().containsKey("contacts")) {
-            try {
-                // Parse contacts as JSON array if possible
-                JsonNode contacts = objectMapper.readTree(
-                        company.getCustomFields().get("contacts").toString());
-
-                if (contacts.isArray()) {
-                    for (JsonNode contact : contacts) {
-                        if (contact.has("email") &&
-                                contact.get("email").asText().contains("@" + domain)) {
-                            return true;
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                // Silently handle parsing errors
-                logger.debug("Error parsing contacts for company {}: {}",
-                        company.getName(), e.getMessage());
-            }
+    /**
+     * Resolve the name of the company owning an email address or domain,
+     * without touching the database when the domain is cached or the company
+     * snapshot is up to date
+     * 
+     * @param emailOrDomain An email address or a domain
+     * @return The company name, if a company matches
+     */
+    public Optional<String> findCompanyNameByDomain(String emailOrDomain) {
+        String normalized = CompanyDomainCache.normalize(emailOrDomain);
+        if (normalized == null) {
+            return Optional.empty();
         }
-
-        return false;
+        if (companySnapshot.current() != null) {
+            return findCompanyByDomain(normalized).map(TeamleaderCompany::getName);
+        }
+        // One cache lookup: a second one would count a miss twice
+        CompanyDomainCache.Entry cached = domainCache.get(normalized);
+        if (cached != null) {
+            return Optional.ofNullable(cached.getCompanyName());
+        }
+        return findCompanyByDomain(normalized, null).map(TeamleaderCompany::getName);
     }
 
     /**
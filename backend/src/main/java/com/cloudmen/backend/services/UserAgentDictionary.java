@@ -0,0 +1,195 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.domain.models.UserAgentEntry;
+import com.cloudmen.backend.repositories.UserAgentEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Dictionary encoding for user-agent strings.
+ * There are far fewer distinct user agents than logins, so every string is
+ * stored once in user_agents and logs refer to it by id. Entries are immutable,
+ * which makes the in-memory copy safe to keep for the life of the process; it
+ * holds the auth-log.user-agents.cache-size most recently used entries.
+ * Reads wrapped in inBatch resolve the ids they miss with one query.
+ */
+@Service
+public class UserAgentDictionary {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserAgentDictionary.class);
+
+    private final UserAgentEntryRepository userAgentEntryRepository;
+
+    // Least recently used entries are evicted once the cache is full
+    private final Map<Long, UserAgentEntry> entries = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, UserAgentEntry> eldest) {
+                    return size() > cacheSize;
+                }
+            });
+
+    // Ids missed inside inBatch on this thread, with what to do once resolved
+    private final ThreadLocal<Map<Long, List<Consumer<UserAgentEntry>>>> deferred = new ThreadLocal<>();
+
+    @Value("${auth-log.user-agents.cache-size:10000}")
+    private int cacheSize;
+
+    public UserAgentDictionary(UserAgentEntryRepository userAgentEntryRepository) {
+        this.userAgentEntryRepository = userAgentEntryRepository;
+    }
+
+    /**
+     * Get the dictionary entry for a user-agent string, storing it the first
+     * time it is seen
+     *
+     * @param userAgent The raw user-agent string
+     * @return The dictionary entry
+     */
+    public UserAgentEntry encode(String userAgent) {
+        long id = UserAgentEntry.idFor(userAgent);
+        UserAgentEntry cached = entries.get(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        UserAgentEntry entry = userAgentEntryRepository.findById(id).orElse(null);
+        if (entry == null) {
+            entry = new UserAgentEntry(userAgent);
+            try {
+                userAgentEntryRepository.insert(entry);
+                logger.debug("Added user agent {} to dictionary: {}", id, userAgent);
+            } catch (DuplicateKeyException e) {
+                // Inserted concurrently by another request or instance; same content
+            }
+        }
+        remember(entry);
+        return entry;
+    }
+
+    /**
+     * Look up a dictionary entry by id
+     *
+     * @param id The dictionary id
+     * @return The entry, or null if the id is unknown
+     */
+    public UserAgentEntry resolve(Long id) {
+        if (id == null) {
+            return null;
+        }
+        UserAgentEntry cached = entries.get(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        UserAgentEntry entry = userAgentEntryRepository.findById(id).orElse(null);
+        if (entry != null) {
+            remember(entry);
+        } else {
+            logger.warn("Unknown user agent id: {}", id);
+        }
+        return entry;
+    }
+
+    /**
+     * Look up a dictionary entry by id and pass it on. Inside inBatch, ids
+     * that are not cached are passed on when the batch ends.
+     *
+     * @param id    The dictionary id (ignored if null)
+     * @param apply Receives the entry, unless the id is unknown
+     */
+    public void resolve(Long id, Consumer<UserAgentEntry> apply) {
+        if (id == null) {
+            return;
+        }
+        UserAgentEntry cached = entries.get(id);
+        Map<Long, List<Consumer<UserAgentEntry>>> pending = deferred.get();
+        if (cached == null && pending != null) {
+            pending.computeIfAbsent(id, key -> new ArrayList<>()).add(apply);
+            return;
+        }
+        UserAgentEntry entry = cached != null ? cached : resolve(id);
+        if (entry != null) {
+            apply.accept(entry);
+        }
+    }
+
+    /**
+     * Look up several dictionary entries, loading the ones that are not
+     * cached with a single query
+     *
+     * @param ids The dictionary ids
+     * @return The known entries by id
+     */
+    public Map<Long, UserAgentEntry> resolveAll(Collection<Long> ids) {
+        Map<Long, UserAgentEntry> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            UserAgentEntry cached = entries.get(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else if (id != null) {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        for (UserAgentEntry entry : userAgentEntryRepository.findAllById(missing)) {
+            remember(entry);
+            found.put(entry.getId(), entry);
+        }
+        List<Long> unknown = missing.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!unknown.isEmpty()) {
+            logger.warn("Unknown user agent ids: {}", unknown);
+        }
+        return found;
+    }
+
+    /**
+     * Run a read of authentication logs, resolving every user agent id it
+     * missed with one query once it returns
+     *
+     * @param <T>  The result type
+     * @param read The read; its logs are complete when inBatch returns
+     * @return The result of the read
+     */
+    public <T> T inBatch(Supplier<T> read) {
+        if (deferred.get() != null) {
+            // Nested: the outer batch resolves the ids
+            return read.get();
+        }
+        Map<Long, List<Consumer<UserAgentEntry>>> pending = new LinkedHashMap<>();
+        deferred.set(pending);
+        try {
+            T result = read.get();
+            deferred.remove();
+            if (!pending.isEmpty()) {
+                resolveAll(pending.keySet()).forEach((id, entry) -> pending.get(id).forEach(
+                        apply -> apply.accept(entry)));
+            }
+            return result;
+        } finally {
+            deferred.remove();
+        }
+    }
+
+    private void remember(UserAgentEntry entry) {
+        // Bounded so a flood of forged user agents cannot grow the heap
+        entries.put(entry.getId(), entry);
+    }
+}
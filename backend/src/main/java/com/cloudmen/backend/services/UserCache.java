@@ -0,0 +1,267 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.domain.enums.CacheRegion;
+import com.cloudmen.backend.domain.models.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Near-cache for user lookups by email and Auth0 id.
+ * Entries expire after user.cache.ttl-seconds and the cache holds at most
+ * user.cache.max-size users. Every save or delete of a user through Spring
+ * Data (including the sync and role changes that bypass UserService) evicts
+ * that user, and so do CacheInvalidationEvents for writes made by other
+ * instances. The TTL only bounds staleness when those events are late or
+ * disabled. Callers always get their own copy of a cached user.
+ * A user loaded from the database is only cached if nothing was evicted
+ * since the caller read generation() before the load, so a read that raced
+ * a write never caches the old user.
+ */
+@Component
+public class UserCache extends AbstractMongoEventListener<User> {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCache.class);
+
+    private final Map<String, Entry> byEmail = new ConcurrentHashMap<>();
+    private final Map<String, Entry> byAuth0Id = new ConcurrentHashMap<>();
+    // Cached snapshot per user id, to find the keys of a user that is evicted by id
+    private final Map<String, User> byId = new ConcurrentHashMap<>();
+    // Incremented by every eviction, see put(User, long)
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter evictionCounter;
+
+    @Value("${user.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${user.cache.max-size:10000}")
+    private int maxSize;
+
+    public UserCache(MeterRegistry meterRegistry) {
+        this.hitCounter = meterRegistry.counter("user.cache.requests", "result", "hit");
+        this.missCounter = meterRegistry.counter("user.cache.requests", "result", "miss");
+        this.evictionCounter = meterRegistry.counter("user.cache.evictions");
+        Gauge.builder("user.cache.size", byId, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Get a cached user by email
+     *
+     * @param email The email address
+     * @return A copy of the cached user, or null on a miss
+     */
+    public User getByEmail(String email) {
+        return email != null ? lookup(byEmail, email) : null;
+    }
+
+    /**
+     * Get a cached user by Auth0 id
+     *
+     * @param auth0Id The Auth0 user identifier
+     * @return A copy of the cached user, or null on a miss
+     */
+    public User getByAuth0Id(String auth0Id) {
+        return auth0Id != null ? lookup(byAuth0Id, auth0Id) : null;
+    }
+
+    /**
+     * Get the invalidation generation, to read before loading a user from
+     * the database
+     *
+     * @return The number of evictions so far
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Cache a user that was just loaded from the database
+     *
+     * @param user The user
+     */
+    public void put(User user) {
+        put(user, generation());
+    }
+
+    /**
+     * Cache a user loaded from the database, unless a user was evicted while
+     * it was loading
+     *
+     * @param user       The user
+     * @param generation The generation() read before the load
+     */
+    public void put(User user, long generation) {
+        if (user == null || user.getId() == null || this.generation.get() != generation) {
+            return;
+        }
+        if (byId.size() >= maxSize && !byId.containsKey(user.getId())) {
+            removeExpired();
+            // Bounded: when full of live entries, new users are simply not cached
+            if (byId.size() >= maxSize) {
+                return;
+            }
+        }
+
+        Entry entry = new Entry(new User(user), System.currentTimeMillis() + ttlSeconds * 1000);
+        User previous = byId.put(user.getId(), entry.user);
+        if (previous != null) {
+            removeKeys(previous);
+        }
+        if (user.getEmail() != null) {
+            byEmail.put(user.getEmail(), entry);
+        }
+        if (user.getAuth0Id() != null) {
+            byAuth0Id.put(user.getAuth0Id(), entry);
+        }
+        // An eviction may have run between the check above and the puts
+        if (this.generation.get() != generation) {
+            invalidateId(user.getId());
+        }
+    }
+
+    /**
+     * Evict a user, under its current and its previously cached keys
+     *
+     * @param user The user
+     */
+    public void invalidate(User user) {
+        if (user == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        if (user.getId() != null) {
+            invalidateId(user.getId());
+        }
+        if (user.getEmail() != null) {
+            byEmail.remove(user.getEmail());
+        }
+        if (user.getAuth0Id() != null) {
+            byAuth0Id.remove(user.getAuth0Id());
+        }
+    }
+
+    /**
+     * Evict a user by id
+     *
+     * @param id The user id
+     */
+    public void invalidateId(String id) {
+        generation.incrementAndGet();
+        remove(id);
+    }
+
+    /**
+     * Evict all users
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        byId.clear();
+        byEmail.clear();
+        byAuth0Id.clear();
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        invalidate(event.getSource());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<User> event) {
+        Document query = event.getSource();
+        Object id = query.get("_id");
+        if (id instanceof String) {
+            invalidateId((String) id);
+        } else {
+            // Deleted by something other than a single id
+            logger.debug("Clearing user cache after delete matching {}", query);
+            clear();
+        }
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (event.getRegion() != CacheRegion.USERS) {
+            return;
+        }
+        if (event.isRegionWide()) {
+            clear();
+        } else {
+            invalidateId(event.getId());
+        }
+    }
+
+    private User lookup(Map<String, Entry> index, String key) {
+        Entry entry = index.get(key);
+        if (entry == null || entry.isExpired()) {
+            if (entry != null) {
+                remove(entry.user.getId());
+            }
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        return new User(entry.user);
+    }
+
+    // Expired entries are removed without bumping the generation, since the
+    // user did not change
+    private void remove(String id) {
+        User cached = byId.remove(id);
+        if (cached != null) {
+            removeKeys(cached);
+            evictionCounter.increment();
+        }
+    }
+
+    private void removeKeys(User cached) {
+        if (cached.getEmail() != null) {
+            byEmail.remove(cached.getEmail());
+        }
+        if (cached.getAuth0Id() != null) {
+            byAuth0Id.remove(cached.getAuth0Id());
+        }
+    }
+
+    private void removeExpired() {
+        for (Entry entry : byEmail.values()) {
+            if (entry.isExpired()) {
+                remove(entry.user.getId());
+            }
+        }
+        for (Entry entry : byAuth0Id.values()) {
+            if (entry.isExpired()) {
+                remove(entry.user.getId());
+            }
+        }
+    }
+
+    private static class Entry {
+        private final User user;
+        private final long expiresAt;
+
+        private Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
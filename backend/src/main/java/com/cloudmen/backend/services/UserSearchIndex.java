@@ -0,0 +1,54 @@
+package com.cloudmen.backend.services;
+
+import com.cloudmen.backend.api.dtos.users.UserSearchResultDTO;
+import com.cloudmen.backend.domain.enums.CacheRegion;
+import com.cloudmen.backend.domain.models.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Typeahead index of users by name and email address. UserService updates
+ * it after partial updates, which do not raise save events.
+ */
+@Component
+public class UserSearchIndex extends SearchIndex<User, UserSearchResultDTO> {
+
+    public UserSearchIndex(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        super(mongoTemplate, User.class, "users", CacheRegion.USERS, meterRegistry);
+    }
+
+    @Override
+    protected Query rebuildQuery() {
+        Query query = new Query();
+        query.fields().include("email", "name", "firstName", "lastName", "picture");
+        return query;
+    }
+
+    @Override
+    protected String idOf(User user) {
+        return user.getId();
+    }
+
+    @Override
+    protected List<String> termsOf(User user) {
+        // The name comes first: it breaks ties between equally good matches
+        List<String> terms = new ArrayList<>();
+        terms.add(user.getName());
+        if (user.getFirstName() != null || user.getLastName() != null) {
+            terms.add((user.getFirstName() != null ? user.getFirstName() : "") + " "
+                    + (user.getLastName() != null ? user.getLastName() : ""));
+        }
+        terms.add(user.getEmail());
+        return terms;
+    }
+
+    @Override
+    protected UserSearchResultDTO resultOf(User user) {
+        return UserSearchResultDTO.fromEntity(user);
+    }
+}
@@ -1,77 +1,296 @@
 package com.cloudmen.backend.services;
 
+import com.cloudmen.backend.domain.enums.CacheRegion;
+import com.cloudmen.backend.domain.enums.RoleType;
+import com.cloudmen.backend.domain.enums.StatusType;
 import com.cloudmen.backend.domain.models.User;
 import com.cloudmen.backend.repositories.UserRepository;
+import com.cloudmen.backend.repositories.UserSearchCriteria;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class UserService {
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final UserSearchIndex userSearchIndex;
+    private final CacheInvalidationService cacheInvalidation;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserCache userCache, UserSearchIndex userSearchIndex,
+            CacheInvalidationService cacheInvalidation) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.userSearchIndex = userSearchIndex;
+        this.cacheInvalidation = cacheInvalidation;
     }
 
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    /**
+     * Find the users matching a filter
+     *
+     * @param criteria The filter
+     * @param fields   Document fields to load, or null for whole users
+     * @return Matching users
+     */
+    public List<User> searchUsers(UserSearchCriteria criteria, Collection<String> fields) {
+        return userRepository.findByCriteria(criteria.toCriteria(), fields);
+    }
+
     public Optional<User> getUserById(String id) {
         return userRepository.findById(id);
     }
 
     public Optional<User> getUserByAuth0Id(String auth0Id) {
-        return userRepository.findByAuth0Id(auth0Id);
+        User cached = userCache.getByAuth0Id(auth0Id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = userCache.generation();
+        Optional<User> user = userRepository.findByAuth0Id(auth0Id);
+        user.ifPresent(found -> userCache.put(found, generation));
+        return user;
     }
 
     public Optional<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        User cached = userCache.getByEmail(email);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = userCache.generation();
+        Optional<User> user = userRepository.findByEmail(email);
+        user.ifPresent(found -> userCache.put(found, generation));
+        return user;
+    }
+
+    public List<User> getUsersByEmails(Collection<String> emails) {
+        return userRepository.findByEmailIn(emails);
     }
 
     public User createUser(User user) {
         user.prePersist();
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.invalidate(saved);
+        return saved;
     }
 
     public Optional<User> updateUser(String id, User userDetails) {
-        return userRepository.findById(id)
-                .map(user -> {
-                    // Only update fields that are not null in userDetails
-                    if (userDetails.getEmail() != null) {
-                        user.setEmail(userDetails.getEmail());
-                    }
-                    if (userDetails.getRoles() != null) {
-                        user.setRoles(userDetails.getRoles());
-                    }
-                    if (userDetails.getStatus() != null) {
-                        user.setStatus(userDetails.getStatus());
-                    }
-                    if (userDetails.getPrimaryDomain() != null) {
-                        user.setPrimaryDomain(userDetails.getPrimaryDomain());
-                    }
-                    if (userDetails.getName() != null) {
-                        user.setName(userDetails.getName());
-                    }
-                    if (userDetails.getFirstName() != null) {
-                        user.setFirstName(userDetails.getFirstName());
-                    }
-                    if (userDetails.getLastName() != null) {
-                        user.setLastName(userDetails.getLastName());
-                    }
-                    if (userDetails.getPicture() != null) {
-                        user.setPicture(userDetails.getPicture());
-                    }
-
-                    user.setDateTimeChanged(LocalDateTime.now());
-                    return userRepository.save(user);
-                });
+        // Only update fields that are not null in userDetails
+        Map<String, Object> fields = new LinkedHashMap<>();
+        putIfNotNull(fields, "email", userDetails.getEmail());
+        putIfNotNull(fields, "roles", userDetails.getRoles());
+        putIfNotNull(fields, "status", userDetails.getStatus());
+        putIfNotNull(fields, "primaryDomain", userDetails.getPrimaryDomain());
+        putIfNotNull(fields, "name", userDetails.getName());
+        putIfNotNull(fields, "firstName", userDetails.getFirstName());
+        putIfNotNull(fields, "lastName", userDetails.getLastName());
+        putIfNotNull(fields, "picture", userDetails.getPicture());
+        return updateUserFields(id, fields);
+    }
+
+    /**
+     * Set only the given fields of a user (and its change timestamp) in one
+     * atomic update, without replacing the rest of the document
+     *
+     * @param id     The user ID
+     * @param fields Property name -> new value
+     * @return The updated user, or empty if the user does not exist
+     */
+    public Optional<User> updateUserFields(String id, Map<String, Object> fields) {
+        return updateUserFieldsIf(id, null, fields);
+    }
+
+    /**
+     * Approve a user, only if it is still pending. Users without a role get
+     * the COMPANY_USER role.
+     *
+     * @param id The user ID
+     * @return The approved user, or empty if the user does not exist or is not
+     *         pending
+     */
+    public Optional<User> approvePendingUser(String id) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("status", StatusType.ACTIVATED);
+
+        // Two disjoint conditions on roles, so at most one of them applies
+        Optional<User> approved = updateUserFieldsIf(id,
+                Criteria.where("status").is(StatusType.PENDING).and("roles.0").exists(true), fields);
+        if (approved.isEmpty()) {
+            fields.put("roles", List.of(RoleType.COMPANY_USER));
+            approved = updateUserFieldsIf(id,
+                    Criteria.where("status").is(StatusType.PENDING).and("roles.0").exists(false), fields);
+        }
+        return approved;
+    }
+
+    /**
+     * Reject a user, only if it is still pending
+     *
+     * @param id The user ID
+     * @return The rejected user, or empty if the user does not exist or is not
+     *         pending
+     */
+    public Optional<User> rejectPendingUser(String id) {
+        return updateUserFieldsIf(id, Criteria.where("status").is(StatusType.PENDING),
+                Map.of("status", StatusType.REJECTED));
+    }
+
+    /**
+     * Approve all pending users matching the filter in one bulk write. Users
+     * without a role get the COMPANY_USER role. The ids of the pending users
+     * are read first, so only those users are approved. Only the users this
+     * write changed are returned, recognized by the dateTimeChanged it set, so
+     * users another admin approved meanwhile are not returned (and not sent a
+     * second approval email).
+     *
+     * @param criteria Which users to approve
+     * @return The users that were approved by this call
+     */
+    public List<User> approvePendingUsers(UserSearchCriteria criteria) {
+        List<String> ids = userRepository.findByCriteria(new Criteria().andOperator(criteria.toCriteria(),
+                Criteria.where("status").is(StatusType.PENDING)), List.of("_id"))
+                .stream()
+                .map(User::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Users rejected or approved since they were read are left alone
+        Criteria pending = Criteria.where("_id").in(ids).and("status").is(StatusType.PENDING);
+        // Mongo stores milliseconds, so the re-read below matches this value exactly
+        LocalDateTime changedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        Update activate = new Update().set("status", StatusType.ACTIVATED).set("dateTimeChanged", changedAt);
+        Update activateWithRole = new Update().set("status", StatusType.ACTIVATED)
+                .set("roles", List.of(RoleType.COMPANY_USER))
+                .set("dateTimeChanged", changedAt);
+
+        long approved = userRepository.bulkUpdate(List.of(
+                Pair.of(new Query(new Criteria().andOperator(pending, Criteria.where("roles.0").exists(true))),
+                        activate),
+                Pair.of(new Query(new Criteria().andOperator(pending, Criteria.where("roles.0").exists(false))),
+                        activateWithRole)));
+        userCache.clear();
+        cacheInvalidation.publish(CacheRegion.USERS, null);
+        if (approved == 0) {
+            return List.of();
+        }
+
+        return userRepository.findByCriteria(Criteria.where("_id").in(ids).and("status").is(StatusType.ACTIVATED)
+                .and("dateTimeChanged").is(changedAt));
+    }
+
+    /**
+     * Reject all pending users matching the filter in one bulk write
+     *
+     * @param criteria Which users to reject
+     * @return The number of rejected users
+     */
+    public long rejectPendingUsers(UserSearchCriteria criteria) {
+        Criteria pending = new Criteria().andOperator(criteria.toCriteria(),
+                Criteria.where("status").is(StatusType.PENDING));
+        return bulkUpdate(new Query(pending), new Update().set("status", StatusType.REJECTED));
+    }
+
+    /**
+     * Give all users matching the filter a single role in one bulk write
+     *
+     * @param criteria Which users to update
+     * @param role     The new (primary) role
+     * @return The number of updated users
+     */
+    public long assignRole(UserSearchCriteria criteria, RoleType role) {
+        return bulkUpdate(new Query(criteria.toCriteria()), new Update().set("roles", List.of(role)));
+    }
+
+    /**
+     * Repair primary domains in one bulk write: full email addresses stored as
+     * primary domain are cut down to their domain, and missing primary domains
+     * are derived from the email address
+     *
+     * @param criteria Which users to check
+     * @return The number of updated users
+     */
+    public long fixPrimaryDomains(UserSearchCriteria criteria) {
+        Date changedAt = Date.from(LocalDateTime.now().atZone(ZoneId.systemDefault()).toInstant());
+
+        Query fullEmail = new Query(new Criteria().andOperator(criteria.toCriteria(),
+                Criteria.where("primaryDomain").regex("@")));
+        AggregationUpdate stripLocalPart = AggregationUpdate.update()
+                .set("primaryDomain").toValue(domainOf("primaryDomain"))
+                .set("dateTimeChanged").toValue(changedAt);
+
+        Query missing = new Query(new Criteria().andOperator(criteria.toCriteria(),
+                // null also matches a missing field
+                new Criteria().orOperator(Criteria.where("primaryDomain").is(null),
+                        Criteria.where("primaryDomain").is("")),
+                Criteria.where("email").regex("@")));
+        AggregationUpdate fromEmail = AggregationUpdate.update()
+                .set("primaryDomain").toValue(domainOf("email"))
+                .set("dateTimeChanged").toValue(changedAt);
+
+        long updated = userRepository.bulkUpdate(List.of(Pair.of(fullEmail, stripLocalPart),
+                Pair.of(missing, fromEmail)));
+        userCache.clear();
+        cacheInvalidation.publish(CacheRegion.USERS, null);
+        return updated;
+    }
+
+    private long bulkUpdate(Query query, Update update) {
+        update.set("dateTimeChanged", LocalDateTime.now());
+        long updated = userRepository.bulkUpdate(List.of(Pair.of(query, update)));
+        userCache.clear();
+        cacheInvalidation.publish(CacheRegion.USERS, null);
+        return updated;
+    }
+
+    // Everything after the last '@' of a string field
+    private static AggregationExpression domainOf(String field) {
+        return ArrayOperators.ArrayElemAt.arrayOf(StringOperators.valueOf(field).split("@")).elementAt(-1);
+    }
+
+    private Optional<User> updateUserFieldsIf(String id, Criteria condition, Map<String, Object> fields) {
+        Map<String, Object> update = new LinkedHashMap<>(fields);
+        update.put("dateTimeChanged", LocalDateTime.now());
+
+        Optional<User> updated = userRepository.updateFieldsIf(id, condition, update);
+        // Evicts the old email too if it was changed
+        userCache.invalidateId(id);
+        updated.ifPresent(userCache::invalidate);
+        // Partial updates raise no save event, so the search index and other
+        // instances are updated here
+        updated.ifPresent(userSearchIndex::put);
+        updated.ifPresent(user -> cacheInvalidation.publish(CacheRegion.USERS, id));
+        return updated;
+    }
+
+    private static void putIfNotNull(Map<String, Object> fields, String name, Object value) {
+        if (value != null) {
+            fields.put(name, value);
+        }
     }
 
     public void deleteUser(String id) {
         userRepository.deleteById(id);
+        userCache.invalidateId(id);
     }
 }
\ No newline at end of file
@@ -67,21 +67,21 @@ public class UserSyncService {
 
     private User updateExistingUser(User user, Map<String, Object> auth0Data) {
         logger.info("Updating existing user: {}", user.getEmail());
-        boolean updated = false;
+        // Property name -> new value, for the fields that actually changed
+        Map<String, Object> changes = new LinkedHashMap<>();
 
         // Update basic profile fields
-        updated |= updateUserField(user::getAuth0Id, user::setAuth0Id, auth0Data.get("sub"));
-        updated |= updateUserField(user::getName, user::setName, auth0Data.get("name"));
-        updated |= updateUserField(user::getPicture, user::setPicture, auth0Data.get("picture"));
-        updated |= updateUserField(user::getFirstName, user::setFirstName, auth0Data.get("given_name"));
-        updated |= updateUserField(user::getLastName, user::setLastName, auth0Data.get("family_name"));
+        updateUserField(changes, "auth0Id", user::getAuth0Id, auth0Data.get("sub"));
+        updateUserField(changes, "name", user::getName, auth0Data.get("name"));
+        updateUserField(changes, "picture", user::getPicture, auth0Data.get("picture"));
+        updateUserField(changes, "firstName", user::getFirstName, auth0Data.get("given_name"));
+        updateUserField(changes, "lastName", user::getLastName, auth0Data.get("family_name"));
 
         // Update domain if not set
         if ((user.getPrimaryDomain() == null || user.getPrimaryDomain().isEmpty()) && auth0Data.containsKey("email")) {
             String domain = extractDomainFromEmail((String) auth0Data.get("email"));
             if (domain != null) {
-                user.setPrimaryDomain(domain);
-                updated = true;
+                changes.put("primaryDomain", domain);
             }
         }
 
@@ -89,36 +89,29 @@ public class UserSyncService {
         if (user.getCustomerGoogleId() == null && auth0Data.containsKey("sub")) {
             String sub = (String) auth0Data.get("sub");
             if (sub != null && sub.startsWith("google-oauth2|")) {
-                user.setCustomerGoogleId(sub.substring("google-oauth2|".length()));
-                updated = true;
+                changes.put("customerGoogleId", sub.substring("google-oauth2|".length()));
             }
         }
 
         // Don't modify roles or status when just updating profile information
-        // Only update timestamp if anything has changed
-        if (updated) {
-            user.setDateTimeChanged(LocalDateTime.now());
-            logger.info("Saving updated user data for: {}", user.getEmail());
-            return userRepository.save(user);
+        // Only write (and update the timestamp) if anything has changed
+        if (!changes.isEmpty()) {
+            logger.info("Saving updated user fields {} for: {}", changes.keySet(), user.getEmail());
+            return userService.updateUserFields(user.getId(), changes).orElse(user);
         }
 
         logger.info("No changes needed for user: {}", user.getEmail());
         return user;
     }
 
-    private <T> boolean updateUserField(Getter<T> getter, Setter<T> setter, Object newValue) {
+    private <T> void updateUserField(Map<String, Object> changes, String field, Getter<T> getter, Object newValue) {
         if (newValue == null)
-            return false;
-
-        @SuppressWarnings("unchecked")
-        T typedValue = (T) newValue;
+            return;
 
         T currentValue = getter.get();
-        if (currentValue == null || !currentValue.equals(typedValue)) {
-            setter.set(typedValue);
-            return true;
+        if (currentValue == null || !currentValue.equals(newValue)) {
+            changes.put(field, newValue);
         }
-        return false;
     }
 
     @FunctionalInterface
@@ -126,11 +119,6 @@ public class UserSyncService {
         T get();
     }
 
-    @FunctionalInterface
-    private interface Setter<T> {
-        void set(T value);
-    }
-
     private User createNewUser(String email, Map<String, Object> auth0Data) {
         logger.info("Creating new user for: {}", email);
         User newUser = new User();
@@ -0,0 +1,40 @@
+package com.cloudmen.backend.tasks;
+
+import com.cloudmen.backend.services.AuthenticationLogArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task that moves old authentication logs to the archive
+ */
+@Component
+public class AuthenticationLogArchiveTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthenticationLogArchiveTask.class);
+
+    private final AuthenticationLogArchive authenticationLogArchive;
+
+    public AuthenticationLogArchiveTask(AuthenticationLogArchive authenticationLogArchive) {
+        this.authenticationLogArchive = authenticationLogArchive;
+    }
+
+    /**
+     * Archive all whole days older than auth-log.archive.after-days
+     * Runs daily at 3:30 AM by default
+     */
+    @Scheduled(cron = "${auth-log.archive.cron:0 30 3 * * ?}")
+    public void archiveOldLogs() {
+        if (!authenticationLogArchive.isEnabled()) {
+            return;
+        }
+
+        try {
+            long archived = authenticationLogArchive.archiveExpired();
+            logger.info("Scheduled authentication log archival finished: {} logs archived", archived);
+        } catch (Exception e) {
+            logger.error("Error archiving authentication logs", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.cloudmen.backend.tasks;
+
+import com.cloudmen.backend.services.CompanySnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task that loads the company snapshot at startup and reloads it
+ * shortly after company writes have made it stale. Until then, company reads
+ * go to the database.
+ */
+@Component
+public class CompanySnapshotRefreshTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompanySnapshotRefreshTask.class);
+
+    private final CompanySnapshot companySnapshot;
+
+    public CompanySnapshotRefreshTask(CompanySnapshot companySnapshot) {
+        this.companySnapshot = companySnapshot;
+    }
+
+    /**
+     * Reload the company snapshot if it is stale
+     * Checks at startup and every 5 seconds by default
+     */
+    @Scheduled(initialDelayString = "${company.snapshot.initial-delay-ms:0}",
+            fixedDelayString = "${company.snapshot.check-interval-ms:5000}")
+    public void refreshCompanySnapshot() {
+        try {
+            companySnapshot.refreshIfStale();
+        } catch (Exception e) {
+            logger.error("Error reloading company snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.cloudmen.backend.tasks;
+
+import com.cloudmen.backend.services.EmailOutboxDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task that picks up outbox emails whose retry is due, and any left
+ * behind by an instance that stopped while sending
+ */
+@Component
+public class EmailOutboxDispatchTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatchTask.class);
+
+    private final EmailOutboxDispatcher emailOutboxDispatcher;
+
+    public EmailOutboxDispatchTask(EmailOutboxDispatcher emailOutboxDispatcher) {
+        this.emailOutboxDispatcher = emailOutboxDispatcher;
+    }
+
+    /**
+     * Start dispatcher workers for due entries
+     * Runs every 15 seconds by default
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:15000}")
+    public void dispatchDueEmails() {
+        try {
+            emailOutboxDispatcher.dispatch();
+        } catch (Exception e) {
+            logger.error("Error dispatching outbox emails", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.cloudmen.backend.tasks;
+
+import com.cloudmen.backend.services.GoogleWorkspaceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Scheduled task that loads the Google Workspace SKU catalogue at startup and
+ * reloads it periodically. If a reload fails, the loaded catalogue is kept.
+ */
+@Component
+public class GoogleWorkspaceSkuCatalogRefreshTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoogleWorkspaceSkuCatalogRefreshTask.class);
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(1);
+
+    private final GoogleWorkspaceService googleWorkspaceService;
+
+    public GoogleWorkspaceSkuCatalogRefreshTask(GoogleWorkspaceService googleWorkspaceService) {
+        this.googleWorkspaceService = googleWorkspaceService;
+    }
+
+    /**
+     * Reload the SKU catalogue
+     * Runs at startup and every hour by default
+     */
+    @Scheduled(initialDelayString = "${google.workspace.sku-catalog.initial-delay-ms:0}",
+            fixedDelayString = "${google.workspace.sku-catalog.refresh-interval-ms:3600000}")
+    public void refreshSkuCatalog() {
+        try {
+            googleWorkspaceService.refreshSkuCatalog().block(TIMEOUT);
+        } catch (Exception e) {
+            logger.error("Error reloading Google Workspace SKU catalogue: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.cloudmen.backend.tasks;
+
+import com.cloudmen.backend.services.CompanySearchIndex;
+import com.cloudmen.backend.services.UserSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled task that loads the typeahead search indexes at startup and
+ * reloads them periodically. Single saves and deletes update the indexes as
+ * they happen; the reload picks up bulk writes and writes made by other
+ * instances.
+ */
+@Component
+public class SearchIndexRefreshTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexRefreshTask.class);
+
+    private final CompanySearchIndex companySearchIndex;
+    private final UserSearchIndex userSearchIndex;
+
+    public SearchIndexRefreshTask(CompanySearchIndex companySearchIndex, UserSearchIndex userSearchIndex) {
+        this.companySearchIndex = companySearchIndex;
+        this.userSearchIndex = userSearchIndex;
+    }
+
+    /**
+     * Rebuild both search indexes
+     * Runs at startup and every 15 minutes by default
+     */
+    @Scheduled(initialDelayString = "${search.index.initial-delay-ms:0}",
+            fixedDelayString = "${search.index.refresh-interval-ms:900000}")
+    public void refreshSearchIndexes() {
+        try {
+            companySearchIndex.rebuild();
+        } catch (Exception e) {
+            logger.error("Error rebuilding company search index", e);
+        }
+        try {
+            userSearchIndex.rebuild();
+        } catch (Exception e) {
+            logger.error("Error rebuilding user search index", e);
+        }
+    }
+}
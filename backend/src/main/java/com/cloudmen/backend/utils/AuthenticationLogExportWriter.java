@@ -0,0 +1,169 @@
+package com.cloudmen.backend.utils;
+
+import com.cloudmen.backend.domain.models.AuthenticationLog;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Writes authentication logs one at a time as NDJSON or CSV.
+ * Both formats have the same fixed set of columns, so an export does not
+ * change shape when the API representation of a log does. Nothing is kept
+ * per row, which keeps exports of any size in constant memory.
+ */
+public class AuthenticationLogExportWriter implements Closeable {
+
+    private static final String[] COLUMNS = { "timestamp", "email", "primaryDomain", "userId", "successful",
+            "failureReason", "ipAddress", "userAgent", "browser", "operatingSystem", "deviceType" };
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Supported export formats
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Parse a format name, case-insensitively
+         *
+         * @param name The format name
+         * @return The format, or null if unknown
+         */
+        public static Format fromName(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Format format;
+    private final Writer writer;
+    private final JsonGenerator generator;
+    private long count;
+
+    public AuthenticationLogExportWriter(Format format, OutputStream out) throws IOException {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.NDJSON) {
+            this.generator = JSON_FACTORY.createGenerator(writer);
+            this.generator.setRootValueSeparator(null);
+        } else {
+            this.generator = null;
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+    }
+
+    /**
+     * Write one log
+     *
+     * @param log The log to write
+     * @throws IOException If the underlying stream fails
+     */
+    public void write(AuthenticationLog log) throws IOException {
+        Object[] values = { format(log.getTimestamp()), log.getEmail(), log.getPrimaryDomain(), log.getUserId(),
+                log.isSuccessful(), log.getFailureReason(), log.getIpAddress(), log.getUserAgent(),
+                log.getBrowser(), log.getOperatingSystem(), log.getDeviceType() };
+
+        if (format == Format.NDJSON) {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (values[i] instanceof Boolean) {
+                    generator.writeBooleanField(COLUMNS[i], (Boolean) values[i]);
+                } else {
+                    generator.writeStringField(COLUMNS[i], (String) values[i]);
+                }
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        } else {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvCell(values[i]));
+            }
+            writer.write("\r\n");
+        }
+        count++;
+    }
+
+    /**
+     * Get the number of logs written so far
+     *
+     * @return The row count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Flush buffered rows to the underlying stream without closing it
+     *
+     * @throws IOException If the underlying stream fails
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (generator != null) {
+            generator.close();
+        }
+        writer.close();
+    }
+
+    private static String format(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.toString() : null;
+    }
+
+    /**
+     * Quote a CSV cell per RFC 4180. Cells that a spreadsheet would treat as a
+     * formula are prefixed with an apostrophe.
+     */
+    static String csvCell(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0
+                || text.indexOf('\r') >= 0) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
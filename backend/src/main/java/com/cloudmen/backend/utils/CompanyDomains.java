@@ -0,0 +1,133 @@
+package com.cloudmen.backend.utils;
+
+import com.cloudmen.backend.domain.models.TeamleaderCompany;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Derives the set of domains a company owns from its email addresses, its
+ * website and the email addresses in its "contacts" custom field. The result
+ * is stored on the company at sync time, so looking up a company by domain is
+ * a single indexed query instead of a scan over every company.
+ */
+public class CompanyDomains {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CompanyDomains() {
+    }
+
+    /**
+     * Get the domains of a company
+     *
+     * @param company The company
+     * @return The distinct lower-case domains, in order of appearance
+     */
+    public static List<String> of(TeamleaderCompany company) {
+        Set<String> domains = new LinkedHashSet<>();
+
+        if (company.getContactInfo() != null) {
+            for (TeamleaderCompany.ContactInfo contact : company.getContactInfo()) {
+                if (contact.getType() != null && contact.getType().toLowerCase(Locale.ROOT).contains("email")) {
+                    add(domains, fromEmail(contact.getValue()));
+                }
+            }
+        }
+
+        add(domains, fromUrl(company.getWebsite()));
+
+        if (company.getCustomFields() != null) {
+            addContactDomains(domains, company.getCustomFields().get("contacts"));
+        }
+
+        return new ArrayList<>(domains);
+    }
+
+    /**
+     * Extract the domain of an email address
+     *
+     * @param email The email address
+     * @return The lower-case domain, or null if there is none
+     */
+    public static String fromEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.lastIndexOf('@');
+        return at >= 0 ? clean(email.substring(at + 1)) : null;
+    }
+
+    /**
+     * Extract the host of a website URL, without a leading "www."
+     *
+     * @param url The URL, with or without scheme
+     * @return The lower-case domain, or null if there is none
+     */
+    public static String fromUrl(String url) {
+        if (url == null) {
+            return null;
+        }
+        String host = url.trim().toLowerCase(Locale.ROOT);
+        int scheme = host.indexOf("://");
+        if (scheme >= 0) {
+            host = host.substring(scheme + 3);
+        }
+        for (char separator : new char[] { '/', '?', '#', ':' }) {
+            int end = host.indexOf(separator);
+            if (end >= 0) {
+                host = host.substring(0, end);
+            }
+        }
+        if (host.startsWith("www.")) {
+            host = host.substring("www.".length());
+        }
+        return clean(host);
+    }
+
+    private static void addContactDomains(Set<String> domains, Object contacts) {
+        if (contacts instanceof Collection) {
+            for (Object contact : (Collection<?>) contacts) {
+                if (contact instanceof Map) {
+                    Object email = ((Map<?, ?>) contact).get("email");
+                    add(domains, email != null ? fromEmail(email.toString()) : null);
+                }
+            }
+        } else if (contacts != null) {
+            // Stored as the JSON text of the Teamleader field
+            try {
+                JsonNode parsed = objectMapper.readTree(contacts.toString());
+                if (parsed.isArray()) {
+                    for (JsonNode contact : parsed) {
+                        if (contact.has("email")) {
+                            add(domains, fromEmail(contact.get("email").asText()));
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                // Not JSON; no contact domains to add
+            }
+        }
+    }
+
+    private static String clean(String domain) {
+        String cleaned = domain.trim().toLowerCase(Locale.ROOT);
+        while (cleaned.endsWith(".")) {
+            cleaned = cleaned.substring(0, cleaned.length() - 1);
+        }
+        return cleaned.contains(".") ? cleaned : null;
+    }
+
+    private static void add(Set<String> domains, String domain) {
+        if (domain != null) {
+            domains.add(domain);
+        }
+    }
+}
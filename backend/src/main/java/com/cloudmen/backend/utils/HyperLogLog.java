@@ -0,0 +1,142 @@
+package com.cloudmen.backend.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Small HyperLogLog sketch for approximate distinct counts.
+ * Uses 2^10 registers (about 3% standard error). Registers only ever grow, so
+ * two sketches are merged by taking the per-register maximum - which is what
+ * lets Mongo merge them in place with $max on "field.index" paths.
+ */
+public class HyperLogLog {
+
+    public static final int PRECISION = 10;
+    public static final int REGISTER_COUNT = 1 << PRECISION;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+    private final byte[] registers = new byte[REGISTER_COUNT];
+
+    /**
+     * Add a value to the sketch
+     *
+     * @param value The value to count
+     */
+    public void add(String value) {
+        if (value == null) {
+            return;
+        }
+        long hash = hash(value);
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        // Leading zeros of the remaining bits, plus one; the guard bit caps the rank
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Merge another sketch into this one
+     *
+     * @param other The sketch to merge
+     */
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Merge registers in their stored (sparse) form into this sketch
+     *
+     * @param stored Register index to value, as returned by toRegisters
+     */
+    public void merge(Map<String, Integer> stored) {
+        if (stored == null) {
+            return;
+        }
+        for (Map.Entry<String, Integer> entry : stored.entrySet()) {
+            int index;
+            try {
+                index = Integer.parseInt(entry.getKey());
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            Integer value = entry.getValue();
+            if (index >= 0 && index < REGISTER_COUNT && value != null && value > registers[index]) {
+                registers[index] = value.byteValue();
+            }
+        }
+    }
+
+    /**
+     * Get the approximate number of distinct values added
+     *
+     * @return The estimated cardinality
+     */
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+
+        // Linear counting is more accurate for small cardinalities
+        if (estimate <= 2.5 * REGISTER_COUNT && zeros > 0) {
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Get the non-zero registers keyed by index, the form stored in Mongo
+     *
+     * @return Sparse register map
+     */
+    public Map<String, Integer> toRegisters() {
+        Map<String, Integer> stored = new HashMap<>();
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            if (registers[i] != 0) {
+                stored.put(Integer.toString(i), (int) registers[i]);
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Build a sketch from its stored form
+     *
+     * @param stored Register index to value
+     * @return The sketch
+     */
+    public static HyperLogLog fromRegisters(Map<String, Integer> stored) {
+        HyperLogLog sketch = new HyperLogLog();
+        sketch.merge(stored);
+        return sketch;
+    }
+
+    /**
+     * 64-bit FNV-1a followed by the MurmurHash3 finalizer for good bit mixing
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53b9f4eL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,162 @@
+package com.cloudmen.backend.utils;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+
+/**
+ * Converts IP address literals to and from a fixed 16-byte binary form.
+ * IPv4 addresses are stored IPv4-mapped (::ffff:a.b.c.d), so every address
+ * has the same length and byte order equals numeric order. That lets a CIDR
+ * block be queried as a single [first, last] range on an indexed field.
+ */
+public class IpAddressCodec {
+
+    private static final int LENGTH = 16;
+    private static final int IPV4_OFFSET = 12;
+
+    private IpAddressCodec() {
+    }
+
+    /**
+     * Parse an IPv4 or IPv6 literal. Host names are never resolved.
+     *
+     * @param address The address text
+     * @return The 16-byte form, or null if the text is not an IP literal
+     */
+    public static byte[] encode(String address) {
+        if (address == null) {
+            return null;
+        }
+        String text = address.trim();
+        if (text.startsWith("[") && text.endsWith("]")) {
+            text = text.substring(1, text.length() - 1);
+        }
+        int zone = text.indexOf('%');
+        if (zone >= 0) {
+            text = text.substring(0, zone);
+        }
+        if (text.isEmpty()) {
+            return null;
+        }
+
+        if (text.indexOf(':') < 0) {
+            byte[] v4 = parseIpv4(text);
+            return v4 != null ? mapIpv4(v4) : null;
+        }
+        if (!text.matches("[0-9A-Fa-f:.]+")) {
+            return null;
+        }
+        try {
+            // Only hex digits, colons and dots are left, so this never does a DNS lookup
+            byte[] bytes = InetAddress.getByName(text).getAddress();
+            return bytes.length == LENGTH ? bytes : mapIpv4(bytes);
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Format the 16-byte form back to its usual text representation
+     *
+     * @param bytes The 16-byte form
+     * @return The address text, or null if the input is not 16 bytes long
+     */
+    public static String decode(byte[] bytes) {
+        if (bytes == null || bytes.length != LENGTH) {
+            return null;
+        }
+        if (isMappedIpv4(bytes)) {
+            return (bytes[12] & 0xff) + "." + (bytes[13] & 0xff) + "." + (bytes[14] & 0xff) + "."
+                    + (bytes[15] & 0xff);
+        }
+        try {
+            return Inet6Address.getByAddress(null, bytes, null).getHostAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the first and last address of a CIDR block (or a single address)
+     *
+     * @param cidr Block such as 10.0.0.0/8 or 2001:db8::/32, or a plain address
+     * @return Two 16-byte addresses {first, last}, or null if the text is not
+     *         a valid block
+     */
+    public static byte[][] range(String cidr) {
+        if (cidr == null) {
+            return null;
+        }
+        int slash = cidr.indexOf('/');
+        byte[] base = encode(slash >= 0 ? cidr.substring(0, slash) : cidr);
+        if (base == null) {
+            return null;
+        }
+
+        int prefix = LENGTH * 8;
+        if (slash >= 0) {
+            try {
+                prefix = Integer.parseInt(cidr.substring(slash + 1).trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            boolean ipv4 = cidr.substring(0, slash).indexOf(':') < 0;
+            if (ipv4) {
+                if (prefix < 0 || prefix > 32) {
+                    return null;
+                }
+                prefix += IPV4_OFFSET * 8;
+            } else if (prefix < 0 || prefix > LENGTH * 8) {
+                return null;
+            }
+        }
+
+        byte[] first = Arrays.copyOf(base, LENGTH);
+        byte[] last = Arrays.copyOf(base, LENGTH);
+        for (int bit = prefix; bit < LENGTH * 8; bit++) {
+            int mask = 0x80 >>> (bit % 8);
+            first[bit / 8] &= (byte) ~mask;
+            last[bit / 8] |= (byte) mask;
+        }
+        return new byte[][] { first, last };
+    }
+
+    private static byte[] parseIpv4(String text) {
+        String[] parts = text.split("\\.", -1);
+        if (parts.length != 4) {
+            return null;
+        }
+        byte[] bytes = new byte[4];
+        for (int i = 0; i < 4; i++) {
+            String part = parts[i];
+            if (part.isEmpty() || part.length() > 3 || !part.chars().allMatch(Character::isDigit)) {
+                return null;
+            }
+            int value = Integer.parseInt(part);
+            if (value > 255) {
+                return null;
+            }
+            bytes[i] = (byte) value;
+        }
+        return bytes;
+    }
+
+    private static byte[] mapIpv4(byte[] v4) {
+        byte[] bytes = new byte[LENGTH];
+        bytes[10] = (byte) 0xff;
+        bytes[11] = (byte) 0xff;
+        System.arraycopy(v4, 0, bytes, IPV4_OFFSET, 4);
+        return bytes;
+    }
+
+    private static boolean isMappedIpv4(byte[] bytes) {
+        for (int i = 0; i < 10; i++) {
+            if (bytes[i] != 0) {
+                return false;
+            }
+        }
+        return bytes[10] == (byte) 0xff && bytes[11] == (byte) 0xff;
+    }
+}
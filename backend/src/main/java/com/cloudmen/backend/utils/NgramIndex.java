@@ -0,0 +1,297 @@
+package com.cloudmen.backend.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory substring index for typeahead search.
+ * Every entry has a few search terms (e.g. a name and an email address).
+ * Each term is indexed under its trigrams, and each word of a term under
+ * its one- and two-character prefixes. A query word of three or more
+ * characters intersects the posting lists of its trigrams; a shorter word
+ * looks up its prefix. Candidates are then checked against their terms, so
+ * every result really contains every query word.
+ * Results are ranked per query word: an exact term first, then a term
+ * starting with the word, then a word inside a term starting with it, then
+ * any substring match.
+ * Matching ignores case and accents. Reads do not lock; writes are
+ * serialized.
+ *
+ * @param <V> The value returned for a matching entry
+ */
+public class NgramIndex<V> {
+
+    private static final int GRAM = 3;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final int EXACT = 0;
+    private static final int TERM_PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+    private static final int NO_MATCH = -1;
+
+    private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> grams = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> prefixes = new ConcurrentHashMap<>();
+
+    /**
+     * Normalize text for indexing and matching: lower case, without accents
+     * and with single spaces
+     *
+     * @param text The text
+     * @return The normalized text, or an empty string for null
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Add an entry, or replace the entry with the same id
+     *
+     * @param id    The entry id
+     * @param terms The texts to search in; null and blank terms are skipped
+     * @param value The value to return when the entry matches
+     */
+    public synchronized void put(String id, Collection<String> terms, V value) {
+        removeKeys(id, entries.get(id));
+
+        List<String> normalized = new ArrayList<>();
+        for (String term : terms) {
+            String text = normalize(term);
+            if (!text.isEmpty() && !normalized.contains(text)) {
+                normalized.add(text);
+            }
+        }
+        if (normalized.isEmpty()) {
+            entries.remove(id);
+            return;
+        }
+
+        Entry<V> entry = new Entry<>(normalized, value);
+        entries.put(id, entry);
+        for (String key : gramsOf(entry)) {
+            grams.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        for (String key : prefixesOf(entry)) {
+            prefixes.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    /**
+     * Remove an entry
+     *
+     * @param id The entry id
+     */
+    public synchronized void remove(String id) {
+        removeKeys(id, entries.remove(id));
+    }
+
+    /**
+     * Get the number of entries
+     *
+     * @return The number of indexed entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Find the entries containing every word of a query
+     *
+     * @param query The query; words may match in any order and in different
+     *              terms
+     * @param limit The maximum number of results
+     * @return The values of the best matching entries, best first
+     */
+    public List<V> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        String[] words = normalized.split(" ");
+
+        Set<String> candidates = null;
+        for (String word : words) {
+            Set<String> matches = candidatesFor(word);
+            if (matches.isEmpty()) {
+                return List.of();
+            }
+            if (candidates == null) {
+                candidates = new HashSet<>(matches);
+            } else {
+                candidates.retainAll(matches);
+            }
+        }
+
+        List<Hit<V>> hits = new ArrayList<>();
+        for (String id : candidates) {
+            Entry<V> entry = entries.get(id);
+            int score = entry != null ? score(entry, words) : NO_MATCH;
+            if (score != NO_MATCH) {
+                hits.add(new Hit<>(entry, score));
+            }
+        }
+        hits.sort(Comparator.<Hit<V>>comparingInt(hit -> hit.score)
+                .thenComparingInt(hit -> hit.entry.terms.get(0).length())
+                .thenComparing(hit -> hit.entry.terms.get(0)));
+
+        List<V> results = new ArrayList<>(Math.min(limit, hits.size()));
+        for (Hit<V> hit : hits) {
+            if (results.size() == limit) {
+                break;
+            }
+            results.add(hit.entry.value);
+        }
+        return results;
+    }
+
+    private Set<String> candidatesFor(String word) {
+        if (word.length() < GRAM) {
+            return prefixes.getOrDefault(word, Collections.emptySet());
+        }
+        // Intersect starting from the rarest trigram
+        List<Set<String>> postings = new ArrayList<>();
+        for (String gram : gramsOf(word)) {
+            Set<String> posting = grams.get(gram);
+            if (posting == null) {
+                return Collections.emptySet();
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        Set<String> result = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+            result.retainAll(postings.get(i));
+        }
+        return result;
+    }
+
+    private static int score(Entry<?> entry, String[] words) {
+        int score = 0;
+        for (String word : words) {
+            int best = NO_MATCH;
+            for (String term : entry.terms) {
+                int rank = rank(term, word);
+                if (rank != NO_MATCH && (best == NO_MATCH || rank < best)) {
+                    best = rank;
+                }
+            }
+            if (best == NO_MATCH) {
+                return NO_MATCH;
+            }
+            score += best;
+        }
+        return score;
+    }
+
+    private static int rank(String term, String word) {
+        if (term.equals(word)) {
+            return EXACT;
+        }
+        if (term.startsWith(word)) {
+            return TERM_PREFIX;
+        }
+        int rank = NO_MATCH;
+        for (int i = term.indexOf(word); i >= 0; i = term.indexOf(word, i + 1)) {
+            if (!Character.isLetterOrDigit(term.charAt(i - 1))) {
+                return WORD_PREFIX;
+            }
+            rank = SUBSTRING;
+        }
+        return rank;
+    }
+
+    private void removeKeys(String id, Entry<V> entry) {
+        if (entry == null) {
+            return;
+        }
+        for (String key : gramsOf(entry)) {
+            removePosting(grams, key, id);
+        }
+        for (String key : prefixesOf(entry)) {
+            removePosting(prefixes, key, id);
+        }
+    }
+
+    private static void removePosting(Map<String, Set<String>> postings, String key, String id) {
+        Set<String> posting = postings.get(key);
+        if (posting != null) {
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static Set<String> gramsOf(Entry<?> entry) {
+        Set<String> keys = new HashSet<>();
+        for (String term : entry.terms) {
+            keys.addAll(gramsOf(term));
+        }
+        return keys;
+    }
+
+    private static Set<String> gramsOf(String text) {
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            keys.add(text.substring(i, i + GRAM));
+        }
+        return keys;
+    }
+
+    private static Set<String> prefixesOf(Entry<?> entry) {
+        Set<String> keys = new HashSet<>();
+        for (String term : entry.terms) {
+            int start = 0;
+            while (start < term.length()) {
+                while (start < term.length() && !Character.isLetterOrDigit(term.charAt(start))) {
+                    start++;
+                }
+                int end = start;
+                while (end < term.length() && Character.isLetterOrDigit(term.charAt(end))) {
+                    end++;
+                }
+                for (int length = 1; length < GRAM && start + length <= end; length++) {
+                    keys.add(term.substring(start, start + length));
+                }
+                start = end;
+            }
+        }
+        return keys;
+    }
+
+    private static class Entry<V> {
+        private final List<String> terms;
+        private final V value;
+
+        private Entry(List<String> terms, V value) {
+            this.terms = terms;
+            this.value = value;
+        }
+    }
+
+    private static class Hit<V> {
+        private final Entry<V> entry;
+        private final int score;
+
+        private Hit(Entry<V> entry, int score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+}
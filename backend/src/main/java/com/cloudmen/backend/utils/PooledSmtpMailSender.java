@@ -0,0 +1,285 @@
+package com.cloudmen.backend.utils;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JavaMailSenderImpl that keeps SMTP connections open between sends.
+ * JavaMailSenderImpl connects, authenticates and says QUIT on every send()
+ * call; this sender borrows an authenticated connection from a small pool
+ * instead and returns it afterwards, so consecutive messages share one
+ * connection. At most maxConnections connections exist at a time; callers
+ * beyond that wait up to borrowTimeoutMs. A connection is closed after
+ * maxMessagesPerConnection messages (many providers cap this) or once it has
+ * been idle for maxIdleMs, before the server drops it. A send that fails on a
+ * reused connection is retried once on a fresh one, in case the server closed
+ * it in the meantime.
+ */
+public class PooledSmtpMailSender extends JavaMailSenderImpl {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledSmtpMailSender.class);
+
+    private static final String HEADER_MESSAGE_ID = "Message-ID";
+
+    private final BlockingDeque<Connection> idle = new LinkedBlockingDeque<>();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final Semaphore permits;
+    private final int maxConnections;
+    private final int maxMessagesPerConnection;
+    private final long maxIdleMs;
+    private final long borrowTimeoutMs;
+    private volatile boolean closed;
+
+    public PooledSmtpMailSender(int maxConnections, int maxMessagesPerConnection, long maxIdleMs,
+            long borrowTimeoutMs) {
+        this.maxConnections = maxConnections;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.maxIdleMs = maxIdleMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.permits = new Semaphore(maxConnections, true);
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        acquirePermit();
+
+        Connection connection = null;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                MimeMessage mimeMessage = mimeMessages[i];
+                Object original = originalMessages != null ? originalMessages[i] : mimeMessage;
+
+                if (connection == null) {
+                    try {
+                        connection = borrow();
+                    } catch (AuthenticationFailedException ex) {
+                        throw new MailAuthenticationException(ex);
+                    } catch (Exception ex) {
+                        // Without a connection, all remaining messages failed
+                        for (int j = i; j < mimeMessages.length; j++) {
+                            failedMessages.put(originalMessages != null ? originalMessages[j] : mimeMessages[j], ex);
+                        }
+                        throw new MailSendException("Mail server connection failed", ex, failedMessages);
+                    }
+                }
+
+                Address[] addresses;
+                try {
+                    prepare(mimeMessage);
+                    addresses = mimeMessage.getAllRecipients();
+                } catch (Exception ex) {
+                    failedMessages.put(original, ex);
+                    continue;
+                }
+
+                try {
+                    send(connection, mimeMessage, addresses);
+                } catch (Exception ex) {
+                    if (!isConnectionLost(ex)) {
+                        // The server answered (e.g. rejected a recipient); the connection itself is fine
+                        failedMessages.put(original, ex);
+                        continue;
+                    }
+                    boolean reused = connection.messagesSent > 0;
+                    discard(connection);
+                    connection = null;
+                    if (!reused) {
+                        failedMessages.put(original, ex);
+                        continue;
+                    }
+                    // The server may have closed an idle connection; try once more on a fresh one
+                    logger.debug("Send on reused SMTP connection failed, retrying on a new connection: {}",
+                            ex.getMessage());
+                    try {
+                        connection = open();
+                        send(connection, mimeMessage, addresses);
+                    } catch (Exception retryEx) {
+                        failedMessages.put(original, retryEx);
+                        discard(connection);
+                        connection = null;
+                    }
+                }
+            }
+        } finally {
+            release(connection);
+            permits.release();
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    /**
+     * Close all idle connections and refuse further sends
+     */
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            discard(connection);
+        }
+    }
+
+    /**
+     * Get the number of SMTP connections opened since startup
+     *
+     * @return The number of connections opened
+     */
+    public long getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    /**
+     * Get the number of open connections waiting in the pool
+     *
+     * @return The number of idle connections
+     */
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    /**
+     * Get the maximum number of connections open at once
+     *
+     * @return The pool size
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    private void acquirePermit() {
+        if (closed) {
+            throw new MailSendException("Mail sender is closed");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MailSendException(
+                        "No SMTP connection available within " + borrowTimeoutMs + " ms (pool size " + maxConnections
+                                + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP connection", e);
+        }
+    }
+
+    private Connection borrow() throws MessagingException {
+        long now = System.currentTimeMillis();
+        Connection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            if (now - connection.lastUsed < maxIdleMs) {
+                return connection;
+            }
+            discard(connection);
+        }
+        return open();
+    }
+
+    private Connection open() throws MessagingException {
+        Transport transport = connectTransport();
+        connectionsOpened.incrementAndGet();
+        return new Connection(transport);
+    }
+
+    private void release(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        if (closed || connection.messagesSent >= maxMessagesPerConnection) {
+            discard(connection);
+            return;
+        }
+        connection.lastUsed = System.currentTimeMillis();
+        // Most recently used first, so surplus connections go idle and expire
+        idle.offerFirst(connection);
+        evictIdle(connection.lastUsed);
+    }
+
+    private void evictIdle(long now) {
+        Iterator<Connection> it = idle.descendingIterator();
+        while (it.hasNext()) {
+            Connection connection = it.next();
+            if (now - connection.lastUsed < maxIdleMs) {
+                break;
+            }
+            if (idle.removeLastOccurrence(connection)) {
+                discard(connection);
+            }
+        }
+    }
+
+    private static void send(Connection connection, MimeMessage mimeMessage, Address[] addresses)
+            throws MessagingException {
+        connection.transport.sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+        connection.messagesSent++;
+    }
+
+    private static void prepare(MimeMessage mimeMessage) throws MessagingException {
+        // Same preparation as JavaMailSenderImpl: keep an explicit Message-ID across saveChanges()
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        String messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            mimeMessage.setHeader(HEADER_MESSAGE_ID, messageId);
+        }
+    }
+
+    /**
+     * Whether a send failed because the connection is unusable, rather than
+     * because the server rejected the message
+     */
+    private static boolean isConnectionLost(Exception ex) {
+        if (ex instanceof SMTPSendFailedException) {
+            // A negative return code means no reply was read, e.g. [EOF]
+            return ((SMTPSendFailedException) ex).getReturnCode() < 0;
+        }
+        return !(ex instanceof SendFailedException);
+    }
+
+    private static void discard(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.transport.close();
+        } catch (Exception e) {
+            // The connection is being dropped anyway
+        }
+    }
+
+    private static class Connection {
+        private final Transport transport;
+        private int messagesSent;
+        private long lastUsed;
+
+        private Connection(Transport transport) {
+            this.transport = transport;
+            this.lastUsed = System.currentTimeMillis();
+        }
+    }
+}
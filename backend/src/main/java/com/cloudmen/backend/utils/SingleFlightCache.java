@@ -0,0 +1,174 @@
+package com.cloudmen.backend.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-memory cache of values loaded through a Mono, where concurrent
+ * loads of the same key share a single request.
+ * Entries are fresh for {@link #ttlSeconds()} and served from memory. For
+ * {@link #maxStaleSeconds()} after that they are still served at once, while
+ * one background request reloads them. Older entries, and keys not cached yet,
+ * wait for the load. Errors and empty results are passed on but not cached,
+ * and a load that was running when its key was invalidated is not cached.
+ * Subclasses supply the settings, typically from @Value fields.
+ * Reports requests{result=hit|stale|miss} and size under the metric prefix.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public abstract class SingleFlightCache<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlightCache.class);
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    private final String metricPrefix;
+    private final Counter hitCounter;
+    private final Counter staleCounter;
+    private final Counter missCounter;
+
+    /**
+     * @param meterRegistry The registry to report to
+     * @param metricPrefix  The prefix of the metric names
+     * @param serveStale    Whether entries are served while revalidating; only
+     *                      then is the stale counter registered
+     */
+    protected SingleFlightCache(MeterRegistry meterRegistry, String metricPrefix, boolean serveStale) {
+        this.metricPrefix = metricPrefix;
+        this.hitCounter = meterRegistry.counter(metricPrefix + ".requests", "result", "hit");
+        this.staleCounter = serveStale ? meterRegistry.counter(metricPrefix + ".requests", "result", "stale") : null;
+        this.missCounter = meterRegistry.counter(metricPrefix + ".requests", "result", "miss");
+        Gauge.builder(metricPrefix + ".size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * @return How long entries are fresh, in seconds
+     */
+    protected abstract long ttlSeconds();
+
+    /**
+     * @return How long entries are served while revalidating after they
+     *         expired, in seconds
+     */
+    protected long maxStaleSeconds() {
+        return 0;
+    }
+
+    /**
+     * @return The maximum number of entries; when full, new keys are simply
+     *         not cached
+     */
+    protected abstract int maxSize();
+
+    /**
+     * Get the value of a key, loading it if it is not cached or too old
+     *
+     * @param key    The key
+     * @param loader Loads the value; an empty result is passed on but not
+     *               cached
+     * @return The value, shared with other callers
+     */
+    public Mono<V> get(K key, Supplier<Mono<V>> loader) {
+        Entry<V> entry = entries.get(key);
+        long now = System.currentTimeMillis();
+        if (entry != null && now < entry.freshUntil) {
+            hitCounter.increment();
+            return Mono.just(entry.value);
+        }
+        if (entry != null && now < entry.staleUntil) {
+            staleCounter.increment();
+            load(key, loader);
+            return Mono.just(entry.value);
+        }
+        missCounter.increment();
+        // Callers that cancel must not cancel the request other callers share
+        return Mono.fromFuture(load(key, loader), true);
+    }
+
+    /**
+     * Forget the value of a key, after it changed
+     *
+     * @param key The key
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+        loading.remove(key);
+    }
+
+    /**
+     * Forget all keys
+     */
+    public void clear() {
+        entries.clear();
+        loading.clear();
+    }
+
+    private CompletableFuture<V> load(K key, Supplier<Mono<V>> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> running = loading.putIfAbsent(key, created);
+        if (running != null) {
+            return running;
+        }
+
+        Mono.defer(loader).subscribe(
+                value -> store(key, created, value),
+                error -> {
+                    loading.remove(key, created);
+                    if (isServable(entries.get(key))) {
+                        logger.warn("Could not refresh {} of {}, serving the cached value: {}",
+                                metricPrefix, key, error.getMessage());
+                    }
+                    created.completeExceptionally(error);
+                },
+                () -> {
+                    // Completed without a value
+                    loading.remove(key, created);
+                    created.complete(null);
+                });
+        return created;
+    }
+
+    private void store(K key, CompletableFuture<V> future, V value) {
+        // Not cached if the key was invalidated while loading
+        if (loading.remove(key, future)) {
+            int maxSize = maxSize();
+            if (entries.size() >= maxSize && !entries.containsKey(key)) {
+                entries.values().removeIf(entry -> !isServable(entry));
+            }
+            if (entries.size() < maxSize || entries.containsKey(key)) {
+                long now = System.currentTimeMillis();
+                long ttlSeconds = ttlSeconds();
+                entries.put(key, new Entry<>(value, now + ttlSeconds * 1000,
+                        now + (ttlSeconds + maxStaleSeconds()) * 1000));
+            }
+        }
+        future.complete(value);
+    }
+
+    private static boolean isServable(Entry<?> entry) {
+        return entry != null && System.currentTimeMillis() < entry.staleUntil;
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long freshUntil;
+        private final long staleUntil;
+
+        private Entry(V value, long freshUntil, long staleUntil) {
+            this.value = value;
+            this.freshUntil = freshUntil;
+            this.staleUntil = staleUntil;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.cloudmen.backend.utils;
+
+/**
+ * Lightweight user-agent classification into browser, operating system and
+ * device families. Only the families shown in the authentication log views
+ * are recognised; anything else is reported as "Other".
+ */
+public class UserAgentParser {
+
+    public static final String OTHER = "Other";
+
+    private UserAgentParser() {
+    }
+
+    /**
+     * Get the browser family of a user agent
+     *
+     * @param userAgent The raw user-agent header
+     * @return The browser family
+     */
+    public static String browser(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return OTHER;
+        }
+        String ua = userAgent.toLowerCase();
+        // Order matters: most browsers also claim to be Chrome and/or Safari
+        if (ua.contains("edg/") || ua.contains("edge/") || ua.contains("edga/") || ua.contains("edgios/")) {
+            return "Edge";
+        }
+        if (ua.contains("opr/") || ua.contains("opera")) {
+            return "Opera";
+        }
+        if (ua.contains("samsungbrowser/")) {
+            return "Samsung Internet";
+        }
+        if (ua.contains("firefox/") || ua.contains("fxios/")) {
+            return "Firefox";
+        }
+        if (ua.contains("chrome/") || ua.contains("crios/") || ua.contains("chromium/")) {
+            return "Chrome";
+        }
+        if (ua.contains("safari/")) {
+            return "Safari";
+        }
+        if (ua.contains("msie ") || ua.contains("trident/")) {
+            return "Internet Explorer";
+        }
+        if (ua.startsWith("curl/")) {
+            return "curl";
+        }
+        if (ua.startsWith("postmanruntime/")) {
+            return "Postman";
+        }
+        if (ua.contains("okhttp/") || ua.startsWith("java/") || ua.contains("apache-httpclient/")
+                || ua.startsWith("python-requests/") || ua.contains("reactor-netty/")) {
+            return "HTTP client";
+        }
+        return OTHER;
+    }
+
+    /**
+     * Get the operating system family of a user agent
+     *
+     * @param userAgent The raw user-agent header
+     * @return The operating system family
+     */
+    public static String operatingSystem(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return OTHER;
+        }
+        String ua = userAgent.toLowerCase();
+        if (ua.contains("windows")) {
+            return "Windows";
+        }
+        if (ua.contains("iphone") || ua.contains("ipad") || ua.contains("ipod")) {
+            return "iOS";
+        }
+        if (ua.contains("mac os x") || ua.contains("macintosh")) {
+            return "macOS";
+        }
+        if (ua.contains("android")) {
+            return "Android";
+        }
+        if (ua.contains("cros")) {
+            return "Chrome OS";
+        }
+        if (ua.contains("linux")) {
+            return "Linux";
+        }
+        return OTHER;
+    }
+
+    /**
+     * Get the device family of a user agent
+     *
+     * @param userAgent The raw user-agent header
+     * @return Desktop, Mobile, Tablet, Bot or Other
+     */
+    public static String deviceType(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return OTHER;
+        }
+        String ua = userAgent.toLowerCase();
+        if (ua.contains("bot") || ua.contains("spider") || ua.contains("crawler")) {
+            return "Bot";
+        }
+        if (ua.contains("ipad") || ua.contains("tablet") || (ua.contains("android") && !ua.contains("mobile"))) {
+            return "Tablet";
+        }
+        if (ua.contains("mobile") || ua.contains("iphone") || ua.contains("ipod")) {
+            return "Mobile";
+        }
+        if (ua.contains("windows") || ua.contains("macintosh") || ua.contains("x11") || ua.contains("cros")
+                || ua.contains("linux")) {
+            return "Desktop";
+        }
+        return OTHER;
+    }
+}
@@ -2,7 +2,9 @@ package com.cloudmen.backend.integration.controllers;
 
 import com.cloudmen.backend.api.controllers.AuthenticationLogController;
 import com.cloudmen.backend.domain.models.AuthenticationLog;
+import com.cloudmen.backend.repositories.AuthenticationLogSearchCriteria;
 import com.cloudmen.backend.services.AuthenticationLogService;
+import com.cloudmen.backend.utils.AuthenticationLogExportWriter;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationContext;
@@ -24,11 +26,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -37,11 +42,16 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -148,8 +158,7 @@ public class AuthenticationLogControllerIntegrationTest {
         Page<AuthenticationLog> page = new PageImpl<>(logs, PageRequest.of(0, 10), 1);
 
         when(authenticationLogService.getFilteredLogs(
-                eq(email), eq(domain), eq(successful),
-                eq(startDate), eq(endDate), any(Pageable.class))).thenReturn(page);
+                any(AuthenticationLogSearchCriteria.class), any(Pageable.class))).thenReturn(page);
 
         // Act
         MvcResult result = mockMvc.perform(get("/api/auth-logs")
@@ -175,8 +184,14 @@ public class AuthenticationLogControllerIntegrationTest {
 
         // Verify
         verify(authenticationLogService).getFilteredLogs(
-                eq(email), eq(domain), eq(successful),
-                eq(startDate), eq(endDate), any(Pageable.class));
+                argThat(criteria -> email.equals(criteria.getEmail())
+                        && domain.equals(criteria.getDomain())
+                        && Boolean.valueOf(successful).equals(criteria.getSuccessful())
+                        && startDate.equals(criteria.getStartDate())
+                        && endDate.equals(criteria.getEndDate())
+                        && criteria.getIpAddress() == null
+                        && criteria.getUserAgent() == null),
+                any(Pageable.class));
     }
 
     @Test
@@ -404,6 +419,62 @@ public class AuthenticationLogControllerIntegrationTest {
         verify(authenticationLogService).getLogsByTimeRangePaginated(eq(start), eq(end), any(Pageable.class));
     }
 
+    @Test
+    @DisplayName("GET /api/auth-logs/export - Streams filtered logs as CSV")
+    void exportLogs_StreamsCsv() throws Exception {
+        // Arrange
+        when(authenticationLogService.exportLogs(any(AuthenticationLogSearchCriteria.class),
+                eq(AuthenticationLogExportWriter.Format.CSV), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    OutputStream out = invocation.getArgument(2);
+                    out.write("timestamp,email\r\n".getBytes(StandardCharsets.UTF_8));
+                    return 0L;
+                });
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/auth-logs/export")
+                .param("format", "csv")
+                .param("domain", "example.com"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"auth-logs.csv\""))
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("timestamp,email\r\n"));
+
+        verify(authenticationLogService).exportLogs(
+                argThat(criteria -> "example.com".equals(criteria.getDomain())),
+                eq(AuthenticationLogExportWriter.Format.CSV), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("GET /api/auth-logs/export - Sets the export timeout on the export request")
+    void exportLogs_SetsExportTimeout() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(authenticationLogController, "exportTimeoutMs", 1234567L);
+        when(authenticationLogService.exportLogs(any(AuthenticationLogSearchCriteria.class),
+                eq(AuthenticationLogExportWriter.Format.NDJSON), any(OutputStream.class))).thenReturn(0L);
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/auth-logs/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        assertEquals(1234567L, result.getRequest().getAsyncContext().getTimeout());
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("GET /api/auth-logs/export - Rejects unknown formats")
+    void exportLogs_RejectsUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/auth-logs/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     // Helper method to create successful authentication log
     private AuthenticationLog createSuccessfulAuthLog(String email, String userId) {
         AuthenticationLog log = new AuthenticationLog();
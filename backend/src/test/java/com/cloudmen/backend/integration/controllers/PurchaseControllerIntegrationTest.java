@@ -1,12 +1,16 @@
 package com.cloudmen.backend.integration.controllers;
 
 import com.cloudmen.backend.api.controllers.PurchaseController;
+import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceLicenseRequestDTO;
+import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceLicenseResponseDTO;
 import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSubscriptionDTO;
 import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSubscriptionListResponseDTO;
 import com.cloudmen.backend.domain.models.PurchaseRequest;
 import com.cloudmen.backend.services.GoogleWorkspaceService;
 import com.cloudmen.backend.services.PurchaseEmailService;
 import com.cloudmen.backend.services.PurchaseRequestService;
+import com.cloudmen.backend.services.TeamleaderCompanyService;
+import com.cloudmen.backend.util.NonBlockingThreadGuard;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,12 +18,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -49,6 +57,9 @@ public class PurchaseControllerIntegrationTest {
         @Mock
         private PurchaseRequestService purchaseRequestService;
 
+        @Mock
+        private TeamleaderCompanyService companyService;
+
         // Use a real ObjectMapper
         private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -61,7 +72,9 @@ public class PurchaseControllerIntegrationTest {
                 purchaseController = new PurchaseController(
                                 emailService,
                                 googleWorkspaceService,
-                                purchaseRequestService);
+                                purchaseRequestService,
+                                companyService,
+                                Schedulers.boundedElastic());
 
                 // Create standalone MockMvc to avoid loading full application context
                 mockMvc = MockMvcBuilders
@@ -232,4 +245,43 @@ public class PurchaseControllerIntegrationTest {
                 // Verify the purchase request was created
                 verify(purchaseRequestService).createGoogleWorkspaceLicenseRequest(eq(userEmail), any());
         }
-}
\ No newline at end of file
+
+        @Test
+        @DisplayName("POST /api/purchase/google-workspace/request - Never blocks the thread delivering subscriptions")
+        void requestGoogleWorkspaceLicenses_DoesNotBlockEventLoop() throws Exception {
+                // Arrange - subscriptions arrive on a non-blocking thread, like a WebClient response
+                NonBlockingThreadGuard guard = NonBlockingThreadGuard.current();
+                GoogleWorkspaceSubscriptionListResponseDTO subscriptionList = new GoogleWorkspaceSubscriptionListResponseDTO();
+                when(googleWorkspaceService.getCustomerSubscriptions("test-customer-id"))
+                                .thenReturn(NonBlockingThreadGuard.onEventLoop(subscriptionList));
+                when(googleWorkspaceService.hasMatchingLicense(any(), anyString())).thenReturn(true);
+
+                PurchaseRequest mockRequest = new PurchaseRequest();
+                mockRequest.setId("test-id");
+                when(purchaseRequestService.createGoogleWorkspaceLicenseRequest(anyString(), any()))
+                                .thenAnswer(guard.blocking(invocation -> mockRequest));
+                doAnswer(guard.blocking(invocation -> null)).when(emailService).sendGoogleWorkspaceLicenseRequest(
+                                anyString(), anyString(), anyInt(), anyString(), anyString(),
+                                anyString(), anyString(), anyDouble(), anyString());
+                when(companyService.findCompanyNameByDomain("example.com"))
+                                .thenAnswer(guard.blocking(invocation -> Optional.of("Example")));
+
+                GoogleWorkspaceLicenseRequestDTO request = new GoogleWorkspaceLicenseRequestDTO();
+                request.setCount(5);
+                request.setLicenseType("Business Standard");
+                request.setDomain("example.com");
+                request.setCost(60.0);
+
+                // Act
+                ResponseEntity<GoogleWorkspaceLicenseResponseDTO> response = purchaseController
+                                .requestGoogleWorkspaceLicenses(request, "user@example.com", "test-customer-id")
+                                .block(Duration.ofSeconds(10));
+
+                // Assert
+                assertEquals(HttpStatus.CREATED, response.getStatusCode());
+                assertEquals("test-id", response.getBody().getRequestId());
+                verify(emailService).sendGoogleWorkspaceLicenseRequest(anyString(), eq("test-id"), eq(5),
+                                anyString(), anyString(), anyString(), anyString(), anyDouble(), eq("Example"));
+                guard.assertNoBlockingCalls();
+        }
+}
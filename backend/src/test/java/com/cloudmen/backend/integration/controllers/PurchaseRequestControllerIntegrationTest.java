@@ -27,6 +27,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -61,7 +62,7 @@ public class PurchaseRequestControllerIntegrationTest {
     @BeforeEach
     void setUp() {
         // Create a new controller for each test
-        purchaseRequestController = new PurchaseRequestController(purchaseRequestService);
+        purchaseRequestController = new PurchaseRequestController(purchaseRequestService, objectMapper);
 
         // Create standalone MockMvc
         mockMvc = MockMvcBuilders
@@ -79,7 +80,8 @@ public class PurchaseRequestControllerIntegrationTest {
         List<PurchaseRequest> requests = Arrays.asList(request1, request2);
         Page<PurchaseRequest> page = new PageImpl<>(requests, PageRequest.of(0, 10), 2);
 
-        when(purchaseRequestService.getAllPurchaseRequests(any(Pageable.class))).thenReturn(page);
+        when(purchaseRequestService.getPurchaseRequests(isNull(), isNull(), any(Pageable.class), isNull()))
+                .thenReturn(page);
 
         // Act
         MvcResult result = mockMvc.perform(get("/api/purchase-requests")
@@ -107,7 +109,7 @@ public class PurchaseRequestControllerIntegrationTest {
         assertEquals(1, responseMap.get("totalPages"));
 
         // Verify
-        verify(purchaseRequestService).getAllPurchaseRequests(any(Pageable.class));
+        verify(purchaseRequestService).getPurchaseRequests(isNull(), isNull(), any(Pageable.class), isNull());
     }
 
     @Test
@@ -122,7 +124,7 @@ public class PurchaseRequestControllerIntegrationTest {
         List<PurchaseRequest> requests = Arrays.asList(request1, request2);
         Page<PurchaseRequest> page = new PageImpl<>(requests, PageRequest.of(0, 10), 2);
 
-        when(purchaseRequestService.getPurchaseRequestsByUserEmail(eq(userEmail), any(Pageable.class)))
+        when(purchaseRequestService.getPurchaseRequests(eq(userEmail), isNull(), any(Pageable.class), isNull()))
                 .thenReturn(page);
 
         // Act
@@ -149,7 +151,41 @@ public class PurchaseRequestControllerIntegrationTest {
         assertEquals(2, responseMap.get("totalItems"));
 
         // Verify
-        verify(purchaseRequestService).getPurchaseRequestsByUserEmail(eq(userEmail), any(Pageable.class));
+        verify(purchaseRequestService).getPurchaseRequests(eq(userEmail), isNull(), any(Pageable.class), isNull());
+    }
+
+    @Test
+    @DisplayName("GET /api/purchase-requests/domain/{domain} - Returns only the requested fields")
+    void getPurchaseRequestsByDomain_ReturnsRequestedFieldsOnly() throws Exception {
+        // Arrange
+        PurchaseRequest request = createPurchaseRequest("1", "user@example.com", "PENDING");
+        Page<PurchaseRequest> page = new PageImpl<>(List.of(request), PageRequest.of(0, 10), 1);
+
+        when(purchaseRequestService.getPurchaseRequests(isNull(), eq("example.com"), any(Pageable.class),
+                eq(Set.of("status", "userEmail"))))
+                .thenReturn(page);
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/purchase-requests/domain/{domain}", "example.com")
+                .param("fields", "id,status,userEmail"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Assert
+        Map<String, Object> responseMap = objectMapper.readValue(result.getResponse().getContentAsString(),
+                Map.class);
+        Map<?, ?> item = (Map<?, ?>) ((List<?>) responseMap.get("items")).get(0);
+        assertEquals(Set.of("id", "status", "userEmail"), item.keySet());
+        assertEquals("PENDING", item.get("status"));
+    }
+
+    @Test
+    @DisplayName("GET /api/purchase-requests - Returns 400 for unknown fields")
+    void getAllPurchaseRequests_RejectsUnknownFields() throws Exception {
+        mockMvc.perform(get("/api/purchase-requests").param("fields", "status,secret"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(purchaseRequestService);
     }
 
     @Test
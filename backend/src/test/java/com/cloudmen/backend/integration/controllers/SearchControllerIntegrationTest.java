@@ -0,0 +1,73 @@
+package com.cloudmen.backend.integration.controllers;
+
+import com.cloudmen.backend.api.controllers.SearchController;
+import com.cloudmen.backend.api.dtos.companies.CompanyListDTO;
+import com.cloudmen.backend.api.dtos.users.UserSearchResultDTO;
+import com.cloudmen.backend.services.SearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for SearchController
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SearchController Integration Tests")
+public class SearchControllerIntegrationTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private SearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new SearchController(searchService))
+                .build();
+    }
+
+    @Test
+    @DisplayName("GET /api/search/typeahead - Returns matching companies and users")
+    void typeahead_ReturnsCompaniesAndUsers() throws Exception {
+        // Arrange
+        CompanyListDTO company = new CompanyListDTO();
+        company.setId("c1");
+        company.setName("Acme");
+        when(searchService.searchCompanies("acm", 5)).thenReturn(List.of(company));
+        when(searchService.searchUsers("acm", 5)).thenReturn(
+                List.of(new UserSearchResultDTO("u1", "jane@acme.be", "Jane Doe", null)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/search/typeahead").param("q", "acm").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.query", is("acm")))
+                .andExpect(jsonPath("$.companies", hasSize(1)))
+                .andExpect(jsonPath("$.companies[0].name", is("Acme")))
+                .andExpect(jsonPath("$.users", hasSize(1)))
+                .andExpect(jsonPath("$.users[0].email", is("jane@acme.be")));
+    }
+
+    @Test
+    @DisplayName("GET /api/search/typeahead - Returns 400 for a limit below 1")
+    void typeahead_RejectsInvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/search/typeahead").param("q", "acm").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(searchService);
+    }
+}
@@ -1,8 +1,11 @@
 package com.cloudmen.backend.integration.controllers;
 
 import com.cloudmen.backend.api.controllers.TeamleaderCompanyController;
+import com.cloudmen.backend.api.dtos.companies.CompanyListDTO;
 import com.cloudmen.backend.domain.enums.CompanyStatusType;
 import com.cloudmen.backend.domain.models.TeamleaderCompany;
+import com.cloudmen.backend.repositories.KeysetPage;
+import com.cloudmen.backend.services.SearchService;
 import com.cloudmen.backend.services.TeamleaderCompanyService;
 import com.cloudmen.backend.services.TeamleaderOAuthService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -12,8 +15,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -21,6 +30,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +40,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -49,6 +60,9 @@ public class TeamleaderCompanyControllerIntegrationTest {
         @Mock
         private TeamleaderOAuthService oAuthService;
 
+        @Mock
+        private SearchService searchService;
+
         private final ObjectMapper objectMapper = new ObjectMapper()
                         .registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
 
@@ -61,16 +75,19 @@ public class TeamleaderCompanyControllerIntegrationTest {
                 teamleaderCompanyController = new TeamleaderCompanyController(
                                 companyService,
                                 oAuthService,
-                                objectMapper);
+                                objectMapper,
+                                searchService);
 
                 // Create standalone MockMvc
                 mockMvc = MockMvcBuilders
                                 .standaloneSetup(teamleaderCompanyController)
                                 .build();
+
+                lenient().when(companyService.getDataVersion()).thenReturn("v1-7");
         }
 
         @Test
-        @DisplayName("GET /api/teamleader/companies - Returns list of companies")
+        @DisplayName("GET /api/teamleader/companies - Returns one page of companies")
         void getCompanies_ReturnsListOfCompanies() throws Exception {
                 // Arrange
                 TeamleaderCompany company1 = new TeamleaderCompany("tl1", "Company 1");
@@ -85,10 +102,12 @@ public class TeamleaderCompanyControllerIntegrationTest {
 
                 List<TeamleaderCompany> companies = Arrays.asList(company1, company2);
 
-                when(companyService.getAllCompanies()).thenReturn(companies);
+                when(companyService.getCompaniesPage(isNull(), any(Pageable.class), any()))
+                                .thenReturn(new PageImpl<>(companies, PageRequest.of(0, 20), 45));
 
                 // Act
                 MvcResult result = mockMvc.perform(get("/api/teamleader/companies")
+                                .param("page", "0")
                                 .contentType(MediaType.APPLICATION_JSON))
                                 .andExpect(status().isOk())
                                 .andReturn();
@@ -100,9 +119,210 @@ public class TeamleaderCompanyControllerIntegrationTest {
                 assertTrue(responseMap.containsKey("companies"));
                 List<?> returnedCompanies = (List<?>) responseMap.get("companies");
                 assertEquals(2, returnedCompanies.size());
+                assertEquals(45, responseMap.get("totalItems"));
+                assertEquals(3, responseMap.get("totalPages"));
 
                 // Verify
-                verify(companyService).getAllCompanies();
+                ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+                verify(companyService).getCompaniesPage(isNull(), captor.capture(), any());
+                assertEquals(20, captor.getValue().getPageSize());
+                verify(companyService, never()).getAllCompanies();
+        }
+
+        @Test
+        @DisplayName("GET /api/teamleader/companies - Returns every company when no page or size is sent")
+        void getCompanies_WithoutPaging_ReturnsEveryCompany() throws Exception {
+                // Arrange
+                List<TeamleaderCompany> companies = Arrays.asList(
+                                new TeamleaderCompany("tl1", "Company 1"),
+                                new TeamleaderCompany("tl2", "Company 2"),
+                                new TeamleaderCompany("tl3", "Company 3"));
+                when(companyService.getCompaniesPage(isNull(), any(Pageable.class), any()))
+                                .thenAnswer(invocation -> new PageImpl<>(companies, invocation.getArgument(1),
+                                                companies.size()));
+
+                // Act
+                MvcResult result = mockMvc.perform(get("/api/teamleader/companies"))
+                                .andExpect(status().isOk())
+                                .andReturn();
+
+                // Assert
+                JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+                assertEquals(3, body.get("companies").size());
+                assertEquals(0, body.get("currentPage").asInt());
+                assertEquals(3, body.get("totalItems").asInt());
+                assertEquals(1, body.get("totalPages").asInt());
+
+                ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+                verify(companyService).getCompaniesPage(isNull(), captor.capture(), any());
+                assertTrue(captor.getValue().isUnpaged());
+                assertEquals(Sort.by(Sort.Direction.ASC, "name", "id"), captor.getValue().getSort());
+        }
+
+        @Test
+        @DisplayName("GET /api/teamleader/companies - Passes page, sort and status to the query")
+        void getCompanies_PassesPagingToQuery() throws Exception {
+                // Arrange
+                when(companyService.getCompaniesPage(eq(CompanyStatusType.DEACTIVATED), any(Pageable.class), any()))
+                                .thenReturn(Page.empty());
+
+                // Act
+                mockMvc.perform(get("/api/teamleader/companies")
+                                .param("page", "2")
+                                .param("size", "5")
+                                .param("sortBy", "status")
+                                .param("direction", "desc")
+                                .param("status", "deactivated"))
+                                .andExpect(status().isOk());
+
+                // Assert
+                ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+                verify(companyService).getCompaniesPage(eq(CompanyStatusType.DEACTIVATED), captor.capture(), any());
+                assertEquals(2, captor.getValue().getPageNumber());
+                assertEquals(5, captor.getValue().getPageSize());
+                assertEquals(Sort.by(Sort.Direction.DESC, "status", "name", "id"), captor.getValue().getSort());
+        }
+
+        @Test
+        @DisplayName("GET /api/teamleader/companies - Rejects unsupported sort fields")
+        void getCompanies_RejectsUnsupportedSort() throws Exception {
+                mockMvc.perform(get("/api/teamleader/companies").param("sortBy", "customFields"))
+                                .andExpect(status().isBadRequest());
+
+                verifyNoInteractions(companyService);
+        }
+
+        @Test
+        @DisplayName("GET /api/teamleader/companies/status/{status} - Returns one page of companies with the status")
+        void getCompaniesByStatus_ReturnsPage() throws Exception {
+                // Arrange
+                TeamleaderCompany company = new TeamleaderCompany("tl1", "Company 1");
+                company.setStatus(CompanyStatusType.SUSPENDED);
+                when(companyService.getCompaniesPage(eq(CompanyStatusType.SUSPENDED), any(Pageable.class), any()))
+                                .thenReturn(new PageImpl<>(List.of(company), PageRequest.of(1, 5), 6));
+
+                // Act
+                MvcResult result = mockMvc.perform(get("/api/teamleader/companies/status/{status}", "suspended")
+                                .param("page", "1")
+                                .param("size", "5"))
+                                .andExpect(status().isOk())
+                                .andReturn();
+
+                // Assert
+                JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+                assertEquals(1, body.get("companies").size());
+                assertEquals(6, body.get("count").asInt());
+                assertEquals(2, body.get("totalPages").asInt());
+                assertEquals("SUSPENDED", body.get("status").asText());
+
+                ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+                verify(companyService).getCompaniesPage(eq(CompanyStatusType.SUSPENDED), captor.capture(), any());
+                assertEquals(1, captor.getValue().getPageNumber());
+                assertEquals(Sort.by(Sort.Direction.ASC, "name", "id"), captor.getValue().getSort());
+                verify(companyService, never()).getAllCompanies();
+        }
+
+        @Test
+        @DisplayName("GET /api/teamleader/companies/status-counts - Returns counts per status")
+        void getCompanyCountsByStatus_ReturnsCounts() throws Exception {
+                // Arrange
+                Map<CompanyStatusType, Long> counts = new EnumMap<>(CompanyStatusType.class);
+                counts.put(CompanyStatusType.ACTIVE, 7L);
+                counts.put(CompanyStatusType.DEACTIVATED, 2L);
+                counts.put(CompanyStatusType.SUSPENDED, 0L);
+                when(companyService.getCompanyCountsByStatus()).thenReturn(counts);
+
+                // Act
+                MvcResult result = mockMvc.perform(get("/api/teamleader/companies/status-counts"))
+                                .andExpect(status().isOk())
+                                .andReturn();
+
+                // Assert
+                JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+                assertEquals(7, body.get("counts").get("ACTIVE").asInt());
+                assertEquals(9, body.get("total").asInt());
+        }
+
+        @Test
+        @DisplayName("GET /api/teamleader/companies/{id} - Returns a strong ETag from the company data version")
+        void getCompanyDetails_ReturnsETag() throws Exception {
+                // Arrange
+                TeamleaderCompany company = new TeamleaderCompany("tl1", "Company 1");
+                company.setId("id1");
+                when(companyService.getCompanyByTeamleaderId("tl1")).thenReturn(company);
+
+                // Act & Assert
+                mockMvc.perform(get("/api/teamleader/companies/tl1"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", "\"v1-7\""));
+        }
+
+        @Test
+        @DisplayName("GET /api/teamleader/companies - Answers a matching If-None-Match with 304 without reading companies")
+        void getCompanies_ReturnsNotModifiedForCurrentETag() throws Exception {
+                // Act & Assert
+                MvcResult result = mockMvc.perform(get("/api/teamleader/companies")
+                                .header("If-None-Match", "\"v1-6\", W/\"v1-7\""))
+                                .andExpect(status().isNotModified())
+                                .andExpect(header().string("ETag", "\"v1-7\""))
+                                .andReturn();
+                mockMvc.perform(get("/api/teamleader/companies/status-counts").header("If-None-Match", "\"v1-7\""))
+                                .andExpect(status().isNotModified());
+                mockMvc.perform(get("/api/teamleader/companies/domain/acme.be").header("If-None-Match", "*"))
+                                .andExpect(status().isNotModified());
+
+                // Assert
+                assertEquals("", result.getResponse().getContentAsString());
+                verify(companyService, never()).getCompaniesPage(any(), any(), any());
+                verify(companyService, never()).getCompanyCountsByStatus();
+                verify(companyService, never()).findCompanyByDomain(any());
+        }
+
+        @Test
+        @DisplayName("GET /api/teamleader/companies/status-counts - Reads the data again when the ETag is outdated")
+        void getCompanyCountsByStatus_ReturnsDataForOutdatedETag() throws Exception {
+                // Arrange
+                when(companyService.getCompanyCountsByStatus()).thenReturn(new EnumMap<>(CompanyStatusType.class));
+
+                // Act & Assert
+                mockMvc.perform(get("/api/teamleader/companies/status-counts").header("If-None-Match", "\"v1-6\""))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", "\"v1-7\""));
+                verify(companyService).getCompanyCountsByStatus();
+        }
+
+        @Test
+        @DisplayName("GET /api/teamleader/companies/cursor - Returns one keyset page of DTOs")
+        void getCompaniesByCursor_ReturnsPage() throws Exception {
+                // Arrange
+                TeamleaderCompany company = new TeamleaderCompany("tl1", "Company 1");
+                company.setId("id1");
+                when(companyService.getCompaniesByCursor(isNull(), eq(Sort.Direction.ASC), eq("abc"), eq(10),
+                                eq(false), any()))
+                                .thenReturn(new KeysetPage<>(List.of(company), "next", "previous", null));
+
+                // Act
+                MvcResult result = mockMvc.perform(get("/api/teamleader/companies/cursor")
+                                .param("cursor", "abc")
+                                .param("size", "10"))
+                                .andExpect(status().isOk())
+                                .andReturn();
+
+                // Assert
+                JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+                assertEquals("Company 1", body.get("items").get(0).get("name").asText());
+                assertEquals("next", body.get("nextCursor").asText());
+                assertEquals("previous", body.get("previousCursor").asText());
+        }
+
+        @Test
+        @DisplayName("GET /api/teamleader/companies/cursor - Returns 400 for a malformed cursor")
+        void getCompaniesByCursor_RejectsInvalidCursor() throws Exception {
+                when(companyService.getCompaniesByCursor(any(), any(), eq("bad"), anyInt(), anyBoolean(), any()))
+                                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+                mockMvc.perform(get("/api/teamleader/companies/cursor").param("cursor", "bad"))
+                                .andExpect(status().isBadRequest());
         }
 
         @Test
@@ -167,8 +387,8 @@ public class TeamleaderCompanyControllerIntegrationTest {
                 TeamleaderCompany company = new TeamleaderCompany("tl1", "Test Company");
                 company.setId("id1");
 
-                List<TeamleaderCompany> matchingCompanies = Arrays.asList(company);
-                when(companyService.searchCompaniesByName(searchQuery)).thenReturn(matchingCompanies);
+                when(searchService.searchCompanies(searchQuery, 50))
+                                .thenReturn(List.of(CompanyListDTO.fromEntity(company)));
 
                 // Act
                 MvcResult result = mockMvc.perform(get("/api/teamleader/companies/search")
@@ -184,7 +404,9 @@ public class TeamleaderCompanyControllerIntegrationTest {
                 assertEquals(1, responseList.size());
 
                 // Verify
-                verify(companyService).searchCompaniesByName(searchQuery);
+                verify(searchService).searchCompanies(searchQuery, 50);
+                verify(companyService).getDataVersion();
+                verifyNoMoreInteractions(companyService);
         }
 
         @Test
@@ -4,6 +4,7 @@ import com.cloudmen.backend.api.dtos.users.UserDTO;
 import com.cloudmen.backend.domain.enums.RoleType;
 import com.cloudmen.backend.domain.enums.StatusType;
 import com.cloudmen.backend.domain.models.User;
+import com.cloudmen.backend.repositories.UserSearchCriteria;
 import com.cloudmen.backend.services.UserService;
 import com.cloudmen.backend.services.UserSyncService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -25,7 +26,11 @@ import java.util.*;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -69,7 +74,7 @@ public class UserControllerIntegrationTest {
 
         List<User> userList = Arrays.asList(user1, user2);
 
-        when(userService.getAllUsers()).thenReturn(userList);
+        when(userService.searchUsers(any(UserSearchCriteria.class), isNull())).thenReturn(userList);
 
         // Act & Assert
         mockMvc.perform(get("/api/users"))
@@ -79,16 +84,44 @@ public class UserControllerIntegrationTest {
                 .andExpect(jsonPath("$[1].id", is("2")));
     }
 
+    @Test
+    @DisplayName("GET /api/users - Should load and return only the requested fields")
+    void getUsers_ShouldReturnRequestedFieldsOnly() throws Exception {
+        // Arrange
+        User user1 = createTestUser("1", "user1@example.com", "example.com", StatusType.ACTIVATED);
+
+        when(userService.searchUsers(any(UserSearchCriteria.class), eq(Set.of("email", "status"))))
+                .thenReturn(List.of(user1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users")
+                .param("fields", "id,email,status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is("1")))
+                .andExpect(jsonPath("$[0].email", is("user1@example.com")))
+                .andExpect(jsonPath("$[0].status", is("ACTIVATED")))
+                .andExpect(jsonPath("$[0].name").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/users - Should reject unknown fields")
+    void getUsers_ShouldRejectUnknownFields() throws Exception {
+        mockMvc.perform(get("/api/users")
+                .param("fields", "email,password"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).searchUsers(any(), any());
+    }
+
     @Test
     @DisplayName("GET /api/users - Should filter users by domain")
     void getUsers_ShouldFilterUsersByDomain() throws Exception {
         // Arrange
         User user1 = createTestUser("1", "user1@example.com", "example.com", StatusType.ACTIVATED);
-        User user2 = createTestUser("2", "user2@test.com", "test.com", StatusType.ACTIVATED);
-
-        List<User> userList = Arrays.asList(user1, user2);
 
-        when(userService.getAllUsers()).thenReturn(userList);
+        when(userService.searchUsers(argThat(criteria -> "example.com".equals(criteria.getDomain())), isNull()))
+                .thenReturn(List.of(user1));
 
         // Act & Assert
         mockMvc.perform(get("/api/users")
@@ -104,11 +137,9 @@ public class UserControllerIntegrationTest {
     void getUsers_ShouldFilterUsersByStatus() throws Exception {
         // Arrange
         User user1 = createTestUser("1", "user1@example.com", "example.com", StatusType.ACTIVATED);
-        User user2 = createTestUser("2", "user2@example.com", "example.com", StatusType.PENDING);
-
-        List<User> userList = Arrays.asList(user1, user2);
 
-        when(userService.getAllUsers()).thenReturn(userList);
+        when(userService.searchUsers(argThat(criteria -> criteria.getStatus() == StatusType.ACTIVATED), isNull()))
+                .thenReturn(List.of(user1));
 
         // Act & Assert
         mockMvc.perform(get("/api/users")
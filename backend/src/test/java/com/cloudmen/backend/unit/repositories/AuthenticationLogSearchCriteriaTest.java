@@ -0,0 +1,107 @@
+package com.cloudmen.backend.unit.repositories;
+
+import com.cloudmen.backend.domain.models.UserAgentEntry;
+import com.cloudmen.backend.repositories.AuthenticationLogSearchCriteria;
+import com.cloudmen.backend.utils.IpAddressCodec;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AuthenticationLogSearchCriteria
+ */
+@DisplayName("AuthenticationLogSearchCriteria Tests")
+public class AuthenticationLogSearchCriteriaTest {
+
+    private final LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private final LocalDateTime end = LocalDateTime.of(2024, 1, 31, 23, 59);
+
+    @Test
+    @DisplayName("toCriteria - Should match everything when no filters are set")
+    void toCriteria_ShouldBeEmpty_WhenNoFilters() {
+        AuthenticationLogSearchCriteria criteria = new AuthenticationLogSearchCriteria();
+
+        assertFalse(criteria.hasFilters());
+        assertTrue(criteria.toCriteria().getCriteriaObject().isEmpty());
+    }
+
+    @Test
+    @DisplayName("toCriteria - Should combine all filters in index order with timestamp last")
+    void toCriteria_ShouldCombineAllFilters() {
+        Document query = new AuthenticationLogSearchCriteria()
+                .email("test@example.com")
+                .domain("example.com")
+                .successful(false)
+                .ipAddress("10.0.0.1")
+                .userAgent("Mozilla/5.0")
+                .startDate(start)
+                .endDate(end)
+                .toCriteria()
+                .getCriteriaObject();
+
+        assertEquals(List.of("email", "primaryDomain", "successful", "ip", "userAgentId", "timestamp"),
+                List.copyOf(query.keySet()));
+        assertArrayEquals(IpAddressCodec.encode("10.0.0.1"), (byte[]) query.get("ip"));
+        assertEquals(UserAgentEntry.idFor("Mozilla/5.0"), query.get("userAgentId"));
+        assertEquals("test@example.com", query.get("email"));
+        assertEquals("example.com", query.get("primaryDomain"));
+        assertEquals(false, query.get("successful"));
+        assertEquals(new Document("$gte", start).append("$lte", end), query.get("timestamp"));
+    }
+
+    @Test
+    @DisplayName("toCriteria - Should keep domain and start date without an end date")
+    void toCriteria_ShouldSupportOpenEndedRange() {
+        Document query = new AuthenticationLogSearchCriteria()
+                .domain("example.com")
+                .startDate(start)
+                .toCriteria()
+                .getCriteriaObject();
+
+        assertEquals("example.com", query.get("primaryDomain"));
+        assertEquals(new Document("$gte", start), query.get("timestamp"));
+        assertFalse(query.containsKey("email"));
+    }
+
+    @Test
+    @DisplayName("toCriteria - Should ignore blank string filters")
+    void toCriteria_ShouldIgnoreBlankFilters() {
+        AuthenticationLogSearchCriteria criteria = new AuthenticationLogSearchCriteria()
+                .email("")
+                .domain("  ")
+                .ipAddress(null);
+
+        assertFalse(criteria.hasFilters());
+        assertTrue(criteria.toCriteria().getCriteriaObject().isEmpty());
+    }
+
+    @Test
+    @DisplayName("toCriteria - Should turn a CIDR block into a binary range")
+    void toCriteria_ShouldQueryCidrAsRange() {
+        Document query = new AuthenticationLogSearchCriteria()
+                .ipAddress("192.168.1.0/24")
+                .toCriteria()
+                .getCriteriaObject();
+
+        Document range = (Document) query.get("ip");
+        assertArrayEquals(IpAddressCodec.encode("192.168.1.0"), (byte[]) range.get("$gte"));
+        assertArrayEquals(IpAddressCodec.encode("192.168.1.255"), (byte[]) range.get("$lte"));
+    }
+
+    @Test
+    @DisplayName("toCriteria - Should match non-literal addresses on the raw field")
+    void toCriteria_ShouldMatchRawAddress() {
+        Document query = new AuthenticationLogSearchCriteria()
+                .ipAddress("unknown")
+                .toCriteria()
+                .getCriteriaObject();
+
+        assertEquals("unknown", query.get("ipRaw"));
+        assertFalse(query.containsKey("ip"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.cloudmen.backend.unit.repositories;
+
+import com.cloudmen.backend.domain.models.EmailOutboxEntry;
+import com.cloudmen.backend.repositories.EmailOutboxRepositoryCustomImpl;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EmailOutboxRepositoryCustomImpl
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailOutboxRepositoryCustomImpl Tests")
+public class EmailOutboxRepositoryCustomImplTest {
+
+    private static final Date LEASE = new Date(1700000000000L);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private EmailOutboxRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new EmailOutboxRepositoryCustomImpl(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("claimNext - Should count the attempt when claiming")
+    void claimNext_ShouldIncrementAttempts() {
+        repository.claimNext(new Date(), LEASE);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+                eq(EmailOutboxEntry.class));
+        assertEquals(new Document("attempts", 1), update.getValue().getUpdateObject().get("$inc"));
+        assertEquals(LEASE, ((Document) update.getValue().getUpdateObject().get("$set")).get("leaseExpiresAt"));
+    }
+
+    @Test
+    @DisplayName("markSent - Should only complete an entry still held under the caller's lease")
+    void markSent_ShouldMatchStatusAndLease() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(EmailOutboxEntry.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        boolean recorded = repository.markSent("entry-1", LEASE, new Date());
+
+        assertFalse(recorded);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateFirst(query.capture(), any(UpdateDefinition.class), eq(EmailOutboxEntry.class));
+        assertEquals(new Document("id", "entry-1")
+                .append("status", EmailOutboxEntry.Status.SENDING)
+                .append("leaseExpiresAt", LEASE), query.getValue().getQueryObject());
+    }
+}
@@ -0,0 +1,240 @@
+package com.cloudmen.backend.unit.repositories;
+
+import com.cloudmen.backend.domain.models.PurchaseRequest;
+import com.cloudmen.backend.repositories.KeysetPage;
+import com.cloudmen.backend.repositories.KeysetQuery;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for KeysetQuery
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("KeysetQuery Tests")
+public class KeysetQueryTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private KeysetQuery<PurchaseRequest> keysetQuery;
+
+    @BeforeEach
+    void setUp() {
+        keysetQuery = new KeysetQuery<>(mongoTemplate, PurchaseRequest.class, "requestDate",
+                PurchaseRequest::getRequestDate, PurchaseRequest::getId);
+    }
+
+    private PurchaseRequest request(String id, long millis) {
+        PurchaseRequest request = new PurchaseRequest();
+        request.setId(id);
+        request.setRequestDate(new Date(millis));
+        return request;
+    }
+
+    private List<PurchaseRequest> requests(String... ids) {
+        List<PurchaseRequest> result = new ArrayList<>();
+        for (String id : ids) {
+            result.add(request(id, 1000L * Integer.parseInt(id.substring(1))));
+        }
+        return result;
+    }
+
+    @Test
+    @DisplayName("find - Should return first page with next cursor and no previous cursor")
+    void find_ShouldReturnFirstPage() {
+        when(mongoTemplate.find(any(Query.class), eq(PurchaseRequest.class)))
+                .thenReturn(requests("r9", "r8", "r7"));
+
+        KeysetPage<PurchaseRequest> page = keysetQuery.find(new Criteria(), Sort.Direction.DESC, null, 2, false);
+
+        assertEquals(List.of("r9", "r8"), page.getItems().stream().map(PurchaseRequest::getId).toList());
+        assertNotNull(page.getNextCursor());
+        assertNull(page.getPreviousCursor());
+        assertNull(page.getTotalItems());
+        verify(mongoTemplate, never()).count(any(Query.class), eq(PurchaseRequest.class));
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(PurchaseRequest.class));
+        assertEquals(3, captor.getValue().getLimit());
+        assertEquals(0L, captor.getValue().getSkip());
+        assertEquals(new Document("requestDate", -1).append("_id", -1), captor.getValue().getSortObject());
+    }
+
+    @Test
+    @DisplayName("find - Should load only the requested fields plus the sort field")
+    void find_ShouldProjectRequestedFields() {
+        when(mongoTemplate.find(any(Query.class), eq(PurchaseRequest.class)))
+                .thenReturn(requests("r9"));
+
+        keysetQuery.find(new Criteria(), Sort.Direction.DESC, null, 2, false, List.of("status"));
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(PurchaseRequest.class));
+        assertEquals(new Document("status", 1).append("requestDate", 1), captor.getValue().getFieldsObject());
+    }
+
+    @Test
+    @DisplayName("find - Should seek past the cursor position instead of skipping")
+    void find_ShouldSeekAfterCursor() {
+        when(mongoTemplate.find(any(Query.class), eq(PurchaseRequest.class)))
+                .thenReturn(requests("r9", "r8", "r7"))
+                .thenReturn(requests("r7", "r6"));
+
+        KeysetPage<PurchaseRequest> first = keysetQuery.find(new Criteria(), Sort.Direction.DESC, null, 2, false);
+        KeysetPage<PurchaseRequest> second = keysetQuery.find(new Criteria(), Sort.Direction.DESC,
+                first.getNextCursor(), 2, false);
+
+        assertEquals(List.of("r7", "r6"), second.getItems().stream().map(PurchaseRequest::getId).toList());
+        assertNull(second.getNextCursor());
+        assertNotNull(second.getPreviousCursor());
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(captor.capture(), eq(PurchaseRequest.class));
+        Query seek = captor.getAllValues().get(1);
+        assertEquals(0L, seek.getSkip());
+        String json = seek.getQueryObject().toJson();
+        assertTrue(json.contains("$lt"), json);
+        assertTrue(json.contains("r8"), json);
+    }
+
+    @Test
+    @DisplayName("find - Should return previous page in listing order")
+    void find_ShouldReturnPreviousPageInOrder() {
+        when(mongoTemplate.find(any(Query.class), eq(PurchaseRequest.class)))
+                .thenReturn(requests("r9", "r8", "r7"))
+                .thenReturn(requests("r7", "r6"))
+                .thenReturn(requests("r8", "r9"));
+
+        KeysetPage<PurchaseRequest> first = keysetQuery.find(new Criteria(), Sort.Direction.DESC, null, 2, false);
+        KeysetPage<PurchaseRequest> second = keysetQuery.find(new Criteria(), Sort.Direction.DESC,
+                first.getNextCursor(), 2, false);
+        KeysetPage<PurchaseRequest> back = keysetQuery.find(new Criteria(), Sort.Direction.DESC,
+                second.getPreviousCursor(), 2, false);
+
+        assertEquals(List.of("r9", "r8"), back.getItems().stream().map(PurchaseRequest::getId).toList());
+        assertNull(back.getPreviousCursor());
+        assertNotNull(back.getNextCursor());
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(3)).find(captor.capture(), eq(PurchaseRequest.class));
+        Query backwards = captor.getAllValues().get(2);
+        assertEquals(new Document("requestDate", 1).append("_id", 1), backwards.getSortObject());
+        assertTrue(backwards.getQueryObject().toJson().contains("$gt"));
+    }
+
+    @Test
+    @DisplayName("find - Should count matching documents only when asked")
+    void find_ShouldCount_WhenIncludeTotal() {
+        when(mongoTemplate.find(any(Query.class), eq(PurchaseRequest.class))).thenReturn(requests("r1"));
+        when(mongoTemplate.count(any(Query.class), eq(PurchaseRequest.class))).thenReturn(42L);
+
+        KeysetPage<PurchaseRequest> page = keysetQuery.find(Criteria.where("domain").is("example.com"),
+                Sort.Direction.DESC, null, 10, true);
+
+        assertEquals(42L, page.getTotalItems());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("find - Should reject malformed cursors")
+    void find_ShouldRejectInvalidCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> keysetQuery.find(new Criteria(), Sort.Direction.DESC, "not-a-cursor!", 10, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> keysetQuery.find(new Criteria(), Sort.Direction.DESC, "eHx5fHo", 10, false));
+    }
+
+    @Test
+    @DisplayName("find - Should seek on string sort fields, including values containing the separator")
+    void find_ShouldSeekOnStringField() {
+        KeysetQuery<PurchaseRequest> byType = new KeysetQuery<>(mongoTemplate, PurchaseRequest.class, "type",
+                PurchaseRequest::getType, PurchaseRequest::getId);
+        PurchaseRequest first = request("r1", 0);
+        first.setType("Alpha | Beta");
+        PurchaseRequest second = request("r2", 0);
+        second.setType("Gamma");
+        when(mongoTemplate.find(any(Query.class), eq(PurchaseRequest.class)))
+                .thenReturn(new ArrayList<>(List.of(first, second)))
+                .thenReturn(new ArrayList<>());
+
+        KeysetPage<PurchaseRequest> page = byType.find(new Criteria(), Sort.Direction.ASC, null, 1, false);
+        byType.find(new Criteria(), Sort.Direction.ASC, page.getNextCursor(), 1, false);
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(captor.capture(), eq(PurchaseRequest.class));
+        String json = captor.getAllValues().get(1).getQueryObject().toJson();
+        assertTrue(json.contains("\"$gt\": \"Alpha | Beta\""), json);
+        assertTrue(json.contains("r1"), json);
+    }
+
+    @Test
+    @DisplayName("find - Should page through documents without a sort value before the others")
+    void find_ShouldSeekPastNullSortValues() {
+        KeysetQuery<PurchaseRequest> byType = new KeysetQuery<>(mongoTemplate, PurchaseRequest.class, "type",
+                PurchaseRequest::getType, PurchaseRequest::getId);
+        PurchaseRequest withType = request("r3", 0);
+        withType.setType("Gamma");
+        when(mongoTemplate.find(any(Query.class), eq(PurchaseRequest.class)))
+                .thenReturn(new ArrayList<>(List.of(request("r1", 0), request("r2", 0), withType)))
+                .thenReturn(new ArrayList<>(List.of(withType)));
+
+        KeysetPage<PurchaseRequest> first = byType.find(new Criteria(), Sort.Direction.ASC, null, 2, false);
+        KeysetPage<PurchaseRequest> second = byType.find(new Criteria(), Sort.Direction.ASC,
+                first.getNextCursor(), 2, false);
+
+        assertEquals(List.of("r3"), second.getItems().stream().map(PurchaseRequest::getId).toList());
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(captor.capture(), eq(PurchaseRequest.class));
+        Document seek = captor.getAllValues().get(1).getQueryObject();
+        assertEquals(new Document("$or", List.of(
+                new Document("$and", List.of(new Document("type", null),
+                        new Document("_id", new Document("$gt", "r2")))),
+                new Document("type", new Document("$ne", null)))),
+                ((List<?>) seek.get("$and")).get(1));
+
+        // Walking back from the first non-null value must reach the nulls again
+        byType.find(new Criteria(), Sort.Direction.ASC, second.getPreviousCursor(), 2, false);
+        verify(mongoTemplate, times(3)).find(captor.capture(), eq(PurchaseRequest.class));
+        String backwards = captor.getValue().getQueryObject().toJson();
+        assertTrue(backwards.contains("\"$lt\": \"Gamma\""), backwards);
+        assertTrue(backwards.contains("{\"type\": null}"), backwards);
+    }
+
+    @Test
+    @DisplayName("find - Should only continue with remaining nulls when descending past a null")
+    void find_ShouldSeekWithinNullsWhenDescending() {
+        KeysetQuery<PurchaseRequest> byType = new KeysetQuery<>(mongoTemplate, PurchaseRequest.class, "type",
+                PurchaseRequest::getType, PurchaseRequest::getId);
+        when(mongoTemplate.find(any(Query.class), eq(PurchaseRequest.class)))
+                .thenReturn(new ArrayList<>(List.of(request("r2", 0), request("r1", 0))))
+                .thenReturn(new ArrayList<>());
+
+        KeysetPage<PurchaseRequest> first = byType.find(new Criteria(), Sort.Direction.DESC, null, 1, false);
+        byType.find(new Criteria(), Sort.Direction.DESC, first.getNextCursor(), 1, false);
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(captor.capture(), eq(PurchaseRequest.class));
+        assertEquals(new Document("$and", List.of(new Document("type", null),
+                new Document("_id", new Document("$lt", "r2")))),
+                ((List<?>) captor.getAllValues().get(1).getQueryObject().get("$and")).get(1));
+    }
+}
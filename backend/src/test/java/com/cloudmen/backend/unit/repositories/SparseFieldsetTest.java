@@ -0,0 +1,106 @@
+package com.cloudmen.backend.unit.repositories;
+
+import com.cloudmen.backend.repositories.SparseFieldset;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SparseFieldset
+ */
+@DisplayName("SparseFieldset Tests")
+public class SparseFieldsetTest {
+
+    private static final Map<String, List<String>> SOURCE_FIELDS = sourceFields();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static Map<String, List<String>> sourceFields() {
+        Map<String, List<String>> sourceFields = new LinkedHashMap<>();
+        sourceFields.put("id", List.of());
+        sourceFields.put("name", List.of("name"));
+        sourceFields.put("email", List.of("contactInfo"));
+        sourceFields.put("phoneNumber", List.of("contactInfo"));
+        sourceFields.put("status", List.of("status", "customFields.status"));
+        return sourceFields;
+    }
+
+    @Test
+    @DisplayName("parse - Should select every field when no fields are given")
+    void parse_ShouldSelectAllFields_WhenBlank() {
+        SparseFieldset fieldset = SparseFieldset.parse(" ", SOURCE_FIELDS);
+
+        assertFalse(fieldset.isSparse());
+        assertEquals(SOURCE_FIELDS.keySet(), fieldset.getResponseFields());
+        assertEquals(Set.of("name", "contactInfo", "status", "customFields.status"), fieldset.getDocumentFields());
+    }
+
+    @Test
+    @DisplayName("parse - Should map requested fields to the document fields they are built from")
+    void parse_ShouldMapRequestedFieldsToDocumentFields() {
+        SparseFieldset fieldset = SparseFieldset.parse("id, email,phoneNumber,", SOURCE_FIELDS);
+
+        assertTrue(fieldset.isSparse());
+        assertEquals(Set.of("id", "email", "phoneNumber"), fieldset.getResponseFields());
+        assertEquals(Set.of("contactInfo"), fieldset.getDocumentFields());
+    }
+
+    @Test
+    @DisplayName("parse - Should reject unknown fields")
+    void parse_ShouldRejectUnknownFields() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> SparseFieldset.parse("name,customFields", SOURCE_FIELDS));
+
+        assertTrue(e.getMessage().contains("customFields"));
+        assertTrue(e.getMessage().contains("Allowed fields: id, name, email, phoneNumber, status"));
+    }
+
+    @Test
+    @DisplayName("documentFields - Should map id to _id and other fields to themselves")
+    void documentFields_ShouldMapFieldsToThemselves() {
+        Map<String, List<String>> sourceFields = SparseFieldset.documentFields("email", "status");
+
+        assertEquals(List.of("id", "email", "status"), List.copyOf(sourceFields.keySet()));
+        assertEquals(List.of(), sourceFields.get("id"));
+        assertEquals(List.of("email"), sourceFields.get("email"));
+    }
+
+    @Test
+    @DisplayName("project - Should include only the given fields, or leave the query alone")
+    void project_ShouldIncludeGivenFields() {
+        Query projected = SparseFieldset.project(new Query(), List.of("name", "status"));
+        Query whole = SparseFieldset.project(new Query(), null);
+
+        assertEquals(new Document("name", 1).append("status", 1), projected.getFieldsObject());
+        assertTrue(whole.getFieldsObject().isEmpty());
+    }
+
+    @Test
+    @DisplayName("select - Should keep only the requested fields of each item")
+    void select_ShouldRetainRequestedFields() {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("id", "1");
+        item.put("name", "Company");
+        item.put("status", "ACTIVE");
+        List<Map<String, Object>> items = List.of(item);
+
+        List<?> all = SparseFieldset.parse(null, SOURCE_FIELDS).select(items, objectMapper);
+        List<?> sparse = SparseFieldset.parse("id,status", SOURCE_FIELDS).select(items, objectMapper);
+
+        assertSame(items, all);
+        JsonNode node = (JsonNode) sparse.get(0);
+        assertEquals("1", node.get("id").asText());
+        assertEquals("ACTIVE", node.get("status").asText());
+        assertFalse(node.has("name"));
+    }
+}
@@ -0,0 +1,118 @@
+package com.cloudmen.backend.unit.repositories;
+
+import com.cloudmen.backend.domain.enums.CompanyStatusType;
+import com.cloudmen.backend.domain.models.TeamleaderCompany;
+import com.cloudmen.backend.repositories.TeamleaderCompanyRepositoryCustomImpl;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TeamleaderCompanyRepositoryCustomImpl
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TeamleaderCompanyRepositoryCustomImpl Tests")
+public class TeamleaderCompanyRepositoryCustomImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private TeamleaderCompanyRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new TeamleaderCompanyRepositoryCustomImpl(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("findByIdOrTeamleaderId - Should match _id or teamleaderId in a single query")
+    void findByIdOrTeamleaderId_ShouldUseSingleOrQuery() {
+        TeamleaderCompany company = new TeamleaderCompany("tl-1", "Acme");
+        when(mongoTemplate.findOne(any(Query.class), eq(TeamleaderCompany.class))).thenReturn(company);
+
+        Optional<TeamleaderCompany> result = repository.findByIdOrTeamleaderId("tl-1");
+
+        assertEquals(Optional.of(company), result);
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(1)).findOne(captor.capture(), eq(TeamleaderCompany.class));
+        assertEquals(new Document("$or", List.of(new Document("_id", "tl-1"), new Document("teamleaderId", "tl-1"))),
+                captor.getValue().getQueryObject());
+    }
+
+    @Test
+    @DisplayName("countByStatus - Should report every known status, counting from one aggregation")
+    void countByStatus_ShouldReportEveryStatus() {
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(TeamleaderCompany.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(
+                        new Document("_id", "ACTIVE").append("count", 7),
+                        new Document("_id", "ARCHIVED").append("count", 1)), new Document()));
+
+        Map<CompanyStatusType, Long> counts = repository.countByStatus();
+
+        assertEquals(CompanyStatusType.values().length, counts.size());
+        assertEquals(7L, counts.get(CompanyStatusType.ACTIVE));
+        assertEquals(0L, counts.get(CompanyStatusType.DEACTIVATED));
+        assertEquals(7L, counts.values().stream().mapToLong(Long::longValue).sum());
+        verify(mongoTemplate, times(1)).aggregate(any(Aggregation.class), eq(TeamleaderCompany.class),
+                eq(Document.class));
+        verify(mongoTemplate, never()).findAll(TeamleaderCompany.class);
+    }
+
+    @Test
+    @DisplayName("findPage - Should treat companies without a stored status as ACTIVE")
+    void findPage_ShouldIncludeMissingStatusForActive() {
+        when(mongoTemplate.find(any(Query.class), eq(TeamleaderCompany.class))).thenReturn(List.of());
+
+        repository.findPage(CompanyStatusType.ACTIVE, PageRequest.of(0, 10, Sort.by("name")), null);
+        repository.findPage(CompanyStatusType.DEACTIVATED, PageRequest.of(0, 10, Sort.by("name")), null);
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(captor.capture(), eq(TeamleaderCompany.class));
+        assertEquals(new Document("status", new Document("$in", Arrays.asList(CompanyStatusType.ACTIVE, null))),
+                captor.getAllValues().get(0).getQueryObject());
+        assertEquals(new Document("status", CompanyStatusType.DEACTIVATED),
+                captor.getAllValues().get(1).getQueryObject());
+    }
+
+    @Test
+    @DisplayName("findPage - Should read every company, sorted, when unpaged")
+    void findPage_ShouldNotLimitUnpagedQuery() {
+        List<TeamleaderCompany> companies = List.of(new TeamleaderCompany("tl-1", "Acme"),
+                new TeamleaderCompany("tl-2", "Globex"));
+        when(mongoTemplate.find(any(Query.class), eq(TeamleaderCompany.class))).thenReturn(companies);
+
+        Page<TeamleaderCompany> page = repository.findPage(null, Pageable.unpaged(Sort.by("name")), null);
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(TeamleaderCompany.class));
+        assertEquals(0, captor.getValue().getLimit());
+        assertEquals(0, captor.getValue().getSkip());
+        assertEquals(new Document("name", 1), captor.getValue().getSortObject());
+        assertEquals(companies, page.getContent());
+        assertEquals(2, page.getTotalElements());
+        verify(mongoTemplate, never()).count(any(Query.class), eq(TeamleaderCompany.class));
+    }
+}
@@ -0,0 +1,171 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.domain.models.AuthenticationLog;
+import com.cloudmen.backend.repositories.AuthenticationLogRepository;
+import com.cloudmen.backend.repositories.AuthenticationLogSearchCriteria;
+import com.cloudmen.backend.services.AuthenticationLogArchive;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AuthenticationLogArchive
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuthenticationLogArchive Tests")
+public class AuthenticationLogArchiveTest {
+
+    private static final LocalDateTime DAY_ONE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Mock
+    private AuthenticationLogRepository authenticationLogRepository;
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private AuthenticationLogArchive archive;
+
+    private final List<AuthenticationLog> stored = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        archive = newArchive();
+
+        // Two days of logs: example.com on day one, other.org on day two
+        for (int hour = 0; hour < 4; hour++) {
+            stored.add(log("a@example.com", "example.com", DAY_ONE.plusHours(hour), hour % 2 == 0));
+            stored.add(log("b@other.org", "other.org", DAY_ONE.plusDays(1).plusHours(hour), true));
+        }
+        stored.sort((a, b) -> a.getTimestamp().compareTo(b.getTimestamp()));
+
+        lenient().when(authenticationLogRepository.findTopByOrderByTimestampAsc()).thenReturn(stored.get(0));
+        lenient().when(authenticationLogRepository.streamForArchive(any(), any())).thenAnswer(invocation -> {
+            LocalDateTime from = invocation.getArgument(0);
+            LocalDateTime to = invocation.getArgument(1);
+            return stored.stream()
+                    .filter(log -> !log.getTimestamp().isBefore(from) && log.getTimestamp().isBefore(to));
+        });
+    }
+
+    @Test
+    @DisplayName("archiveBefore - Should write one segment per day and delete archived logs")
+    void archiveBefore_ShouldWriteSegmentPerDay() {
+        long archived = archive.archiveBefore(DAY_ONE.plusDays(2));
+
+        assertEquals(8, archived);
+        assertEquals(2, archive.getSegmentCount());
+        verify(authenticationLogRepository).deleteByTimestampRange(DAY_ONE, DAY_ONE.plusDays(1));
+        verify(authenticationLogRepository).deleteByTimestampRange(DAY_ONE.plusDays(1), DAY_ONE.plusDays(2));
+    }
+
+    @Test
+    @DisplayName("find - Should return archived logs in order with the total count")
+    void find_ShouldPageThroughSegments() {
+        archive.archiveBefore(DAY_ONE.plusDays(2));
+        AuthenticationLogSearchCriteria criteria = new AuthenticationLogSearchCriteria().startDate(DAY_ONE);
+
+        AuthenticationLogArchive.ArchiveResult newest = archive.find(criteria, true, 0, 3);
+        AuthenticationLogArchive.ArchiveResult oldest = archive.find(criteria, false, 0, 3);
+
+        assertEquals(8, newest.getTotal());
+        assertEquals(DAY_ONE.plusDays(1).plusHours(3), newest.getItems().get(0).getTimestamp());
+        assertEquals(DAY_ONE, oldest.getItems().get(0).getTimestamp());
+        assertEquals("Chrome", oldest.getItems().get(0).getBrowser());
+        assertEquals("10.0.0.1", oldest.getItems().get(0).getIpAddress());
+    }
+
+    @Test
+    @DisplayName("find - Should apply field filters and skip segments without the domain")
+    void find_ShouldFilterByDomainAndStatus() {
+        archive.archiveBefore(DAY_ONE.plusDays(2));
+        AuthenticationLogSearchCriteria criteria = new AuthenticationLogSearchCriteria()
+                .domain("example.com")
+                .successful(false);
+
+        AuthenticationLogArchive.ArchiveResult result = archive.find(criteria, true, 0, 10);
+
+        assertEquals(2, result.getTotal());
+        assertTrue(result.getItems().stream().allMatch(log -> "a@example.com".equals(log.getEmail())));
+    }
+
+    @Test
+    @DisplayName("loadIndex - Should restore segments from the index files on disk")
+    void loadIndex_ShouldRestoreSegments() {
+        archive.archiveBefore(DAY_ONE.plusDays(2));
+
+        AuthenticationLogArchive reloaded = newArchive();
+        reloaded.loadIndex();
+
+        assertEquals(2, reloaded.getSegmentCount());
+        assertTrue(reloaded.covers(DAY_ONE.plusDays(1)));
+        assertFalse(reloaded.covers(DAY_ONE.plusDays(3)));
+        List<String> emails = reloaded.find(new AuthenticationLogSearchCriteria().email("b@other.org"), false, 0, 10)
+                .getItems().stream().map(AuthenticationLog::getEmail).distinct().collect(Collectors.toList());
+        assertEquals(List.of("b@other.org"), emails);
+    }
+
+    @Test
+    @DisplayName("searches - Should read the archive only for an old start date or an opt-in")
+    void searches_ShouldRequireStartDateOrOptIn() {
+        archive.archiveBefore(DAY_ONE.plusDays(2));
+
+        assertFalse(archive.covers(null));
+        assertFalse(archive.searches(new AuthenticationLogSearchCriteria().successful(true)));
+        assertTrue(archive.searches(new AuthenticationLogSearchCriteria().startDate(DAY_ONE)));
+        assertTrue(archive.searches(new AuthenticationLogSearchCriteria().includeArchive(true)));
+    }
+
+    @Test
+    @DisplayName("find - Should stop once the page is filled and estimate the total from the index")
+    void find_ShouldStopAtPageEnd() {
+        archive.archiveBefore(DAY_ONE.plusDays(2));
+        AuthenticationLogSearchCriteria criteria = new AuthenticationLogSearchCriteria().successful(true);
+
+        AuthenticationLogArchive.ArchiveResult page = archive.find(criteria, false, 1, 1);
+        AuthenticationLogArchive.ArchiveResult all = archive.find(criteria, false, 0, 10);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(DAY_ONE.plusHours(2), page.getItems().get(0).getTimestamp());
+        assertFalse(page.isExact());
+        assertTrue(page.getTotal() >= all.getTotal());
+        assertTrue(all.isExact());
+        assertEquals(6, all.getTotal());
+        assertEquals(8, archive.estimateCount(criteria));
+    }
+
+    private AuthenticationLogArchive newArchive() {
+        AuthenticationLogArchive created = new AuthenticationLogArchive(authenticationLogRepository, objectMapper);
+        ReflectionTestUtils.setField(created, "directory", directory.toString());
+        ReflectionTestUtils.setField(created, "afterDays", 30);
+        return created;
+    }
+
+    private static AuthenticationLog log(String email, String domain, LocalDateTime timestamp, boolean successful) {
+        AuthenticationLog log = new AuthenticationLog();
+        log.setEmail(email);
+        log.setPrimaryDomain(domain);
+        log.setTimestamp(timestamp);
+        log.setSuccessful(successful);
+        log.setIpAddress("10.0.0.1");
+        log.setUserAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) Chrome/120.0.0.0 Safari/537.36");
+        return log;
+    }
+}
@@ -0,0 +1,87 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.config.AuthenticationLogCompactionMigration;
+import com.cloudmen.backend.domain.models.UserAgentEntry;
+import com.cloudmen.backend.services.UserAgentDictionary;
+import com.cloudmen.backend.utils.IpAddressCodec;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AuthenticationLogCompactionMigration
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuthenticationLogCompactionMigration Tests")
+public class AuthenticationLogCompactionMigrationTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private UserAgentDictionary userAgentDictionary;
+
+    private AuthenticationLogCompactionMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        migration = new AuthenticationLogCompactionMigration(mongoTemplate, userAgentDictionary);
+    }
+
+    @Test
+    @DisplayName("compact - Should rename fields and encode the IP address and user agent")
+    void compact_ShouldConvertLegacyDocument() {
+        UserAgentEntry entry = new UserAgentEntry();
+        entry.setId(1L);
+        when(userAgentDictionary.encode("Mozilla/5.0")).thenReturn(entry);
+        Date timestamp = new Date();
+
+        Document update = migration.compact(new Document("_id", "log-1")
+                .append("userId", "user-1")
+                .append("timestamp", timestamp)
+                .append("ipAddress", "10.0.0.1")
+                .append("userAgent", "Mozilla/5.0"));
+
+        Document set = update.get("$set", Document.class);
+        Document unset = update.get("$unset", Document.class);
+        assertEquals("user-1", set.get("u"));
+        assertEquals(timestamp, set.get("ts"));
+        assertArrayEquals(IpAddressCodec.encode("10.0.0.1"), set.get("ip", Binary.class).getData());
+        assertEquals(1L, set.get("ua"));
+        assertTrue(unset.keySet().containsAll(List.of("userId", "timestamp", "ipAddress", "userAgent")));
+    }
+
+    @Test
+    @DisplayName("compact - Should leave non-string IP addresses and user agents in place")
+    void compact_ShouldLeaveNonStringValues() {
+        Date timestamp = new Date();
+
+        Document update = migration.compact(new Document("_id", "log-1")
+                .append("timestamp", timestamp)
+                .append("ipAddress", 167772161L)
+                .append("userAgent", new Document("raw", "Mozilla/5.0")));
+
+        Document set = update.get("$set", Document.class);
+        Document unset = update.get("$unset", Document.class);
+        assertEquals(timestamp, set.get("ts"));
+        assertFalse(set.containsKey("ip"));
+        assertFalse(set.containsKey("ipr"));
+        assertFalse(set.containsKey("ua"));
+        assertFalse(unset.containsKey("ipAddress"));
+        assertFalse(unset.containsKey("userAgent"));
+        verify(userAgentDictionary, never()).encode(anyString());
+    }
+}
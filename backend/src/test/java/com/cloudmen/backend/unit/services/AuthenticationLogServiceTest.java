@@ -17,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -29,7 +30,10 @@ import org.mockito.Captor;
 import com.cloudmen.backend.domain.models.AuthenticationLog;
 import com.cloudmen.backend.domain.models.User;
 import com.cloudmen.backend.repositories.AuthenticationLogRepository;
+import com.cloudmen.backend.repositories.AuthenticationLogSearchCriteria;
+import com.cloudmen.backend.services.AuthenticationLogArchive;
 import com.cloudmen.backend.services.AuthenticationLogService;
+import com.cloudmen.backend.services.UserAgentDictionary;
 import com.cloudmen.backend.services.UserService;
 
 /**
@@ -45,12 +49,21 @@ public class AuthenticationLogServiceTest {
         @Mock
         private UserService userService;
 
+        @Mock
+        private AuthenticationLogArchive authenticationLogArchive;
+
+        @Spy
+        private UserAgentDictionary userAgentDictionary = new UserAgentDictionary(null);
+
         @InjectMocks
         private AuthenticationLogService authenticationLogService;
 
         @Captor
         private ArgumentCaptor<AuthenticationLog> logCaptor;
 
+        @Captor
+        private ArgumentCaptor<AuthenticationLogSearchCriteria> criteriaCaptor;
+
         private User testUser;
         private AuthenticationLog testLog;
         private LocalDateTime now;
@@ -906,17 +919,17 @@ public class AuthenticationLogServiceTest {
         void deleteLogsOlderThan_ShouldDeleteOldLogs() {
                 // Arrange
                 LocalDateTime cutoffDate = now.minusDays(30);
-                List<AuthenticationLog> oldLogs = Arrays.asList(testLog);
 
-                when(authenticationLogRepository.findByTimestampBetween(eq(LocalDateTime.MIN), eq(cutoffDate)))
-                                .thenReturn(oldLogs);
+                when(authenticationLogRepository.deleteByTimestampBefore(cutoffDate)).thenReturn(5L);
 
                 // Act
-                authenticationLogService.deleteLogsOlderThan(cutoffDate);
+                long deleted = authenticationLogService.deleteLogsOlderThan(cutoffDate);
 
                 // Assert
-                verify(authenticationLogRepository).findByTimestampBetween(eq(LocalDateTime.MIN), eq(cutoffDate));
-                verify(authenticationLogRepository).deleteAll(oldLogs);
+                assertEquals(5L, deleted);
+                verify(authenticationLogRepository).deleteByTimestampBefore(cutoffDate);
+                verify(authenticationLogRepository, never()).findByTimestampBetween(any(), any());
+                verify(authenticationLogRepository, never()).deleteAll(anyList());
         }
 
         @Test
@@ -925,7 +938,7 @@ public class AuthenticationLogServiceTest {
                 // Arrange
                 LocalDateTime cutoffDate = now.minusDays(30);
 
-                when(authenticationLogRepository.findByTimestampBetween(eq(LocalDateTime.MIN), eq(cutoffDate)))
+                when(authenticationLogRepository.deleteByTimestampBefore(cutoffDate))
                                 .thenThrow(new RuntimeException("Database error"));
 
                 // Act & Assert
@@ -948,8 +961,8 @@ public class AuthenticationLogServiceTest {
                 List<AuthenticationLog> logs = Arrays.asList(testLog);
                 Page<AuthenticationLog> page = new PageImpl<>(logs, pageable, logs.size());
 
-                when(authenticationLogRepository.findByEmailAndPrimaryDomainAndSuccessfulAndTimestampBetween(
-                                email, domain, successful, startDate, endDate, pageable))
+                when(authenticationLogRepository.findFiltered(any(AuthenticationLogSearchCriteria.class),
+                                eq(pageable)))
                                 .thenReturn(page);
 
                 // Act
@@ -960,118 +973,101 @@ public class AuthenticationLogServiceTest {
                 assertNotNull(result);
                 assertEquals(1, result.getTotalElements());
                 assertEquals(logs, result.getContent());
-        }
-
-        @Test
-        @DisplayName("getFilteredLogs - Should return filtered logs with email and domain")
-        void getFilteredLogs_ShouldReturnFilteredLogs_WithEmailAndDomain() {
-                // Arrange
-                String email = "test@example.com";
-                String domain = "example.com";
-                Pageable pageable = PageRequest.of(0, 10);
-                List<AuthenticationLog> logs = Arrays.asList(testLog);
-                Page<AuthenticationLog> page = new PageImpl<>(logs, pageable, logs.size());
-
-                when(authenticationLogRepository.findByEmailAndPrimaryDomain(email, domain, pageable))
-                                .thenReturn(page);
-
-                // Act
-                Page<AuthenticationLog> result = authenticationLogService.getFilteredLogs(
-                                email, domain, null, null, null, pageable);
 
-                // Assert
-                assertNotNull(result);
-                assertEquals(1, result.getTotalElements());
-                assertEquals(logs, result.getContent());
+                verify(authenticationLogRepository).findFiltered(criteriaCaptor.capture(), eq(pageable));
+                AuthenticationLogSearchCriteria criteria = criteriaCaptor.getValue();
+                assertEquals(email, criteria.getEmail());
+                assertEquals(domain, criteria.getDomain());
+                assertEquals(successful, criteria.getSuccessful());
+                assertEquals(startDate, criteria.getStartDate());
+                assertEquals(endDate, criteria.getEndDate());
         }
 
         @Test
-        @DisplayName("getFilteredLogs - Should return filtered logs with email and successful")
-        void getFilteredLogs_ShouldReturnFilteredLogs_WithEmailAndSuccessful() {
+        @DisplayName("getFilteredLogs - Should keep every filter for combinations without a dedicated query")
+        void getFilteredLogs_ShouldKeepAllFilters_ForAnyCombination() {
                 // Arrange
-                String email = "test@example.com";
-                Boolean successful = true;
+                String domain = "example.com";
+                LocalDateTime startDate = now.minusDays(7);
                 Pageable pageable = PageRequest.of(0, 10);
-                List<AuthenticationLog> logs = Arrays.asList(testLog);
-                Page<AuthenticationLog> page = new PageImpl<>(logs, pageable, logs.size());
+                Page<AuthenticationLog> page = new PageImpl<>(Arrays.asList(testLog), pageable, 1);
 
-                when(authenticationLogRepository.findByEmailAndSuccessful(email, successful, pageable))
+                when(authenticationLogRepository.findFiltered(any(AuthenticationLogSearchCriteria.class),
+                                eq(pageable)))
                                 .thenReturn(page);
 
                 // Act
-                Page<AuthenticationLog> result = authenticationLogService.getFilteredLogs(
-                                email, null, successful, null, null, pageable);
+                authenticationLogService.getFilteredLogs(null, domain, null, startDate, null, pageable);
 
                 // Assert
-                assertNotNull(result);
-                assertEquals(1, result.getTotalElements());
-                assertEquals(logs, result.getContent());
+                verify(authenticationLogRepository).findFiltered(criteriaCaptor.capture(), eq(pageable));
+                AuthenticationLogSearchCriteria criteria = criteriaCaptor.getValue();
+                assertNull(criteria.getEmail());
+                assertEquals(domain, criteria.getDomain());
+                assertEquals(startDate, criteria.getStartDate());
+                assertNull(criteria.getEndDate());
+                verify(authenticationLogRepository, never()).findByPrimaryDomain(anyString(), any(Pageable.class));
         }
 
         @Test
-        @DisplayName("getFilteredLogs - Should return filtered logs with domain and successful")
-        void getFilteredLogs_ShouldReturnFilteredLogs_WithDomainAndSuccessful() {
+        @DisplayName("getFilteredLogs - Should not read the archive for a page filled from Mongo")
+        void getFilteredLogs_ShouldEstimateArchiveTotal_WhenPageIsHot() {
                 // Arrange
-                String domain = "example.com";
-                Boolean successful = true;
-                Pageable pageable = PageRequest.of(0, 10);
-                List<AuthenticationLog> logs = Arrays.asList(testLog);
-                Page<AuthenticationLog> page = new PageImpl<>(logs, pageable, logs.size());
-
-                when(authenticationLogRepository.findByPrimaryDomainAndSuccessful(domain, successful, pageable))
-                                .thenReturn(page);
+                AuthenticationLogSearchCriteria criteria = new AuthenticationLogSearchCriteria()
+                                .successful(true)
+                                .includeArchive(true);
+                Pageable pageable = PageRequest.of(0, 1);
+                when(authenticationLogArchive.searches(criteria)).thenReturn(true);
+                when(authenticationLogArchive.estimateCount(criteria)).thenReturn(40L);
+                when(authenticationLogRepository.countFiltered(criteria)).thenReturn(5L);
+                when(authenticationLogRepository.findFiltered(eq(criteria), any(Sort.class), eq(0L), eq(1)))
+                                .thenReturn(List.of(testLog));
 
                 // Act
-                Page<AuthenticationLog> result = authenticationLogService.getFilteredLogs(
-                                null, domain, successful, null, null, pageable);
+                Page<AuthenticationLog> result = authenticationLogService.getFilteredLogs(criteria, pageable);
 
                 // Assert
-                assertNotNull(result);
-                assertEquals(1, result.getTotalElements());
-                assertEquals(logs, result.getContent());
+                assertEquals(List.of(testLog), result.getContent());
+                assertEquals(45, result.getTotalElements());
+                verify(authenticationLogArchive, never()).find(any(), anyBoolean(), anyLong(), anyInt());
         }
 
         @Test
-        @DisplayName("getFilteredLogs - Should return filtered logs with only time range")
-        void getFilteredLogs_ShouldReturnFilteredLogs_WithOnlyTimeRange() {
+        @DisplayName("getFilteredLogs - Should stay on Mongo without a start date or opt-in")
+        void getFilteredLogs_ShouldSkipArchive_WithoutStartDate() {
                 // Arrange
-                LocalDateTime startDate = now.minusDays(7);
-                LocalDateTime endDate = now;
+                AuthenticationLogSearchCriteria criteria = new AuthenticationLogSearchCriteria().successful(true);
                 Pageable pageable = PageRequest.of(0, 10);
-                List<AuthenticationLog> logs = Arrays.asList(testLog);
-                Page<AuthenticationLog> page = new PageImpl<>(logs, pageable, logs.size());
-
-                when(authenticationLogRepository.findByTimestampBetween(startDate, endDate, pageable))
-                                .thenReturn(page);
+                when(authenticationLogArchive.searches(criteria)).thenReturn(false);
+                when(authenticationLogRepository.findFiltered(criteria, pageable))
+                                .thenReturn(new PageImpl<>(List.of(testLog), pageable, 1));
 
                 // Act
-                Page<AuthenticationLog> result = authenticationLogService.getFilteredLogs(
-                                null, null, null, startDate, endDate, pageable);
+                authenticationLogService.getFilteredLogs(criteria, pageable);
 
                 // Assert
-                assertNotNull(result);
-                assertEquals(1, result.getTotalElements());
-                assertEquals(logs, result.getContent());
+                verify(authenticationLogRepository, never()).countFiltered(any());
+                verify(authenticationLogArchive, never()).find(any(), anyBoolean(), anyLong(), anyInt());
         }
 
         @Test
-        @DisplayName("getFilteredLogs - Should return all logs when no filters")
-        void getFilteredLogs_ShouldReturnAllLogs_WhenNoFilters() {
+        @DisplayName("getFilteredLogs - Should pass IP address and user agent filters")
+        void getFilteredLogs_ShouldPassIpAndUserAgentFilters() {
                 // Arrange
                 Pageable pageable = PageRequest.of(0, 10);
-                List<AuthenticationLog> logs = Arrays.asList(testLog);
-                Page<AuthenticationLog> page = new PageImpl<>(logs, pageable, logs.size());
+                AuthenticationLogSearchCriteria criteria = new AuthenticationLogSearchCriteria()
+                                .ipAddress("192.168.1.1")
+                                .userAgent("Mozilla/5.0");
+                Page<AuthenticationLog> page = new PageImpl<>(Arrays.asList(testLog), pageable, 1);
 
-                when(authenticationLogRepository.findAll(pageable)).thenReturn(page);
+                when(authenticationLogRepository.findFiltered(criteria, pageable)).thenReturn(page);
 
                 // Act
-                Page<AuthenticationLog> result = authenticationLogService.getFilteredLogs(
-                                null, null, null, null, null, pageable);
+                Page<AuthenticationLog> result = authenticationLogService.getFilteredLogs(criteria, pageable);
 
                 // Assert
-                assertNotNull(result);
                 assertEquals(1, result.getTotalElements());
-                assertEquals(logs, result.getContent());
+                verify(authenticationLogRepository).findFiltered(criteria, pageable);
         }
 
         @Test
@@ -1081,7 +1077,8 @@ public class AuthenticationLogServiceTest {
                 String email = "test@example.com";
                 Pageable pageable = PageRequest.of(0, 10);
 
-                when(authenticationLogRepository.findByEmail(email, pageable))
+                when(authenticationLogRepository.findFiltered(any(AuthenticationLogSearchCriteria.class),
+                                eq(pageable)))
                                 .thenThrow(new RuntimeException("Database error"));
 
                 // Act & Assert
@@ -0,0 +1,253 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.domain.models.AuthenticationLog;
+import com.cloudmen.backend.domain.models.User;
+import com.cloudmen.backend.repositories.AuthenticationLogRepository;
+import com.cloudmen.backend.services.AuthenticationLogWriter;
+import com.cloudmen.backend.services.LoginRollupService;
+import com.cloudmen.backend.services.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AuthenticationLogWriter
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuthenticationLogWriter Tests")
+public class AuthenticationLogWriterTest {
+
+    @Mock
+    private AuthenticationLogRepository authenticationLogRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private LoginRollupService loginRollupService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuthenticationLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new AuthenticationLogWriter(authenticationLogRepository, userService, loginRollupService,
+                meterRegistry);
+        ReflectionTestUtils.setField(writer, "capacity", 3);
+        ReflectionTestUtils.setField(writer, "batchSize", 10);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 1000L);
+        ReflectionTestUtils.setField(writer, "overflowPolicy", AuthenticationLogWriter.OverflowPolicy.DROP_NEWEST);
+    }
+
+    private AuthenticationLog successLog(String email) {
+        AuthenticationLog log = new AuthenticationLog();
+        log.setEmail(email);
+        log.setSuccessful(true);
+        return log;
+    }
+
+    @Test
+    @DisplayName("flush - Should insert queued logs as one batch enriched with user details")
+    @SuppressWarnings("unchecked")
+    void flush_ShouldInsertBatchWithUserDetails() {
+        User user = new User();
+        user.setId("user123");
+        user.setEmail("test@example.com");
+        user.setPrimaryDomain("example.com");
+        user.setCustomerGoogleId("gid123");
+        when(userService.getUsersByEmails(anyCollection())).thenReturn(List.of(user));
+
+        writer.submit(successLog("test@example.com"));
+        writer.submit(new AuthenticationLog("other@example.com", "10.0.0.1", "agent", "Invalid credentials"));
+
+        assertEquals(2, writer.getQueueDepth());
+        assertEquals(2, writer.flush());
+        assertEquals(0, writer.getQueueDepth());
+
+        ArgumentCaptor<List<AuthenticationLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(authenticationLogRepository, times(1)).insert(captor.capture());
+        List<AuthenticationLog> batch = captor.getValue();
+        assertEquals(2, batch.size());
+        assertEquals("user123", batch.get(0).getUserId());
+        assertEquals("example.com", batch.get(0).getPrimaryDomain());
+        assertEquals("gid123", batch.get(0).getGoogleUniqueId());
+        assertNull(batch.get(1).getUserId());
+        verify(loginRollupService).record(batch);
+
+        ArgumentCaptor<Collection<String>> emails = ArgumentCaptor.forClass(Collection.class);
+        verify(userService).getUsersByEmails(emails.capture());
+        assertEquals(List.of("test@example.com"), List.copyOf(emails.getValue()));
+    }
+
+    @Test
+    @DisplayName("submit - Should drop newest log when queue is full and policy is DROP_NEWEST")
+    void submit_ShouldDropNewest_WhenQueueFull() {
+        assertTrue(writer.submit(successLog("a@example.com")));
+        assertTrue(writer.submit(successLog("b@example.com")));
+        assertTrue(writer.submit(successLog("c@example.com")));
+        assertFalse(writer.submit(successLog("d@example.com")));
+
+        assertEquals(3, writer.getQueueDepth());
+        assertEquals(1.0, meterRegistry.counter("auth_log.writer.dropped").count());
+    }
+
+    @Test
+    @DisplayName("submit - Should replace oldest log when queue is full and policy is DROP_OLDEST")
+    @SuppressWarnings("unchecked")
+    void submit_ShouldDropOldest_WhenQueueFull() {
+        ReflectionTestUtils.setField(writer, "overflowPolicy", AuthenticationLogWriter.OverflowPolicy.DROP_OLDEST);
+
+        writer.submit(new AuthenticationLog("a@example.com", null, null, "x"));
+        writer.submit(new AuthenticationLog("b@example.com", null, null, "x"));
+        writer.submit(new AuthenticationLog("c@example.com", null, null, "x"));
+        assertTrue(writer.submit(new AuthenticationLog("d@example.com", null, null, "x")));
+
+        writer.flush();
+
+        ArgumentCaptor<List<AuthenticationLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(authenticationLogRepository).insert(captor.capture());
+        assertEquals(List.of("b@example.com", "c@example.com", "d@example.com"),
+                captor.getValue().stream().map(AuthenticationLog::getEmail).toList());
+    }
+
+    @Test
+    @DisplayName("submit - Should persist on caller thread when queue is full and policy is CALLER_RUNS")
+    void submit_ShouldPersistSynchronously_WhenQueueFullAndCallerRuns() {
+        ReflectionTestUtils.setField(writer, "overflowPolicy", AuthenticationLogWriter.OverflowPolicy.CALLER_RUNS);
+
+        for (int i = 0; i < 3; i++) {
+            writer.submit(new AuthenticationLog("user" + i + "@example.com", null, null, "x"));
+        }
+        assertTrue(writer.submit(new AuthenticationLog("overflow@example.com", null, null, "x")));
+
+        verify(authenticationLogRepository, times(1)).insert(anyList());
+        assertEquals(3, writer.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("submit - Should drop, not throw, when the CALLER_RUNS write fails")
+    void submit_ShouldNotThrow_WhenCallerRunsWriteFails() {
+        ReflectionTestUtils.setField(writer, "overflowPolicy", AuthenticationLogWriter.OverflowPolicy.CALLER_RUNS);
+        when(authenticationLogRepository.insert(anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        for (int i = 0; i < 3; i++) {
+            writer.submit(new AuthenticationLog("user" + i + "@example.com", null, null, "x"));
+        }
+        assertFalse(writer.submit(new AuthenticationLog("overflow@example.com", null, null, "x")));
+
+        assertEquals(1.0, meterRegistry.counter("auth_log.writer.failed").count());
+        verifyNoInteractions(loginRollupService);
+    }
+
+    @Test
+    @DisplayName("shutdown - Should drain all queued logs")
+    void shutdown_ShouldDrainQueue() {
+        ReflectionTestUtils.setField(writer, "batchSize", 2);
+        for (int i = 0; i < 3; i++) {
+            writer.submit(new AuthenticationLog("user" + i + "@example.com", null, null, "x"));
+        }
+
+        writer.shutdown();
+
+        assertEquals(0, writer.getQueueDepth());
+        verify(authenticationLogRepository, times(2)).insert(anyList());
+    }
+
+    @Test
+    @DisplayName("flush - Should keep a failed batch and persist it on the next flush")
+    void flush_ShouldRetryBatch_WhenInsertFails() {
+        when(authenticationLogRepository.insert(anyList()))
+                .thenThrow(new RuntimeException("Database error"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        writer.submit(new AuthenticationLog("a@example.com", null, null, "x"));
+        writer.submit(new AuthenticationLog("b@example.com", null, null, "x"));
+
+        assertEquals(2, writer.flush());
+        assertTrue(writer.hasPendingRetry());
+        assertEquals(0.0, meterRegistry.counter("auth_log.writer.failed").count());
+        verify(loginRollupService, never()).record(anyList());
+
+        assertEquals(2, writer.flush());
+
+        assertFalse(writer.hasPendingRetry());
+        assertEquals(2.0, meterRegistry.counter("auth_log.writer.written").count());
+        assertEquals(0.0, meterRegistry.counter("auth_log.writer.failed").count());
+        assertEquals(2L, meterRegistry.timer("auth_log.writer.flush").count());
+        ArgumentCaptor<List<AuthenticationLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(authenticationLogRepository, times(2)).insert(captor.capture());
+        // Same ids on the retry, so a partially written batch is not duplicated
+        assertNotNull(captor.getAllValues().get(0).get(0).getId());
+        assertEquals(captor.getAllValues().get(0).get(0).getId(), captor.getAllValues().get(1).get(0).getId());
+        verify(loginRollupService).record(anyList());
+    }
+
+    @Test
+    @DisplayName("flush - Should insert log by log after the last retry and drop only the logs that still fail")
+    void flush_ShouldFallBackToSingleInserts_WhenRetriesAreExhausted() {
+        ReflectionTestUtils.setField(writer, "maxRetries", 2);
+        AuthenticationLog written = new AuthenticationLog("a@example.com", null, null, "x");
+        AuthenticationLog duplicate = new AuthenticationLog("b@example.com", null, null, "x");
+        AuthenticationLog broken = new AuthenticationLog("c@example.com", null, null, "x");
+        when(authenticationLogRepository.insert(anyList())).thenThrow(new RuntimeException("Database error"));
+        when(authenticationLogRepository.insert(written)).thenReturn(written);
+        when(authenticationLogRepository.insert(duplicate)).thenThrow(new DuplicateKeyException("E11000"));
+        when(authenticationLogRepository.insert(broken)).thenThrow(new RuntimeException("Document too large"));
+        writer.submit(written);
+        writer.submit(duplicate);
+        writer.submit(broken);
+
+        writer.flush();
+        writer.flush();
+        assertTrue(writer.hasPendingRetry());
+        writer.flush();
+
+        assertFalse(writer.hasPendingRetry());
+        verify(authenticationLogRepository, times(3)).insert(anyList());
+        assertEquals(1.0, meterRegistry.counter("auth_log.writer.written").count());
+        assertEquals(1.0, meterRegistry.counter("auth_log.writer.failed").count());
+        verify(loginRollupService).record(List.of(written, duplicate));
+        assertEquals(0, writer.flush());
+    }
+
+    @Test
+    @DisplayName("shutdown - Should not wait for the flush interval to retry a failed batch")
+    void shutdown_ShouldFinishRetries() {
+        when(authenticationLogRepository.insert(anyList()))
+                .thenThrow(new RuntimeException("Database error"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        writer.submit(new AuthenticationLog("a@example.com", null, null, "x"));
+
+        writer.shutdown();
+
+        assertFalse(writer.hasPendingRetry());
+        assertEquals(1.0, meterRegistry.counter("auth_log.writer.written").count());
+    }
+
+    @Test
+    @DisplayName("flush - Should keep persisted logs when the rollup update fails")
+    void flush_ShouldNotFailBatch_WhenRollupUpdateFails() {
+        doThrow(new RuntimeException("Database error")).when(loginRollupService).record(anyList());
+        writer.submit(new AuthenticationLog("a@example.com", null, null, "x"));
+
+        assertEquals(1, writer.flush());
+        assertEquals(1.0, meterRegistry.counter("auth_log.writer.written").count());
+        assertEquals(0.0, meterRegistry.counter("auth_log.writer.failed").count());
+    }
+}
@@ -0,0 +1,119 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.domain.enums.CacheRegion;
+import com.cloudmen.backend.domain.models.User;
+import com.cloudmen.backend.services.CacheInvalidationService;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CacheInvalidationService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CacheInvalidationService Tests")
+class CacheInvalidationServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoDatabase database;
+
+    @Mock
+    private MongoCollection<Document> log;
+
+    private CacheInvalidationService invalidationService;
+
+    @BeforeEach
+    void setUp() {
+        invalidationService = new CacheInvalidationService(mongoTemplate);
+        ReflectionTestUtils.setField(invalidationService, "configuredMode", "auto");
+        ReflectionTestUtils.setField(invalidationService, "logSizeBytes", 4096L);
+    }
+
+    @Test
+    @DisplayName("getMode - Should use change streams on a replica set and publish nothing")
+    void getMode_ShouldUseChangeStreamsOnReplicaSet() {
+        when(mongoTemplate.getDb()).thenReturn(database);
+        when(database.runCommand(any(Document.class))).thenReturn(new Document("setName", "rs0"));
+
+        invalidationService.publish(CacheRegion.USERS, "u1");
+
+        assertEquals(CacheInvalidationService.Mode.CHANGE_STREAM, invalidationService.getMode());
+        verify(mongoTemplate, never()).getCollection(any());
+        verify(database, times(1)).runCommand(any(Document.class));
+    }
+
+    @Test
+    @DisplayName("publish - Should append to a capped log on a standalone server")
+    void publish_ShouldAppendToCappedLogOnStandalone() {
+        when(mongoTemplate.getDb()).thenReturn(database);
+        when(database.runCommand(any(Document.class))).thenReturn(new Document("isWritablePrimary", true));
+        when(mongoTemplate.collectionExists(CacheInvalidationService.LOG_COLLECTION)).thenReturn(false);
+        when(mongoTemplate.getCollection(CacheInvalidationService.LOG_COLLECTION)).thenReturn(log);
+
+        invalidationService.publish(CacheRegion.USERS, "u1");
+
+        assertEquals(CacheInvalidationService.Mode.POLLING, invalidationService.getMode());
+        ArgumentCaptor<CollectionOptions> options = ArgumentCaptor.forClass(CollectionOptions.class);
+        verify(mongoTemplate).createCollection(eq(CacheInvalidationService.LOG_COLLECTION), options.capture());
+        assertTrue(options.getValue().getCapped().orElse(false));
+        ArgumentCaptor<Document> record = ArgumentCaptor.forClass(Document.class);
+        verify(log).insertOne(record.capture());
+        assertEquals("USERS", record.getValue().get("region"));
+        assertEquals("u1", record.getValue().get("documentId"));
+        assertEquals(invalidationService.getInstanceId(), record.getValue().get("origin"));
+    }
+
+    @Test
+    @DisplayName("onAfterSave/onAfterDelete - Should publish writes to cached collections only")
+    void events_ShouldPublishCachedCollections() {
+        ReflectionTestUtils.setField(invalidationService, "configuredMode", "polling");
+        when(mongoTemplate.collectionExists(CacheInvalidationService.LOG_COLLECTION)).thenReturn(true);
+        when(mongoTemplate.getCollection(CacheInvalidationService.LOG_COLLECTION)).thenReturn(log);
+        ObjectId id = new ObjectId();
+
+        invalidationService.onAfterSave(new AfterSaveEvent<>(new User(), new Document("_id", id), "users"));
+        invalidationService.onAfterSave(new AfterSaveEvent<>(new Object(), new Document("_id", "x"), "purchase_requests"));
+        invalidationService.onAfterDelete(new AfterDeleteEvent<>(
+                new Document("_id", new Document("$in", List.of("a", "b"))), Object.class, "teamleader_companies"));
+
+        ArgumentCaptor<Document> records = ArgumentCaptor.forClass(Document.class);
+        verify(log, times(2)).insertOne(records.capture());
+        assertEquals(id.toHexString(), records.getAllValues().get(0).get("documentId"));
+        assertEquals("COMPANIES", records.getAllValues().get(1).get("region"));
+        assertNull(records.getAllValues().get(1).get("documentId"));
+        verify(mongoTemplate, never()).getDb();
+    }
+
+    @Test
+    @DisplayName("publish - Should do nothing when invalidation is off")
+    void publish_ShouldDoNothingWhenOff() {
+        ReflectionTestUtils.setField(invalidationService, "configuredMode", "off");
+
+        invalidationService.publish(CacheRegion.COMPANIES, null);
+
+        verifyNoInteractions(mongoTemplate);
+    }
+}
@@ -0,0 +1,141 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.domain.enums.CacheRegion;
+import com.cloudmen.backend.services.CacheInvalidationEvent;
+import com.cloudmen.backend.services.CacheInvalidationService;
+import com.cloudmen.backend.services.CacheInvalidationWatcher;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.changestream.OperationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CacheInvalidationWatcher
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CacheInvalidationWatcher Tests")
+class CacheInvalidationWatcherTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private CacheInvalidationService invalidationService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MongoCollection<Document> log;
+
+    @Mock
+    private FindIterable<Document> found;
+
+    @Mock
+    private MongoCursor<Document> cursor;
+
+    private CacheInvalidationWatcher watcher;
+
+    @BeforeEach
+    void setUp() {
+        watcher = new CacheInvalidationWatcher(mongoTemplate, invalidationService, eventPublisher,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(watcher, "nodeId", "node-a");
+        ReflectionTestUtils.setField(watcher, "checkpointIntervalMs", Long.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("onChange - Should turn document changes into invalidations of their region")
+    void onChange_ShouldPublishTypedEvents() {
+        ObjectId id = new ObjectId();
+
+        watcher.onChange("users", OperationType.UPDATE, new BsonDocument("_id", new BsonObjectId(id)));
+        watcher.onChange("teamleader_companies", OperationType.DELETE, new BsonDocument("_id", new BsonString("c1")));
+        watcher.onChange("oauth_tokens", OperationType.DROP, null);
+        watcher.onChange("purchase_requests", OperationType.INSERT, new BsonDocument("_id", new BsonString("p1")));
+
+        List<CacheInvalidationEvent> events = publishedEvents(3);
+        assertEquals(CacheRegion.USERS, events.get(0).getRegion());
+        assertEquals(id.toHexString(), events.get(0).getId());
+        assertEquals("c1", events.get(1).getId());
+        assertEquals(CacheRegion.OAUTH_TOKENS, events.get(2).getRegion());
+        assertTrue(events.get(2).isRegionWide());
+    }
+
+    @Test
+    @DisplayName("pollLog - Should apply records from other instances once")
+    void pollLog_ShouldApplyOtherInstancesRecordsOnce() {
+        when(invalidationService.getInstanceId()).thenReturn("me");
+        when(mongoTemplate.getCollection(CacheInvalidationService.LOG_COLLECTION)).thenReturn(log);
+        when(log.find(any(Bson.class))).thenReturn(found);
+        when(found.iterator()).thenReturn(cursor);
+        Document remote = record("USERS", "u1", "other");
+        Document own = record("USERS", "u2", "me");
+        Document unknown = record("SESSIONS", "s1", "other");
+        when(cursor.hasNext()).thenReturn(true, true, true, false, true, true, false);
+        when(cursor.next()).thenReturn(remote, own, unknown, remote, record("COMPANIES", null, "other"));
+
+        assertEquals(1, watcher.pollLog());
+        assertEquals(1, watcher.pollLog());
+
+        List<CacheInvalidationEvent> events = publishedEvents(2);
+        assertEquals("u1", events.get(0).getId());
+        assertEquals(CacheRegion.COMPANIES, events.get(1).getRegion());
+        assertTrue(events.get(1).isRegionWide());
+        verify(cursor, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("pollLog - Should checkpoint the position reached for this node")
+    void pollLog_ShouldCheckpointPosition() {
+        ReflectionTestUtils.setField(watcher, "checkpointIntervalMs", 0L);
+        @SuppressWarnings("unchecked")
+        MongoCollection<Document> checkpoints = mock(MongoCollection.class);
+        when(mongoTemplate.getCollection(CacheInvalidationService.LOG_COLLECTION)).thenReturn(log);
+        when(mongoTemplate.getCollection(CacheInvalidationWatcher.CHECKPOINT_COLLECTION)).thenReturn(checkpoints);
+        when(log.find(any(Bson.class))).thenReturn(found);
+        when(found.iterator()).thenReturn(cursor);
+
+        watcher.pollLog();
+
+        ArgumentCaptor<Document> checkpoint = ArgumentCaptor.forClass(Document.class);
+        verify(checkpoints).replaceOne(any(Bson.class), checkpoint.capture(), any());
+        assertEquals("node-a", checkpoint.getValue().get("_id"));
+        assertNotNull(checkpoint.getValue().getDate("lastSeen"));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static Document record(String region, String documentId, String origin) {
+        return new Document("_id", new ObjectId()).append("region", region).append("documentId", documentId)
+                .append("origin", origin);
+    }
+
+    private List<CacheInvalidationEvent> publishedEvents(int count) {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(count)).publishEvent(captor.capture());
+        return captor.getAllValues().stream().map(CacheInvalidationEvent.class::cast).toList();
+    }
+}
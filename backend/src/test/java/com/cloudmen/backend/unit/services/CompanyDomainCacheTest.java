@@ -0,0 +1,115 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.domain.models.TeamleaderCompany;
+import com.cloudmen.backend.services.CompanyDomainCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CompanyDomainCache
+ */
+@DisplayName("CompanyDomainCache Tests")
+class CompanyDomainCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CompanyDomainCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CompanyDomainCache(meterRegistry);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+        ReflectionTestUtils.setField(cache, "freeMailDomains", Set.of("gmail.com"));
+    }
+
+    @Test
+    @DisplayName("normalize - Should reduce an email address to its lower-case domain")
+    void normalize_ShouldExtractDomain() {
+        assertEquals("example.com", CompanyDomainCache.normalize("John.Doe@Example.COM "));
+        assertEquals("example.com", CompanyDomainCache.normalize("example.com"));
+        assertNull(CompanyDomainCache.normalize("user@"));
+        assertNull(CompanyDomainCache.normalize(null));
+    }
+
+    @Test
+    @DisplayName("get - Should return cached companies and cached misses")
+    void get_ShouldReturnHitsAndNegativeEntries() {
+        cache.put("example.com", company("company-1", "Example"));
+        cache.put("unknown.com", null);
+
+        CompanyDomainCache.Entry found = cache.get("example.com");
+        CompanyDomainCache.Entry notFound = cache.get("unknown.com");
+
+        assertTrue(found.isFound());
+        assertEquals("company-1", found.getCompanyId());
+        assertEquals("Example", found.getCompanyName());
+        assertFalse(notFound.isFound());
+        assertNull(cache.get("other.com"));
+        assertEquals(2.0, meterRegistry.counter("company.domain-cache.requests", "result", "hit").count());
+        assertEquals(1.0, meterRegistry.counter("company.domain-cache.requests", "result", "miss").count());
+    }
+
+    @Test
+    @DisplayName("get - Should treat expired entries as misses")
+    void get_ShouldExpireEntries() {
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+        cache.put("example.com", company("company-1", "Example"));
+
+        assertNull(cache.get("example.com"));
+    }
+
+    @Test
+    @DisplayName("put - Should not grow beyond the maximum size")
+    void put_ShouldRespectMaxSize() {
+        cache.put("a.com", null);
+        cache.put("b.com", null);
+        cache.put("c.com", null);
+
+        assertNotNull(cache.get("a.com"));
+        assertNotNull(cache.get("b.com"));
+        assertNull(cache.get("c.com"));
+    }
+
+    @Test
+    @DisplayName("get - Should always report free-mail domains as not found")
+    void get_ShouldTreatFreeMailAsPermanentMiss() {
+        cache.put("gmail.com", company("company-1", "Example"));
+
+        CompanyDomainCache.Entry entry = cache.get("gmail.com");
+
+        assertNotNull(entry);
+        assertFalse(entry.isFound());
+        assertTrue(cache.isFreeMail("gmail.com"));
+        assertFalse(cache.isFreeMail("example.com"));
+    }
+
+    @Test
+    @DisplayName("onAfterSave - Should clear all entries when a company is saved")
+    void onAfterSave_ShouldClearCache() {
+        TeamleaderCompany company = company("company-1", "Example");
+        cache.put("example.com", company);
+        cache.put("unknown.com", null);
+
+        cache.onAfterSave(new AfterSaveEvent<>(company, new Document(), "teamleader_companies"));
+
+        assertNull(cache.get("example.com"));
+        assertNull(cache.get("unknown.com"));
+    }
+
+    private static TeamleaderCompany company(String id, String name) {
+        TeamleaderCompany company = new TeamleaderCompany();
+        company.setId(id);
+        company.setName(name);
+        return company;
+    }
+}
@@ -0,0 +1,149 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.api.dtos.companies.CompanyListDTO;
+import com.cloudmen.backend.domain.enums.CacheRegion;
+import com.cloudmen.backend.domain.models.TeamleaderCompany;
+import com.cloudmen.backend.services.CacheInvalidationEvent;
+import com.cloudmen.backend.services.CompanySearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CompanySearchIndex
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CompanySearchIndex Tests")
+class CompanySearchIndexTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private CompanySearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CompanySearchIndex(mongoTemplate, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("rebuild - Should load projected companies and become ready")
+    void rebuild_ShouldLoadProjectedCompanies() {
+        when(mongoTemplate.stream(any(Query.class), eq(TeamleaderCompany.class)))
+                .thenReturn(Stream.of(company("c1", "Acme Belgium"), company("c2", "Globex")));
+
+        assertFalse(index.isReady());
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(2, index.size());
+        assertEquals(List.of("c1"), ids(index.search("acme", 10)));
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(captor.capture(), eq(TeamleaderCompany.class));
+        Document fields = captor.getValue().getFieldsObject();
+        assertTrue(fields.containsKey("name"));
+        assertTrue(fields.containsKey("contactInfo"));
+        assertFalse(fields.containsKey("customFields"));
+        assertFalse(fields.containsKey("addresses"));
+    }
+
+    @Test
+    @DisplayName("search - Should match VAT numbers with or without punctuation, and contact emails")
+    void search_ShouldMatchVatNumbersAndEmails() {
+        TeamleaderCompany company = company("c1", "Acme");
+        company.setVatNumber("BE 0123.456.789");
+        company.setContactInfo(List.of(new TeamleaderCompany.ContactInfo("email-primary", "billing@acme.be"),
+                new TeamleaderCompany.ContactInfo("phone-primary", "+32 9 123 45 67")));
+        index.put(company);
+
+        assertEquals(List.of("c1"), ids(index.search("0123456", 10)));
+        assertEquals(List.of("c1"), ids(index.search("0123.456", 10)));
+        assertEquals(List.of("c1"), ids(index.search("billing@", 10)));
+        assertEquals(List.of(), ids(index.search("+32", 10)));
+    }
+
+    @Test
+    @DisplayName("onAfterSave - Should add or replace the saved company")
+    void onAfterSave_ShouldUpdateCompany() {
+        index.put(company("c1", "Acme"));
+
+        index.onAfterSave(new AfterSaveEvent<>(company("c1", "Globex"), new Document(), "companies"));
+
+        assertEquals(List.of(), ids(index.search("acme", 10)));
+        assertEquals(List.of("c1"), ids(index.search("globex", 10)));
+    }
+
+    @Test
+    @DisplayName("onCacheInvalidation - Should reload a company changed on another instance")
+    void onCacheInvalidation_ShouldReloadCompany() {
+        when(mongoTemplate.stream(any(Query.class), eq(TeamleaderCompany.class)))
+                .thenReturn(Stream.of(company("c1", "Acme"), company("c2", "Globex")));
+        index.rebuild();
+        when(mongoTemplate.findOne(any(Query.class), eq(TeamleaderCompany.class)))
+                .thenReturn(company("c1", "Initech"), (TeamleaderCompany) null);
+
+        index.onCacheInvalidation(new CacheInvalidationEvent(CacheRegion.COMPANIES, "c1"));
+        index.onCacheInvalidation(new CacheInvalidationEvent(CacheRegion.COMPANIES, "c2"));
+        index.onCacheInvalidation(new CacheInvalidationEvent(CacheRegion.USERS, "c1"));
+
+        assertEquals(List.of("c1"), ids(index.search("initech", 10)));
+        assertEquals(List.of(), ids(index.search("acme", 10)));
+        assertEquals(1, index.size());
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).findOne(captor.capture(), eq(TeamleaderCompany.class));
+        assertEquals("c1", captor.getAllValues().get(0).getQueryObject().get("_id"));
+        assertTrue(captor.getAllValues().get(0).getFieldsObject().containsKey("name"));
+    }
+
+    @Test
+    @DisplayName("onCacheInvalidation - Should ignore invalidations before the first rebuild")
+    void onCacheInvalidation_ShouldWaitForFirstRebuild() {
+        index.onCacheInvalidation(new CacheInvalidationEvent(CacheRegion.COMPANIES, "c1"));
+        index.onCacheInvalidation(new CacheInvalidationEvent(CacheRegion.COMPANIES, null));
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("onAfterDelete - Should remove a company deleted by id")
+    void onAfterDelete_ShouldRemoveCompany() {
+        String id = new ObjectId().toHexString();
+        index.put(company(id, "Acme"));
+
+        index.onAfterDelete(new AfterDeleteEvent<>(new Document("_id", new ObjectId(id)),
+                TeamleaderCompany.class, "companies"));
+
+        assertEquals(0, index.size());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private static TeamleaderCompany company(String id, String name) {
+        TeamleaderCompany company = new TeamleaderCompany("tl-" + id, name);
+        company.setId(id);
+        return company;
+    }
+
+    private static List<String> ids(List<CompanyListDTO> results) {
+        return results.stream().map(CompanyListDTO::getId).toList();
+    }
+}
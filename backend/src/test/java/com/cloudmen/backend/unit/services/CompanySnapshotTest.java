@@ -0,0 +1,126 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.domain.models.TeamleaderCompany;
+import com.cloudmen.backend.services.CompanySnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CompanySnapshot
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CompanySnapshot Tests")
+class CompanySnapshotTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private CompanySnapshot companySnapshot;
+
+    @BeforeEach
+    void setUp() {
+        companySnapshot = new CompanySnapshot(mongoTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(companySnapshot, "maxAgeMs", 900000L);
+    }
+
+    @Test
+    @DisplayName("reload - Should index companies by id, Teamleader id and domain")
+    void reload_ShouldIndexCompanies() {
+        TeamleaderCompany acme = company("c1", "Acme", "acme.be", "acme.com");
+        TeamleaderCompany other = company("c2", "Acme Resellers", "acme.be");
+        when(mongoTemplate.findAll(TeamleaderCompany.class)).thenReturn(List.of(acme, other));
+
+        assertNull(companySnapshot.current());
+        companySnapshot.reload();
+
+        CompanySnapshot.Snapshot snapshot = companySnapshot.current();
+        assertNotNull(snapshot);
+        assertEquals(List.of(acme, other), snapshot.getCompanies());
+        assertEquals(Optional.of(acme), snapshot.findByIdOrTeamleaderId("c1"));
+        assertEquals(Optional.of(other), snapshot.findByIdOrTeamleaderId("tl-c2"));
+        assertEquals(Optional.of(acme), snapshot.findByDomain("acme.be"));
+        assertEquals(Optional.empty(), snapshot.findByDomain("globex.com"));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getCompanies().clear());
+    }
+
+    @Test
+    @DisplayName("onAfterSave/onAfterDelete - Should bump the version and mark the snapshot stale")
+    void writes_ShouldMarkSnapshotStale() {
+        when(mongoTemplate.findAll(TeamleaderCompany.class)).thenReturn(List.of(company("c1", "Acme")));
+        companySnapshot.reload();
+        String version = companySnapshot.getVersion();
+
+        companySnapshot.onAfterSave(new AfterSaveEvent<>(company("c1", "Acme"), new Document(), "companies"));
+
+        assertNull(companySnapshot.current());
+        String saved = companySnapshot.getVersion();
+        assertNotEquals(version, saved);
+
+        companySnapshot.onAfterDelete(new AfterDeleteEvent<>(new Document("_id", "c1"), TeamleaderCompany.class,
+                "companies"));
+        assertNotEquals(saved, companySnapshot.getVersion());
+    }
+
+    @Test
+    @DisplayName("refreshIfStale - Should reload only after a write made the snapshot stale")
+    void refreshIfStale_ShouldReloadOnlyWhenStale() {
+        when(mongoTemplate.findAll(TeamleaderCompany.class)).thenReturn(List.of(company("c1", "Acme")));
+
+        companySnapshot.refreshIfStale();
+        companySnapshot.refreshIfStale();
+        verify(mongoTemplate, times(1)).findAll(TeamleaderCompany.class);
+
+        companySnapshot.invalidate();
+        String version = companySnapshot.getVersion();
+        companySnapshot.refreshIfStale();
+
+        verify(mongoTemplate, times(2)).findAll(TeamleaderCompany.class);
+        assertNotNull(companySnapshot.current());
+        assertEquals(version, companySnapshot.getVersion());
+    }
+
+    @Test
+    @DisplayName("reload - Should bump the version only when companies changed without a save event")
+    void reload_ShouldBumpVersionOnUnseenChanges() {
+        TeamleaderCompany changed = company("c1", "Acme Belgium");
+        changed.setUpdatedAt(UPDATED_AT.plusDays(1));
+        when(mongoTemplate.findAll(TeamleaderCompany.class))
+                .thenReturn(List.of(company("c1", "Acme")), List.of(company("c1", "Acme")), List.of(changed));
+
+        companySnapshot.reload();
+        String version = companySnapshot.getVersion();
+        companySnapshot.reload();
+        assertEquals(version, companySnapshot.getVersion());
+
+        companySnapshot.reload();
+        assertNotEquals(version, companySnapshot.getVersion());
+        assertEquals("Acme Belgium", companySnapshot.current().findByIdOrTeamleaderId("c1").orElseThrow().getName());
+    }
+
+    private static TeamleaderCompany company(String id, String name, String... domains) {
+        TeamleaderCompany company = new TeamleaderCompany("tl-" + id, name);
+        company.setId(id);
+        company.setDomains(List.of(domains));
+        company.setUpdatedAt(UPDATED_AT);
+        return company;
+    }
+}
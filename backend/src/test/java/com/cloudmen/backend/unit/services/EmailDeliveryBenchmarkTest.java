@@ -0,0 +1,108 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.services.EmailTemplateRenderer;
+import com.cloudmen.backend.services.PurchaseEmailService;
+import com.cloudmen.backend.unit.utils.StubSmtpServer;
+import com.cloudmen.backend.utils.PooledSmtpMailSender;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Micro-benchmarks for the per-message cost of rendering and sending emails.
+ * Skipped by default; run with
+ * {@code mvn test -Dtest=EmailDeliveryBenchmarkTest -Dbenchmark=true}.
+ * Sending is measured against a local SMTP stand-in, so the numbers show the
+ * connection overhead the pool saves rather than real network latency, which
+ * only makes the difference larger.
+ */
+@DisplayName("Email delivery benchmarks")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EmailDeliveryBenchmarkTest {
+
+    private static final int WARMUP = 200;
+    private static final int MESSAGES = 1000;
+
+    @Test
+    @DisplayName("Render - cold (first render) vs cached template")
+    void renderCost() {
+        EmailTemplateRenderer renderer = TestEmailTemplates.renderer();
+        Map<String, Object> variables = licenseRequestVariables();
+
+        long coldStart = System.nanoTime();
+        renderer.render(EmailTemplateRenderer.GOOGLE_WORKSPACE_LICENSE_REQUEST, variables);
+        long coldNanos = System.nanoTime() - coldStart;
+
+        for (int i = 0; i < WARMUP; i++) {
+            renderer.render(EmailTemplateRenderer.GOOGLE_WORKSPACE_LICENSE_REQUEST, variables);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            variables.put("requestId", "request-" + i);
+            renderer.render(EmailTemplateRenderer.GOOGLE_WORKSPACE_LICENSE_REQUEST, variables);
+        }
+        long cachedNanos = (System.nanoTime() - start) / MESSAGES;
+
+        System.out.printf("render: first %.1f ms, cached %.1f us/message%n", coldNanos / 1e6, cachedNanos / 1e3);
+        assertTrue(cachedNanos < coldNanos);
+    }
+
+    @Test
+    @DisplayName("Send - connection per message vs pooled connections")
+    void sendCost() throws Exception {
+        try (StubSmtpServer smtpServer = new StubSmtpServer()) {
+            JavaMailSenderImpl plain = new JavaMailSenderImpl();
+            configure(plain, smtpServer);
+            PooledSmtpMailSender pooled = new PooledSmtpMailSender(2, 100, 30000, 5000);
+            configure(pooled, smtpServer);
+
+            double plainMicros = sendAll(new PurchaseEmailService(plain, TestEmailTemplates.renderer()));
+            int plainConnections = smtpServer.getConnectionCount();
+            double pooledMicros = sendAll(new PurchaseEmailService(pooled, TestEmailTemplates.renderer()));
+            int pooledConnections = smtpServer.getConnectionCount() - plainConnections;
+            pooled.close();
+
+            System.out.printf("send (render + SMTP): per-message connection %.1f us/message over %d connections, "
+                    + "pooled %.1f us/message over %d connections%n",
+                    plainMicros, plainConnections, pooledMicros, pooledConnections);
+            assertTrue(pooledConnections < plainConnections);
+        }
+    }
+
+    private static double sendAll(PurchaseEmailService emailService) throws Exception {
+        ReflectionTestUtils.setField(emailService, "username", "test@example.com");
+        ReflectionTestUtils.setField(emailService, "baseUrl", "https://test.com");
+
+        for (int i = 0; i < WARMUP; i++) {
+            emailService.sendPurchaseRequest("recipient@example.com", "warmup-" + i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            emailService.sendPurchaseRequest("recipient@example.com", "request-" + i);
+        }
+        return (System.nanoTime() - start) / 1e3 / MESSAGES;
+    }
+
+    private static void configure(JavaMailSenderImpl sender, StubSmtpServer smtpServer) {
+        sender.setHost("127.0.0.1");
+        sender.setPort(smtpServer.getPort());
+    }
+
+    private static Map<String, Object> licenseRequestVariables() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("companyName", "Test Company");
+        variables.put("licenseType", "Business Standard");
+        variables.put("count", 5);
+        variables.put("cost", 60.0);
+        variables.put("requestId", "request-0");
+        variables.put("approveUrl", "https://test.com/approve-license?requestId=request-0");
+        return variables;
+    }
+}
@@ -0,0 +1,212 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.domain.models.EmailOutboxEntry;
+import com.cloudmen.backend.repositories.EmailOutboxRepository;
+import com.cloudmen.backend.services.EmailOutboxDispatcher;
+import com.cloudmen.backend.unit.utils.StubSmtpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EmailOutboxDispatcher, delivering to a local SMTP stand-in
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailOutboxDispatcher Tests")
+class EmailOutboxDispatcherTest {
+
+    private static final Date LEASE = new Date(1700000000000L);
+
+    @Mock
+    private EmailOutboxRepository outboxRepository;
+
+    private StubSmtpServer smtpServer;
+    private JavaMailSenderImpl smtpMailSender;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new StubSmtpServer();
+
+        smtpMailSender = new JavaMailSenderImpl();
+        smtpMailSender.setHost("127.0.0.1");
+        smtpMailSender.setPort(smtpServer.getPort());
+        smtpMailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        smtpMailSender.getJavaMailProperties().put("mail.smtp.timeout", "2000");
+
+        dispatcher = new EmailOutboxDispatcher(smtpMailSender, outboxRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "concurrency", 2);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoffMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffMs", 5000L);
+        ReflectionTestUtils.setField(dispatcher, "leaseMs", 60000L);
+
+        lenient().when(outboxRepository.markSent(anyString(), any(Date.class), any(Date.class))).thenReturn(true);
+        lenient().when(outboxRepository.markRetry(anyString(), any(Date.class), any(Date.class), any()))
+                .thenReturn(true);
+        lenient().when(outboxRepository.markFailed(anyString(), any(Date.class), any(Date.class), any()))
+                .thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtpServer.close();
+    }
+
+    @Test
+    @DisplayName("drain - Should deliver due entries over SMTP and mark them sent")
+    void drain_ShouldDeliverAndMarkSent() throws Exception {
+        EmailOutboxEntry entry = entry("entry-1", 1);
+        when(outboxRepository.claimNext(any(Date.class), any(Date.class))).thenReturn(entry, (EmailOutboxEntry) null);
+
+        int attempted = dispatcher.drain();
+
+        assertEquals(1, attempted);
+        verify(outboxRepository).markSent(eq("entry-1"), eq(LEASE), any(Date.class));
+        verify(outboxRepository, never()).markRetry(anyString(), any(Date.class), any(Date.class), any());
+        assertEquals(1, smtpServer.getMessages().size());
+        assertTrue(smtpServer.getMessages().get(0).contains("Subject: Your Purchase Request"));
+        assertTrue(smtpServer.getMessages().get(0).contains("Confirm Purchase"));
+    }
+
+    @Test
+    @DisplayName("drain - Should schedule a retry with backoff when the SMTP server rejects the message")
+    void drain_ShouldScheduleRetryOnFailure() throws Exception {
+        smtpServer.rejectNext(1);
+        EmailOutboxEntry entry = entry("entry-1", 1);
+        when(outboxRepository.claimNext(any(Date.class), any(Date.class))).thenReturn(entry, (EmailOutboxEntry) null);
+
+        long before = System.currentTimeMillis();
+        dispatcher.drain();
+
+        ArgumentCaptor<Date> nextAttempt = ArgumentCaptor.forClass(Date.class);
+        verify(outboxRepository).markRetry(eq("entry-1"), eq(LEASE), nextAttempt.capture(), anyString());
+        verify(outboxRepository, never()).markSent(anyString(), any(Date.class), any(Date.class));
+        assertTrue(nextAttempt.getValue().getTime() >= before + 1000);
+        assertTrue(smtpServer.getMessages().isEmpty());
+    }
+
+    @Test
+    @DisplayName("drain - Should fail an entry once it reaches the maximum number of attempts")
+    void drain_ShouldFailAfterMaxAttempts() throws Exception {
+        smtpServer.rejectNext(1);
+        EmailOutboxEntry entry = entry("entry-1", 3);
+        when(outboxRepository.claimNext(any(Date.class), any(Date.class))).thenReturn(entry, (EmailOutboxEntry) null);
+
+        dispatcher.drain();
+
+        verify(outboxRepository).markFailed(eq("entry-1"), eq(LEASE), any(Date.class), anyString());
+        verify(outboxRepository, never()).markRetry(anyString(), any(Date.class), any(Date.class), any());
+    }
+
+    @Test
+    @DisplayName("drain - Should retry an entry that fails with an unexpected error and keep draining")
+    void drain_ShouldRetryOnUnexpectedError() throws Exception {
+        EmailOutboxEntry broken = entry("entry-1", 1);
+        broken.setMessage(null);
+        EmailOutboxEntry next = entry("entry-2", 1);
+        when(outboxRepository.claimNext(any(Date.class), any(Date.class)))
+                .thenReturn(broken, next, (EmailOutboxEntry) null);
+
+        int attempted = dispatcher.drain();
+
+        assertEquals(2, attempted);
+        verify(outboxRepository).markRetry(eq("entry-1"), eq(LEASE), any(Date.class), anyString());
+        verify(outboxRepository).markSent(eq("entry-2"), eq(LEASE), any(Date.class));
+        assertEquals(1, smtpServer.getMessages().size());
+    }
+
+    @Test
+    @DisplayName("drain - Should fail an entry with an unexpected error once it reaches the maximum number of attempts")
+    void drain_ShouldFailUnexpectedErrorAfterMaxAttempts() throws Exception {
+        EmailOutboxEntry broken = entry("entry-1", 3);
+        broken.setMessage(null);
+        when(outboxRepository.claimNext(any(Date.class), any(Date.class))).thenReturn(broken, (EmailOutboxEntry) null);
+
+        dispatcher.drain();
+
+        verify(outboxRepository).markFailed(eq("entry-1"), eq(LEASE), any(Date.class), anyString());
+        verify(outboxRepository, never()).markRetry(anyString(), any(Date.class), any(Date.class), any());
+    }
+
+    @Test
+    @DisplayName("drain - Should give up without sending once claims exceed the maximum number of attempts")
+    void drain_ShouldFailEntryWhoseAttemptsNeverCompleted() throws Exception {
+        EmailOutboxEntry entry = entry("entry-1", 4);
+        when(outboxRepository.claimNext(any(Date.class), any(Date.class))).thenReturn(entry, (EmailOutboxEntry) null);
+
+        dispatcher.drain();
+
+        verify(outboxRepository).markFailed(eq("entry-1"), eq(LEASE), any(Date.class), anyString());
+        assertTrue(smtpServer.getMessages().isEmpty());
+    }
+
+    @Test
+    @DisplayName("drain - Should drop the outcome of an attempt whose lease was lost")
+    void drain_ShouldDropOutcome_WhenLeaseLost() throws Exception {
+        smtpServer.rejectNext(1);
+        EmailOutboxEntry entry = entry("entry-1", 1);
+        when(outboxRepository.claimNext(any(Date.class), any(Date.class))).thenReturn(entry, (EmailOutboxEntry) null);
+        when(outboxRepository.markRetry(eq("entry-1"), eq(LEASE), any(Date.class), anyString())).thenReturn(false);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EmailOutboxDispatcher counted = new EmailOutboxDispatcher(smtpMailSender, outboxRepository, meterRegistry);
+        ReflectionTestUtils.setField(counted, "maxAttempts", 3);
+        ReflectionTestUtils.setField(counted, "initialBackoffMs", 1000L);
+        ReflectionTestUtils.setField(counted, "maxBackoffMs", 5000L);
+
+        counted.drain();
+
+        assertEquals(0.0, meterRegistry.counter("email.outbox.retries").count());
+    }
+
+    @Test
+    @DisplayName("backoffMs - Should double per attempt up to the maximum")
+    void backoffMs_ShouldDoubleUpToMaximum() {
+        assertEquals(1000, dispatcher.backoffMs(1));
+        assertEquals(2000, dispatcher.backoffMs(2));
+        assertEquals(4000, dispatcher.backoffMs(3));
+        assertEquals(5000, dispatcher.backoffMs(4));
+        assertEquals(5000, dispatcher.backoffMs(40));
+    }
+
+    private EmailOutboxEntry entry(String id, int attempts) throws Exception {
+        MimeMessage message = smtpMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        helper.setFrom("test@example.com");
+        helper.setTo("recipient@example.com");
+        helper.setSubject("Your Purchase Request");
+        helper.setText("<a href='https://test.com'>Confirm Purchase</a>", true);
+        message.saveChanges();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        message.writeTo(bytes);
+
+        EmailOutboxEntry entry = new EmailOutboxEntry("recipient@example.com", "Your Purchase Request",
+                bytes.toByteArray());
+        entry.setId(id);
+        entry.setAttempts(attempts);
+        entry.setStatus(EmailOutboxEntry.Status.SENDING);
+        entry.setLeaseExpiresAt(LEASE);
+        return entry;
+    }
+}
@@ -0,0 +1,95 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.domain.models.EmailOutboxEntry;
+import com.cloudmen.backend.repositories.EmailOutboxRepository;
+import com.cloudmen.backend.services.EmailOutbox;
+import com.cloudmen.backend.services.EmailOutboxDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EmailOutbox
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailOutbox Tests")
+class EmailOutboxTest {
+
+    @Mock
+    private JavaMailSender smtpMailSender;
+
+    @Mock
+    private EmailOutboxRepository outboxRepository;
+
+    @Mock
+    private EmailOutboxDispatcher dispatcher;
+
+    private EmailOutbox emailOutbox;
+
+    @BeforeEach
+    void setUp() {
+        JavaMailSenderImpl sessionSource = new JavaMailSenderImpl();
+        lenient().when(smtpMailSender.createMimeMessage()).thenAnswer(invocation -> sessionSource.createMimeMessage());
+        when(outboxRepository.save(any(EmailOutboxEntry.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        emailOutbox = new EmailOutbox(smtpMailSender, outboxRepository, dispatcher, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("send - Should queue the rendered message instead of sending it")
+    void send_ShouldQueueRenderedMessage() throws Exception {
+        MimeMessage message = emailOutbox.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        helper.setFrom("test@example.com");
+        helper.setTo("recipient@example.com");
+        helper.setSubject("Your Purchase Request");
+        helper.setText("<b>request-123</b>", true);
+
+        emailOutbox.send(message);
+
+        ArgumentCaptor<EmailOutboxEntry> captor = ArgumentCaptor.forClass(EmailOutboxEntry.class);
+        verify(outboxRepository).save(captor.capture());
+        EmailOutboxEntry entry = captor.getValue();
+        assertEquals("recipient@example.com", entry.getRecipients());
+        assertEquals("Your Purchase Request", entry.getSubject());
+        assertEquals(EmailOutboxEntry.Status.PENDING, entry.getStatus());
+        assertEquals(0, entry.getAttempts());
+        assertTrue(new String(entry.getMessage(), StandardCharsets.US_ASCII).contains("request-123"));
+
+        verify(smtpMailSender, never()).send(any(MimeMessage.class));
+        verify(dispatcher).dispatch();
+    }
+
+    @Test
+    @DisplayName("send - Should queue simple messages as MIME messages")
+    void send_ShouldQueueSimpleMessages() {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("test@example.com");
+        message.setTo("recipient@example.com");
+        message.setSubject("Hello");
+        message.setText("Plain text");
+
+        emailOutbox.send(message);
+
+        ArgumentCaptor<EmailOutboxEntry> captor = ArgumentCaptor.forClass(EmailOutboxEntry.class);
+        verify(outboxRepository).save(captor.capture());
+        assertEquals("Hello", captor.getValue().getSubject());
+        assertEquals("recipient@example.com", captor.getValue().getRecipients());
+    }
+}
@@ -0,0 +1,94 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.services.EmailTemplateRenderer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Year;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EmailTemplateRenderer, rendering the real email templates
+ */
+@DisplayName("EmailTemplateRenderer Tests")
+class EmailTemplateRendererTest {
+
+    private EmailTemplateRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        renderer = TestEmailTemplates.renderer();
+    }
+
+    @Test
+    @DisplayName("render - Should fill in the purchase request template")
+    void render_ShouldFillInPurchaseRequest() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("requestId", "request-123");
+        variables.put("confirmUrl", "https://test.com/confirm-purchase?requestId=request-123&email=a@b.com");
+
+        String html = renderer.render(EmailTemplateRenderer.PURCHASE_REQUEST, variables);
+
+        assertTrue(html.contains("<b>request-123</b>"));
+        assertTrue(html.contains("href=\"https://test.com/confirm-purchase?requestId=request-123&amp;email=a@b.com\""));
+        assertTrue(html.contains(".container {"), "shared styles should be inlined");
+        assertTrue(html.contains("&copy; " + Year.now().getValue() + " MyCLOUDMEN"));
+        assertFalse(html.contains("th:text") || html.contains("th:href"));
+    }
+
+    @Test
+    @DisplayName("render - Should format the cost and omit optional rows")
+    void render_ShouldFormatCostAndOmitOptionalRows() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("licenseType", "Business Standard");
+        variables.put("count", 5);
+        variables.put("cost", 60.0);
+        variables.put("requestId", "request-123");
+        variables.put("approveUrl", "https://test.com/approve-license");
+        variables.put("companyName", null);
+
+        String html = renderer.render(EmailTemplateRenderer.GOOGLE_WORKSPACE_LICENSE_REQUEST, variables);
+
+        assertTrue(html.contains("$60.00"));
+        assertTrue(html.contains("Business Standard"));
+        assertFalse(html.contains(">Domain<"), "company row should be omitted without a company name");
+
+        variables.put("cost", null);
+        assertFalse(renderer.render(EmailTemplateRenderer.GOOGLE_WORKSPACE_LICENSE_REQUEST, variables)
+                .contains("Total Price"));
+    }
+
+    @Test
+    @DisplayName("render - Should escape variables")
+    void render_ShouldEscapeVariables() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("name", "<script>alert(1)</script>");
+        variables.put("loginUrl", "https://test.com");
+
+        String html = renderer.render(EmailTemplateRenderer.USER_APPROVAL, variables);
+
+        assertTrue(html.contains("Hello &lt;script&gt;alert(1)&lt;/script&gt;,"));
+        assertFalse(html.contains("<script>"));
+    }
+
+    @Test
+    @DisplayName("render - Should greet users without a name")
+    void render_ShouldGreetUsersWithoutName() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("name", null);
+        variables.put("loginUrl", "https://test.com");
+
+        assertTrue(renderer.render(EmailTemplateRenderer.USER_APPROVAL, variables).contains("Hello there,"));
+    }
+
+    @Test
+    @DisplayName("warmUp - Should render every template without variables")
+    void warmUp_ShouldRenderEveryTemplate() {
+        assertDoesNotThrow(renderer::warmUp);
+        assertFalse(renderer.render(EmailTemplateRenderer.PURCHASE_CONFIRMATION, Map.of()).isEmpty());
+    }
+}
@@ -3,6 +3,7 @@ package com.cloudmen.backend.unit.services;
 import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSubscriptionDTO;
 import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSubscriptionListResponseDTO;
 import com.cloudmen.backend.services.GoogleWorkspaceService;
+import com.cloudmen.backend.services.GoogleWorkspaceSkuCatalog;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -22,7 +23,7 @@ class GoogleWorkspaceLicenseMatchingTest {
      */
     static class TestableService extends GoogleWorkspaceService {
         public TestableService() {
-            super(null, null);
+            super(null, null, null, new GoogleWorkspaceSkuCatalog());
         }
 
         @Override
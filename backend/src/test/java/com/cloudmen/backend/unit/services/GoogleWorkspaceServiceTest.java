@@ -1,13 +1,16 @@
 package com.cloudmen.backend.unit.services;
 
 import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceCreateSubscriptionRequestDTO;
+import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSkuDTO;
+import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSkuListResponseDTO;
 import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSubscriptionDTO;
 import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSubscriptionListResponseDTO;
 import com.cloudmen.backend.services.GoogleWorkspaceService;
+import com.cloudmen.backend.services.GoogleWorkspaceSkuCatalog;
+import com.cloudmen.backend.services.GoogleWorkspaceSubscriptionCache;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.JsonNodeFactory;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -42,12 +45,24 @@ class GoogleWorkspaceServiceTest {
     @Mock
     private WebClient.Builder webClientBuilder;
 
+    private GoogleWorkspaceSubscriptionCache subscriptionCache;
+
+    private GoogleWorkspaceSkuCatalog skuCatalog;
+
     private GoogleWorkspaceService googleWorkspaceService;
 
     @BeforeEach
     void setUp() {
+        subscriptionCache = new GoogleWorkspaceSubscriptionCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(subscriptionCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(subscriptionCache, "maxStaleSeconds", 900L);
+        ReflectionTestUtils.setField(subscriptionCache, "maxSize", 100);
+
+        skuCatalog = new GoogleWorkspaceSkuCatalog();
+
         // Create test service with spy
-        googleWorkspaceService = spy(new GoogleWorkspaceService(webClientBuilder, null));
+        googleWorkspaceService = spy(new GoogleWorkspaceService(webClientBuilder, null, subscriptionCache,
+                skuCatalog));
 
         // Set base URL and null retry spec
         ReflectionTestUtils.setField(googleWorkspaceService, "apiBaseUrl", API_BASE_URL);
@@ -100,6 +115,24 @@ class GoogleWorkspaceServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("getCustomerSubscriptions - Should fetch once and serve repeated checks from the cache")
+    void getCustomerSubscriptions_ShouldServeRepeatedChecksFromCache() {
+        GoogleWorkspaceSubscriptionListResponseDTO mockResponse = new GoogleWorkspaceSubscriptionListResponseDTO();
+        mockResponse.setSubscriptions(new ArrayList<>());
+        doCallRealMethod().when(googleWorkspaceService).getCustomerSubscriptions(CUSTOMER_ID);
+        doReturn(Mono.just(mockResponse)).when(googleWorkspaceService).fetchCustomerSubscriptions(CUSTOMER_ID);
+
+        StepVerifier.create(googleWorkspaceService.getCustomerSubscriptions(CUSTOMER_ID))
+                .expectNext(mockResponse)
+                .verifyComplete();
+        StepVerifier.create(googleWorkspaceService.getCustomerSubscriptions(CUSTOMER_ID))
+                .expectNext(mockResponse)
+                .verifyComplete();
+
+        verify(googleWorkspaceService, times(1)).fetchCustomerSubscriptions(CUSTOMER_ID);
+    }
+
     @Test
     @DisplayName("hasMatchingLicense - Should check license type correctly")
     void hasMatchingLicense_ShouldCheckLicenseTypeCorrectly() {
@@ -147,8 +180,9 @@ class GoogleWorkspaceServiceTest {
     @DisplayName("getAvailableSkus - Should return skus when successful")
     void getAvailableSkus_ShouldReturnSkus_WhenSuccessful() {
         // Create mock response
-        ObjectNode mockResponse = JsonNodeFactory.instance.objectNode();
-        mockResponse.put("status", "success");
+        GoogleWorkspaceSkuListResponseDTO mockResponse = new GoogleWorkspaceSkuListResponseDTO(
+                List.of(new GoogleWorkspaceSkuDTO("1010020020", "Google Workspace Business Starter", null,
+                        List.of("ANNUAL"), null)));
 
         // Configure spy
         doReturn(Mono.just(mockResponse)).when(googleWorkspaceService).getAvailableSkus();
@@ -159,6 +193,56 @@ class GoogleWorkspaceServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("getAvailableSkus - Should serve the loaded SKU catalogue without an API call")
+    void getAvailableSkus_ShouldServeLoadedCatalogue() {
+        doCallRealMethod().when(googleWorkspaceService).getAvailableSkus();
+        skuCatalog.update(List.of(new GoogleWorkspaceSkuDTO("1010020020", "Google Workspace Business Starter",
+                null, List.of("ANNUAL", "FLEXIBLE"), null)));
+
+        StepVerifier.create(googleWorkspaceService.getAvailableSkus())
+                .expectNextMatches(response -> response.getSkus().size() == 1
+                        && "1010020020".equals(response.getSkus().get(0).getSkuId()))
+                .verifyComplete();
+
+        verify(googleWorkspaceService, never()).refreshSkuCatalog();
+    }
+
+    @Test
+    @DisplayName("convertToSkuList - Should map SKUs with their plans and price")
+    void convertToSkuList_ShouldMapSkus() throws Exception {
+        JsonNode json = new ObjectMapper().readTree("{\"kind\":\"reseller#skus\",\"skus\":[{\"skuId\":\"1010020028\","
+                + "\"skuName\":\"Google Workspace Business Standard\",\"plans\":[\"ANNUAL\",\"FLEXIBLE\"],"
+                + "\"price\":{\"basePrice\":12.0,\"currency\":\"USD\",\"interval\":\"MONTHLY\"}},"
+                + "{\"skuId\":\"1010020025\"}]}");
+
+        GoogleWorkspaceSkuListResponseDTO response = googleWorkspaceService.convertToSkuList(json);
+
+        assertEquals(2, response.getSkus().size());
+        GoogleWorkspaceSkuDTO standard = response.getSkus().get(0);
+        assertEquals("Google Workspace Business Standard", standard.getSkuName());
+        assertEquals(List.of("ANNUAL", "FLEXIBLE"), standard.getPlans());
+        assertEquals(12.0, standard.getPrice().getBasePrice());
+        assertEquals("USD", standard.getPrice().getCurrency());
+        assertNull(response.getSkus().get(1).getSkuName());
+        assertEquals(List.of(), response.getSkus().get(1).getPlans());
+        assertNull(response.getSkus().get(1).getPrice());
+    }
+
+    @Test
+    @DisplayName("hasMatchingLicense - Should match subscriptions by the catalogue name of their SKU")
+    void hasMatchingLicense_ShouldUseCatalogueNames() {
+        skuCatalog.update(List.of(new GoogleWorkspaceSkuDTO("1010020028", "Google Workspace Business Standard",
+                null, List.of("ANNUAL"), null)));
+        GoogleWorkspaceSubscriptionDTO sub = new GoogleWorkspaceSubscriptionDTO("1010020028", "G Suite Business", 5,
+                "ANNUAL", "ACTIVE");
+        GoogleWorkspaceSubscriptionListResponseDTO subscriptions = new GoogleWorkspaceSubscriptionListResponseDTO(
+                List.of(sub));
+
+        assertTrue(googleWorkspaceService.hasMatchingLicense(subscriptions, "Business Standard"));
+        assertFalse(googleWorkspaceService.hasMatchingLicense(subscriptions, "G Suite Business"));
+    }
+
     @Test
     @DisplayName("DTO - GoogleWorkspaceSubscriptionDTO getters and setters")
     void googleWorkspaceSubscriptionDTO_GettersAndSetters() {
@@ -0,0 +1,80 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSkuDTO;
+import com.cloudmen.backend.services.GoogleWorkspaceSkuCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GoogleWorkspaceSkuCatalog
+ */
+@DisplayName("GoogleWorkspaceSkuCatalog Tests")
+class GoogleWorkspaceSkuCatalogTest {
+
+    private static final GoogleWorkspaceSkuDTO STARTER = new GoogleWorkspaceSkuDTO("1010020020",
+            "Google Workspace Business Starter", null, List.of("ANNUAL", "FLEXIBLE"), null);
+    private static final GoogleWorkspaceSkuDTO ARCHIVE = new GoogleWorkspaceSkuDTO("1010340001",
+            "Google Workspace Archived User", null, null, null);
+
+    private GoogleWorkspaceSkuCatalog skuCatalog;
+
+    @BeforeEach
+    void setUp() {
+        skuCatalog = new GoogleWorkspaceSkuCatalog();
+    }
+
+    @Test
+    @DisplayName("normalize - Should strip the product prefix and standardize common names")
+    void normalize_ShouldStandardizeNames() {
+        assertEquals("Business Starter", GoogleWorkspaceSkuCatalog.normalize("Google Workspace Business Starter"));
+        assertEquals("Business Plus", GoogleWorkspaceSkuCatalog.normalize("google  workspace BUSINESS PLUS"));
+        assertEquals("Enterprise Essentials", GoogleWorkspaceSkuCatalog.normalize("enterprise essentials"));
+        assertEquals("Archived User", GoogleWorkspaceSkuCatalog.normalize("Google Workspace Archived User"));
+        assertEquals("", GoogleWorkspaceSkuCatalog.normalize(null));
+    }
+
+    @Test
+    @DisplayName("update - Should look SKUs up by id and by normalized name")
+    void update_ShouldIndexSkus() {
+        assertNull(skuCatalog.current());
+
+        skuCatalog.update(List.of(STARTER, ARCHIVE));
+
+        GoogleWorkspaceSkuCatalog.Catalog catalog = skuCatalog.current();
+        assertNotNull(catalog);
+        assertEquals(List.of(STARTER, ARCHIVE), catalog.getResponse().getSkus());
+        assertEquals(Optional.of(STARTER), catalog.findById("1010020020"));
+        assertEquals(Optional.of(STARTER), catalog.findByName("business starter"));
+        assertEquals(Optional.empty(), catalog.findByName("Business Plus"));
+        assertEquals(List.of("ANNUAL", "FLEXIBLE"), catalog.getPlans("1010020020"));
+        assertEquals(List.of(), catalog.getPlans("1010340001"));
+        assertThrows(UnsupportedOperationException.class, () -> catalog.getSkus().clear());
+    }
+
+    @Test
+    @DisplayName("normalizedName - Should prefer the catalogue name of a known SKU")
+    void normalizedName_ShouldPreferCatalogue() {
+        skuCatalog.update(List.of(STARTER));
+
+        assertEquals("Business Starter", skuCatalog.normalizedName("1010020020", "G Suite Basic"));
+        assertEquals("G Suite Basic", skuCatalog.normalizedName("unknown", "G Suite Basic"));
+        assertEquals("Business Plus", skuCatalog.normalizedName(null, "Google Workspace Business Plus"));
+    }
+
+    @Test
+    @DisplayName("update - Should keep the loaded catalogue when the API returns no SKUs")
+    void update_ShouldIgnoreEmptyReload() {
+        skuCatalog.update(List.of(STARTER));
+        GoogleWorkspaceSkuCatalog.Catalog loaded = skuCatalog.current();
+
+        skuCatalog.update(List.of());
+
+        assertSame(loaded, skuCatalog.current());
+    }
+}
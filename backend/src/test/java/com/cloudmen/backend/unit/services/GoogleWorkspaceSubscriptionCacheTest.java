@@ -0,0 +1,128 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.api.dtos.googleworkspace.GoogleWorkspaceSubscriptionListResponseDTO;
+import com.cloudmen.backend.services.GoogleWorkspaceSubscriptionCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GoogleWorkspaceSubscriptionCache
+ */
+@DisplayName("GoogleWorkspaceSubscriptionCache Tests")
+class GoogleWorkspaceSubscriptionCacheTest {
+
+    private static final String CUSTOMER_ID = "customer-123";
+
+    private GoogleWorkspaceSubscriptionCache cache;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new GoogleWorkspaceSubscriptionCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "maxStaleSeconds", 900L);
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+    }
+
+    @Test
+    @DisplayName("get - Should request fresh subscriptions only once")
+    void get_ShouldServeFreshEntriesFromMemory() {
+        GoogleWorkspaceSubscriptionListResponseDTO subscriptions = subscriptions();
+
+        assertSame(subscriptions, cache.get(CUSTOMER_ID, counting(Mono.just(subscriptions))).block());
+        assertSame(subscriptions, cache.get(CUSTOMER_ID, counting(Mono.just(subscriptions))).block());
+
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    @DisplayName("get - Should share one request between concurrent callers")
+    void get_ShouldDeduplicateConcurrentLoads() {
+        Sinks.One<GoogleWorkspaceSubscriptionListResponseDTO> upstream = Sinks.one();
+        GoogleWorkspaceSubscriptionListResponseDTO subscriptions = subscriptions();
+
+        Mono<GoogleWorkspaceSubscriptionListResponseDTO> first = cache.get(CUSTOMER_ID, counting(upstream.asMono()));
+        Mono<GoogleWorkspaceSubscriptionListResponseDTO> second = cache.get(CUSTOMER_ID, counting(upstream.asMono()));
+        upstream.tryEmitValue(subscriptions);
+
+        assertSame(subscriptions, first.block());
+        assertSame(subscriptions, second.block());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    @DisplayName("get - Should serve stale subscriptions at once and reload them in the background")
+    void get_ShouldServeStaleWhileRevalidating() {
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+        GoogleWorkspaceSubscriptionListResponseDTO old = subscriptions();
+        GoogleWorkspaceSubscriptionListResponseDTO reloaded = subscriptions();
+        Sinks.One<GoogleWorkspaceSubscriptionListResponseDTO> upstream = Sinks.one();
+        cache.get(CUSTOMER_ID, counting(Mono.just(old))).block();
+
+        assertSame(old, cache.get(CUSTOMER_ID, counting(upstream.asMono())).block());
+        assertSame(old, cache.get(CUSTOMER_ID, counting(upstream.asMono())).block());
+        upstream.tryEmitValue(reloaded);
+
+        assertSame(reloaded, cache.get(CUSTOMER_ID, counting(Mono.just(reloaded))).block());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    @DisplayName("invalidate - Should reload, and not cache a load started before the invalidation")
+    void invalidate_ShouldDropEntryAndRunningLoad() {
+        GoogleWorkspaceSubscriptionListResponseDTO before = subscriptions();
+        GoogleWorkspaceSubscriptionListResponseDTO after = subscriptions();
+        Sinks.One<GoogleWorkspaceSubscriptionListResponseDTO> upstream = Sinks.one();
+
+        Mono<GoogleWorkspaceSubscriptionListResponseDTO> running = cache.get(CUSTOMER_ID,
+                counting(upstream.asMono()));
+        cache.invalidate(CUSTOMER_ID);
+        upstream.tryEmitValue(before);
+        assertSame(before, running.block());
+
+        assertSame(after, cache.get(CUSTOMER_ID, counting(Mono.just(after))).block());
+        cache.invalidate(CUSTOMER_ID);
+        assertSame(before, cache.get(CUSTOMER_ID, counting(Mono.just(before))).block());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    @DisplayName("get - Should pass errors and empty results on without caching them")
+    void get_ShouldNotCacheErrorsOrEmptyResults() {
+        StepVerifier.create(cache.get(CUSTOMER_ID, counting(Mono.error(new IllegalStateException("down")))))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(cache.get(CUSTOMER_ID, counting(Mono.empty())))
+                .verifyComplete();
+
+        GoogleWorkspaceSubscriptionListResponseDTO subscriptions = subscriptions();
+        assertSame(subscriptions, cache.get(CUSTOMER_ID, counting(Mono.just(subscriptions))).block());
+        assertEquals(3, requests.get());
+    }
+
+    private Supplier<Mono<GoogleWorkspaceSubscriptionListResponseDTO>> counting(
+            Mono<GoogleWorkspaceSubscriptionListResponseDTO> response) {
+        return () -> {
+            requests.incrementAndGet();
+            return response;
+        };
+    }
+
+    private static GoogleWorkspaceSubscriptionListResponseDTO subscriptions() {
+        GoogleWorkspaceSubscriptionListResponseDTO subscriptions = new GoogleWorkspaceSubscriptionListResponseDTO();
+        subscriptions.setSubscriptions(new ArrayList<>());
+        return subscriptions;
+    }
+}
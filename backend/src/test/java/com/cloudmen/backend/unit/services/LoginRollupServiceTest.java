@@ -0,0 +1,195 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.api.dtos.authlogs.LoginAnalyticsDTO;
+import com.cloudmen.backend.domain.models.AuthenticationLog;
+import com.cloudmen.backend.domain.models.LoginRollup;
+import com.cloudmen.backend.repositories.AuthenticationLogRepository;
+import com.cloudmen.backend.repositories.LoginRollupRepository;
+import com.cloudmen.backend.services.LoginRollupService;
+import com.cloudmen.backend.utils.HyperLogLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LoginRollupService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoginRollupService Tests")
+public class LoginRollupServiceTest {
+
+    @Mock
+    private LoginRollupRepository loginRollupRepository;
+
+    @Mock
+    private AuthenticationLogRepository authenticationLogRepository;
+
+    private LoginRollupService loginRollupService;
+
+    private static final LocalDateTime TEN_AM = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        loginRollupService = new LoginRollupService(loginRollupRepository, authenticationLogRepository);
+    }
+
+    private AuthenticationLog successLog(String email, String domain, LocalDateTime timestamp) {
+        AuthenticationLog log = new AuthenticationLog();
+        log.setEmail(email);
+        log.setPrimaryDomain(domain);
+        log.setSuccessful(true);
+        log.setTimestamp(timestamp);
+        return log;
+    }
+
+    private AuthenticationLog failedLog(String email, LocalDateTime timestamp) {
+        AuthenticationLog log = new AuthenticationLog(email, "10.0.0.1", "agent", "Invalid credentials");
+        log.setTimestamp(timestamp);
+        return log;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, LoginRollup> capturedIncrements() {
+        ArgumentCaptor<Collection<LoginRollup>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(loginRollupRepository).incrementAll(captor.capture());
+        return captor.getValue().stream().collect(Collectors.toMap(LoginRollup::getId, Function.identity()));
+    }
+
+    @Test
+    @DisplayName("record - Should aggregate a batch into hourly and daily deltas per domain")
+    void record_ShouldAggregateBatchPerBucket() {
+        loginRollupService.record(List.of(
+                successLog("a@example.com", "example.com", TEN_AM.plusMinutes(5)),
+                successLog("a@example.com", "example.com", TEN_AM.plusMinutes(10)),
+                successLog("b@example.com", "example.com", TEN_AM.plusHours(1)),
+                failedLog("c@Other.org", TEN_AM.plusMinutes(20))));
+
+        Map<String, LoginRollup> deltas = capturedIncrements();
+        assertEquals(5, deltas.size());
+
+        LoginRollup tenAm = deltas.get(LoginRollup.idFor(LoginRollup.Granularity.HOUR, "example.com", TEN_AM));
+        assertEquals(2, tenAm.getSuccessCount());
+        assertEquals(0, tenAm.getFailureCount());
+        assertEquals(1, HyperLogLog.fromRegisters(tenAm.getUserRegisters()).estimate());
+
+        LoginRollup day = deltas.get(LoginRollup.idFor(LoginRollup.Granularity.DAY, "example.com",
+                TEN_AM.toLocalDate().atStartOfDay()));
+        assertEquals(3, day.getSuccessCount());
+        assertEquals(2, HyperLogLog.fromRegisters(day.getUserRegisters()).estimate());
+
+        // Failed logins have no primary domain and fall back to the email domain
+        LoginRollup failed = deltas.get(LoginRollup.idFor(LoginRollup.Granularity.HOUR, "other.org", TEN_AM));
+        assertEquals(1, failed.getFailureCount());
+        assertTrue(failed.getUserRegisters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("getAnalytics - Should read rollups for the widened range and merge distinct users")
+    void getAnalytics_ShouldReadRollupsOnly() {
+        LoginRollup first = new LoginRollup(LoginRollup.Granularity.HOUR, "example.com", TEN_AM);
+        first.setSuccessCount(3);
+        first.setFailureCount(1);
+        HyperLogLog firstUsers = new HyperLogLog();
+        firstUsers.add("a@example.com");
+        firstUsers.add("b@example.com");
+        first.setUserRegisters(firstUsers.toRegisters());
+
+        LoginRollup second = new LoginRollup(LoginRollup.Granularity.HOUR, "example.com", TEN_AM.plusHours(1));
+        second.setSuccessCount(2);
+        HyperLogLog secondUsers = new HyperLogLog();
+        secondUsers.add("b@example.com");
+        secondUsers.add("c@example.com");
+        second.setUserRegisters(secondUsers.toRegisters());
+
+        when(loginRollupRepository.findRange(any(), any(), any(), any())).thenReturn(List.of(first, second));
+
+        LoginAnalyticsDTO analytics = loginRollupService.getAnalytics(LoginRollup.Granularity.HOUR,
+                "Example.com", TEN_AM.plusMinutes(30), TEN_AM.plusHours(1).plusMinutes(15));
+
+        verify(loginRollupRepository).findRange(LoginRollup.Granularity.HOUR, "example.com", TEN_AM,
+                TEN_AM.plusHours(2));
+        verifyNoInteractions(authenticationLogRepository);
+        assertEquals(2, analytics.getBuckets().size());
+        assertEquals(2, analytics.getBuckets().get(0).getDistinctUsers());
+        assertEquals(5, analytics.getTotalSuccessCount());
+        assertEquals(1, analytics.getTotalFailureCount());
+        assertEquals(3, analytics.getTotalDistinctUsers());
+    }
+
+    @Test
+    @DisplayName("backfill - Should rebuild each day from the raw logs and replace its buckets")
+    @SuppressWarnings("unchecked")
+    void backfill_ShouldReplaceBucketsPerDay() throws Exception {
+        LocalDate day = TEN_AM.toLocalDate();
+        when(authenticationLogRepository.streamForRollup(day.atStartOfDay(), day.plusDays(1).atStartOfDay()))
+                .thenReturn(Stream.of(
+                        successLog("a@example.com", "example.com", TEN_AM),
+                        failedLog("b@example.com", TEN_AM.plusHours(3))));
+        when(authenticationLogRepository.streamForRollup(day.plusDays(1).atStartOfDay(),
+                day.plusDays(2).atStartOfDay())).thenReturn(Stream.empty());
+
+        Map<String, Object> summary = loginRollupService.backfill(day, day.plusDays(1)).get();
+
+        assertEquals(true, summary.get("success"));
+        assertEquals(2L, summary.get("logsProcessed"));
+        assertEquals(3L, summary.get("bucketsWritten"));
+
+        ArgumentCaptor<Collection<LoginRollup>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(loginRollupRepository, times(2)).replaceAll(captor.capture());
+        Collection<LoginRollup> firstDay = captor.getAllValues().get(0);
+        LoginRollup dayRollup = firstDay.stream()
+                .filter(rollup -> rollup.getGranularity() == LoginRollup.Granularity.DAY)
+                .findFirst().orElseThrow();
+        assertEquals(1, dayRollup.getSuccessCount());
+        assertEquals(1, dayRollup.getFailureCount());
+        assertTrue(captor.getAllValues().get(1).isEmpty());
+        verify(loginRollupRepository, never()).incrementAll(any());
+    }
+
+    @Test
+    @DisplayName("backfill - Should report failure instead of throwing")
+    void backfill_ShouldReportFailure() throws Exception {
+        when(authenticationLogRepository.streamForRollup(any(), any()))
+                .thenThrow(new RuntimeException("Database error"));
+
+        Map<String, Object> summary = loginRollupService.backfill(TEN_AM.toLocalDate(), TEN_AM.toLocalDate()).get();
+
+        assertEquals(false, summary.get("success"));
+        assertEquals("Database error", summary.get("error"));
+        verify(loginRollupRepository, never()).replaceAll(any());
+    }
+
+    @Test
+    @DisplayName("HyperLogLog - Should estimate large distinct counts within a few percent")
+    void hyperLogLog_ShouldEstimateDistinctCounts() {
+        HyperLogLog left = new HyperLogLog();
+        HyperLogLog right = new HyperLogLog();
+        for (int i = 0; i < 6000; i++) {
+            left.add("user" + i + "@example.com");
+        }
+        for (int i = 4000; i < 10000; i++) {
+            right.add("user" + i + "@example.com");
+        }
+
+        left.merge(HyperLogLog.fromRegisters(right.toRegisters()));
+
+        assertEquals(10000, left.estimate(), 10000 * 0.1);
+    }
+}
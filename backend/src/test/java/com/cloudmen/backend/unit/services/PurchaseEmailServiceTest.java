@@ -57,7 +57,7 @@ class PurchaseEmailServiceTest {
         lenient().when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
 
         // Create the service instance
-        emailService = new PurchaseEmailService(mailSender);
+        emailService = new PurchaseEmailService(mailSender, TestEmailTemplates.renderer());
 
         // Set required properties
         ReflectionTestUtils.setField(emailService, "username", TEST_FROM_EMAIL);
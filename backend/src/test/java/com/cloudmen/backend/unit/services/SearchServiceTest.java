@@ -0,0 +1,74 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.api.dtos.companies.CompanyListDTO;
+import com.cloudmen.backend.domain.models.TeamleaderCompany;
+import com.cloudmen.backend.services.CompanySearchIndex;
+import com.cloudmen.backend.services.SearchService;
+import com.cloudmen.backend.services.TeamleaderCompanyService;
+import com.cloudmen.backend.services.UserSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SearchService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SearchService Tests")
+class SearchServiceTest {
+
+    @Mock
+    private CompanySearchIndex companySearchIndex;
+
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
+    @Mock
+    private TeamleaderCompanyService companyService;
+
+    private SearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        searchService = new SearchService(companySearchIndex, userSearchIndex, companyService);
+        ReflectionTestUtils.setField(searchService, "maxResults", 50);
+    }
+
+    @Test
+    @DisplayName("searchCompanies - Should answer from the index once it is loaded")
+    void searchCompanies_ShouldUseIndex_WhenReady() {
+        CompanyListDTO company = new CompanyListDTO();
+        company.setName("Acme");
+        when(companySearchIndex.isReady()).thenReturn(true);
+        when(companySearchIndex.search("acme", 50)).thenReturn(List.of(company));
+
+        List<CompanyListDTO> result = searchService.searchCompanies("acme", 500);
+
+        assertEquals(List.of(company), result);
+        verifyNoInteractions(companyService);
+    }
+
+    @Test
+    @DisplayName("searchCompanies - Should search the database until the index is loaded")
+    void searchCompanies_ShouldFallBackToDatabase_WhenNotReady() {
+        TeamleaderCompany first = new TeamleaderCompany("tl1", "Acme");
+        TeamleaderCompany second = new TeamleaderCompany("tl2", "Acme Belgium");
+        when(companySearchIndex.isReady()).thenReturn(false);
+        when(companyService.searchCompaniesByName("acme")).thenReturn(List.of(first, second));
+
+        List<CompanyListDTO> result = searchService.searchCompanies("acme", 1);
+
+        assertEquals(1, result.size());
+        assertEquals("Acme", result.get(0).getName());
+        verify(companySearchIndex, never()).search(anyString(), anyInt());
+    }
+}
@@ -0,0 +1,107 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.api.dtos.signaturesatori.SignatureSatoriCreditsDTO;
+import com.cloudmen.backend.services.SignatureSatoriCreditsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SignatureSatoriCreditsCache
+ */
+@DisplayName("SignatureSatoriCreditsCache Tests")
+class SignatureSatoriCreditsCacheTest {
+
+    private static final String CUSTOMER_ID = "customer-123";
+
+    private SignatureSatoriCreditsCache cache;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new SignatureSatoriCreditsCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+    }
+
+    @Test
+    @DisplayName("get - Should serve cached credits until they expire")
+    void get_ShouldServeCachedCreditsUntilExpired() {
+        SignatureSatoriCreditsDTO credits = credits(200);
+
+        assertSame(credits, cache.get(CUSTOMER_ID, counting(Mono.just(credits))).block());
+        assertSame(credits, cache.get(CUSTOMER_ID, counting(Mono.just(credits(150)))).block());
+        assertEquals(1, requests.get());
+
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+        assertEquals(10, cache.get("other", counting(Mono.just(credits(10)))).block().getCreditBalance());
+        assertEquals(20, cache.get("other", counting(Mono.just(credits(20)))).block().getCreditBalance());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    @DisplayName("get - Should share one request between concurrent callers")
+    void get_ShouldDeduplicateConcurrentLoads() {
+        Sinks.One<SignatureSatoriCreditsDTO> upstream = Sinks.one();
+        SignatureSatoriCreditsDTO credits = credits(200);
+
+        Mono<SignatureSatoriCreditsDTO> first = cache.get(CUSTOMER_ID, counting(upstream.asMono()));
+        Mono<SignatureSatoriCreditsDTO> second = cache.get(CUSTOMER_ID, counting(upstream.asMono()));
+        upstream.tryEmitValue(credits);
+
+        assertSame(credits, first.block());
+        assertSame(credits, second.block());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    @DisplayName("invalidate - Should reload, and not cache a load started before the invalidation")
+    void invalidate_ShouldDropEntryAndRunningLoad() {
+        Sinks.One<SignatureSatoriCreditsDTO> upstream = Sinks.one();
+        Mono<SignatureSatoriCreditsDTO> running = cache.get(CUSTOMER_ID, counting(upstream.asMono()));
+
+        cache.invalidate(CUSTOMER_ID);
+        upstream.tryEmitValue(credits(200));
+        assertEquals(200, running.block().getCreditBalance());
+
+        assertEquals(300, cache.get(CUSTOMER_ID, counting(Mono.just(credits(300)))).block().getCreditBalance());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    @DisplayName("get - Should pass errors and empty results on without caching them")
+    void get_ShouldNotCacheErrorsOrEmptyResults() {
+        StepVerifier.create(cache.get(CUSTOMER_ID, counting(Mono.error(new IllegalStateException("down")))))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(cache.get(CUSTOMER_ID, counting(Mono.empty())))
+                .verifyComplete();
+
+        assertEquals(200, cache.get(CUSTOMER_ID, counting(Mono.just(credits(200)))).block().getCreditBalance());
+        assertEquals(3, requests.get());
+    }
+
+    private Supplier<Mono<SignatureSatoriCreditsDTO>> counting(Mono<SignatureSatoriCreditsDTO> response) {
+        return () -> {
+            requests.incrementAndGet();
+            return response;
+        };
+    }
+
+    private static SignatureSatoriCreditsDTO credits(int balance) {
+        SignatureSatoriCreditsDTO credits = new SignatureSatoriCreditsDTO();
+        credits.setCustomerId(CUSTOMER_ID);
+        credits.setCreditBalance(balance);
+        return credits;
+    }
+}
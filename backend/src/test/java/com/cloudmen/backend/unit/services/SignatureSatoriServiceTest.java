@@ -1,14 +1,17 @@
 package com.cloudmen.backend.unit.services;
 
+import com.cloudmen.backend.api.dtos.signaturesatori.SignatureSatoriCreditsBatchEntryDTO;
 import com.cloudmen.backend.api.dtos.signaturesatori.SignatureSatoriCreditsDTO;
 import com.cloudmen.backend.api.dtos.signaturesatori.SignatureSatoriPurchaseRequestDTO;
 import com.cloudmen.backend.api.dtos.signaturesatori.SignatureSatoriPurchaseResponseDTO;
+import com.cloudmen.backend.services.SignatureSatoriCreditsCache;
 import com.cloudmen.backend.services.SignatureSatoriService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -77,6 +80,8 @@ class SignatureSatoriServiceTest {
     @Captor
     private ArgumentCaptor<Map<String, Object>> bodyCaptor;
 
+    private SignatureSatoriCreditsCache creditsCache;
+
     private SignatureSatoriService signatureSatoriService;
     private final String API_BASE_URL = "https://api.example.com";
     private final String API_TOKEN = "test-token";
@@ -84,13 +89,20 @@ class SignatureSatoriServiceTest {
 
     @BeforeEach
     void setUp() {
+        creditsCache = new SignatureSatoriCreditsCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(creditsCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(creditsCache, "maxSize", 100);
+
         // Create service with null retry to avoid NPEs
-        signatureSatoriService = spy(new SignatureSatoriService(webClientBuilder, null, objectMapper));
+        signatureSatoriService = spy(new SignatureSatoriService(webClientBuilder, null, objectMapper,
+                creditsCache));
 
         // Set private fields via reflection
         ReflectionTestUtils.setField(signatureSatoriService, "apiBaseUrl", API_BASE_URL);
         ReflectionTestUtils.setField(signatureSatoriService, "apiToken", API_TOKEN);
         ReflectionTestUtils.setField(signatureSatoriService, "webClientRetrySpec", null);
+        ReflectionTestUtils.setField(signatureSatoriService, "batchMaxSize", 3);
+        ReflectionTestUtils.setField(signatureSatoriService, "batchConcurrency", 2);
 
         // Setup WebClient
         when(webClientBuilder.baseUrl(API_BASE_URL)).thenReturn(webClientBuilder);
@@ -358,7 +370,8 @@ class SignatureSatoriServiceTest {
     @DisplayName("Service should work without API token")
     void service_ShouldWorkWithoutApiToken() {
         // Arrange - create service with no token
-        SignatureSatoriService tokenlessService = spy(new SignatureSatoriService(webClientBuilder, null, objectMapper));
+        SignatureSatoriService tokenlessService = spy(new SignatureSatoriService(webClientBuilder, null, objectMapper,
+                creditsCache));
         ReflectionTestUtils.setField(tokenlessService, "apiBaseUrl", API_BASE_URL);
         ReflectionTestUtils.setField(tokenlessService, "apiToken", ""); // Empty token
         ReflectionTestUtils.setField(tokenlessService, "webClientRetrySpec", null);
@@ -752,6 +765,52 @@ class SignatureSatoriServiceTest {
                 .verify();
     }
 
+    @Test
+    @DisplayName("getCustomerCredits - Should fetch once and serve repeated requests from the cache")
+    void getCustomerCredits_ShouldServeRepeatedRequestsFromCache() {
+        SignatureSatoriCreditsDTO credits = new SignatureSatoriCreditsDTO();
+        credits.setCustomerId(CUSTOMER_ID);
+        doCallRealMethod().when(signatureSatoriService).getCustomerCredits(CUSTOMER_ID);
+        doReturn(Mono.just(credits)).when(signatureSatoriService).fetchCustomerCredits(CUSTOMER_ID);
+
+        assertSame(credits, signatureSatoriService.getCustomerCredits(CUSTOMER_ID).block());
+        assertSame(credits, signatureSatoriService.getCustomerCredits(CUSTOMER_ID).block());
+
+        verify(signatureSatoriService, times(1)).fetchCustomerCredits(CUSTOMER_ID);
+    }
+
+    @Test
+    @DisplayName("getCustomerCreditsBatch - Should return partial results with per-customer errors, in order")
+    void getCustomerCreditsBatch_ShouldReturnPartialResults() {
+        SignatureSatoriCreditsDTO credits = new SignatureSatoriCreditsDTO();
+        credits.setCreditBalance(200);
+        doReturn(Mono.just(credits)).when(signatureSatoriService).getCustomerCredits("c1");
+        doReturn(Mono.error(new RuntimeException("Upstream unavailable")))
+                .when(signatureSatoriService).getCustomerCredits("c2");
+        doReturn(Mono.empty()).when(signatureSatoriService).getCustomerCredits("c3");
+
+        List<SignatureSatoriCreditsBatchEntryDTO> entries = signatureSatoriService
+                .getCustomerCreditsBatch(Arrays.asList("c1", "c2", " c1 ", null, "", "c3")).block();
+
+        assertNotNull(entries);
+        assertEquals(List.of("c1", "c2", "c3"), entries.stream()
+                .map(SignatureSatoriCreditsBatchEntryDTO::getCustomerId).toList());
+        assertEquals(200, entries.get(0).getCredits().getCreditBalance());
+        assertNull(entries.get(0).getError());
+        assertNull(entries.get(1).getCredits());
+        assertEquals("Upstream unavailable", entries.get(1).getError());
+        assertEquals("Customer not found", entries.get(2).getError());
+        verify(signatureSatoriService, times(1)).getCustomerCredits("c1");
+    }
+
+    @Test
+    @DisplayName("getCustomerCreditsBatch - Should reject batches above the maximum size")
+    void getCustomerCreditsBatch_ShouldRejectOversizedBatch() {
+        assertThrows(IllegalArgumentException.class,
+                () -> signatureSatoriService.getCustomerCreditsBatch(List.of("c1", "c2", "c3", "c4")));
+        verify(signatureSatoriService, never()).getCustomerCredits(anyString());
+    }
+
     // Helper methods for mock responses in the test class
     private JsonNode getMockCreditsResponse(String customerId) {
         // Create mock response for getCustomerCredits
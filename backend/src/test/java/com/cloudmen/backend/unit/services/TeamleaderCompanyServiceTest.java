@@ -1,21 +1,29 @@
 package com.cloudmen.backend.unit.services;
 
 import com.cloudmen.backend.config.TeamleaderApiConfig;
+import com.cloudmen.backend.domain.enums.CompanyStatusType;
 import com.cloudmen.backend.domain.models.TeamleaderCompany;
 import com.cloudmen.backend.repositories.TeamleaderCompanyRepository;
+import com.cloudmen.backend.services.CompanyDomainCache;
+import com.cloudmen.backend.services.CompanySnapshot;
 import com.cloudmen.backend.services.TeamleaderCompanyService;
 import com.cloudmen.backend.services.TeamleaderOAuthService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
@@ -24,7 +32,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -62,6 +72,15 @@ class TeamleaderCompanyServiceTest {
     @Mock
     private Retry webClientRetrySpec;
 
+    @Mock
+    private CompanyDomainCache domainCache;
+
+    @Mock
+    private CompanySnapshot companySnapshot;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
     // WebClient chain mocks
     @Mock
     private WebClient.RequestBodyUriSpec requestBodyUriSpec;
@@ -90,7 +109,9 @@ class TeamleaderCompanyServiceTest {
                 objectMapper,
                 companyRepository,
                 webClient,
-                webClientRetrySpec);
+                webClientRetrySpec,
+                domainCache,
+                companySnapshot);
 
         // We're using lenient() to avoid "unnecessary stubbing" errors
         // when not all tests use these mocks
@@ -120,7 +141,7 @@ class TeamleaderCompanyServiceTest {
         expectedCompany.setTeamleaderId(teamleaderId);
         expectedCompany.setName("Test Company");
 
-        when(companyRepository.findByTeamleaderId(teamleaderId)).thenReturn(Optional.of(expectedCompany));
+        when(companyRepository.findByIdOrTeamleaderId(teamleaderId)).thenReturn(Optional.of(expectedCompany));
 
         // Act
         TeamleaderCompany result = teamleaderCompanyService.getCompanyByTeamleaderId(teamleaderId);
@@ -129,7 +150,7 @@ class TeamleaderCompanyServiceTest {
         assertNotNull(result);
         assertEquals(teamleaderId, result.getTeamleaderId());
         assertEquals("Test Company", result.getName());
-        verify(companyRepository).findByTeamleaderId(teamleaderId);
+        verify(companyRepository).findByIdOrTeamleaderId(teamleaderId);
     }
 
     @Test
@@ -162,7 +183,8 @@ class TeamleaderCompanyServiceTest {
 
         // Create service with null WebClient
         teamleaderCompanyService = new TeamleaderCompanyService(
-                oAuthService, apiConfig, objectMapper, companyRepository, null, webClientRetrySpec);
+                oAuthService, apiConfig, objectMapper, companyRepository, null, webClientRetrySpec, domainCache,
+                companySnapshot);
 
         // Act
         JsonNode result = teamleaderCompanyService.getCompanies(1, 10);
@@ -249,14 +271,14 @@ class TeamleaderCompanyServiceTest {
     void getCompanyByTeamleaderId_shouldReturnNullWhenCompanyDoesntExist() {
         // Arrange
         String teamleaderId = "non-existent-id";
-        when(companyRepository.findByTeamleaderId(teamleaderId)).thenReturn(Optional.empty());
+        when(companyRepository.findByIdOrTeamleaderId(teamleaderId)).thenReturn(Optional.empty());
 
         // Act
         TeamleaderCompany result = teamleaderCompanyService.getCompanyByTeamleaderId(teamleaderId);
 
         // Assert
         assertNull(result);
-        verify(companyRepository).findByTeamleaderId(teamleaderId);
+        verify(companyRepository).findByIdOrTeamleaderId(teamleaderId);
     }
 
     @Test
@@ -367,6 +389,42 @@ class TeamleaderCompanyServiceTest {
         verify(companyRepository).save(company);
     }
 
+    @Test
+    @DisplayName("updateCompanyStatus should resolve the company in one lookup and save the new status")
+    void updateCompanyStatus_shouldResolveInOneLookupAndSave() {
+        // Arrange
+        TeamleaderCompany company = createTestCompany("123", "Test Company");
+        when(companyRepository.findByIdOrTeamleaderId("123")).thenReturn(Optional.of(company));
+        when(companyRepository.save(company)).thenReturn(company);
+
+        // Act
+        Optional<TeamleaderCompany> result = teamleaderCompanyService.updateCompanyStatus("123",
+                CompanyStatusType.DEACTIVATED);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(CompanyStatusType.DEACTIVATED, result.get().getStatus());
+        assertEquals("DEACTIVATED", result.get().getCustomFields().get("status"));
+        verify(companyRepository).findByIdOrTeamleaderId("123");
+        verify(companyRepository, never()).findById(anyString());
+        verify(companyRepository, never()).findByTeamleaderId(anyString());
+    }
+
+    @Test
+    @DisplayName("updateCompanyStatus should return empty when no company matches")
+    void updateCompanyStatus_shouldReturnEmpty_whenNotFound() {
+        // Arrange
+        when(companyRepository.findByIdOrTeamleaderId("missing")).thenReturn(Optional.empty());
+
+        // Act
+        Optional<TeamleaderCompany> result = teamleaderCompanyService.updateCompanyStatus("missing",
+                CompanyStatusType.ACTIVE);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(companyRepository, never()).save(any(TeamleaderCompany.class));
+    }
+
     @Test
     @DisplayName("getCompanyDetails should handle custom fields correctly")
     void getCompanyDetails_shouldHandleCustomFieldsCorrectly() {
@@ -421,6 +479,161 @@ class TeamleaderCompanyServiceTest {
         verify(requestBodyUriSpec).uri("/companies.info");
     }
 
+    @Test
+    @DisplayName("findCompanyByDomain should query the domain index once and then serve the domain from the cache")
+    void findCompanyByDomain_shouldCacheResolution() {
+        // Arrange
+        TeamleaderCompanyService service = serviceWithRealDomainCache();
+        TeamleaderCompany company = createTestCompany("1", "Example");
+        company.setId("company-1");
+        when(companyRepository.findFirstByDomains("example.com")).thenReturn(Optional.of(company));
+        when(companyRepository.findById("company-1")).thenReturn(Optional.of(company));
+
+        // Act
+        Optional<TeamleaderCompany> first = service.findCompanyByDomain("user@example.com");
+        Optional<TeamleaderCompany> second = service.findCompanyByDomain("EXAMPLE.com");
+
+        // Assert
+        assertEquals("Example", first.orElseThrow().getName());
+        assertEquals("Example", second.orElseThrow().getName());
+        verify(companyRepository, times(1)).findFirstByDomains("example.com");
+        verify(companyRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("findCompanyByDomain should not query the database for free-mail domains")
+    void findCompanyByDomain_shouldSkipFreeMailDomains() {
+        // Arrange
+        TeamleaderCompanyService service = serviceWithRealDomainCache();
+
+        // Act
+        Optional<TeamleaderCompany> result = service.findCompanyByDomain("someone@Gmail.com");
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(companyRepository);
+    }
+
+    @Test
+    @DisplayName("findCompanyNameByDomain should serve names and misses from the cache")
+    void findCompanyNameByDomain_shouldServeFromCache() {
+        // Arrange
+        TeamleaderCompanyService service = serviceWithRealDomainCache();
+        TeamleaderCompany company = createTestCompany("1", "Example");
+        company.setId("company-1");
+        when(companyRepository.findFirstByDomains("example.com")).thenReturn(Optional.of(company));
+        when(companyRepository.findFirstByDomains("unknown.org")).thenReturn(Optional.empty());
+
+        // Act
+        Optional<String> first = service.findCompanyNameByDomain("user@example.com");
+        Optional<String> second = service.findCompanyNameByDomain("other@example.com");
+        Optional<String> unknown = service.findCompanyNameByDomain("user@unknown.org");
+        Optional<String> unknownAgain = service.findCompanyNameByDomain("user@unknown.org");
+
+        // Assert
+        assertEquals(Optional.of("Example"), first);
+        assertEquals(Optional.of("Example"), second);
+        assertTrue(unknown.isEmpty());
+        assertTrue(unknownAgain.isEmpty());
+        verify(companyRepository, times(1)).findFirstByDomains("example.com");
+        verify(companyRepository, times(1)).findFirstByDomains("unknown.org");
+        verify(companyRepository, never()).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("findCompanyNameByDomain should look the domain up in the cache once")
+    void findCompanyNameByDomain_shouldCountOneMissPerLookup() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CompanyDomainCache realCache = new CompanyDomainCache(meterRegistry);
+        ReflectionTestUtils.setField(realCache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(realCache, "maxSize", 100);
+        ReflectionTestUtils.setField(realCache, "freeMailDomains", Set.of("gmail.com"));
+        TeamleaderCompanyService service = new TeamleaderCompanyService(oAuthService, apiConfig, objectMapper,
+                companyRepository, webClient, webClientRetrySpec, realCache, companySnapshot);
+        TeamleaderCompany company = createTestCompany("1", "Example");
+        company.setId("company-1");
+        when(companyRepository.findFirstByDomains("example.com")).thenReturn(Optional.of(company));
+
+        // Act
+        Optional<String> name = service.findCompanyNameByDomain("user@example.com");
+
+        // Assert
+        assertEquals(Optional.of("Example"), name);
+        assertEquals(1.0, meterRegistry.get("company.domain-cache.requests").tag("result", "miss").counter().count());
+        assertEquals(0.0, meterRegistry.get("company.domain-cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("company reads should be served from an up-to-date snapshot without the database")
+    void companyReads_shouldUseSnapshot() {
+        // Arrange
+        TeamleaderCompany company = createTestCompany("tl-1", "Example");
+        company.setId("company-1");
+        company.setDomains(List.of("example.com"));
+        company.setStatus(CompanyStatusType.SUSPENDED);
+        TeamleaderCompanyService service = serviceWithSnapshot(loadedSnapshot(List.of(company)));
+
+        // Act & Assert
+        assertEquals(List.of(company), service.getAllCompanies());
+        assertSame(company, service.getCompanyByTeamleaderId("company-1"));
+        assertSame(company, service.getCompanyByTeamleaderId("tl-1"));
+        assertNull(service.getCompanyByTeamleaderId("unknown"));
+        assertEquals(Optional.of(company), service.findCompanyByDomain("user@Example.com"));
+        assertEquals(Optional.of("Example"), service.findCompanyNameByDomain("example.com"));
+        assertEquals(Optional.empty(), service.findCompanyByDomain("user@gmail.com"));
+        Map<CompanyStatusType, Long> counts = service.getCompanyCountsByStatus();
+        assertEquals(1L, counts.get(CompanyStatusType.SUSPENDED));
+        assertEquals(0L, counts.get(CompanyStatusType.ACTIVE));
+        verifyNoInteractions(companyRepository);
+    }
+
+    @Test
+    @DisplayName("company reads should go to the database while a write has made the snapshot stale")
+    void companyReads_shouldUseDatabaseWhenSnapshotIsStale() {
+        // Arrange
+        TeamleaderCompany company = createTestCompany("tl-1", "Example");
+        company.setId("company-1");
+        CompanySnapshot snapshot = loadedSnapshot(List.of(company));
+        TeamleaderCompanyService service = serviceWithSnapshot(snapshot);
+        String version = service.getDataVersion();
+        TeamleaderCompany renamed = createTestCompany("tl-1", "Renamed");
+        when(companyRepository.findByIdOrTeamleaderId("tl-1")).thenReturn(Optional.of(renamed));
+
+        // Act
+        snapshot.onAfterSave(new AfterSaveEvent<>(renamed, new Document(), "teamleader_companies"));
+        TeamleaderCompany result = service.getCompanyByTeamleaderId("tl-1");
+
+        // Assert
+        assertEquals("Renamed", result.getName());
+        assertNotEquals(version, service.getDataVersion());
+        verify(companyRepository).findByIdOrTeamleaderId("tl-1");
+    }
+
+    private TeamleaderCompanyService serviceWithRealDomainCache() {
+        CompanyDomainCache realCache = new CompanyDomainCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(realCache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(realCache, "maxSize", 100);
+        ReflectionTestUtils.setField(realCache, "freeMailDomains", Set.of("gmail.com"));
+        return new TeamleaderCompanyService(oAuthService, apiConfig, objectMapper, companyRepository, webClient,
+                webClientRetrySpec, realCache, companySnapshot);
+    }
+
+    private CompanySnapshot loadedSnapshot(List<TeamleaderCompany> companies) {
+        CompanySnapshot snapshot = new CompanySnapshot(mongoTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(snapshot, "maxAgeMs", 900000L);
+        when(mongoTemplate.findAll(TeamleaderCompany.class)).thenReturn(companies);
+        snapshot.reload();
+        return snapshot;
+    }
+
+    private TeamleaderCompanyService serviceWithSnapshot(CompanySnapshot snapshot) {
+        CompanyDomainCache realCache = new CompanyDomainCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(realCache, "freeMailDomains", Set.of("gmail.com"));
+        return new TeamleaderCompanyService(oAuthService, apiConfig, objectMapper, companyRepository, webClient,
+                webClientRetrySpec, realCache, snapshot);
+    }
+
     // Simple helper
     private TeamleaderCompany createTestCompany(String id, String name) {
         TeamleaderCompany company = new TeamleaderCompany();
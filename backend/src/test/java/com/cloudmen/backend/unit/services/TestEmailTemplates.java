@@ -0,0 +1,29 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.services.EmailTemplateRenderer;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+/**
+ * Builds an EmailTemplateRenderer over the real templates in
+ * src/main/resources/templates, configured like Spring Boot's default engine
+ */
+final class TestEmailTemplates {
+
+    private TestEmailTemplates() {
+    }
+
+    static EmailTemplateRenderer renderer() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return new EmailTemplateRenderer(engine);
+    }
+}
@@ -0,0 +1,148 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.domain.models.UserAgentEntry;
+import com.cloudmen.backend.repositories.UserAgentEntryRepository;
+import com.cloudmen.backend.services.UserAgentDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserAgentDictionary
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserAgentDictionary Tests")
+public class UserAgentDictionaryTest {
+
+    private static final String CHROME_ON_WINDOWS = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) "
+            + "AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+
+    @Mock
+    private UserAgentEntryRepository userAgentEntryRepository;
+
+    private UserAgentDictionary userAgentDictionary;
+
+    @BeforeEach
+    void setUp() {
+        userAgentDictionary = new UserAgentDictionary(userAgentEntryRepository);
+        ReflectionTestUtils.setField(userAgentDictionary, "cacheSize", 100);
+    }
+
+    @Test
+    @DisplayName("encode - Should store and parse a new user agent once")
+    void encode_ShouldStoreNewUserAgentOnce() {
+        when(userAgentEntryRepository.findById(any())).thenReturn(Optional.empty());
+
+        UserAgentEntry first = userAgentDictionary.encode(CHROME_ON_WINDOWS);
+        UserAgentEntry second = userAgentDictionary.encode(CHROME_ON_WINDOWS);
+
+        assertSame(first, second);
+        assertEquals(UserAgentEntry.idFor(CHROME_ON_WINDOWS), first.getId());
+        assertEquals("Chrome", first.getBrowser());
+        assertEquals("Windows", first.getOperatingSystem());
+        assertEquals("Desktop", first.getDeviceType());
+        verify(userAgentEntryRepository, times(1)).findById(any());
+        verify(userAgentEntryRepository, times(1)).insert(any(UserAgentEntry.class));
+    }
+
+    @Test
+    @DisplayName("encode - Should tolerate a concurrent insert of the same user agent")
+    void encode_ShouldIgnoreDuplicateKey() {
+        when(userAgentEntryRepository.findById(any())).thenReturn(Optional.empty());
+        when(userAgentEntryRepository.insert(any(UserAgentEntry.class)))
+                .thenThrow(new DuplicateKeyException("duplicate"));
+
+        UserAgentEntry entry = userAgentDictionary.encode("curl/8.4.0");
+
+        assertEquals("curl", entry.getBrowser());
+    }
+
+    @Test
+    @DisplayName("resolve - Should load unknown ids once and cache them")
+    void resolve_ShouldCacheLoadedEntries() {
+        UserAgentEntry stored = new UserAgentEntry("Mozilla/5.0 (iPhone; CPU iPhone OS 17_0 like Mac OS X) "
+                + "AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.0 Mobile/15E148 Safari/604.1");
+        when(userAgentEntryRepository.findById(stored.getId())).thenReturn(Optional.of(stored));
+
+        assertSame(stored, userAgentDictionary.resolve(stored.getId()));
+        assertSame(stored, userAgentDictionary.resolve(stored.getId()));
+        assertEquals("Safari", stored.getBrowser());
+        assertEquals("iOS", stored.getOperatingSystem());
+        assertEquals("Mobile", stored.getDeviceType());
+        verify(userAgentEntryRepository, times(1)).findById(stored.getId());
+        assertNull(userAgentDictionary.resolve(null));
+    }
+
+    @Test
+    @DisplayName("inBatch - Should resolve the ids missed during a read with one query")
+    void inBatch_ShouldResolveMissedIdsTogether() {
+        UserAgentEntry chrome = new UserAgentEntry(CHROME_ON_WINDOWS);
+        UserAgentEntry curl = new UserAgentEntry("curl/8.4.0");
+        when(userAgentEntryRepository.findAllById(any())).thenReturn(List.of(chrome, curl));
+        List<UserAgentEntry> applied = new ArrayList<>();
+
+        String result = userAgentDictionary.inBatch(() -> {
+            userAgentDictionary.resolve(chrome.getId(), applied::add);
+            userAgentDictionary.resolve(curl.getId(), applied::add);
+            userAgentDictionary.resolve(chrome.getId(), applied::add);
+            userAgentDictionary.resolve(42L, applied::add);
+            // Nothing is applied before the read returns
+            assertTrue(applied.isEmpty());
+            return "page";
+        });
+
+        assertEquals("page", result);
+        assertEquals(List.of(chrome, chrome, curl), applied);
+        ArgumentCaptor<Iterable<Long>> ids = ArgumentCaptor.forClass(Iterable.class);
+        verify(userAgentEntryRepository, times(1)).findAllById(ids.capture());
+        assertEquals(List.of(chrome.getId(), curl.getId(), 42L), ids.getValue());
+        verify(userAgentEntryRepository, never()).findById(any());
+
+        // Cached now, so resolved at once without a query
+        userAgentDictionary.inBatch(() -> {
+            userAgentDictionary.resolve(curl.getId(), applied::add);
+            return null;
+        });
+        assertEquals(curl, applied.get(3));
+        verify(userAgentEntryRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("resolve - Should evict the least recently used entry when the cache is full")
+    void resolve_ShouldEvictLeastRecentlyUsed() {
+        ReflectionTestUtils.setField(userAgentDictionary, "cacheSize", 2);
+        UserAgentEntry first = new UserAgentEntry("agent-1");
+        UserAgentEntry second = new UserAgentEntry("agent-2");
+        UserAgentEntry third = new UserAgentEntry("agent-3");
+        for (UserAgentEntry entry : List.of(first, second, third)) {
+            lenient().when(userAgentEntryRepository.findById(entry.getId())).thenReturn(Optional.of(entry));
+        }
+
+        userAgentDictionary.resolve(first.getId());
+        userAgentDictionary.resolve(second.getId());
+        userAgentDictionary.resolve(first.getId());
+        userAgentDictionary.resolve(third.getId());
+
+        // The second entry was used least recently, so only it is loaded again
+        userAgentDictionary.resolve(first.getId());
+        userAgentDictionary.resolve(third.getId());
+        userAgentDictionary.resolve(second.getId());
+        verify(userAgentEntryRepository, times(1)).findById(first.getId());
+        verify(userAgentEntryRepository, times(2)).findById(second.getId());
+        verify(userAgentEntryRepository, times(1)).findById(third.getId());
+    }
+}
@@ -0,0 +1,151 @@
+package com.cloudmen.backend.unit.services;
+
+import com.cloudmen.backend.domain.enums.CacheRegion;
+import com.cloudmen.backend.domain.enums.RoleType;
+import com.cloudmen.backend.domain.models.User;
+import com.cloudmen.backend.services.CacheInvalidationEvent;
+import com.cloudmen.backend.services.UserCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UserCache
+ */
+@DisplayName("UserCache Tests")
+public class UserCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(meterRegistry);
+        ReflectionTestUtils.setField(userCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(userCache, "maxSize", 2);
+    }
+
+    @Test
+    @DisplayName("get - Should return copies of cached users by email and Auth0 id")
+    void get_ShouldReturnCopies() {
+        userCache.put(user("1", "a@example.com", "auth0|a"));
+
+        User byEmail = userCache.getByEmail("a@example.com");
+        byEmail.getRoles().add(RoleType.SYSTEM_ADMIN);
+
+        assertEquals("1", userCache.getByAuth0Id("auth0|a").getId());
+        assertEquals(List.of(RoleType.COMPANY_USER), userCache.getByEmail("a@example.com").getRoles());
+        assertNull(userCache.getByEmail("b@example.com"));
+        assertEquals(3, meterRegistry.get("user.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("user.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    @DisplayName("onCacheInvalidation - Should evict users changed on another instance")
+    void onCacheInvalidation_ShouldEvictUsers() {
+        userCache.put(user("1", "a@example.com", "auth0|a"));
+        userCache.put(user("2", "b@example.com", "auth0|b"));
+
+        userCache.onCacheInvalidation(new CacheInvalidationEvent(CacheRegion.COMPANIES, "1"));
+        assertNotNull(userCache.getByEmail("a@example.com"));
+
+        userCache.onCacheInvalidation(new CacheInvalidationEvent(CacheRegion.USERS, "1"));
+        assertNull(userCache.getByEmail("a@example.com"));
+        assertNull(userCache.getByAuth0Id("auth0|a"));
+        assertNotNull(userCache.getByEmail("b@example.com"));
+
+        userCache.onCacheInvalidation(new CacheInvalidationEvent(CacheRegion.USERS, null));
+        assertNull(userCache.getByEmail("b@example.com"));
+    }
+
+    @Test
+    @DisplayName("onAfterSave - Should evict the user under its old email")
+    void onAfterSave_ShouldEvictOldKeys() {
+        userCache.put(user("1", "old@example.com", "auth0|a"));
+
+        User renamed = user("1", "new@example.com", "auth0|a");
+        userCache.onAfterSave(new AfterSaveEvent<>(renamed, new Document(), "users"));
+
+        assertNull(userCache.getByEmail("old@example.com"));
+        assertNull(userCache.getByAuth0Id("auth0|a"));
+    }
+
+    @Test
+    @DisplayName("onAfterDelete - Should evict the deleted user")
+    void onAfterDelete_ShouldEvictUser() {
+        userCache.put(user("1", "a@example.com", "auth0|a"));
+        userCache.put(user("2", "b@example.com", "auth0|b"));
+
+        userCache.onAfterDelete(new AfterDeleteEvent<>(new Document("_id", "1"), User.class, "users"));
+
+        assertNull(userCache.getByEmail("a@example.com"));
+        assertNotNull(userCache.getByEmail("b@example.com"));
+    }
+
+    @Test
+    @DisplayName("put - Should not grow beyond the maximum size")
+    void put_ShouldRespectMaxSize() {
+        userCache.put(user("1", "a@example.com", "auth0|a"));
+        userCache.put(user("2", "b@example.com", "auth0|b"));
+        userCache.put(user("3", "c@example.com", "auth0|c"));
+
+        assertNull(userCache.getByEmail("c@example.com"));
+        assertNotNull(userCache.getByEmail("a@example.com"));
+    }
+
+    @Test
+    @DisplayName("get - Should treat expired entries as misses")
+    void get_ShouldExpireEntries() {
+        ReflectionTestUtils.setField(userCache, "ttlSeconds", 0L);
+        userCache.put(user("1", "a@example.com", "auth0|a"));
+
+        assertNull(userCache.getByEmail("a@example.com"));
+    }
+
+    @Test
+    @DisplayName("put - Should not cache a user loaded while a user was evicted")
+    void put_ShouldSkipLoadsThatRacedAnInvalidation() {
+        long beforeLoad = userCache.generation();
+        // The user is changed and evicted while the old version is being read
+        userCache.invalidateId("1");
+        userCache.put(user("1", "old@example.com", "auth0|a"), beforeLoad);
+
+        assertNull(userCache.getByEmail("old@example.com"));
+        assertNull(userCache.getByAuth0Id("auth0|a"));
+
+        long afterWrite = userCache.generation();
+        userCache.put(user("1", "new@example.com", "auth0|a"), afterWrite);
+        assertEquals("new@example.com", userCache.getByAuth0Id("auth0|a").getEmail());
+    }
+
+    @Test
+    @DisplayName("get - Should not count removing an expired entry as an invalidation")
+    void get_ShouldKeepGenerationWhenExpiring() {
+        ReflectionTestUtils.setField(userCache, "ttlSeconds", 0L);
+        userCache.put(user("1", "a@example.com", "auth0|a"));
+        long generation = userCache.generation();
+
+        assertNull(userCache.getByEmail("a@example.com"));
+        assertEquals(generation, userCache.generation());
+    }
+
+    private static User user(String id, String email, String auth0Id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setAuth0Id(auth0Id);
+        user.setRoles(new ArrayList<>(List.of(RoleType.COMPANY_USER)));
+        return user;
+    }
+}
@@ -3,6 +3,7 @@ package com.cloudmen.backend.unit.services;
 import com.cloudmen.backend.domain.enums.RoleType;
 import com.cloudmen.backend.domain.enums.StatusType;
 import com.cloudmen.backend.domain.models.User;
+import com.cloudmen.backend.services.EmailTemplateRenderer;
 import com.cloudmen.backend.services.UserEmailService;
 import jakarta.mail.MessagingException;
 import jakarta.mail.Session;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -31,6 +33,9 @@ public class UserEmailServiceTest {
     @Mock
     private JavaMailSender mailSender;
 
+    @Spy
+    private EmailTemplateRenderer templateRenderer = TestEmailTemplates.renderer();
+
     @InjectMocks
     private UserEmailService userEmailService;
 
@@ -1,22 +1,36 @@
 package com.cloudmen.backend.unit.services;
 
+import com.cloudmen.backend.domain.enums.CacheRegion;
 import com.cloudmen.backend.domain.enums.RoleType;
 import com.cloudmen.backend.domain.enums.StatusType;
 import com.cloudmen.backend.domain.models.User;
 import com.cloudmen.backend.repositories.UserRepository;
+import com.cloudmen.backend.repositories.UserSearchCriteria;
+import com.cloudmen.backend.services.CacheInvalidationService;
+import com.cloudmen.backend.services.UserCache;
+import com.cloudmen.backend.services.UserSearchIndex;
 import com.cloudmen.backend.services.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +49,15 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
+    @Mock
+    private CacheInvalidationService cacheInvalidation;
+
     @InjectMocks
     private UserService userService;
 
@@ -137,6 +160,45 @@ class UserServiceTest {
         assertEquals("test@example.com", result.get().getEmail());
 
         verify(userRepository).findByEmail("test@example.com");
+        verify(userCache).put(testUser, 0L);
+    }
+
+    @Test
+    @DisplayName("getUserByEmail should not cache a user that was changed while it was read")
+    void getUserByEmail_shouldNotCacheUserInvalidatedDuringLoad() {
+        // Arrange
+        UserCache realCache = new UserCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(realCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(realCache, "maxSize", 10);
+        UserService service = new UserService(userRepository, realCache, userSearchIndex, cacheInvalidation);
+        when(userRepository.findByEmail("test@example.com")).thenAnswer(invocation -> {
+            // Another request updates the user after the old version was read
+            realCache.invalidateId("user-123");
+            return Optional.of(testUser);
+        });
+
+        // Act
+        service.getUserByEmail("test@example.com");
+        service.getUserByEmail("test@example.com");
+
+        // Assert
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+        assertNull(realCache.getByEmail("test@example.com"));
+    }
+
+    @Test
+    @DisplayName("getUserByEmail should serve cached users without a query")
+    void getUserByEmail_shouldUseCache_whenCached() {
+        // Arrange
+        when(userCache.getByEmail("test@example.com")).thenReturn(testUser);
+
+        // Act
+        Optional<User> result = userService.getUserByEmail("test@example.com");
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("user-123", result.get().getId());
+        verify(userRepository, never()).findByEmail(anyString());
     }
 
     @Test
@@ -168,8 +230,7 @@ class UserServiceTest {
         updatedUser.setName("Updated Name");
         updatedUser.setStatus(StatusType.DEACTIVATED);
 
-        when(userRepository.findById(anyString())).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        stubPartialUpdate(testUser);
 
         // Act
         Optional<User> result = userService.updateUser("user-123", updatedUser);
@@ -181,8 +242,10 @@ class UserServiceTest {
         assertEquals("Updated Name", resultUser.getName());
         assertEquals(StatusType.DEACTIVATED, resultUser.getStatus());
 
-        verify(userRepository).findById("user-123");
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).updateFieldsIf(eq("user-123"), isNull(), anyMap());
+        verify(userRepository, never()).save(any(User.class));
+        verify(userSearchIndex).put(resultUser);
+        verify(cacheInvalidation).publish(CacheRegion.USERS, "user-123");
     }
 
     @Test
@@ -193,8 +256,7 @@ class UserServiceTest {
         partialUpdate.setName("New Name");
         // Other fields are null - should not be updated
 
-        when(userRepository.findById(anyString())).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        stubPartialUpdate(testUser);
 
         // Act
         Optional<User> result = userService.updateUser("user-123", partialUpdate);
@@ -206,8 +268,8 @@ class UserServiceTest {
         assertEquals("test@example.com", resultUser.getEmail()); // Should not be changed
         assertEquals(StatusType.ACTIVATED, resultUser.getStatus()); // Should not be changed
 
-        verify(userRepository).findById("user-123");
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).updateFieldsIf(eq("user-123"), isNull(), anyMap());
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -217,7 +279,7 @@ class UserServiceTest {
         User updatedUser = new User();
         updatedUser.setEmail("updated@example.com");
 
-        when(userRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(userRepository.updateFieldsIf(anyString(), isNull(), anyMap())).thenReturn(Optional.empty());
 
         // Act
         Optional<User> result = userService.updateUser("non-existent", updatedUser);
@@ -225,7 +287,8 @@ class UserServiceTest {
         // Assert
         assertFalse(result.isPresent());
 
-        verify(userRepository).findById("non-existent");
+        verify(userRepository).updateFieldsIf(eq("non-existent"), isNull(), anyMap());
+        verifyNoInteractions(userSearchIndex, cacheInvalidation);
         verifyNoMoreInteractions(userRepository);
     }
 
@@ -237,6 +300,7 @@ class UserServiceTest {
 
         // Assert
         verify(userRepository).deleteById("user-123");
+        verify(userCache).invalidateId("user-123");
     }
 
     @Test
@@ -250,8 +314,7 @@ class UserServiceTest {
         User updatedDetails = new User();
         updatedDetails.setRoles(Arrays.asList(RoleType.COMPANY_USER, RoleType.COMPANY_ADMIN));
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        stubPartialUpdate(existingUser);
 
         // Act
         Optional<User> result = userService.updateUser(userId, updatedDetails);
@@ -264,8 +327,8 @@ class UserServiceTest {
         assertTrue(updatedUser.getRoles().contains(RoleType.COMPANY_ADMIN));
 
         // Verify repository interactions
-        verify(userRepository).findById(userId);
-        verify(userRepository).save(existingUser);
+        verify(userRepository).updateFieldsIf(eq(userId), isNull(), anyMap());
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -279,8 +342,7 @@ class UserServiceTest {
         User updatedDetails = new User();
         updatedDetails.setStatus(StatusType.DEACTIVATED);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        stubPartialUpdate(existingUser);
 
         // Act
         Optional<User> result = userService.updateUser(userId, updatedDetails);
@@ -291,8 +353,8 @@ class UserServiceTest {
         assertEquals(StatusType.DEACTIVATED, updatedUser.getStatus());
 
         // Verify repository interactions
-        verify(userRepository).findById(userId);
-        verify(userRepository).save(existingUser);
+        verify(userRepository).updateFieldsIf(eq(userId), isNull(), anyMap());
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -306,8 +368,7 @@ class UserServiceTest {
         User updatedDetails = new User();
         updatedDetails.setPrimaryDomain("domain2");
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        stubPartialUpdate(existingUser);
 
         // Act
         Optional<User> result = userService.updateUser(userId, updatedDetails);
@@ -318,8 +379,8 @@ class UserServiceTest {
         assertEquals("domain2", updatedUser.getPrimaryDomain());
 
         // Verify repository interactions
-        verify(userRepository).findById(userId);
-        verify(userRepository).save(existingUser);
+        verify(userRepository).updateFieldsIf(eq(userId), isNull(), anyMap());
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -333,8 +394,7 @@ class UserServiceTest {
         User updatedDetails = new User();
         updatedDetails.setFirstName("Jane");
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        stubPartialUpdate(existingUser);
 
         // Act
         Optional<User> result = userService.updateUser(userId, updatedDetails);
@@ -345,8 +405,8 @@ class UserServiceTest {
         assertEquals("Jane", updatedUser.getFirstName());
 
         // Verify repository interactions
-        verify(userRepository).findById(userId);
-        verify(userRepository).save(existingUser);
+        verify(userRepository).updateFieldsIf(eq(userId), isNull(), anyMap());
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -360,8 +420,7 @@ class UserServiceTest {
         User updatedDetails = new User();
         updatedDetails.setLastName("Smith");
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        stubPartialUpdate(existingUser);
 
         // Act
         Optional<User> result = userService.updateUser(userId, updatedDetails);
@@ -372,8 +431,8 @@ class UserServiceTest {
         assertEquals("Smith", updatedUser.getLastName());
 
         // Verify repository interactions
-        verify(userRepository).findById(userId);
-        verify(userRepository).save(existingUser);
+        verify(userRepository).updateFieldsIf(eq(userId), isNull(), anyMap());
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -387,8 +446,7 @@ class UserServiceTest {
         User updatedDetails = new User();
         updatedDetails.setPicture("new-picture-url");
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        stubPartialUpdate(existingUser);
 
         // Act
         Optional<User> result = userService.updateUser(userId, updatedDetails);
@@ -399,13 +457,124 @@ class UserServiceTest {
         assertEquals("new-picture-url", updatedUser.getPicture());
 
         // Verify repository interactions
-        verify(userRepository).findById(userId);
-        verify(userRepository).save(existingUser);
+        verify(userRepository).updateFieldsIf(eq(userId), isNull(), anyMap());
+        verify(userRepository, never()).save(any(User.class));
     }
 
     /**
      * Helper method to create a test user with basic properties
      */
+    @Test
+    @DisplayName("approvePendingUser should give users without roles the COMPANY_USER role")
+    void approvePendingUser_shouldAssignDefaultRole_whenUserHasNoRoles() {
+        // Arrange: the first (has-roles) update does not match, the second does
+        when(userRepository.updateFieldsIf(eq("user-123"), any(Criteria.class), anyMap()))
+                .thenReturn(Optional.empty(), Optional.of(testUser));
+
+        // Act
+        Optional<User> result = userService.approvePendingUser("user-123");
+
+        // Assert
+        assertTrue(result.isPresent());
+        verify(userRepository, times(2)).updateFieldsIf(eq("user-123"), any(Criteria.class), anyMap());
+        verify(userRepository).updateFieldsIf(eq("user-123"), any(Criteria.class),
+                argThat(fields -> fields.get("status") == StatusType.ACTIVATED
+                        && List.of(RoleType.COMPANY_USER).equals(fields.get("roles"))));
+        verify(userCache).invalidate(testUser);
+    }
+
+    @Test
+    @DisplayName("rejectPendingUser should return empty when the user is not pending")
+    void rejectPendingUser_shouldReturnEmpty_whenNotPending() {
+        // Arrange
+        when(userRepository.updateFieldsIf(eq("user-123"), any(Criteria.class), anyMap()))
+                .thenReturn(Optional.empty());
+
+        // Act
+        Optional<User> result = userService.rejectPendingUser("user-123");
+
+        // Assert
+        assertFalse(result.isPresent());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    @DisplayName("approvePendingUsers should approve the pending ids in one bulk write and return those users")
+    void approvePendingUsers_shouldUseSingleBulkWrite() {
+        // Arrange
+        UserSearchCriteria criteria = new UserSearchCriteria().domain("example.com");
+        when(userRepository.findByCriteria(any(Criteria.class), eq(List.of("_id"))))
+                .thenReturn(List.of(createTestUser("user-123", null), createTestUser("user-456", null)));
+        when(userRepository.bulkUpdate(anyList())).thenReturn(2L);
+        when(userRepository.findByCriteria(any(Criteria.class))).thenReturn(List.of(testUser));
+
+        // Act
+        List<User> approved = userService.approvePendingUsers(criteria);
+
+        // Assert
+        assertEquals(List.of(testUser), approved);
+        ArgumentCaptor<List<Pair<Query, UpdateDefinition>>> updates = ArgumentCaptor.forClass(List.class);
+        verify(userRepository).bulkUpdate(updates.capture());
+        assertEquals(2, updates.getValue().size());
+        for (Pair<Query, UpdateDefinition> update : updates.getValue()) {
+            List<?> conditions = (List<?>) update.getFirst().getQueryObject().get("$and");
+            assertEquals(new Document("_id", new Document("$in", List.of("user-123", "user-456")))
+                    .append("status", StatusType.PENDING), conditions.get(0));
+        }
+        ArgumentCaptor<Criteria> fetched = ArgumentCaptor.forClass(Criteria.class);
+        verify(userRepository).findByCriteria(fetched.capture());
+        Object changedAt = ((Document) updates.getValue().get(0).getSecond().getUpdateObject().get("$set"))
+                .get("dateTimeChanged");
+        // Only the users this write changed, not ones approved meanwhile by someone else
+        assertEquals(new Document("_id", new Document("$in", List.of("user-123", "user-456")))
+                .append("status", StatusType.ACTIVATED)
+                .append("dateTimeChanged", changedAt), fetched.getValue().getCriteriaObject());
+        verify(userRepository, never()).save(any(User.class));
+        verify(userCache).clear();
+        verify(cacheInvalidation).publish(CacheRegion.USERS, null);
+    }
+
+    @Test
+    @DisplayName("approvePendingUsers should not write or look up users when none are pending")
+    void approvePendingUsers_shouldReturnEmpty_whenNothingPending() {
+        // Arrange
+        when(userRepository.findByCriteria(any(Criteria.class), eq(List.of("_id")))).thenReturn(List.of());
+
+        // Act
+        List<User> approved = userService.approvePendingUsers(new UserSearchCriteria().ids(List.of("user-123")));
+
+        // Assert
+        assertTrue(approved.isEmpty());
+        verify(userRepository, never()).bulkUpdate(anyList());
+        verify(userRepository, never()).findByCriteria(any(Criteria.class));
+    }
+
+    @Test
+    @DisplayName("approvePendingUsers should not look up users when nothing was approved")
+    void approvePendingUsers_shouldReturnEmpty_whenNothingApproved() {
+        // Arrange
+        when(userRepository.findByCriteria(any(Criteria.class), eq(List.of("_id"))))
+                .thenReturn(List.of(createTestUser("user-123", null)));
+        when(userRepository.bulkUpdate(anyList())).thenReturn(0L);
+
+        // Act
+        List<User> approved = userService.approvePendingUsers(new UserSearchCriteria().ids(List.of("user-123")));
+
+        // Assert
+        assertTrue(approved.isEmpty());
+        verify(userRepository, never()).findByCriteria(any(Criteria.class));
+    }
+
+    // Simulate the atomic partial update by applying the $set fields to the user
+    private void stubPartialUpdate(User user) {
+        when(userRepository.updateFieldsIf(anyString(), isNull(), anyMap())).thenAnswer(invocation -> {
+            Map<String, Object> fields = invocation.getArgument(2);
+            User updated = new User(user);
+            fields.forEach((field, value) -> ReflectionTestUtils.setField(updated, field, value));
+            return Optional.of(updated);
+        });
+    }
+
     private User createTestUser(String id, String email) {
         User user = new User();
         user.setId(id);
@@ -116,8 +116,11 @@ class UserSyncServiceTest {
     @DisplayName("syncUserWithAuth0 should update existing user")
     void syncUserWithAuth0_shouldUpdateExistingUser() {
         // Arrange
+        User updatedUser = new User(testUser);
+        updatedUser.setAuth0Id("auth0|12345");
+        updatedUser.setPrimaryDomain("example.com");
         when(userService.getUserByEmail(anyString())).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userService.updateUserFields(eq("user-123"), anyMap())).thenReturn(Optional.of(updatedUser));
 
         // Act
         User result = userSyncService.syncUserWithAuth0("test@example.com", auth0Data);
@@ -128,7 +131,10 @@ class UserSyncServiceTest {
         assertEquals("Test User", result.getName());
 
         verify(userService).getUserByEmail("test@example.com");
-        verify(userRepository).save(any(User.class));
+        // Only the changed fields are written; the unchanged name is not
+        verify(userService).updateUserFields("user-123",
+                Map.of("auth0Id", "auth0|12345", "primaryDomain", "example.com"));
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
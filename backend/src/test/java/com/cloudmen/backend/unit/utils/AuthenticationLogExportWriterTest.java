@@ -0,0 +1,83 @@
+package com.cloudmen.backend.unit.utils;
+
+import com.cloudmen.backend.domain.models.AuthenticationLog;
+import com.cloudmen.backend.utils.AuthenticationLogExportWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AuthenticationLogExportWriter
+ */
+@DisplayName("AuthenticationLogExportWriter Tests")
+public class AuthenticationLogExportWriterTest {
+
+    @Test
+    @DisplayName("NDJSON - Should write one JSON object per line")
+    void ndjson_ShouldWriteOneObjectPerLine() throws IOException {
+        String output = export(AuthenticationLogExportWriter.Format.NDJSON,
+                log("a@example.com", null), log("b@example.com", "Invalid password"));
+
+        String[] lines = output.split("\n");
+        assertEquals(2, lines.length);
+        JsonNode second = new ObjectMapper().readTree(lines[1]);
+        assertEquals("b@example.com", second.get("email").asText());
+        assertEquals("2024-01-01T10:00", second.get("timestamp").asText());
+        assertEquals("Invalid password", second.get("failureReason").asText());
+        assertFalse(second.get("successful").asBoolean());
+        assertEquals("10.0.0.1", second.get("ipAddress").asText());
+    }
+
+    @Test
+    @DisplayName("CSV - Should write a header and quote special characters")
+    void csv_ShouldQuoteSpecialCharacters() throws IOException {
+        String output = export(AuthenticationLogExportWriter.Format.CSV,
+                log("a@example.com", "Bad \"token\", expired"), log("b@example.com", "=HYPERLINK(1)"));
+
+        String[] lines = output.split("\r\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("timestamp,email,primaryDomain"));
+        assertTrue(lines[1].contains(",\"Bad \"\"token\"\", expired\","));
+        assertTrue(lines[2].contains(",'=HYPERLINK(1),"));
+    }
+
+    @Test
+    @DisplayName("Format - Should parse names case-insensitively")
+    void format_ShouldParseNames() {
+        assertEquals(AuthenticationLogExportWriter.Format.CSV, AuthenticationLogExportWriter.Format.fromName("CSV"));
+        assertEquals(AuthenticationLogExportWriter.Format.NDJSON,
+                AuthenticationLogExportWriter.Format.fromName("ndjson"));
+        assertNull(AuthenticationLogExportWriter.Format.fromName("xml"));
+    }
+
+    private static String export(AuthenticationLogExportWriter.Format format, AuthenticationLog... logs)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AuthenticationLogExportWriter writer = new AuthenticationLogExportWriter(format, out);
+        for (AuthenticationLog log : logs) {
+            writer.write(log);
+        }
+        writer.flush();
+        assertEquals(logs.length, writer.getCount());
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static AuthenticationLog log(String email, String failureReason) {
+        AuthenticationLog log = new AuthenticationLog();
+        log.setEmail(email);
+        log.setPrimaryDomain("example.com");
+        log.setTimestamp(LocalDateTime.of(2024, 1, 1, 10, 0));
+        log.setIpAddress("10.0.0.1");
+        log.setSuccessful(failureReason == null);
+        log.setFailureReason(failureReason);
+        return log;
+    }
+}
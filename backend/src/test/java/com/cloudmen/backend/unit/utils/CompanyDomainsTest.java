@@ -0,0 +1,63 @@
+package com.cloudmen.backend.unit.utils;
+
+import com.cloudmen.backend.domain.models.TeamleaderCompany;
+import com.cloudmen.backend.utils.CompanyDomains;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CompanyDomains
+ */
+@DisplayName("CompanyDomains Tests")
+class CompanyDomainsTest {
+
+    @Test
+    @DisplayName("of - Should collect email, website and custom contact domains without duplicates")
+    void of_ShouldCollectAllDomains() {
+        TeamleaderCompany company = new TeamleaderCompany("tl-1", "Example");
+        company.setContactInfo(List.of(
+                new TeamleaderCompany.ContactInfo("email-primary", "Info@Example.com"),
+                new TeamleaderCompany.ContactInfo("email-invoicing", "billing@example.com"),
+                new TeamleaderCompany.ContactInfo("phone-mobile", "+32 470 00 00 00")));
+        company.setWebsite("https://www.Example-Group.be/contact?lang=en");
+        company.setCustomFields(Map.of("contacts", "[{\"email\":\"jane@subsidiary.example.org\"},{\"name\":\"x\"}]"));
+
+        assertEquals(List.of("example.com", "example-group.be", "subsidiary.example.org"),
+                CompanyDomains.of(company));
+    }
+
+    @Test
+    @DisplayName("of - Should accept custom contacts stored as a list and ignore unparseable values")
+    void of_ShouldHandleCustomContactFormats() {
+        TeamleaderCompany listContacts = new TeamleaderCompany("tl-1", "Example");
+        listContacts.setCustomFields(Map.of("contacts", List.of(Map.of("email", "a@list.example.com"))));
+        TeamleaderCompany textContacts = new TeamleaderCompany("tl-2", "Other");
+        textContacts.setCustomFields(Map.of("contacts", "not json"));
+
+        assertEquals(List.of("list.example.com"), CompanyDomains.of(listContacts));
+        assertTrue(CompanyDomains.of(textContacts).isEmpty());
+    }
+
+    @Test
+    @DisplayName("fromUrl - Should reduce a website to its host")
+    void fromUrl_ShouldExtractHost() {
+        assertEquals("example.com", CompanyDomains.fromUrl("example.com"));
+        assertEquals("example.com", CompanyDomains.fromUrl("http://www.example.com:8080/path"));
+        assertEquals("shop.example.com", CompanyDomains.fromUrl("HTTPS://shop.example.com#top"));
+        assertNull(CompanyDomains.fromUrl("localhost"));
+        assertNull(CompanyDomains.fromUrl(null));
+    }
+
+    @Test
+    @DisplayName("fromEmail - Should extract the lower-case domain")
+    void fromEmail_ShouldExtractDomain() {
+        assertEquals("example.com", CompanyDomains.fromEmail("John@EXAMPLE.com"));
+        assertNull(CompanyDomains.fromEmail("no-at-sign"));
+        assertNull(CompanyDomains.fromEmail(null));
+    }
+}
@@ -0,0 +1,62 @@
+package com.cloudmen.backend.unit.utils;
+
+import com.cloudmen.backend.utils.IpAddressCodec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IpAddressCodec
+ */
+@DisplayName("IpAddressCodec Tests")
+public class IpAddressCodecTest {
+
+    @Test
+    @DisplayName("encode/decode - Should round-trip IPv4 and IPv6 literals")
+    void encode_ShouldRoundTrip() {
+        assertEquals("192.168.1.10", IpAddressCodec.decode(IpAddressCodec.encode("192.168.1.10")));
+        assertEquals("2001:db8:0:0:0:0:0:1", IpAddressCodec.decode(IpAddressCodec.encode("2001:db8::1")));
+        assertEquals("10.0.0.1", IpAddressCodec.decode(IpAddressCodec.encode("::ffff:10.0.0.1")));
+        assertEquals(16, IpAddressCodec.encode("127.0.0.1").length);
+    }
+
+    @Test
+    @DisplayName("encode - Should reject anything that is not an IP literal")
+    void encode_ShouldRejectNonLiterals() {
+        assertNull(IpAddressCodec.encode("unknown"));
+        assertNull(IpAddressCodec.encode("example.com"));
+        assertNull(IpAddressCodec.encode("256.1.1.1"));
+        assertNull(IpAddressCodec.encode("1.2.3"));
+        assertNull(IpAddressCodec.encode(""));
+        assertNull(IpAddressCodec.encode(null));
+    }
+
+    @Test
+    @DisplayName("encode - Should order addresses numerically")
+    void encode_ShouldPreserveNumericOrder() {
+        assertTrue(Arrays.compareUnsigned(IpAddressCodec.encode("10.0.0.9"), IpAddressCodec.encode("10.0.0.10")) < 0);
+        assertTrue(Arrays.compareUnsigned(IpAddressCodec.encode("9.255.255.255"),
+                IpAddressCodec.encode("10.0.0.0")) < 0);
+    }
+
+    @Test
+    @DisplayName("range - Should return the first and last address of a CIDR block")
+    void range_ShouldCoverCidrBlock() {
+        byte[][] v4 = IpAddressCodec.range("10.1.2.3/16");
+        assertEquals("10.1.0.0", IpAddressCodec.decode(v4[0]));
+        assertEquals("10.1.255.255", IpAddressCodec.decode(v4[1]));
+
+        byte[][] v6 = IpAddressCodec.range("2001:db8::/32");
+        assertEquals("2001:db8:0:0:0:0:0:0", IpAddressCodec.decode(v6[0]));
+        assertEquals("2001:db8:ffff:ffff:ffff:ffff:ffff:ffff", IpAddressCodec.decode(v6[1]));
+
+        byte[][] single = IpAddressCodec.range("10.0.0.1");
+        assertArrayEquals(single[0], single[1]);
+
+        assertNull(IpAddressCodec.range("10.0.0.0/33"));
+        assertNull(IpAddressCodec.range("not-an-ip/8"));
+    }
+}
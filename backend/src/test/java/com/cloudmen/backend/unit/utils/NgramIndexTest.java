@@ -0,0 +1,96 @@
+package com.cloudmen.backend.unit.utils;
+
+import com.cloudmen.backend.utils.NgramIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NgramIndex
+ */
+@DisplayName("NgramIndex Tests")
+public class NgramIndexTest {
+
+    private NgramIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NgramIndex<>();
+        index.put("1", List.of("Acme Belgium", "info@acme.be"), "acme-belgium");
+        index.put("2", List.of("Acme", "BE0123456789"), "acme");
+        index.put("3", List.of("Blue Acme Systems"), "blue-acme");
+        index.put("4", List.of("Café Zürich", "hello@cafe.ch"), "cafe");
+    }
+
+    @Test
+    @DisplayName("normalize - Should lower-case, strip accents and collapse whitespace")
+    void normalize_ShouldStripCaseAccentsAndSpaces() {
+        assertEquals("cafe zurich", NgramIndex.normalize("  Café   ZÜRICH "));
+        assertEquals("", NgramIndex.normalize(null));
+    }
+
+    @Test
+    @DisplayName("search - Should rank exact, then prefix, then word prefix, then substring matches")
+    void search_ShouldRankMatches() {
+        index.put("5", List.of("Pacmen"), "pacmen");
+
+        assertEquals(List.of("acme", "acme-belgium", "blue-acme", "pacmen"), index.search("acme", 10));
+        assertEquals(List.of("pacmen"), index.search("pacm", 10));
+    }
+
+    @Test
+    @DisplayName("search - Should match every query word, in any order and across terms")
+    void search_ShouldMatchAllWordsInAnyOrder() {
+        assertEquals(List.of("acme-belgium"), index.search("belgium acme", 10));
+        assertEquals(List.of("acme-belgium"), index.search("acme.be", 10));
+        assertEquals(List.of(), index.search("acme zurich", 10));
+    }
+
+    @Test
+    @DisplayName("search - Should ignore case and accents")
+    void search_ShouldIgnoreCaseAndAccents() {
+        assertEquals(List.of("cafe"), index.search("CAFE zur", 10));
+        assertEquals(List.of("cafe"), index.search("Zür", 10));
+    }
+
+    @Test
+    @DisplayName("search - Should match one- and two-character queries on word prefixes only")
+    void search_ShouldMatchShortQueriesOnWordPrefixes() {
+        assertEquals(List.of("blue-acme"), index.search("sy", 10));
+        assertEquals(List.of("cafe"), index.search("z", 10));
+        assertEquals(List.of(), index.search("ys", 10));
+    }
+
+    @Test
+    @DisplayName("search - Should return at most limit results")
+    void search_ShouldApplyLimit() {
+        assertEquals(List.of("acme"), index.search("acme", 1));
+        assertEquals(List.of(), index.search("acme", 0));
+        assertEquals(List.of(), index.search("  ", 10));
+    }
+
+    @Test
+    @DisplayName("put - Should replace the terms of an existing entry")
+    void put_ShouldReplaceEntry() {
+        index.put("2", List.of("Globex"), "globex");
+
+        assertEquals(List.of("acme-belgium", "blue-acme"), index.search("acme", 10));
+        assertEquals(List.of("globex"), index.search("glob", 10));
+        assertEquals(List.of(), index.search("be0123", 10));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    @DisplayName("remove - Should drop the entry from every lookup")
+    void remove_ShouldDropEntry() {
+        index.remove("4");
+
+        assertEquals(List.of(), index.search("cafe", 10));
+        assertEquals(List.of(), index.search("z", 10));
+        assertEquals(3, index.size());
+    }
+}
@@ -0,0 +1,144 @@
+package com.cloudmen.backend.unit.utils;
+
+import com.cloudmen.backend.utils.PooledSmtpMailSender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PooledSmtpMailSender, against a local SMTP stand-in
+ */
+@DisplayName("PooledSmtpMailSender Tests")
+public class PooledSmtpMailSenderTest {
+
+    private StubSmtpServer smtpServer;
+    private PooledSmtpMailSender mailSender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new StubSmtpServer();
+        mailSender = sender(2, 100, 30000);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mailSender.close();
+        smtpServer.close();
+    }
+
+    @Test
+    @DisplayName("send - Should reuse one connection for consecutive sends")
+    void send_ShouldReuseConnection() {
+        for (int i = 0; i < 5; i++) {
+            mailSender.send(message(i));
+        }
+
+        assertEquals(5, smtpServer.getMessages().size());
+        assertEquals(1, mailSender.getConnectionsOpened());
+        assertEquals(1, smtpServer.getConnectionCount());
+        assertEquals(1, mailSender.getIdleConnections());
+    }
+
+    @Test
+    @DisplayName("send - Should send a batch over one connection")
+    void send_ShouldSendBatchOverOneConnection() {
+        mailSender.send(message(1), message(2), message(3));
+
+        assertEquals(3, smtpServer.getMessages().size());
+        assertEquals(1, smtpServer.getConnectionCount());
+    }
+
+    @Test
+    @DisplayName("send - Should retry on a new connection when the server dropped the pooled one")
+    void send_ShouldRetryWhenPooledConnectionWasDropped() throws Exception {
+        mailSender.send(message(1));
+        smtpServer.dropConnections();
+
+        mailSender.send(message(2));
+
+        assertEquals(2, smtpServer.getMessages().size());
+        assertEquals(2, mailSender.getConnectionsOpened());
+    }
+
+    @Test
+    @DisplayName("send - Should replace a connection after the per-connection message limit")
+    void send_ShouldReplaceConnectionAfterMessageLimit() {
+        mailSender.close();
+        mailSender = sender(2, 2, 30000);
+
+        for (int i = 0; i < 5; i++) {
+            mailSender.send(message(i));
+        }
+
+        assertEquals(5, smtpServer.getMessages().size());
+        assertEquals(3, mailSender.getConnectionsOpened());
+    }
+
+    @Test
+    @DisplayName("send - Should not reuse connections that have been idle too long")
+    void send_ShouldNotReuseExpiredConnections() throws Exception {
+        mailSender.close();
+        mailSender = sender(2, 100, 1);
+
+        mailSender.send(message(1));
+        Thread.sleep(5);
+        mailSender.send(message(2));
+
+        assertEquals(2, mailSender.getConnectionsOpened());
+    }
+
+    @Test
+    @DisplayName("send - Should never open more connections than the pool size")
+    void send_ShouldBoundConnectionsUnderConcurrency() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 6; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5; i++) {
+                        mailSender.send(message(i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(30, smtpServer.getMessages().size());
+        assertTrue(mailSender.getConnectionsOpened() <= 2,
+                "opened " + mailSender.getConnectionsOpened() + " connections");
+    }
+
+    private PooledSmtpMailSender sender(int maxConnections, int maxMessagesPerConnection, long maxIdleMs) {
+        PooledSmtpMailSender sender = new PooledSmtpMailSender(maxConnections, maxMessagesPerConnection,
+                maxIdleMs, 5000);
+        sender.setHost("127.0.0.1");
+        sender.setPort(smtpServer.getPort());
+        sender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        sender.getJavaMailProperties().put("mail.smtp.timeout", "2000");
+        return sender;
+    }
+
+    private static SimpleMailMessage message(int i) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("test@example.com");
+        message.setTo("recipient" + i + "@example.com");
+        message.setSubject("Message " + i);
+        message.setText("Body " + i);
+        return message;
+    }
+}
@@ -0,0 +1,84 @@
+package com.cloudmen.backend.unit.utils;
+
+import com.cloudmen.backend.utils.SingleFlightCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlightCache. The caching behaviour is covered through
+ * GoogleWorkspaceSubscriptionCacheTest and SignatureSatoriCreditsCacheTest.
+ */
+@DisplayName("SingleFlightCache Tests")
+class SingleFlightCacheTest {
+
+    private static final String PREFIX = "test-cache";
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("get - Should count hits, stale hits and misses under the prefix")
+    void get_ShouldReportRequestsAndSize() {
+        TestCache cache = new TestCache(meterRegistry, true, 0, 900);
+
+        cache.get("a", () -> Mono.just("1")).block();
+        cache.get("a", () -> Mono.just("2")).block();
+
+        assertEquals(1, count("miss"));
+        assertEquals(1, count("stale"));
+        assertEquals(0, count("hit"));
+        assertEquals(1, meterRegistry.get(PREFIX + ".size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("get - Should neither serve nor report stale entries when staleness is off")
+    void get_ShouldReloadExpiredEntriesWithoutServeStale() {
+        TestCache cache = new TestCache(meterRegistry, false, 0, 0);
+
+        assertEquals("1", cache.get("a", () -> Mono.just("1")).block());
+        assertEquals("2", cache.get("a", () -> Mono.just("2")).block());
+
+        assertEquals(2, count("miss"));
+        assertNull(meterRegistry.find(PREFIX + ".requests").tag("result", "stale").counter());
+    }
+
+    private double count(String result) {
+        return meterRegistry.get(PREFIX + ".requests").tag("result", result).counter().count();
+    }
+
+    private static class TestCache extends SingleFlightCache<String, String> {
+        private final long ttlSeconds;
+        private final long maxStaleSeconds;
+
+        private TestCache(MeterRegistry meterRegistry, boolean serveStale, long ttlSeconds, long maxStaleSeconds) {
+            super(meterRegistry, PREFIX, serveStale);
+            this.ttlSeconds = ttlSeconds;
+            this.maxStaleSeconds = maxStaleSeconds;
+        }
+
+        @Override
+        protected long ttlSeconds() {
+            return ttlSeconds;
+        }
+
+        @Override
+        protected long maxStaleSeconds() {
+            return maxStaleSeconds;
+        }
+
+        @Override
+        protected int maxSize() {
+            return 100;
+        }
+    }
+}
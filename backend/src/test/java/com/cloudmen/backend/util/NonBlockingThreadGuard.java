@@ -0,0 +1,90 @@
+package com.cloudmen.backend.util;
+
+import org.mockito.stubbing.Answer;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Detects blocking calls made on non-blocking threads, in the spirit of
+ * BlockHound. Stub blocking collaborators (repositories, SMTP, ...) with
+ * {@link #blocking}; every call they receive on a thread Reactor marks as
+ * non-blocking (WebClient event loops, the parallel scheduler) is recorded and
+ * fails {@link #assertNoBlockingCalls()}.
+ * NonBlockingThreadGuardExtension installs a guard for every test and
+ * reports calls to blocking mocks without any stubbing; use
+ * {@link #current()} to inspect it.
+ */
+public class NonBlockingThreadGuard {
+
+    private static volatile NonBlockingThreadGuard current;
+
+    private final List<String> violations = new CopyOnWriteArrayList<>();
+
+    /**
+     * @return The guard of the running test, or null outside of a test
+     */
+    public static NonBlockingThreadGuard current() {
+        return current;
+    }
+
+    static void install(NonBlockingThreadGuard guard) {
+        current = guard;
+    }
+
+    /**
+     * Deliver a value the way a WebClient response is delivered: on a
+     * non-blocking thread
+     *
+     * @param value The value
+     * @return A Mono emitting the value on a non-blocking thread
+     */
+    public static <T> Mono<T> onEventLoop(T value) {
+        return Mono.just(value).publishOn(Schedulers.parallel());
+    }
+
+    /**
+     * Wrap the answer of a blocking call, recording calls on non-blocking
+     * threads
+     *
+     * @param answer The answer to give
+     * @return The guarded answer
+     */
+    public <T> Answer<T> blocking(Answer<T> answer) {
+        return invocation -> {
+            check(invocation.getMethod().getName());
+            return answer.answer(invocation);
+        };
+    }
+
+    /**
+     * Record a blocking call if it is made on a non-blocking thread
+     *
+     * @param call A description of the call
+     */
+    public void check(String call) {
+        if (Schedulers.isInNonBlockingThread()) {
+            violations.add(call + " on " + Thread.currentThread().getName());
+        }
+    }
+
+    /**
+     * Fail if any guarded call was made on a non-blocking thread
+     */
+    public void assertNoBlockingCalls() {
+        if (!violations.isEmpty()) {
+            fail("Blocking calls on non-blocking threads: " + violations);
+        }
+    }
+
+    /**
+     * @return The blocking calls made on non-blocking threads
+     */
+    public List<String> getViolations() {
+        return List.copyOf(violations);
+    }
+}
@@ -0,0 +1,77 @@
+package com.cloudmen.backend.util;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.Mockito;
+import org.mockito.listeners.MockCreationListener;
+import org.mockito.mock.MockCreationSettings;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.repository.Repository;
+import org.springframework.mail.MailSender;
+
+import java.util.List;
+
+/**
+ * Runs every test under a {@link NonBlockingThreadGuard}. Registered for the
+ * whole suite through junit-platform.properties and the Extension service
+ * file, so tests do not opt in. Mocks of blocking types (Spring Data
+ * repositories, MongoOperations, mail senders) created during a test report
+ * every call they receive on a non-blocking thread, and the test fails if
+ * there were any.
+ */
+public class NonBlockingThreadGuardExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(NonBlockingThreadGuardExtension.class);
+
+    private static final List<Class<?>> BLOCKING_TYPES = List.of(
+            Repository.class, MongoOperations.class, MailSender.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        NonBlockingThreadGuard guard = new NonBlockingThreadGuard();
+        GuardingMockListener listener = new GuardingMockListener();
+        // Mockito framework listeners are per thread, like the test itself
+        Mockito.framework().addListener(listener);
+        NonBlockingThreadGuard.install(guard);
+        ExtensionContext.Store store = context.getStore(NAMESPACE);
+        store.put(GuardingMockListener.class, listener);
+        store.put(NonBlockingThreadGuard.class, guard);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        ExtensionContext.Store store = context.getStore(NAMESPACE);
+        GuardingMockListener listener = store.remove(GuardingMockListener.class, GuardingMockListener.class);
+        NonBlockingThreadGuard guard = store.remove(NonBlockingThreadGuard.class, NonBlockingThreadGuard.class);
+        if (listener == null) {
+            return;
+        }
+        Mockito.framework().removeListener(listener);
+        NonBlockingThreadGuard.install(null);
+        guard.assertNoBlockingCalls();
+    }
+
+    private static boolean isBlocking(Class<?> type) {
+        return BLOCKING_TYPES.stream().anyMatch(blocking -> blocking.isAssignableFrom(type));
+    }
+
+    private static class GuardingMockListener implements MockCreationListener {
+
+        @Override
+        public void onMockCreated(Object mock, MockCreationSettings settings) {
+            MockCreationSettings<?> created = settings;
+            if (isBlocking(created.getTypeToMock())) {
+                // The listener list is shared with the mock's handler
+                created.getInvocationListeners().add(report -> {
+                    // Reported to the guard installed when the call is made
+                    NonBlockingThreadGuard guard = NonBlockingThreadGuard.current();
+                    if (guard != null) {
+                        guard.check(report.getInvocation().toString());
+                    }
+                });
+            }
+        }
+    }
+}
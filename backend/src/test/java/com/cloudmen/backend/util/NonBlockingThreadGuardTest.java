@@ -0,0 +1,84 @@
+package com.cloudmen.backend.util;
+
+import com.cloudmen.backend.repositories.PurchaseRequestRepository;
+import com.cloudmen.backend.services.PurchaseRequestService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for NonBlockingThreadGuard and NonBlockingThreadGuardExtension
+ */
+@DisplayName("NonBlockingThreadGuard Tests")
+class NonBlockingThreadGuardTest {
+
+    private NonBlockingThreadGuard suiteGuard;
+    private NonBlockingThreadGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        // Record into a local guard, so the expected violations do not fail
+        // the test through the suite-wide extension
+        suiteGuard = NonBlockingThreadGuard.current();
+        guard = new NonBlockingThreadGuard();
+        NonBlockingThreadGuard.install(guard);
+    }
+
+    @AfterEach
+    void tearDown() {
+        NonBlockingThreadGuard.install(suiteGuard);
+    }
+
+    @Test
+    @DisplayName("extension - Should install a guard for every test")
+    void extension_ShouldInstallGuard() {
+        assertNotNull(suiteGuard);
+    }
+
+    @Test
+    @DisplayName("blocking - Should record calls on non-blocking threads")
+    void blocking_ShouldDetectCallOnEventLoop() {
+        PurchaseRequestService service = mock(PurchaseRequestService.class);
+        when(service.getPurchaseRequestById("test-id")).thenAnswer(guard.blocking(invocation -> Optional.empty()));
+
+        NonBlockingThreadGuard.onEventLoop("test-id")
+                .map(service::getPurchaseRequestById)
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(1, guard.getViolations().size());
+        assertThrows(AssertionError.class, guard::assertNoBlockingCalls);
+    }
+
+    @Test
+    @DisplayName("blocking - Should allow calls on the test thread")
+    void blocking_ShouldAllowCallOnTestThread() {
+        PurchaseRequestRepository repository = mock(PurchaseRequestRepository.class);
+        when(repository.findById("test-id")).thenAnswer(guard.blocking(invocation -> Optional.empty()));
+
+        repository.findById("test-id");
+
+        assertTrue(guard.getViolations().isEmpty());
+        guard.assertNoBlockingCalls();
+    }
+
+    @Test
+    @DisplayName("extension - Should report calls to repository mocks without stubbing")
+    void extension_ShouldDetectUnstubbedRepositoryCallOnEventLoop() {
+        PurchaseRequestRepository repository = mock(PurchaseRequestRepository.class);
+
+        NonBlockingThreadGuard.onEventLoop("test-id")
+                .map(repository::findById)
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(1, guard.getViolations().size());
+        assertTrue(guard.getViolations().get(0).contains("findById"));
+    }
+}